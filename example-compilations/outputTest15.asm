@@ -0,0 +1,135 @@
+# Auto-generated description
+# @author Jack Hsieh
+# @version 2026/10/19
+	
+.data
+	vari: .word 0
+	varg: .word 0
+	newline: .asciiz "\n"
+	
+.text
+	
+.globl main
+	
+main:
+	# initialize for loop index i
+	# loads integer literal
+	li $v0 1
+	
+	# load $v0 into global i
+	sw $v0 vari
+	
+startFor1:
+	# load global i
+	la $t0 vari
+	lw $v0 ($t0)
+	
+	# push $v0 onto the stack
+	subu $sp $sp 4
+	sw $v0 ($sp)
+	
+	# push $ra onto the stack
+	subu $sp $sp 4
+	sw $ra ($sp)
+	
+	# jump to procedure g
+	jal procg
+	
+	# pop $ra from the stack
+	lw $ra ($sp)
+	addu $sp $sp 4
+	
+	# pop $t0 from the stack
+	lw $t0 ($sp)
+	addu $sp $sp 4
+	
+	bgt $t0 $v0 endFor1
+	
+	# compute * operator by constant 3
+	# load global i
+	la $t0 vari
+	lw $v0 ($t0)
+	
+	li $t0 3
+	mult $v0 $t0
+	mflo $v0
+	
+	# print $v0
+	move $a0 $v0
+	li $v0 1
+	syscall
+	# print newline
+	la $a0 newline
+	li $v0 4
+	syscall
+	
+	# compute + operator
+	# load global i
+	la $t0 vari
+	lw $v0 ($t0)
+	
+	# push $v0 onto the stack
+	subu $sp $sp 4
+	sw $v0 ($sp)
+	
+	# loads integer literal
+	li $v0 1
+	
+	# pop $t0 from the stack
+	lw $t0 ($sp)
+	addu $sp $sp 4
+	
+	addu $v0 $t0 $v0
+	
+	# load $v0 into global i
+	sw $v0 vari
+	
+	j startFor1
+	
+endFor1:
+	# terminate execution
+	li $v0 10
+	syscall
+	
+procg:
+	# set default value for return variable g
+	li $v0 0
+	# push $v0 onto the stack
+	subu $sp $sp 4
+	sw $v0 ($sp)
+	
+	# compute + operator
+	# load global i
+	la $t0 vari
+	lw $v0 ($t0)
+	
+	# push $v0 onto the stack
+	subu $sp $sp 4
+	sw $v0 ($sp)
+	
+	# loads integer literal
+	li $v0 1
+	
+	# pop $t0 from the stack
+	lw $t0 ($sp)
+	addu $sp $sp 4
+	
+	addu $v0 $t0 $v0
+	
+	# load $v0 into global i
+	sw $v0 vari
+	
+	# loads integer literal
+	li $v0 20
+	
+	# load $v0 into local g
+	sw $v0 0($sp)
+	
+	# pop varg
+	# pop $v0 from the stack
+	lw $v0 ($sp)
+	addu $sp $sp 4
+	
+	# return
+	jr $ra
+	
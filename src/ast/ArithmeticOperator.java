@@ -2,6 +2,7 @@ package ast;
 
 import emitter.Emitter;
 import environment.RuntimeEnvironment;
+import optimizer.TreeAnalysis;
 
 /**
  * BinaryIntegerOperator defines a semantic object corresponding to 
@@ -14,12 +15,25 @@ import environment.RuntimeEnvironment;
 public class ArithmeticOperator extends Expression
 {
     private String operator;        // the operator
+    private int operatorCode;       // the operator as one of the codes below
     private Expression operand1;    // first operand
     private Expression operand2;    // second operand
         
     private Class<?> type1;
     private Class<?> type2;
     
+    // Operator codes, so that evaluation need not compare strings
+    private final static int ADD = 0;
+    private final static int SUBTRACT = 1;
+    private final static int MULTIPLY = 2;
+    private final static int DIVIDE = 3;
+    private final static int MOD = 4;
+    
+    // Facts about the operands proven by range analysis
+    private boolean divisorNonZero;         // whether the second operand is never zero
+    private boolean dividendNonNegative;    // whether the first operand is never negative
+    private boolean overflowImpossible;     // whether the exact result always fits in an integer
+    
     /**
      * Constructs an arithmetic operator object with the provided expressions and operator
      *  
@@ -41,7 +55,25 @@ public class ArithmeticOperator extends Expression
         this.operand1 = operand1;
         this.operand2 = operand2;
         
-
+        switch (operator)
+        {
+            case ("+"): 
+                operatorCode = ArithmeticOperator.ADD;
+                break;
+            case ("-"): 
+                operatorCode = ArithmeticOperator.SUBTRACT;
+                break;
+            case ("*"): 
+                operatorCode = ArithmeticOperator.MULTIPLY;
+                break;
+            case ("/"): 
+                operatorCode = ArithmeticOperator.DIVIDE;
+                break;
+            case ("mod"): 
+                operatorCode = ArithmeticOperator.MOD;
+                break;
+        }
+        
         type1 = this.operand1.getEvaluationType();
         type2 = this.operand2.getEvaluationType();
         
@@ -58,6 +90,54 @@ public class ArithmeticOperator extends Expression
         } // else
     } // public ArithmeticOperator
     
+    /**
+     * Returns the operator of the arithmetic operator
+     * 
+     * @return the operator string
+     */
+    public String getOperator()
+    {
+        return this.operator;
+    }
+    
+    /**
+     * Returns the first operand of the arithmetic operator
+     * 
+     * @return the first operand
+     */
+    public Expression getOperand1()
+    {
+        return this.operand1;
+    }
+    
+    /**
+     * Returns the second operand of the arithmetic operator
+     * 
+     * @return the second operand
+     */
+    public Expression getOperand2()
+    {
+        return this.operand2;
+    }
+    
+    /**
+     * Records facts about the operands proven by range analysis.
+     * Compilation relies on the facts to omit runtime checks and choose cheaper instructions.
+     * 
+     * @postcondition The facts replace any facts previously recorded.
+     * 
+     * @param divisorNonZero        whether the second operand is never zero
+     * @param dividendNonNegative   whether the first operand is never negative
+     * @param overflowImpossible    whether the exact result always fits in an integer
+     */
+    public void proveFacts(boolean divisorNonZero, boolean dividendNonNegative, 
+            boolean overflowImpossible)
+    {
+        this.divisorNonZero = divisorNonZero;
+        this.dividendNonNegative = dividendNonNegative;
+        this.overflowImpossible = overflowImpossible;
+    }
+    
     /**
      * Returns the evaluated integer value of the arithmetic operator
      * 
@@ -71,47 +151,195 @@ public class ArithmeticOperator extends Expression
     @Override
     public Object evaluate(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {     
-        Object value = null;
-
-        if (type1.equals(Integer.class) && type2.equals(Integer.class))
+        return evaluateInt(runtimeEnvironment);
+    } 
+    
+    /**
+     * Returns the evaluated integer value of the arithmetic operator without boxing
+     * the operands or the result
+     * 
+     * @precondition operand1 and operand2 are of types compatible with the operator
+     *               and the operator is valid.
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the int value resulting from the operation and operands
+     * @throws SemanticErrorException if an operand cannot be evaluated
+     */
+    @Override
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        int value1 = operand1.evaluateInt(runtimeEnvironment);
+        int value2 = operand2.evaluateInt(runtimeEnvironment);
+        
+        return ArithmeticOperator.apply(operatorCode, value1, value2);
+    } // public int evaluateInt
+    
+    /**
+     * Applies an operation to two values.
+     * 
+     * @param operatorCode  the operation, as one of the operator codes
+     * @param value1        the value of the first operand
+     * @param value2        the value of the second operand
+     * @return the result of the operation
+     */
+    private static int apply(int operatorCode, int value1, int value2)
+    {
+        int value = 0;
+        
+        switch (operatorCode)
+        {
+            case (ArithmeticOperator.ADD): 
+                value = value1 + value2;
+                break;
+            case (ArithmeticOperator.SUBTRACT): 
+                value = value1 - value2;
+                break;
+            case (ArithmeticOperator.MULTIPLY): 
+                value = value1 * value2;
+                break;
+            case (ArithmeticOperator.DIVIDE): 
+                value = value1 / value2;
+                break;
+            case (ArithmeticOperator.MOD): 
+                value = value1 % value2;
+                break;
+        }
+        
+        return value;
+    } // private static int apply
+    
+    /**
+     * Returns the arithmetic operator specialized to its operation, with specialized operands.
+     * The specialized operator computes its operation without switching on the operator,
+     * and holds an integer literal second operand as a constant. An operation on two integer
+     * literals becomes a literal, unless it divides by zero, which must still fail when 
+     * evaluated. Facts proven about the operands carry over to the specialized operator.
+     * 
+     * @return the specialized expression
+     * @throws SemanticErrorException if an operand cannot be specialized
+     */
+    @Override
+    public Expression specialize() throws SemanticErrorException
+    {
+        Expression first = operand1.specialize();
+        Expression second = operand2.specialize();
+        Expression specialized;
+        
+        boolean divides = operatorCode == ArithmeticOperator.DIVIDE 
+                || operatorCode == ArithmeticOperator.MOD;
+        
+        if (TreeAnalysis.isIntegerLiteral(first) && TreeAnalysis.isIntegerLiteral(second) 
+                && !(divides && second.evaluateInt(null) == 0))
+        {
+            specialized = new Literal(ArithmeticOperator.apply(operatorCode, 
+                    first.evaluateInt(null), second.evaluateInt(null)));
+        }
+        else
         {
-            Integer value1 = (Integer) operand1.evaluate(runtimeEnvironment);
-            Integer value2 = (Integer) operand2.evaluate(runtimeEnvironment);
+            ArithmeticOperator operation;
+            
+            if (TreeAnalysis.isIntegerLiteral(second))
+            {
+                int constant = second.evaluateInt(null);
                 
-            switch (operator)
+                switch (operatorCode)
+                {
+                    case (ArithmeticOperator.ADD): 
+                        operation = new AddConstant(operator, first, second, constant);
+                        break;
+                    case (ArithmeticOperator.SUBTRACT): 
+                        operation = new AddConstant(operator, first, second, -constant);
+                        break;
+                    case (ArithmeticOperator.MULTIPLY): 
+                        operation = new MultiplyConstant(operator, first, second, constant);
+                        break;
+                    case (ArithmeticOperator.DIVIDE): 
+                        operation = new DivideConstant(operator, first, second, constant);
+                        break;
+                    default: 
+                        operation = new ModConstant(operator, first, second, constant);
+                        break;
+                }
+            } // if
+            else
             {
-                case ("+"): 
-                    value = value1 + value2;
-                    break;
-                case ("-"): 
-                    value = value1 - value2;
-                    break;
-                case ("*"): 
-                    value = value1 * value2;
-                    break;
-                case ("/"): 
-                    value = value1 / value2;
-                    break;
-                case ("mod"): 
-                    value = value1 % value2;
-                    break;
-            }
-        }
+                switch (operatorCode)
+                {
+                    case (ArithmeticOperator.ADD): 
+                        operation = new Add(operator, first, second);
+                        break;
+                    case (ArithmeticOperator.SUBTRACT): 
+                        operation = new Subtract(operator, first, second);
+                        break;
+                    case (ArithmeticOperator.MULTIPLY): 
+                        operation = new Multiply(operator, first, second);
+                        break;
+                    case (ArithmeticOperator.DIVIDE): 
+                        operation = new Divide(operator, first, second);
+                        break;
+                    default: 
+                        operation = new Mod(operator, first, second);
+                        break;
+                }
+            } // else
             
-        return value;
-    } 
+            operation.proveFacts(divisorNonZero, dividendNonNegative, overflowImpossible);
+            specialized = operation;
+        } // else
+        
+        return specialized;
+    } // public Expression specialize
     
     /**
      * Compiles the arithmetic operator and writes the MIPS assembly code 
      * to the provided emitter.
+     * Operations with an integer literal operand are strength reduced by 
+     * compileWithConstant instead.
+     * If the emitter is checked, overflow and division by zero jump to error handlers
+     * unless range analysis has proven them impossible.
      * 
-     * @precondition If the operator is multiplication, the product of the operands does not exceed 
-     *               the integer limit.
+     * @precondition If the operator is multiplication and the emitter is unchecked, 
+     *               the product of the operands does not exceed the integer limit.
      * @postcondition The emitter has emit the arithmetic operator converted to assembly code.
      * 
      * @param emitter   the emitter to output the MIPS assembly code to
      */
     public void compile(Emitter emitter)
+    {
+        // Multiply by a constant on either side
+        if (operator.equals("*") && TreeAnalysis.isIntegerLiteral(operand2))
+        {
+            compileWithConstant(emitter, operand1, TreeAnalysis.getIntegerValue(operand2));
+        }
+        else if (operator.equals("*") && TreeAnalysis.isIntegerLiteral(operand1))
+        {
+            compileWithConstant(emitter, operand2, TreeAnalysis.getIntegerValue(operand1));
+        }
+        
+        // Divide or take the remainder by a nonzero constant
+        else if ((operator.equals("/") || operator.equals("mod"))
+                && TreeAnalysis.isIntegerLiteral(operand2)
+                && !TreeAnalysis.isIntegerLiteral(operand2, 0)
+                && !TreeAnalysis.isIntegerLiteral(operand2, Integer.MIN_VALUE))
+        {
+            compileWithConstant(emitter, operand1, TreeAnalysis.getIntegerValue(operand2));
+        }
+        
+        else
+        {
+            compileGeneral(emitter);
+        }
+    } // public void compile
+    
+    /**
+     * Compiles the arithmetic operator by evaluating both operands through the stack
+     * and applying the full multiply or divide instruction.
+     * 
+     * @postcondition The emitter has emit the arithmetic operator converted to assembly code.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     */
+    private void compileGeneral(Emitter emitter)
     {
         // Document
         emitter.emit("# compute " + operator + " operator");
@@ -127,23 +355,30 @@ public class ArithmeticOperator extends Expression
         emitter.emitPop("$t0");
         
         // Evaluate based on the operator
+        boolean checkOverflow = emitter.isChecked() && !overflowImpossible;
+        boolean checkDivisor = emitter.isChecked() && !divisorNonZero;
+        
+        // Evaluate based on the operator, trapping on overflow if checked
         switch (operator)
         {
             case ("+"): 
-                emitter.emit("addu $v0 $t0 $v0");
+                emitter.emit((checkOverflow ? "add" : "addu") + " $v0 $t0 $v0");
                 break;
             case ("-"): 
-                emitter.emit("subu $v0 $t0 $v0");
+                emitter.emit((checkOverflow ? "sub" : "subu") + " $v0 $t0 $v0");
                 break;
             case ("*"): 
                 emitter.emit("mult $t0 $v0");
                 emitter.emit("mflo $v0");
+                emitOverflowCheck(emitter, checkOverflow);
                 break;
             case ("/"): 
+                emitDivisorCheck(emitter, checkDivisor);
                 emitter.emit("div $t0 $v0");
                 emitter.emit("mflo $v0");
                 break;
             case ("mod"): 
+                emitDivisorCheck(emitter, checkDivisor);
                 emitter.emit("div $t0 $v0");
                 emitter.emit("mfhi $v0");
                 break;
@@ -151,7 +386,314 @@ public class ArithmeticOperator extends Expression
         
         emitter.emit("");
         
-    } // public void compile
+    } // private void compileGeneral
+    
+    /**
+     * Compiles a multiplication, division, or remainder with a constant operand.
+     * Powers of two use shifts and masks, other divisors use a magic number multiplication,
+     * and other factors use a single multiplication without the stack.
+     * Division and remainder truncate toward zero like the div instruction,
+     * and skip the rounding correction when the dividend is proven non-negative.
+     * 
+     * @precondition The operator is *, or the operator is / or mod and the constant is 
+     *               neither zero nor the minimum integer.
+     * @postcondition The emitter has emit the arithmetic operator converted to assembly code,
+     *                leaving the result in $v0 and using only $t0 and $t1 as scratch.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param operand   the non-constant operand
+     * @param constant  the constant factor or divisor
+     */
+    private void compileWithConstant(Emitter emitter, Expression operand, int constant)
+    {
+        // Document
+        emitter.emit("# compute " + operator + " operator by constant " + constant);
+        
+        // Evaluate the non-constant operand into $v0
+        operand.compile(emitter);
+        
+        int magnitude = Math.abs(constant);
+        boolean powerOfTwo = constant != Integer.MIN_VALUE && Integer.bitCount(magnitude) == 1;
+        int shift = Integer.numberOfTrailingZeros(magnitude);
+        boolean checkOverflow = emitter.isChecked() && !overflowImpossible;
+        
+        switch (operator)
+        {
+            case ("*"):
+                if (constant == 0)
+                {
+                    emitter.emit("li $v0 0");
+                }
+                else if (powerOfTwo && !checkOverflow)
+                {
+                    emitShiftLeft(emitter, shift);
+                    emitNegation(emitter, constant < 0);
+                }
+                else
+                {
+                    emitter.emit("li $t0 " + constant);
+                    emitter.emit("mult $v0 $t0");
+                    emitter.emit("mflo $v0");
+                    emitOverflowCheck(emitter, checkOverflow);
+                }
+                break;
+            
+            case ("/"):
+                if (magnitude == 1)
+                {
+                    emitNegation(emitter, constant < 0);
+                }
+                else if (powerOfTwo && dividendNonNegative)
+                {
+                    emitter.emit("sra $v0 $v0 " + shift);
+                    emitNegation(emitter, constant < 0);
+                }
+                else if (powerOfTwo)
+                {
+                    // Bias negative dividends by the divisor less one to round toward zero
+                    emitBias(emitter, shift);
+                    emitter.emit("addu $t0 $v0 $t0");
+                    emitter.emit("sra $v0 $t0 " + shift);
+                    emitNegation(emitter, constant < 0);
+                }
+                else
+                {
+                    emitMagicQuotient(emitter, constant);
+                    emitter.emit("move $v0 $t0");
+                }
+                break;
+            
+            case ("mod"):
+                if (powerOfTwo && dividendNonNegative)
+                {
+                    emitMask(emitter, "$v0", magnitude - 1);
+                }
+                else if (powerOfTwo)
+                {
+                    // The remainder is the masked biased dividend less the bias
+                    emitBias(emitter, shift);
+                    emitter.emit("addu $t1 $v0 $t0");
+                    emitMask(emitter, "$t1", magnitude - 1);
+                    emitter.emit("subu $v0 $t1 $t0");
+                }
+                else
+                {
+                    // The remainder is the dividend less the quotient times the divisor
+                    emitMagicQuotient(emitter, constant);
+                    emitter.emit("li $t1 " + constant);
+                    emitter.emit("mult $t0 $t1");
+                    emitter.emit("mflo $t1");
+                    emitter.emit("subu $v0 $v0 $t1");
+                }
+                break;
+        }
+        
+        emitter.emit("");
+    } // private void compileWithConstant
+    
+    /**
+     * Emits a left shift of $v0, omitted when the shift amount is zero.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param shift     the number of bits to shift by
+     */
+    private void emitShiftLeft(Emitter emitter, int shift)
+    {
+        if (shift > 0)
+        {
+            emitter.emit("sll $v0 $v0 " + shift);
+        }
+    }
+    
+    /**
+     * Emits the negation of $v0 if requested.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param negate    whether to negate $v0
+     */
+    private void emitNegation(Emitter emitter, boolean negate)
+    {
+        if (negate)
+        {
+            emitter.emit("subu $v0 $zero $v0");
+        }
+    }
+    
+    /**
+     * Emits a jump to the overflow handler if requested and the product in $hi and $lo 
+     * does not fit in $v0, which holds $lo. Uses $t0 and $t1 as scratch.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param check     whether to check the product
+     */
+    private void emitOverflowCheck(Emitter emitter, boolean check)
+    {
+        if (check)
+        {
+            // The high word must be the sign extension of the low word
+            emitter.emit("mfhi $t1");
+            emitter.emit("sra $t0 $v0 31");
+            emitter.emit("bne $t0 $t1 " + Program.OVERFLOW_LABEL);
+        }
+    } // private void emitOverflowCheck
+    
+    /**
+     * Emits a jump to the division by zero handler if requested and the divisor in $v0 is zero.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param check     whether to check the divisor
+     */
+    private void emitDivisorCheck(Emitter emitter, boolean check)
+    {
+        if (check)
+        {
+            emitter.emit("beq $v0 $zero " + Program.DIVIDE_BY_ZERO_LABEL);
+        }
+    }
+    
+    /**
+     * Emits code loading into $t0 the power of two less one if $v0 is negative, or 0 otherwise.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param shift     the base two logarithm of the divisor
+     */
+    private void emitBias(Emitter emitter, int shift)
+    {
+        if (shift == 0)
+        {
+            emitter.emit("li $t0 0");
+        }
+        else
+        {
+            emitter.emit("sra $t0 $v0 31");
+            emitter.emit("srl $t0 $t0 " + (32 - shift));
+        }
+    } // private void emitBias
+    
+    /**
+     * Emits a bitwise and of a register with a mask, using andi when the mask fits 
+     * in its 16-bit immediate.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param register  the register to mask in place
+     * @param mask      the nonnegative mask
+     */
+    private void emitMask(Emitter emitter, String register, int mask)
+    {
+        if (mask <= 0xFFFF)
+        {
+            emitter.emit("andi " + register + " " + register + " " + mask);
+        }
+        else
+        {
+            emitter.emit("li $t2 " + mask);
+            emitter.emit("and " + register + " " + register + " $t2");
+        }
+    } // private void emitMask
+    
+    /**
+     * Emits code loading into $t0 the quotient of $v0 by a constant, truncated toward zero,
+     * using a magic number multiplication. $v0 is preserved.
+     * The quotient of a non-negative dividend by a positive divisor needs no correction.
+     * 
+     * @precondition The divisor is not -1, 0, or 1.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param divisor   the constant divisor
+     */
+    private void emitMagicQuotient(Emitter emitter, int divisor)
+    {
+        int[] magic = ArithmeticOperator.computeMagic(divisor);
+        int multiplier = magic[0];
+        int shift = magic[1];
+        
+        // Take the high word of the product with the magic number
+        emitter.emit("li $t0 " + multiplier);
+        emitter.emit("mult $v0 $t0");
+        emitter.emit("mfhi $t0");
+        
+        // Correct for a magic number whose sign differs from the divisor
+        if (divisor > 0 && multiplier < 0)
+        {
+            emitter.emit("addu $t0 $t0 $v0");
+        }
+        else if (divisor < 0 && multiplier > 0)
+        {
+            emitter.emit("subu $t0 $t0 $v0");
+        }
+        
+        if (shift > 0)
+        {
+            emitter.emit("sra $t0 $t0 " + shift);
+        }
+        
+        // Add one to negative quotients to truncate toward zero
+        if (!(dividendNonNegative && divisor > 0))
+        {
+            emitter.emit("srl $t1 $t0 31");
+            emitter.emit("addu $t0 $t0 $t1");
+        }
+    } // private void emitMagicQuotient
+    
+    /**
+     * Computes the magic number and shift for signed division by a constant,
+     * following Hacker's Delight, section 10-4.
+     * 
+     * @precondition The divisor is not -1, 0, or 1.
+     * 
+     * @param divisor   the constant divisor
+     * @return an array of the magic multiplier followed by the shift amount
+     */
+    private static int[] computeMagic(int divisor)
+    {
+        final long mask = 0xFFFFFFFFL;
+        final long two31 = 0x80000000L;
+        
+        long absolute = Math.abs((long) divisor);
+        long t = two31 + ((divisor & mask) >>> 31);
+        long absoluteNc = t - 1 - t % absolute;
+        int p = 31;
+        
+        long q1 = two31 / absoluteNc;
+        long r1 = two31 - q1 * absoluteNc;
+        long q2 = two31 / absolute;
+        long r2 = two31 - q2 * absolute;
+        long delta;
+        
+        do
+        {
+            p++;
+            
+            q1 = (2 * q1) & mask;
+            r1 = (2 * r1) & mask;
+            
+            if (r1 >= absoluteNc)
+            {
+                q1 = (q1 + 1) & mask;
+                r1 = (r1 - absoluteNc) & mask;
+            }
+            
+            q2 = (2 * q2) & mask;
+            r2 = (2 * r2) & mask;
+            
+            if (r2 >= absolute)
+            {
+                q2 = (q2 + 1) & mask;
+                r2 = (r2 - absolute) & mask;
+            }
+            
+            delta = absolute - r2;
+        } while (q1 < delta || (q1 == delta && r1 == 0));
+        
+        int multiplier = (int) (q2 + 1);
+        
+        if (divisor < 0)
+        {
+            multiplier = -multiplier;
+        }
+        
+        return new int[] {multiplier, p - 32};
+    } // private static int[] computeMagic
     
     /**
      * Returns a string representation of the AST arithmetic operator node
@@ -167,4 +709,237 @@ public class ArithmeticOperator extends Expression
         
         return s;
     } // public String toString()
+    
+    /**
+     * Operation is an arithmetic operator specialized to its operation.
+     */
+    private abstract static class Operation extends ArithmeticOperator
+    {
+        protected final Expression left;    // the first operand
+        protected final Expression right;   // the second operand
+        
+        /**
+         * Constructs a specialized arithmetic operator.
+         * 
+         * @param operator  the binary operator string
+         * @param left      the first operand
+         * @param right     the second operand
+         * @throws SemanticErrorException if an operand is not an integer
+         */
+        protected Operation(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+            this.left = left;
+            this.right = right;
+        }
+        
+        /**
+         * Returns the operator, which is already specialized
+         * 
+         * @return this operator
+         */
+        @Override
+        public Expression specialize()
+        {
+            return this;
+        }
+    } // private abstract static class Operation
+    
+    /**
+     * ConstantOperation is an arithmetic operator specialized to its operation
+     * on an integer literal second operand.
+     */
+    private abstract static class ConstantOperation extends Operation
+    {
+        protected final int constant;       // the value applied to the first operand
+        
+        /**
+         * Constructs a specialized arithmetic operator with a constant second operand.
+         * 
+         * @param operator  the binary operator string
+         * @param left      the first operand
+         * @param right     the integer literal second operand
+         * @param constant  the value applied to the first operand
+         * @throws SemanticErrorException if an operand is not an integer
+         */
+        protected ConstantOperation(String operator, Expression left, Expression right,
+                int constant) throws SemanticErrorException
+        {
+            super(operator, left, right);
+            this.constant = constant;
+        }
+    } // private abstract static class ConstantOperation
+    
+    /**
+     * Add adds its operands.
+     */
+    private static class Add extends Operation
+    {
+        private Add(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) + right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Add
+    
+    /**
+     * Subtract subtracts its second operand from its first.
+     */
+    private static class Subtract extends Operation
+    {
+        private Subtract(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) - right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Subtract
+    
+    /**
+     * Multiply multiplies its operands.
+     */
+    private static class Multiply extends Operation
+    {
+        private Multiply(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) * right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Multiply
+    
+    /**
+     * Divide divides its first operand by its second.
+     */
+    private static class Divide extends Operation
+    {
+        private Divide(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) / right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Divide
+    
+    /**
+     * Mod takes the remainder of its first operand divided by its second.
+     */
+    private static class Mod extends Operation
+    {
+        private Mod(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) % right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Mod
+    
+    /**
+     * AddConstant adds a constant to its first operand, which also subtracts
+     * the negated constant, since integer arithmetic wraps around.
+     */
+    private static class AddConstant extends ConstantOperation
+    {
+        private AddConstant(String operator, Expression left, Expression right, int constant)
+                throws SemanticErrorException
+        {
+            super(operator, left, right, constant);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) + constant;
+        }
+    } // private static class AddConstant
+    
+    /**
+     * MultiplyConstant multiplies its first operand by a constant.
+     */
+    private static class MultiplyConstant extends ConstantOperation
+    {
+        private MultiplyConstant(String operator, Expression left, Expression right,
+                int constant) throws SemanticErrorException
+        {
+            super(operator, left, right, constant);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) * constant;
+        }
+    } // private static class MultiplyConstant
+    
+    /**
+     * DivideConstant divides its first operand by a constant.
+     */
+    private static class DivideConstant extends ConstantOperation
+    {
+        private DivideConstant(String operator, Expression left, Expression right, 
+                int constant) throws SemanticErrorException
+        {
+            super(operator, left, right, constant);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) / constant;
+        }
+    } // private static class DivideConstant
+    
+    /**
+     * ModConstant takes the remainder of its first operand divided by a constant.
+     */
+    private static class ModConstant extends ConstantOperation
+    {
+        private ModConstant(String operator, Expression left, Expression right, int constant)
+                throws SemanticErrorException
+        {
+            super(operator, left, right, constant);
+        }
+        
+        @Override
+        public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) % constant;
+        }
+    } // private static class ModConstant
 } // public class ArithmeticOperator
@@ -13,7 +13,10 @@ import environment.RuntimeEnvironment;
 public class Assignment extends Statement
 {
     private Variable variable;
-    private Expression expression;
+    private volatile Expression expression;
+    
+    private boolean isSpecialized;      // whether the expression has been specialized
+    private boolean isBoolean;          // whether the variable holds a boolean
     
     /**
      * Constructs an assignment object with the provided variable and expression.
@@ -43,7 +46,7 @@ public class Assignment extends Statement
             throw new SemanticErrorException(message);
         }
     }
-
+    
     /**
      * Returns the variable of the assignment
      * 
@@ -53,9 +56,20 @@ public class Assignment extends Statement
     {
         return this.variable;
     }
-
+    
+    /**
+     * Returns the expression of the assignment
+     * 
+     * @return the expression assigned to the variable
+     */
+    public Expression getExpression()
+    {
+        return this.expression;
+    }
+    
     /**
-     * Executes the assignment by updating the variable and value during runtime
+     * Executes the assignment by updating the variable and value during runtime.
+     * The first execution replaces the expression with its specialized version.
      * 
      * @postcondition The runtime environment in which the assignment is embedded inserts 
      * the variable if appropriate and/or updates the value associated with the variable.
@@ -66,9 +80,26 @@ public class Assignment extends Statement
     @Override
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        runtimeEnvironment.setVariableValue(variable, expression.evaluate(runtimeEnvironment));
-    }
-
+        // Specialize the expression and settle the variable type once, on first execution
+        if (!isSpecialized)
+        {
+            expression = expression.specialize();
+            isBoolean = variable.getEvaluationType().equals(Boolean.class);
+            isSpecialized = true;
+        }
+        
+        // Evaluate and store the value unboxed
+        if (isBoolean)
+        {
+            runtimeEnvironment.setIntValue(variable, 
+                    expression.evaluateBoolean(runtimeEnvironment) ? 1 : 0);
+        }
+        else
+        {
+            runtimeEnvironment.setIntValue(variable, expression.evaluateInt(runtimeEnvironment));
+        }
+    } // public void execute
+    
     /**
      * Compiles the assignment in MIPS assembly code to the provided emitter.
      * Supports both global and local variables.
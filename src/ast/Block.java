@@ -29,7 +29,17 @@ public class Block extends Statement
         // System.out.println("Created Block!");
         this.statementList = statementList;
     }
-
+    
+    /**
+     * Returns the statements of the block
+     * 
+     * @return the ordered list of statements in the block
+     */
+    public List<Statement> getStatements()
+    {
+        return this.statementList;
+    }
+    
     /**
      * Executes the block by executing all embedded statements in order
      * 
@@ -46,7 +56,7 @@ public class Block extends Statement
             statement.execute(runtimeEnvironment);
         } // for
     } // public void execute
-
+    
     /**
      * Compiles the block and writes the MIPS assembly code 
      * to the provided emitter.
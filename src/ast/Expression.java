@@ -20,6 +20,56 @@ public abstract class Expression implements Compileable
     public abstract Object evaluate(RuntimeEnvironment runtimeEnvironment) 
             throws SemanticErrorException;
     
+    /**
+     * Evaluates an integer expression without boxing the result.
+     * Intended to be overridden by subclasses that can compute the value unboxed.
+     * 
+     * @precondition The expression is of integer type.
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the integer value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        return (Integer) evaluate(runtimeEnvironment);
+    }
+    
+    /**
+     * Evaluates a boolean expression without boxing the result.
+     * Intended to be overridden by subclasses that can compute the value unboxed.
+     * 
+     * @precondition The expression is of boolean type.
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the boolean value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment) 
+            throws SemanticErrorException
+    {
+        return (Boolean) evaluate(runtimeEnvironment);
+    }
+    
+    /**
+     * Returns a version of the expression specialized to the operations it performs,
+     * which a parent node installs in place of the expression when the parent first executes.
+     * Intended to be overridden by subclasses that evaluate faster when specialized.
+     * 
+     * Specialization happens on the executing thread while the tiered compiler may be reading
+     * the same tree on another. A specialized node therefore keeps its operands in final fields,
+     * and a parent installs it through a volatile field, so that a thread reading the field
+     * sees either the original expression or the fully constructed specialized one.
+     * 
+     * @return the specialized expression, which evaluates to the same values and compiles to
+     *         the same code as this expression; this expression by default
+     * @throws SemanticErrorException if the specialized expression cannot be constructed
+     */
+    public Expression specialize() throws SemanticErrorException
+    {
+        return this;
+    }
+    
     /**
      * Default compile method for the statement.
      * Intended to be overridden by subclasses.
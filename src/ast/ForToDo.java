@@ -1,10 +1,14 @@
 package ast;
 
+import emitter.Emitter;
 import environment.RuntimeEnvironment;
 
 /**
  * ForToDo defines a semantic object corresponding to a simple for loop with fixed increments.
- * Compilation not supported.
+ * 
+ * The index is read and the upper bound re-evaluated before every iteration, as in compiled
+ * code, so the do statement may change either and the loop sees the change. A literal upper
+ * bound, which cannot change, is evaluated once.
  * 
  * @author Jack Hsieh
  * with assistance from Clarice Wang
@@ -12,11 +16,16 @@ import environment.RuntimeEnvironment;
  */
 public class ForToDo extends Statement
 {
-    private Variable index;             // the index variable
-    private Expression lowerBound;      // the lower bound
-    private Expression upperBound;      // the upper bound
-    private Statement doStatement;      // the statement to conditionally repeatedly execute
-
+    private Variable index;                     // the index variable
+    private volatile Expression lowerBound;     // the lower bound
+    private volatile Expression upperBound;     // the upper bound
+    private Statement doStatement;              // the statement to conditionally repeatedly execute
+    private boolean isSpecialized;              // whether the bounds have been specialized
+    
+    private Assignment loopInitialization;  // compiled initialization of the index
+    private RelativeOperator loopCondition; // compiled check of the index against the upper bound
+    private Assignment loopIncrement;       // compiled increment of the index
+    
     /**
      * Constructs a for-loop object with the provided index, lower bound, upper bound, 
      * and statement.
@@ -66,14 +75,71 @@ public class ForToDo extends Statement
             
             throw new SemanticErrorException(message);
         } // else if
+        
+        this.loopInitialization = new Assignment(index, lowerBound);
+        this.loopCondition = new RelativeOperator("<=", index, upperBound);
+        this.loopIncrement = new Assignment(index, 
+                new ArithmeticOperator("+", index, new Literal(1)));
     } // public ForToDo
     
+    /**
+     * Returns the index variable of the for loop
+     * 
+     * @return the index loop variable
+     */
+    public Variable getIndex()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Returns the lower bound of the for loop
+     * 
+     * @return the lower bound for the index
+     */
+    public Expression getLowerBound()
+    {
+        return this.lowerBound;
+    }
+    
+    /**
+     * Returns the upper bound of the for loop
+     * 
+     * @return the upper bound for the index
+     */
+    public Expression getUpperBound()
+    {
+        return this.upperBound;
+    }
+    
+    /**
+     * Returns the statement of the for loop
+     * 
+     * @return the statement to repeatedly execute
+     */
+    public Statement getDoStatement()
+    {
+        return this.doStatement;
+    }
+    
+    /**
+     * Returns the addition of one to the index compiled at the end of each iteration
+     * 
+     * @return the arithmetic operator incrementing the index
+     */
+    public ArithmeticOperator getIndexIncrement()
+    {
+        return (ArithmeticOperator) this.loopIncrement.getExpression();
+    }
+    
     /**
      * Executes the for loop.
+     * The first execution replaces the bounds with their specialized versions.
      * 
      * @postcondition The index is initialized once. Then, the loop condition is checked,
      * the statement is executed, and the index incremented by one in order repeatedly 
-     * until the upper bound is reached.
+     * until the upper bound is reached. The index is counted in its slot directly,
+     * so executing the loop allocates nothing.
      * 
      * @param runtimeEnvironment    the runtime environment to execute the for loop within
      * @throws SemanticErrorException if the initial index or upper bound 
@@ -82,23 +148,79 @@ public class ForToDo extends Statement
     @Override
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {        
-        Literal one = new Literal(1);
+        if (!isSpecialized)
+        {
+            lowerBound = lowerBound.specialize();
+            upperBound = upperBound.specialize();
+            isSpecialized = true;
+        }
         
-        Assignment initialization = new Assignment(index, lowerBound);
-        Assignment increment = new Assignment(index, new ArithmeticOperator("+", index, one));
+        // Initialize the index in its slot, which stays in place for the whole loop
+        int[] values = runtimeEnvironment.getValuesOf(index);
+        int position = runtimeEnvironment.getPositionOf(index);
         
-        // Initialize
-        initialization.execute(runtimeEnvironment);
+        values[position] = lowerBound.evaluateInt(runtimeEnvironment);
         
         // Repeatedly execute the do statement and increment the index
-        while ((int) index.evaluate(runtimeEnvironment) 
-                <= (int) upperBound.evaluate(runtimeEnvironment))
+        Expression bound = upperBound;
+        
+        if (bound instanceof Literal)
         {
-            doStatement.execute(runtimeEnvironment);
-            increment.execute(runtimeEnvironment);
+            int limit = bound.evaluateInt(runtimeEnvironment);
+            
+            while (values[position] <= limit)
+            {
+                runtimeEnvironment.consumeFuel();
+                doStatement.execute(runtimeEnvironment);
+                values[position]++;
+            }
         }
-    }
-
+        else
+        {
+            while (values[position] <= bound.evaluateInt(runtimeEnvironment))
+            {
+                runtimeEnvironment.consumeFuel();
+                doStatement.execute(runtimeEnvironment);
+                values[position]++;
+            }
+        } // else
+    } // public void execute
+    
+    /**
+     * Compiles the for loop and writes the MIPS assembly code to the provided emitter.
+     * 
+     * @postcondition The emitter has emit assembly code that when run will initialize
+     *                the index once, then repeatedly compare the index against the 
+     *                re-evaluated upper bound, execute the do statement, and increment the index.
+     *                The emitter's label ID is increased once.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     */
+    public void compile(Emitter emitter)
+    {
+        // Compiles the start and end loop labels
+        int labelID = emitter.nextLabelID();
+        String startLabel = "startFor" + labelID;
+        String endLabel = "endFor" + labelID;
+        
+        // Initialize the index
+        emitter.emit("# initialize for loop index " + index.getIdentifier());
+        this.loopInitialization.compile(emitter);
+        
+        // Compiles the start label and the bound check
+        emitter.emit(startLabel + ":");
+        this.loopCondition.compile(emitter, endLabel);
+        
+        // Compiles the do statement and the increment
+        this.doStatement.compile(emitter);
+        this.loopIncrement.compile(emitter);
+        
+        // Compiles the jump and the end label
+        emitter.emit("j " + startLabel);
+        emitter.emit("");
+        emitter.emit(endLabel + ":");
+    } // public void compile
+    
     /**
      * Returns a string representation of the AST for loop node
      * 
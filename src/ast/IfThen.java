@@ -12,9 +12,10 @@ import environment.RuntimeEnvironment;
  */
 public class IfThen extends Statement
 {
-    private Expression condition;           // the boolean condition
+    private volatile Expression condition;  // the boolean condition
     private Statement thenStatement;        // the statement to conditionally execute
-
+    private boolean isSpecialized;          // whether the condition has been specialized
+    
     /**
      * Constructs an if-then object with the provided condition and statement.
      *  
@@ -29,7 +30,7 @@ public class IfThen extends Statement
     {
         this.condition = condition;
         this.thenStatement = thenStatement;
-
+        
         if (!condition.getEvaluationType().equals(Boolean.class))
         {
             String message = "Error: expected Boolean expression but found ";
@@ -37,10 +38,31 @@ public class IfThen extends Statement
             throw new SemanticErrorException(message);
         }
     }
-
+    
+    /**
+     * Returns the condition of the if-then
+     * 
+     * @return the boolean condition
+     */
+    public Expression getCondition()
+    {
+        return this.condition;
+    }
+    
+    /**
+     * Returns the statement of the if-then
+     * 
+     * @return the statement to conditionally execute
+     */
+    public Statement getThenStatement()
+    {
+        return this.thenStatement;
+    }
+    
     /**
      * Executes the if-then by evaluating the boolean condition and 
      * conditionally executing the statement.
+     * The first execution replaces the condition with its specialized version.
      * 
      * @postcondition The statement is executed if and only if the condition evaluates to true;
      *                otherwise, nothing happens.
@@ -51,12 +73,18 @@ public class IfThen extends Statement
     @Override
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        if ((boolean) condition.evaluate(runtimeEnvironment))
+        if (!isSpecialized)
+        {
+            condition = condition.specialize();
+            isSpecialized = true;
+        }
+        
+        if (condition.evaluateBoolean(runtimeEnvironment))
         {
             thenStatement.execute(runtimeEnvironment);
         } // if
     } // public void execute
-
+    
     /**
      * Compiles an If statement.
      * 
@@ -73,15 +101,15 @@ public class IfThen extends Statement
         // Compiles the condition with the next label
         String endLabel = "endIf" + emitter.nextLabelID();
         ((RelativeOperator) condition).compile(emitter, endLabel);
-
+        
         // Compiles then statement
         this.thenStatement.compile(emitter);
-
+        
         // Compiles the end label
         emitter.emit("");
         emitter.emit(endLabel + ":");
     }
-
+    
     /**
      * Returns a string representation of the AST if-then node.
      * 
@@ -12,6 +12,7 @@ import environment.RuntimeEnvironment;
 public class Literal extends Expression
 {
     private Object value;               // Internal value
+    private int intValue;               // the value as an integer, with true as 1 and false as 0
     
     /**
      * Constructs a Literal object with the provided value.
@@ -25,8 +26,27 @@ public class Literal extends Expression
         // System.out.println("Created Literal!");
         this.value = value;
         this.evaluationType = value.getClass();
+        
+        if (value instanceof Integer)
+        {
+            this.intValue = (Integer) value;
+        }
+        else if (value instanceof Boolean && (Boolean) value)
+        {
+            this.intValue = 1;
+        }
+    } // public Literal
+    
+    /**
+     * Returns the value of the Literal
+     * 
+     * @return the internal value
+     */
+    public Object getValue()
+    {
+        return this.value;
     }
-
+    
     /**
      * Returns the evaluated value of the Literal
      * 
@@ -38,7 +58,31 @@ public class Literal extends Expression
     {
         return this.value;
     }
-
+    
+    /**
+     * Returns the value of an integer Literal without unboxing
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the integer value of the Literal
+     */
+    @Override
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+    {
+        return this.intValue;
+    }
+    
+    /**
+     * Returns the value of a boolean Literal without unboxing
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the boolean value of the Literal
+     */
+    @Override
+    public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+    {
+        return this.intValue != 0;
+    }
+    
     /**
      * Compiles the literal and writes the MIPS assembly code to the provided emitter
      * 
@@ -1,9 +1,11 @@
 package ast;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import emitter.Emitter;
+import environment.MemoTable;
 import environment.RuntimeEnvironment;
 
 /**
@@ -15,9 +17,9 @@ import environment.RuntimeEnvironment;
  */
 public class ProcedureCall extends Expression
 {
-    private ProcedureDeclaration procedure;     // the procedure being called
-    private List<Expression> arguments;         // the arguments given to the called procedure
-
+    private ProcedureDeclaration procedure;         // the procedure being called
+    private volatile List<Expression> arguments;    // the arguments given to the called procedure
+    
     /**
      * Constructs a procedure call with the provided procedure and arguments.
      * 
@@ -35,7 +37,7 @@ public class ProcedureCall extends Expression
     {
         this.procedure = procedure;
         this.arguments = arguments;
-
+        
         // Check that the number of arguments and parameters match
         if (arguments.size() != procedure.getParameters().size())
         {
@@ -43,19 +45,41 @@ public class ProcedureCall extends Expression
             message += " arguments but found " + arguments.size();
             throw new SemanticErrorException(message);
         }
-
+        
         // Set the evaluation type to integer
         super.evaluationType = Integer.class;
     }
-
+    
+    /**
+     * Returns the procedure being called
+     * 
+     * @return the called procedure declaration
+     */
+    public ProcedureDeclaration getProcedure()
+    {
+        return this.procedure;
+    }
+    
+    /**
+     * Returns the arguments of the procedure call
+     * 
+     * @return the ordered list of arguments given to the called procedure
+     */
+    public List<Expression> getArguments()
+    {
+        return this.arguments;
+    }
+    
     /**
      * Executes the procedure and returns the output.
      * 
      * @precondition The argument types match the parameter types in order.
      * @postcondition The body of the procedure is executed with the given arguments
      *                in a local environment that is the child of a global environment.
-     *                Local variables are attempted to match parameters, then global variables,
-     *                and finally the local environment.
+     *                Variables are found in the local environment if they are local variables
+     *                of the procedure, and in the global environment otherwise.
+     *                If the procedure is memoized, the body is only executed for arguments
+     *                whose return value is not remembered.
      * 
      * @return the return value of the procedure evaluated within the provided runtime environment
      * @throws SemanticErrorException if the arguments cannot be evaluated, the body cannot be 
@@ -64,7 +88,127 @@ public class ProcedureCall extends Expression
     @Override
     public Object evaluate(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        // Check that the procedure is not a bodiless header
+        MemoTable memoTable = procedure.getMemoTable();
+        Object value;
+        
+        // Only a memoized procedure needs its argument values boxed as a key
+        if (memoTable == null)
+        {
+            value = evaluateInt(runtimeEnvironment);
+        }
+        else
+        {
+            this.checkBodied();
+            
+            // Evaluate the arguments in order within the calling environment
+            List<Object> argumentValues = new ArrayList<Object>();
+            
+            for (Expression argument : arguments)
+            {
+                argumentValues.add(argument.evaluate(runtimeEnvironment));
+            }
+            
+            // A memoized procedure returns the remembered value for the same arguments
+            if (memoTable.containsKey(argumentValues))
+            {
+                value = memoTable.get(argumentValues);
+            }
+            else
+            {
+                value = this.invoke(argumentValues, runtimeEnvironment.getGlobal());
+            }
+            
+            memoTable.put(argumentValues, value);
+        } // else
+        
+        return value;
+    } // public Object evaluate
+    
+    /**
+     * Executes the procedure and returns the output without boxing the arguments 
+     * or the return value, unless the procedure is memoized.
+     * 
+     * @precondition The argument types match the parameter types in order.
+     * @postcondition The body of the procedure is executed with the given arguments
+     *                as in evaluate.
+     * 
+     * @return the integer return value of the procedure evaluated within the provided 
+     *         runtime environment
+     * @throws SemanticErrorException if the arguments cannot be evaluated, the body cannot be 
+     *                                executed, or the procedure is a bodiless header.
+     */
+    @Override
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        int value;
+        
+        if (procedure.getMemoTable() != null)
+        {
+            value = (Integer) evaluate(runtimeEnvironment);
+        }
+        else
+        {
+            this.checkBodied();
+            
+            RuntimeEnvironment globalEnvironment = runtimeEnvironment.getGlobal();
+            RuntimeEnvironment localEnvironment = new RuntimeEnvironment(globalEnvironment, 
+                    procedure);
+            
+            /*
+             * Evaluate the arguments in order within the calling environment 
+             * directly into the parameters of the local environment
+             */
+            Iterator<Variable> parameterIterator = procedure.getParameters().iterator();
+            Iterator<Expression> argumentIterator = arguments.iterator();
+            
+            while (parameterIterator.hasNext() && argumentIterator.hasNext())
+            {
+                localEnvironment.setIntValue(parameterIterator.next(), 
+                        argumentIterator.next().evaluateInt(runtimeEnvironment));
+            }
+            
+            globalEnvironment.consumeFuel();
+            
+            // Now execute the body in the local environment
+            this.procedure.executeBody(localEnvironment);
+            
+            value = localEnvironment.getIntValue(procedure.getReturnVariable());
+        } // else
+        
+        return value;
+    } // public int evaluateInt
+    
+    /**
+     * Specializes the arguments of the procedure call, which is itself left in place
+     * since it already calls its procedure directly.
+     * 
+     * @postcondition Each argument is replaced by its specialized version.
+     * 
+     * @return this procedure call
+     * @throws SemanticErrorException if an argument cannot be specialized
+     */
+    @Override
+    public Expression specialize() throws SemanticErrorException
+    {
+        List<Expression> specialized = new ArrayList<Expression>();
+        
+        for (Expression argument : arguments)
+        {
+            specialized.add(argument.specialize());
+        }
+        
+        this.arguments = specialized;
+        
+        return this;
+    } // public Expression specialize
+    
+    /**
+     * Checks that the procedure is not a bodiless header.
+     * 
+     * @throws SemanticErrorException if the procedure is a bodiless header
+     */
+    private void checkBodied() throws SemanticErrorException
+    {
         if (procedure.isHeader())
         {
             String message = "Error: called bodiless procedure header";
@@ -74,47 +218,48 @@ public class ProcedureCall extends Expression
             
             throw new SemanticErrorException(message);
         }
-        
+    } // private void checkBodied
+    
+    /**
+     * Executes the body of the procedure with the provided argument values.
+     * 
+     * @param argumentValues    the values of the arguments, in order
+     * @param globalEnvironment the global environment of the execution
+     * @return the value the procedure return variable was set to
+     * @throws SemanticErrorException if the body cannot be executed
+     */
+    private Object invoke(List<Object> argumentValues, RuntimeEnvironment globalEnvironment) 
+            throws SemanticErrorException
+    {
         /*
          * Create a new local environment that is a child of the global environment
          * in which the procedure body (barring calls to other procedures) is to be evaluated.
          * The only parent of the child environment is NOT the current environment.
+         * The return value and non-parameter local variables start with the default value.
          */
-        RuntimeEnvironment globalEnvironment = RuntimeEnvironment.getGlobalEnvironment();
-        RuntimeEnvironment localEnvironment = new RuntimeEnvironment(globalEnvironment);
-
-        // Introduce the procedure return value as a local variable with the default value
-        localEnvironment.introduceProcedureValue(procedure);
-
+        RuntimeEnvironment localEnvironment = new RuntimeEnvironment(globalEnvironment, procedure);
+        globalEnvironment.consumeFuel();
+        
         /*
-         * Introduce each parameter within the local environment
-         * and set each to the corresponding argument.
+         * Set each parameter within the local environment to the corresponding argument value.
          * Parameters and arguments must be processed in the same order.
          */
         Iterator<Variable> parameterIterator = procedure.getParameters().iterator();
-        Iterator<Expression> argumentIterator = arguments.iterator();
-
-        Variable parameter;
-        Expression argument;
-        Object argumentValue;
-
+        Iterator<Object> argumentIterator = argumentValues.iterator();
+        
         while (parameterIterator.hasNext() && argumentIterator.hasNext())
         {
-            parameter = parameterIterator.next();
-            argument = argumentIterator.next();
-            argumentValue = argument.evaluate(runtimeEnvironment);
-
-            // Introduce the parameter with the argument value as a local variable
-            localEnvironment.introduceLocalVariable(parameter, argumentValue);
+            localEnvironment.introduceLocalVariable(parameterIterator.next(), 
+                    argumentIterator.next());
         }
-
+        
         // Now execute the body in the local environment
-        this.procedure.getBody().execute(localEnvironment);
-
+        this.procedure.executeBody(localEnvironment);
+        
         // Return the value the procedure return value was set to
         return localEnvironment.getProcedureValue(procedure);
-    }
-
+    } // private Object invoke
+    
     /**
      * Compiles the procedure call and writes the MIPS assembly code to the provided emitter.
      * 
@@ -158,12 +303,12 @@ public class ProcedureCall extends Expression
     public String toString()
     {
         String s = "Procedure call = " + this.procedure.getIdentifier();  
-
+        
         for (Expression argument : arguments)
         {
             s += "\n\t" + argument.toString().replaceAll("\n", "\n\t");
         }
-
+        
         return s;
     } // public String toString
 } // public class ProcedureCall
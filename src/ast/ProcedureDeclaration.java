@@ -1,8 +1,12 @@
 package ast;
 
+import java.util.Arrays;
 import java.util.List;
 
 import emitter.Emitter;
+import environment.CompiledCode;
+import environment.MemoTable;
+import environment.RuntimeEnvironment;
 
 /**
  * ProcedureDeclaration defines a generalized procedure that can be called.
@@ -14,6 +18,8 @@ import emitter.Emitter;
  */
 public class ProcedureDeclaration
 {
+    public final static int HOT_INVOCATIONS = 1000;    // interpreted calls before compiling
+    
     private String identifier;              // the procedure identifier
     
     private List<Variable> parameters;      // the list of parameters    
@@ -23,7 +29,14 @@ public class ProcedureDeclaration
     private Statement body;                 // the statement to execute
     
     private boolean isHeader;               // whether the procedure declaration is a bodiless
-
+    
+    private MemoTable memoTable;            // remembered return values, or null if not memoized
+    
+    private int[] frameLayout;              // the local slot of each variable slot, or -1
+    
+    private int invocationCount;            // the calls to the body by the interpreter
+    private volatile CompiledCode compiledBody;     // the promoted body, or null if interpreted
+    
     /**
      * Constructs a procedure declaration with the provided identifier, parameters, 
      * return variable, non-parameter local variables, and body.
@@ -49,7 +62,7 @@ public class ProcedureDeclaration
         
         this.isHeader = false;
     }
-
+    
     /**
      * Constructs a procedure declaration with the provided identifier, parameters, 
      * and return value but NO non-parameter local variables or body.
@@ -68,7 +81,7 @@ public class ProcedureDeclaration
         this(identifier, parameters,returnVariable, null, null);
         this.isHeader = true;
     }
-
+    
     /**
      * Returns the identifier of the procedure
      * 
@@ -78,7 +91,7 @@ public class ProcedureDeclaration
     {
         return this.identifier;
     }
-
+    
     /**
      * Returns the parameters of the procedure
      * 
@@ -108,7 +121,7 @@ public class ProcedureDeclaration
     {
         return this.isHeader;
     }
-
+    
     /**
      * Returns the non-parameter local variables of the procedure
      * 
@@ -132,10 +145,66 @@ public class ProcedureDeclaration
             String message = "Error: Procedure " + this.toString() + " is a bodiless procedure";
             throw new SemanticErrorException(message);
         }
-
+        
         return this.body;
     }
-
+    
+    /**
+     * Executes the body of the procedure in the environment of a call, compiled if the body
+     * has been promoted and interpreted otherwise.
+     * 
+     * @postcondition The body has been executed. If it is interpreted and has already been
+     *                called HOT_INVOCATIONS times, its compilation has been requested.
+     * 
+     * @param localEnvironment  the environment of the call, laid out by the procedure
+     * @throws SemanticErrorException if the body cannot be executed
+     *                                or the procedure is a bodiless header
+     */
+    public void executeBody(RuntimeEnvironment localEnvironment) throws SemanticErrorException
+    {
+        CompiledCode compiled = this.compiledBody;
+        
+        if (compiled != null)
+        {
+            compiled.execute(localEnvironment.getValues(), 
+                    localEnvironment.getGlobal().getValues());
+        }
+        else
+        {
+            // Count calls until hot, then request compilation until promoted
+            if (invocationCount < ProcedureDeclaration.HOT_INVOCATIONS)
+            {
+                invocationCount++;
+            }
+            else
+            {
+                localEnvironment.requestCompilation(this);
+            }
+            
+            this.getBody().execute(localEnvironment);
+        } // else
+    } // public void executeBody
+    
+    /**
+     * Replaces the interpreted body with compiled code, which runs from the next call on.
+     * 
+     * @param compiled  the compiled body
+     */
+    public void promote(CompiledCode compiled)
+    {
+        this.compiledBody = compiled;
+    }
+    
+    /**
+     * Returns the compiled body of the procedure
+     * 
+     * @return the promoted body, or null if the body is interpreted
+     */
+    public CompiledCode getCompiledBody()
+    {
+        return this.compiledBody;
+    }
+    
     /**
      * Adds the non-parameters local variables and a body to a header.
      * 
@@ -158,7 +227,7 @@ public class ProcedureDeclaration
             this.body = newBody;
             isHeader = false;
         }
-
+        
         // If the procedure is not a bodiless header
         else
         {
@@ -166,7 +235,154 @@ public class ProcedureDeclaration
             throw new SemanticErrorException(message);
         } // else
     } // public void fill(List<Variable>)
-
+    
+    /**
+     * Replaces the body of a bodied procedure.
+     * Used by optimization passes that rewrite the procedure body.
+     * 
+     * @postcondition If the procedure is not a bodiless header, the body is replaced.
+     *                Otherwise, an exception is thrown.
+     * 
+     * @param newBody   the body to replace the current body with
+     * @throws SemanticErrorException if the procedure is a bodiless header
+     */
+    public void replaceBody(Statement newBody) throws SemanticErrorException
+    {
+        if (isHeader)
+        {
+            String message = "Error: Attempted to replace the body of a bodiless procedure";
+            throw new SemanticErrorException(message);
+        }
+        
+        this.body = newBody;
+    } // public void replaceBody(Statement)
+    
+    /**
+     * Adds a non-parameter local variable to a bodied procedure.
+     * 
+     * @postcondition If the procedure is not a bodiless header, the variable is appended 
+     *                to the non-parameter local variables. Otherwise, an exception is thrown.
+     * 
+     * @param nonParameter  the non-parameter local variable to add
+     * @throws SemanticErrorException if the procedure is a bodiless header
+     */
+    public void addNonParameter(Variable nonParameter) throws SemanticErrorException
+    {
+        if (isHeader)
+        {
+            String message = "Error: Attempted to add a local variable to a bodiless procedure";
+            throw new SemanticErrorException(message);
+        }
+        
+        this.nonParameters.add(nonParameter);
+    } // public void addNonParameter(Variable)
+    
+    /**
+     * Memoizes the procedure, which must be a pure function of its arguments.
+     * 
+     * @postcondition Calls remember return values by argument values in a table
+     *                with the provided capacity, both when evaluated and when compiled.
+     * 
+     * @param capacity  the maximum number of remembered return values, a power of two
+     */
+    public void memoize(int capacity)
+    {
+        this.memoTable = new MemoTable(capacity);
+    }
+    
+    /**
+     * Returns whether the procedure is memoized
+     * 
+     * @return true if calls remember return values, false otherwise
+     */
+    public boolean isMemoized()
+    {
+        return this.memoTable != null;
+    }
+    
+    /**
+     * Returns the memo table of the procedure
+     * 
+     * @return the remembered return values by argument values, or null if not memoized
+     */
+    public MemoTable getMemoTable()
+    {
+        return this.memoTable;
+    }
+    
+    /**
+     * Returns the label of the compiled memo table of the procedure
+     * 
+     * @return the .data label of the memo table
+     */
+    public String getMemoLabel()
+    {
+        return "proc" + this.identifier + "Memo";
+    }
+    
+    /**
+     * Lays out the frame in which the procedure executes.
+     * 
+     * @precondition Every variable of the program is resolved to a slot below the provided count.
+     * @postcondition The return variable occupies local slot 0, followed by the parameters 
+     *                in order and then the non-parameter local variables. Every other variable 
+     *                has no local slot and is found in the global frame.
+     * 
+     * @param numSlots  the number of variable slots in the program
+     */
+    public void layOutFrame(int numSlots)
+    {
+        frameLayout = new int[numSlots];
+        Arrays.fill(frameLayout, -1);
+        
+        int localSlot = 0;
+        frameLayout[returnVariable.getSlot()] = localSlot++;
+        
+        for (Variable parameter : parameters)
+        {
+            frameLayout[parameter.getSlot()] = localSlot++;
+        }
+        
+        for (Variable nonParameter : nonParameters)
+        {
+            frameLayout[nonParameter.getSlot()] = localSlot++;
+        }
+    } // public void layOutFrame(int)
+    
+    /**
+     * Returns the frame layout of the procedure
+     * 
+     * @return the local slot indexed by the slot of each variable, or -1 for globals
+     */
+    public int[] getFrameLayout()
+    {
+        return this.frameLayout;
+    }
+    
+    /**
+     * Returns the number of local slots in the frame of the procedure
+     * 
+     * @return the number of parameters and non-parameter local variables, plus one
+     *         for the return variable
+     */
+    public int getFrameSize()
+    {
+        return 1 + parameters.size() + nonParameters.size();
+    }
+    
+    /**
+     * Returns whether the variable is a local variable of the procedure,
+     * i.e. a parameter, a non-parameter local variable, or the return variable.
+     * 
+     * @param variable  the variable for which to evaluate scope
+     * @return true if the variable is local to the procedure, false otherwise
+     */
+    public boolean isLocalVariable(Variable variable)
+    {
+        return parameters.contains(variable) || returnVariable.equals(variable)
+                || (nonParameters != null && nonParameters.contains(variable));
+    } // public boolean isLocalVariable(Variable)
+    
     /**
      * Compiles the procedure declaration and writes the MIPS assembly code to the provided emitter.
      * 
@@ -180,6 +396,16 @@ public class ProcedureDeclaration
         // Write the label
     	emitter.emit("proc" + this.identifier + ":");
     	
+    	// Return a remembered value without executing the body
+    	if (this.isMemoized())
+    	{
+    	    String missLabel = "memoMiss" + emitter.nextLabelID();
+    	    
+    	    emitter.emitMemoLookup(this.getMemoLabel(), parameters.size(), 
+    	            memoTable.getCapacity(), missLabel);
+    	    emitter.emit(missLabel + ":");
+    	}
+    	
     	// Push the return variable (default 0) onto the stack
     	emitter.emit("# set default value for return variable " + this.getIdentifier());
     	emitter.emit("li $v0 0");
@@ -206,13 +432,20 @@ public class ProcedureDeclaration
         for (Variable nonParameter : nonParameters)
         {
             emitter.emit("# pop non-parameter local " + nonParameter.getIdentifier());
-            emitter.emitPush("$t0");
+            emitter.emitPop("$t0");
         }
     	
         // Pops return variable from the stack
         emitter.emit("# pop var" + this.getIdentifier());
         emitter.emitPop("$v0");
         
+        // Remember the return value; the last argument is again at the top of the stack
+        if (this.isMemoized())
+        {
+            emitter.emitMemoStore(this.getMemoLabel(), parameters.size(), 
+                    memoTable.getCapacity(), "$sp", 0);
+        }
+        
     	// Write return
         emitter.emit("# return");
     	emitter.emit("jr $ra");
@@ -228,7 +461,7 @@ public class ProcedureDeclaration
     public String toString()
     {
         String s = "Procedure ";
-
+        
         if (isHeader)
         {
             s += "header";
@@ -237,9 +470,9 @@ public class ProcedureDeclaration
         {
             s += "definition";
         }
-
+        
         s += " = " + this.identifier;
-
+        
         s += "\n\tParameters: " + parameters.toString();
         
         if (!isHeader)
@@ -247,7 +480,7 @@ public class ProcedureDeclaration
             s += "\n\tNon-parameters: " + nonParameters.toString();
             s += "\n\t" + this.body.toString().replaceAll("\n", "\n\t");
         }
-
+        
         return s;
     } // public String toString
 } // public class ProcedureDeclaration
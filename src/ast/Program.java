@@ -1,7 +1,10 @@
 package ast;
 
+import java.util.List;
+
 import emitter.Emitter;
 import environment.DeclarationEnvironment;
+import environment.Resolver;
 import environment.RuntimeEnvironment;
 
 /**
@@ -19,6 +22,10 @@ public class Program extends Statement
     // Compile constants
     public final static String NEWLINE_LABEL = "newline";   // what to call the newline string
     public final static int DEFAULT_INTEGER_VALUE = 0;      // default integer .data value
+    public final static String OUTPUT_LABEL = "output";     // what to call a table of output
+    public final static String OVERFLOW_LABEL = "overflow";             // overflow handler
+    public final static String DIVIDE_BY_ZERO_LABEL = "divideByZero";   // division handler
+    private final static int VALUES_PER_LINE = 16;          // table values per .word directive
     private String author = "Jack Hsieh";                   // javadoc author
     
     /**
@@ -34,20 +41,73 @@ public class Program extends Statement
         this.body = body;
     }
     
+    /**
+     * Returns the declaration environment of the program
+     * 
+     * @return the environment of declarations of variables and procedures
+     */
+    public DeclarationEnvironment getDeclarationEnvironment()
+    {
+        return this.declarationEnvironment;
+    }
+    
+    /**
+     * Returns the body of the program
+     * 
+     * @return the statement that forms the body of the program
+     */
+    public Statement getBody()
+    {
+        return this.body;
+    }
+    
+    /**
+     * Returns the author of the program
+     * 
+     * @return the author named in the header of emitted code
+     */
+    public String getAuthor()
+    {
+        return this.author;
+    }
+    
+    /**
+     * Replaces the body of the program.
+     * Used by optimization passes that rewrite the program body.
+     * 
+     * @postcondition The body of the program is replaced.
+     * 
+     * @param newBody   the statement to replace the body with
+     */
+    public void replaceBody(Statement newBody)
+    {
+        this.body = newBody;
+    }
+    
     /**
      * Executes the program.
+     * Every variable is first resolved to a slot, so that the global environment
+     * and the environments of procedure calls hold values in arrays.
+     * 
+     * @postcondition The global environment holds a slot for every variable, 
+     *                starting with the default value 0, and the body has been executed.
      * 
-     * @param runtimeEnvironment    the environment in which to execute the program
+     * @param runtimeEnvironment    the global environment in which to execute the program
      * @throws SemanticErrorException if the body statement cannot be executed
      */
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
+        int numSlots = Resolver.resolve(this.declarationEnvironment);
+        runtimeEnvironment.allocateSlots(numSlots);
+        
         this.body.execute(runtimeEnvironment);
     }
     
     /**
      * Compiles the program and writes the MIPS assembly code to the provided emitter.
      * Includes a javadoc header, .data, .text, and the main code.
+     * If the emitter is checked, also includes handlers that report overflow 
+     * and division by zero and terminate execution.
      * 
      * @postcondition The emitter has emit the program converted to assembly code.
      * 
@@ -64,9 +124,19 @@ public class Program extends Statement
         
         // Compile variables
         this.compileVariableDeclarations(emitter);
+        this.compileMemoTables(emitter);
         
         // Include newline by default
         emitter.emit(Program.NEWLINE_LABEL + ": .asciiz \"\\n\"");
+        
+        if (emitter.isChecked())
+        {
+            emitter.emit(Program.OVERFLOW_LABEL 
+                    + "Message: .asciiz \"Error: integer overflow\\n\"");
+            emitter.emit(Program.DIVIDE_BY_ZERO_LABEL 
+                    + "Message: .asciiz \"Error: division by zero\\n\"");
+        }
+        
         emitter.emit("");
         
         // Text 
@@ -89,11 +159,109 @@ public class Program extends Statement
         emitter.emit("syscall");
         emitter.emit("");
         
+        if (emitter.isChecked())
+        {
+            this.compileErrorHandler(emitter, Program.OVERFLOW_LABEL);
+            this.compileErrorHandler(emitter, Program.DIVIDE_BY_ZERO_LABEL);
+        }
+        
         // Compile procedures
         this.compileProcedureDeclarations(emitter);
         
     } // public void compile
     
+    /**
+     * Compiles a handler that prints an error message and terminates execution.
+     * 
+     * @postcondition The emitter has emit the handler under the provided label,
+     *                printing the string at the label followed by "Message".
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param label     the label of the handler
+     */
+    private void compileErrorHandler(Emitter emitter, String label)
+    {
+        emitter.emit(label + ":");
+        emitter.emit("la $a0 " + label + "Message");
+        emitter.emit("li $v0 4");
+        emitter.emit("syscall");
+        emitter.emit("li $v0 10");
+        emitter.emit("syscall");
+        emitter.emit("");
+    } // private void compileErrorHandler
+    
+    /**
+     * Compiles the output of an evaluated run of the program in place of the program itself:
+     * a .data table of the values written and one loop that prints them.
+     * 
+     * @postcondition The emitter has emit assembly code that when run writes the provided 
+     *                values in order, each on its own line.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     * @param values    the integers the program writes, in order
+     */
+    public void compileOutputTable(Emitter emitter, List<Integer> values)
+    {
+        // Javadoc header
+        emitter.emitHeader(this.author);
+        emitter.emit("");
+        
+        // Data: the table of values, a few per line
+        emitter.emit(".data");
+        emitter.emit(Program.OUTPUT_LABEL + ":");
+        
+        String line = "";
+        int numOnLine = 0;
+        
+        for (Integer value : values)
+        {
+            line += (numOnLine == 0 ? ".word " : ", ") + value;
+            numOnLine++;
+            
+            if (numOnLine == Program.VALUES_PER_LINE)
+            {
+                emitter.emit(line);
+                line = "";
+                numOnLine = 0;
+            }
+        } // for
+        
+        if (numOnLine > 0)
+        {
+            emitter.emit(line);
+        }
+        
+        emitter.emit(Program.NEWLINE_LABEL + ": .asciiz \"\\n\"");
+        emitter.emit("");
+        
+        // Text
+        emitter.emit(".text");
+        emitter.emit("");
+        emitter.emit(".globl main");
+        emitter.emit("");
+        emitter.emit("main:");
+        emitter.emit("# print each precomputed value");
+        emitter.emit("la $s0 " + Program.OUTPUT_LABEL);
+        emitter.emit("li $s1 " + values.size());
+        emitter.emit("");
+        emitter.emit("outputLoop:");
+        emitter.emit("beq $s1 $zero outputEnd");
+        emitter.emit("lw $a0 ($s0)");
+        emitter.emit("li $v0 1");
+        emitter.emit("syscall");
+        emitter.emit("la $a0 " + Program.NEWLINE_LABEL);
+        emitter.emit("li $v0 4");
+        emitter.emit("syscall");
+        emitter.emit("addu $s0 $s0 4");
+        emitter.emit("subu $s1 $s1 1");
+        emitter.emit("j outputLoop");
+        emitter.emit("");
+        emitter.emit("outputEnd:");
+        emitter.emit("# terminate execution");
+        emitter.emit("li $v0 10");
+        emitter.emit("syscall");
+    } // public void compileOutputTable
+    
     /**
      * Compiles the variable declarations and writes the MIPS assembly code to the provided emitter
      * 
@@ -119,6 +287,26 @@ public class Program extends Statement
         } // for
     } // private void compileVariableDeclarations(Emitter)
     
+    /**
+     * Compiles the memo tables of memoized procedures and writes the MIPS assembly code 
+     * to the provided emitter
+     * 
+     * @precondition The emitter is writing the .data section.
+     * @postcondition The emitter has emit a table for every memoized procedure
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     */
+    private void compileMemoTables(Emitter emitter)
+    {
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (procedure.isMemoized())
+            {
+                emitter.emitMemoTable(procedure.getMemoLabel(), procedure.getParameters().size(),
+                        procedure.getMemoTable().getCapacity());
+            }
+        } // for
+    } // private void compileMemoTables(Emitter)    
     
     /**
      * Compiles the procedure declarations and writes the MIPS assembly code to the provided emitter
@@ -137,7 +325,7 @@ public class Program extends Statement
             procedureDeclaration.compile(emitter);
         } // for
     } // private void compileProcedureDeclarations(Emitter)
-
+    
     /**
      * Returns a string representation of the program
      * 
@@ -14,12 +14,21 @@ import environment.RuntimeEnvironment;
 public class RelativeOperator extends Expression
 {
     private String operator;
+    private int operatorCode;       // the operator as one of the codes below
     private Expression operand1;
     private Expression operand2;
     
     private Class<?> type1;
     private Class<?> type2;
     
+    // Operator codes, so that evaluation need not compare strings
+    private final static int EQUAL = 0;
+    private final static int NOT_EQUAL = 1;
+    private final static int LESS = 2;
+    private final static int GREATER = 3;
+    private final static int LESS_OR_EQUAL = 4;
+    private final static int GREATER_OR_EQUAL = 5;
+    
     /**
      * Constructs a relative operator object with the provided expressions and operator
      *  
@@ -39,6 +48,28 @@ public class RelativeOperator extends Expression
         this.operator = operator;
         this.operand1 = operand1;
         this.operand2 = operand2;
+        
+        switch (operator)
+        {
+            case ("="): 
+                operatorCode = RelativeOperator.EQUAL;
+                break;
+            case ("<>"): 
+                operatorCode = RelativeOperator.NOT_EQUAL;
+                break;
+            case ("<"): 
+                operatorCode = RelativeOperator.LESS;
+                break;
+            case (">"): 
+                operatorCode = RelativeOperator.GREATER;
+                break;
+            case ("<="): 
+                operatorCode = RelativeOperator.LESS_OR_EQUAL;
+                break;
+            case (">="): 
+                operatorCode = RelativeOperator.GREATER_OR_EQUAL;
+                break;
+        }
     
         // Set the evaluation type and check types
         type1 = this.operand1.getEvaluationType();
@@ -57,6 +88,36 @@ public class RelativeOperator extends Expression
         } // else    
     } // public RelativeOperator
         
+    /**
+     * Returns the operator of the relative operator
+     * 
+     * @return the operator string
+     */
+    public String getOperator()
+    {
+        return this.operator;
+    }
+    
+    /**
+     * Returns the first operand of the relative operator
+     * 
+     * @return the first operand
+     */
+    public Expression getOperand1()
+    {
+        return this.operand1;
+    }
+    
+    /**
+     * Returns the second operand of the relative operator
+     * 
+     * @return the second operand
+     */
+    public Expression getOperand2()
+    {
+        return this.operand2;
+    }
+            
     /**
      * Returns the evaluated boolean value of the relative operator
      * 
@@ -70,35 +131,107 @@ public class RelativeOperator extends Expression
     @Override
     public Boolean evaluate(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        Boolean value = null;
+        return evaluateBoolean(runtimeEnvironment);
+    }
+    
+    /**
+     * Returns the evaluated boolean value of the relative operator without boxing
+     * the operands or the result
+     * 
+     * @precondition operand1 and operand2 evaluate to integers 
+     *               and the internal operator symbol matches a relative operator
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the boolean value resulting from the operation and operands
+     * @throws SemanticErrorException if an operand cannot be evaluated
+     */
+    @Override
+    public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment) 
+            throws SemanticErrorException
+    {
+        int value1 = operand1.evaluateInt(runtimeEnvironment);
+        int value2 = operand2.evaluateInt(runtimeEnvironment);
         
-        Integer value1 = (Integer) operand1.evaluate(runtimeEnvironment);
-        Integer value2 = (Integer) operand2.evaluate(runtimeEnvironment);   
-
-        switch (operator)
+        return RelativeOperator.apply(operatorCode, value1, value2);
+    } // public boolean evaluateBoolean
+    
+    /**
+     * Applies a comparison to two values.
+     * 
+     * @param operatorCode  the comparison, as one of the operator codes
+     * @param value1        the value of the first operand
+     * @param value2        the value of the second operand
+     * @return the result of the comparison
+     */
+    private static boolean apply(int operatorCode, int value1, int value2)
+    {
+        boolean value = false;
+        
+        switch (operatorCode)
         {
-            case ("="): 
-                value = value1.equals(value2);
+            case (RelativeOperator.EQUAL): 
+                value = value1 == value2;
                 break;
-            case ("<>"): 
-                value = !value1.equals(value2);
+            case (RelativeOperator.NOT_EQUAL): 
+                value = value1 != value2;
                 break;
-            case ("<"): 
+            case (RelativeOperator.LESS): 
                 value = value1 < value2;
                 break;
-            case (">"): 
+            case (RelativeOperator.GREATER): 
                 value = value1 > value2;
                 break;
-            case ("<="): 
+            case (RelativeOperator.LESS_OR_EQUAL): 
                 value = value1 <= value2;
                 break;
-            case (">="): 
+            case (RelativeOperator.GREATER_OR_EQUAL): 
                 value = value1 >= value2;
                 break;
         }
         
         return value;
-    }
+    } // private static boolean apply
+    
+    /**
+     * Returns the relative operator specialized to its comparison, with specialized operands.
+     * The specialized operator compares its operands without switching on the operator.
+     * It remains a relative operator even when both operands are literals, since 
+     * conditions compile as relative operators.
+     * 
+     * @return the specialized expression
+     * @throws SemanticErrorException if an operand cannot be specialized
+     */
+    @Override
+    public Expression specialize() throws SemanticErrorException
+    {
+        Expression first = operand1.specialize();
+        Expression second = operand2.specialize();
+        Expression specialized;
+        
+        switch (operatorCode)
+        {
+            case (RelativeOperator.EQUAL): 
+                specialized = new Equal(operator, first, second);
+                break;
+            case (RelativeOperator.NOT_EQUAL): 
+                specialized = new NotEqual(operator, first, second);
+                break;
+            case (RelativeOperator.LESS): 
+                specialized = new Less(operator, first, second);
+                break;
+            case (RelativeOperator.GREATER): 
+                specialized = new Greater(operator, first, second);
+                break;
+            case (RelativeOperator.LESS_OR_EQUAL): 
+                specialized = new LessOrEqual(operator, first, second);
+                break;
+            default: 
+                specialized = new GreaterOrEqual(operator, first, second);
+                break;
+        }
+        
+        return specialized;
+    } // public Expression specialize
     
     /**
      * Compiles conditonal jump code using the given label
@@ -170,4 +303,154 @@ public class RelativeOperator extends Expression
         
         return s;
     } // public String toString()
+    
+    /**
+     * Comparison is a relative operator specialized to its comparison.
+     */
+    private abstract static class Comparison extends RelativeOperator
+    {
+        protected final Expression left;    // the first operand
+        protected final Expression right;   // the second operand
+        
+        /**
+         * Constructs a specialized relative operator.
+         * 
+         * @param operator  the binary operator string
+         * @param left      the first operand
+         * @param right     the second operand
+         * @throws SemanticErrorException if an operand is not an integer
+         */
+        protected Comparison(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+            this.left = left;
+            this.right = right;
+        }
+        
+        /**
+         * Returns the operator, which is already specialized
+         * 
+         * @return this operator
+         */
+        @Override
+        public Expression specialize()
+        {
+            return this;
+        }
+    } // private abstract static class Comparison
+    
+    /**
+     * Equal compares whether its operands are equal.
+     */
+    private static class Equal extends Comparison
+    {
+        private Equal(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) == right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Equal
+    
+    /**
+     * NotEqual compares whether its operands differ.
+     */
+    private static class NotEqual extends Comparison
+    {
+        private NotEqual(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) != right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class NotEqual
+    
+    /**
+     * Less compares whether its first operand is less than its second.
+     */
+    private static class Less extends Comparison
+    {
+        private Less(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) < right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Less
+    
+    /**
+     * Greater compares whether its first operand is greater than its second.
+     */
+    private static class Greater extends Comparison
+    {
+        private Greater(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) > right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class Greater
+    
+    /**
+     * LessOrEqual compares whether its first operand is at most its second.
+     */
+    private static class LessOrEqual extends Comparison
+    {
+        private LessOrEqual(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) <= right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class LessOrEqual
+    
+    /**
+     * GreaterOrEqual compares whether its first operand is at least its second.
+     */
+    private static class GreaterOrEqual extends Comparison
+    {
+        private GreaterOrEqual(String operator, Expression left, Expression right)
+                throws SemanticErrorException
+        {
+            super(operator, left, right);
+        }
+        
+        @Override
+        public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+                throws SemanticErrorException
+        {
+            return left.evaluateInt(runtimeEnvironment) >= right.evaluateInt(runtimeEnvironment);
+        }
+    } // private static class GreaterOrEqual
 } // public class RelativeOperator
\ No newline at end of file
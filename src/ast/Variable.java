@@ -13,6 +13,7 @@ import environment.RuntimeEnvironment;
 public class Variable extends Expression
 {
     private String identifier;      // the string identifier
+    private int slot;               // the index of the variable in the global frame, or -1
     
     /**
      * Constructs a variable object with the provided identifier.
@@ -28,8 +29,9 @@ public class Variable extends Expression
         // System.out.println("Created Variable!");
         this.identifier = identifier;
         super.evaluationType = evaluationType;
+        this.slot = -1;
     }
-
+    
     /**
      * Returns the variable's identifier
      *
@@ -40,6 +42,29 @@ public class Variable extends Expression
         return identifier;
     }
     
+    /**
+     * Returns the slot of the variable, which indexes its value in the global frame
+     * and its local slot in the frame layout of each procedure
+     * 
+     * @return the slot assigned by resolution, or -1 if the variable is unresolved
+     */
+    public int getSlot()
+    {
+        return slot;
+    }
+    
+    /**
+     * Assigns the slot of the variable.
+     * 
+     * @postcondition The variable is resolved to the provided slot.
+     * 
+     * @param slot  the index of the variable in the global frame
+     */
+    public void resolve(int slot)
+    {
+        this.slot = slot;
+    }
+    
     /**
      * Returns the evaluated value associated with the variable
      * 
@@ -51,7 +76,31 @@ public class Variable extends Expression
     {
         return runtimeEnvironment.getVariableValue(this);
     }
-
+    
+    /**
+     * Returns the value of an integer variable without boxing
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the integer value of this variable in the provided environment
+     */
+    @Override
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment)
+    {
+        return runtimeEnvironment.getIntValue(this);
+    }
+    
+    /**
+     * Returns the value of a boolean variable without boxing
+     * 
+     * @param runtimeEnvironment    the runtime environment to evaluate the expression within
+     * @return the boolean value of this variable in the provided environment
+     */
+    @Override
+    public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment)
+    {
+        return runtimeEnvironment.getIntValue(this) != 0;
+    }
+    
     /**
      * Compiles the variable in MIPS assembly code to the provided emitter.
      * Supports both global and local variables.
@@ -69,7 +118,7 @@ public class Variable extends Expression
         {
             // Document
             emitter.emit("# load local " + this.identifier);
-
+            
             // Load from stack with offset
             emitter.emit("lw $v0 " + emitter.getByteOffset(this) + "($sp)");
         }
@@ -1,6 +1,7 @@
 package ast;
 
 import emitter.Emitter;
+import environment.CompiledCode;
 import environment.RuntimeEnvironment;
 
 /**
@@ -12,9 +13,15 @@ import environment.RuntimeEnvironment;
  */
 public class WhileDo extends Statement
 {
-    private Expression condition;       // the boolean condition
-    private Statement doStatement;      // the statement to repeatedly execute
-
+    public final static int HOT_BACK_EDGES = 10000;    // interpreted iterations before compiling
+    
+    private volatile Expression condition;  // the boolean condition
+    private Statement doStatement;          // the statement to repeatedly execute
+    private boolean isSpecialized;          // whether the condition has been specialized
+    
+    private int backEdgeCount;                      // the iterations run by the interpreter
+    private volatile CompiledCode compiledLoop;     // the promoted loop, or null if interpreted
+    
     /**
      * Constructs a while loop object with the provided condition and statement.
      *  
@@ -28,7 +35,7 @@ public class WhileDo extends Statement
     {
         this.condition = condition;
         this.doStatement = doStatement;
-
+        
         // Check type
         if (!condition.getEvaluationType().equals(Boolean.class))
         {
@@ -37,12 +44,37 @@ public class WhileDo extends Statement
             throw new SemanticErrorException(message);
         } // if
     } // public WhileDo
-
+    
+    /**
+     * Returns the condition of the while loop
+     * 
+     * @return the boolean condition
+     */
+    public Expression getCondition()
+    {
+        return this.condition;
+    }
+    
+    /**
+     * Returns the statement of the while loop
+     * 
+     * @return the statement to repeatedly execute
+     */
+    public Statement getDoStatement()
+    {
+        return this.doStatement;
+    }
+    
     /**
      * Executes the while-do by evaluating the boolean condition and 
      * repeatedly executing the statement until the boolean condition evaluates to false.
+     * The first execution replaces the condition with its specialized version.
+     * Once the loop has been promoted to compiled code, the remaining iterations run compiled,
+     * continuing from the values of the environment where the interpreter left off.
      * 
      * @postcondition The statement is executed repeatedly until the condition evaluates to false.
+     *                Once the interpreter has run HOT_BACK_EDGES iterations of the loop,
+     *                its compilation is requested on each further iteration until promoted.
      * 
      * @param runtimeEnvironment    the runtime environment to execute the while loop within
      * @throws SemanticErrorException if the statement cannot be executed
@@ -50,12 +82,52 @@ public class WhileDo extends Statement
     @Override
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        while ((boolean) condition.evaluate(runtimeEnvironment))
+        CompiledCode compiled = this.compiledLoop;
+        
+        if (!isSpecialized)
+        {
+            condition = condition.specialize();
+            isSpecialized = true;
+        }
+        
+        Expression test = condition;
+        
+        while (compiled == null && test.evaluateBoolean(runtimeEnvironment))
         {
+            runtimeEnvironment.consumeFuel();
             doStatement.execute(runtimeEnvironment);
+            
+            // Count iterations until hot, then request compilation until promoted
+            if (backEdgeCount < WhileDo.HOT_BACK_EDGES)
+            {
+                backEdgeCount++;
+            }
+            else
+            {
+                runtimeEnvironment.requestCompilation(this, runtimeEnvironment.getLayout());
+            }
+            
+            compiled = this.compiledLoop;
         } // while
+        
+        // The compiled loop evaluates the condition before its first iteration
+        if (compiled != null)
+        {
+            compiled.execute(runtimeEnvironment.getValues(),
+                    runtimeEnvironment.getGlobal().getValues());
+        }
     } // public void execute
-
+    
+    /**
+     * Replaces the interpreted loop with compiled code, which runs from the next iteration on.
+     * 
+     * @param compiled  the compiled loop
+     */
+    public void promote(CompiledCode compiled)
+    {
+        this.compiledLoop = compiled;
+    }
+    
     /**
      * Compiles a WhileDo statement.
      * 
@@ -73,25 +145,25 @@ public class WhileDo extends Statement
         int labelID = emitter.nextLabelID();
         String startLabel = "startWhile" + labelID;
         String endLabel = "endWhile" + labelID;
-
+        
         // Compiles the start label
         emitter.emit("");
         emitter.emit(startLabel + ":");
         
         // Compiles the condition with the next label
         ((RelativeOperator) condition).compile(emitter, endLabel);
-
+        
         // Compiles then statement
         this.doStatement.compile(emitter);
-
+        
         // Compiles the jump
         emitter.emit("j " + startLabel);
-
+        
         // Compiles the end label
         emitter.emit("");
         emitter.emit(endLabel + ":");
     }
-
+    
     /**
      * Returns a string representation of the AST while-do node
      * 
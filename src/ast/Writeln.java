@@ -12,7 +12,9 @@ import environment.RuntimeEnvironment;
  */
 public class Writeln extends Statement
 {
-    private Expression expression;  // Expression to print
+    private volatile Expression expression; // Expression to print
+    private boolean isSpecialized;          // whether the expression has been specialized
+    private boolean isBoolean;              // whether the expression is a boolean
     
     /**
      * Constructs a Writeln object with the given expression
@@ -26,11 +28,23 @@ public class Writeln extends Statement
         // System.out.println("Created Writeln!");
         this.expression = expression;
     }
-
+    
+    /**
+     * Returns the expression of the Writeln
+     * 
+     * @return the expression to print
+     */
+    public Expression getExpression()
+    {
+        return this.expression;
+    }
+    
     /**
-     * Executes the Writeln by printing the expression to the console
+     * Executes the Writeln by printing the expression to the console.
+     * The first execution replaces the expression with its specialized version.
      * 
-     * @postcondition The expression, if able to be evaluated, is printed to the console.
+     * @postcondition The expression, if able to be evaluated, is written unboxed
+     *                to the output sink of the global environment.
      * 
      * @param runtimeEnvironment    the runtime environment to execute the assignment within
      * @throws SemanticErrorException if the assigned expression cannot be evaluated
@@ -38,9 +52,23 @@ public class Writeln extends Statement
     @Override
     public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
     {
-        System.out.println(expression.evaluate(runtimeEnvironment));
-    }
-
+        if (!isSpecialized)
+        {
+            expression = expression.specialize();
+            isBoolean = expression.getEvaluationType().equals(Boolean.class);
+            isSpecialized = true;
+        }
+        
+        if (isBoolean)
+        {
+            runtimeEnvironment.writeBoolean(expression.evaluateBoolean(runtimeEnvironment));
+        }
+        else
+        {
+            runtimeEnvironment.writeInt(expression.evaluateInt(runtimeEnvironment));
+        }
+    } // public void execute
+    
     /**
      * Compiles the Writeln and writes the MIPS assembly code to the provided emitter
      * 
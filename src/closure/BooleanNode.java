@@ -0,0 +1,22 @@
+package closure;
+
+import ast.SemanticErrorException;
+
+/**
+ * Interface for closures that compute the value of a boolean expression.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface BooleanNode
+{
+    /**
+     * Evaluates the expression.
+     * 
+     * @param frame     the local slots of the executing procedure, or the globals in the body
+     * @param globals   the global slots
+     * @return the boolean value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public abstract boolean evaluate(int[] frame, int[] globals) throws SemanticErrorException;
+}
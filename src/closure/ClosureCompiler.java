@@ -0,0 +1,668 @@
+package closure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import environment.CompiledCode;
+import environment.MemoTable;
+import environment.Resolver;
+import environment.RuntimeEnvironment;
+
+/**
+ * ClosureCompiler converts a program once into a tree of closures that execute it.
+ *
+ * The interpreter walks the AST on every execution, switching on the operator of every
+ * arithmetic and relative operator it evaluates and looking up the frame layout of every
+ * variable it reads. The compiler makes those decisions once instead: each operator becomes
+ * a closure specialized to its operation, and each variable becomes a closure that indexes
+ * its local or global slot directly. Every closure calls its children through call sites
+ * that only ever see one closure, which the JIT can inline.
+ *
+ * Compiled programs write the same values and consume the same fuel as the interpreter.
+ *
+ * The compiler also compiles single procedure bodies and loops that the interpreter promotes
+ * when they become hot. Their frames are the values of runtime environments, and their calls
+ * execute each procedure compiled if it has been promoted and interpreted otherwise.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ClosureCompiler
+{
+    private Map<ProcedureDeclaration, CompiledProcedure> procedures;  // compiled procedures
+    private int[] layout;           // the frame layout of the procedure being compiled, or null
+    
+    /**
+     * Compiles a program.
+     * Every variable is first resolved to a slot, as when the program is executed.
+     *
+     * @param program   the program to compile
+     * @return the compiled program
+     * @throws SemanticErrorException if the program contains a node that cannot be compiled
+     */
+    public ClosureProgram compile(Program program) throws SemanticErrorException
+    {
+        int numSlots = Resolver.resolve(program.getDeclarationEnvironment());
+        
+        // Create every procedure before compiling any body, since bodies may call each other
+        procedures = new HashMap<ProcedureDeclaration, CompiledProcedure>();
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            procedures.put(procedure, new CompiledProcedure());
+        }
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                layout = procedure.getFrameLayout();
+                procedures.get(procedure).body = compile(procedure.getBody());
+            }
+        }
+        
+        layout = null;
+        
+        return new ClosureProgram(compile(program.getBody()), numSlots);
+    } // public ClosureProgram compile(Program)
+    
+    /**
+     * Compiles a procedure body or a loop promoted from the interpreter.
+     *
+     * @precondition The variables of the program have been resolved.
+     *
+     * @param statement the procedure body or loop to compile
+     * @param layout    the frame layout of the procedure containing the statement,
+     *                  or null if the statement is in the main program
+     * @return the closure executing the statement
+     * @throws SemanticErrorException if the statement contains a node that cannot be compiled
+     */
+    public StatementNode compilePromoted(Statement statement, int[] layout)
+            throws SemanticErrorException
+    {
+        procedures = new HashMap<ProcedureDeclaration, CompiledProcedure>();
+        this.layout = layout;
+        
+        return compile(statement);
+    }
+    
+    /**
+     * Compiles a statement.
+     *
+     * @param statement the statement to compile
+     * @return the closure executing the statement
+     * @throws SemanticErrorException if the statement cannot be compiled
+     */
+    private StatementNode compile(Statement statement) throws SemanticErrorException
+    {
+        StatementNode node;
+        
+        if (statement instanceof Block)
+        {
+            node = compileBlock((Block) statement);
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            node = compileAssignment(assignment.getVariable(),
+                    compileInt(assignment.getExpression()));
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            node = compileWriteln(((Writeln) statement).getExpression());
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            BooleanNode condition = compileBoolean(ifThen.getCondition());
+            StatementNode thenStatement = compile(ifThen.getThenStatement());
+            
+            node = (frame, globals) ->
+            {
+                if (condition.evaluate(frame, globals))
+                {
+                    thenStatement.execute(frame, globals);
+                }
+            };
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            BooleanNode condition = compileBoolean(whileDo.getCondition());
+            StatementNode doStatement = compile(whileDo.getDoStatement());
+            
+            node = (frame, globals) ->
+            {
+                while (condition.evaluate(frame, globals))
+                {
+                    RuntimeEnvironment.getGlobalEnvironment().consumeFuel();
+                    doStatement.execute(frame, globals);
+                }
+            };
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            node = compileForToDo((ForToDo) statement);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile statement " + statement;
+            throw new SemanticErrorException(message);
+        }
+        
+        return node;
+    } // private StatementNode compile(Statement)
+    
+    /**
+     * Compiles a block.
+     *
+     * @param block the block to compile
+     * @return the closure executing each statement of the block in order
+     * @throws SemanticErrorException if a statement cannot be compiled
+     */
+    private StatementNode compileBlock(Block block) throws SemanticErrorException
+    {
+        List<Statement> statements = block.getStatements();
+        StatementNode[] nodes = new StatementNode[statements.size()];
+        
+        for (int i = 0; i < nodes.length; i++)
+        {
+            nodes[i] = compile(statements.get(i));
+        }
+        
+        return (frame, globals) ->
+        {
+            for (StatementNode node : nodes)
+            {
+                node.execute(frame, globals);
+            }
+        };
+    } // private StatementNode compileBlock
+    
+    /**
+     * Compiles the assignment of a value to a variable.
+     * Boolean values are stored as 1 for true and 0 for false, as by the interpreter.
+     *
+     * @param variable  the assigned variable
+     * @param value     the closure computing the assigned value
+     * @return the closure storing the value in the local or global slot of the variable
+     */
+    private StatementNode compileAssignment(Variable variable, IntNode value)
+    {
+        StatementNode node;
+        int localSlot = findLocalSlot(variable);
+        int slot = variable.getSlot();
+        
+        if (localSlot >= 0)
+        {
+            node = (frame, globals) -> frame[localSlot] = value.evaluate(frame, globals);
+        }
+        else
+        {
+            node = (frame, globals) -> globals[slot] = value.evaluate(frame, globals);
+        }
+        
+        return node;
+    } // private StatementNode compileAssignment
+    
+    /**
+     * Compiles a Writeln, which writes an integer or a boolean through the global environment.
+     *
+     * @param expression    the written expression
+     * @return the closure writing the value of the expression
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private StatementNode compileWriteln(Expression expression) throws SemanticErrorException
+    {
+        StatementNode node;
+        
+        if (expression.getEvaluationType().equals(Boolean.class))
+        {
+            BooleanNode value = compileBoolean(expression);
+            node = (frame, globals) -> RuntimeEnvironment.getGlobalEnvironment()
+                    .writeBoolean(value.evaluate(frame, globals));
+        }
+        else
+        {
+            IntNode value = compileInt(expression);
+            node = (frame, globals) -> RuntimeEnvironment.getGlobalEnvironment()
+                    .writeInt(value.evaluate(frame, globals));
+        }
+        
+        return node;
+    } // private StatementNode compileWriteln
+    
+    /**
+     * Compiles a for loop, which like the interpreter re-evaluates the upper bound
+     * before every iteration.
+     *
+     * @param forToDo   the for loop to compile
+     * @return the closure executing the loop
+     * @throws SemanticErrorException if a child of the loop cannot be compiled
+     */
+    private StatementNode compileForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        IntNode indexValue = compileVariable(index);
+        IntNode upperBound = compileInt(forToDo.getUpperBound());
+        StatementNode doStatement = compile(forToDo.getDoStatement());
+        
+        StatementNode initialization = compileAssignment(index,
+                compileInt(forToDo.getLowerBound()));
+        StatementNode increment = compileAssignment(index,
+                (frame, globals) -> indexValue.evaluate(frame, globals) + 1);
+        
+        return (frame, globals) ->
+        {
+            initialization.execute(frame, globals);
+            
+            while (indexValue.evaluate(frame, globals) <= upperBound.evaluate(frame, globals))
+            {
+                RuntimeEnvironment.getGlobalEnvironment().consumeFuel();
+                doStatement.execute(frame, globals);
+                increment.execute(frame, globals);
+            }
+        };
+    } // private StatementNode compileForToDo
+    
+    /**
+     * Compiles an integer expression, or a boolean expression as 1 for true and 0 for false.
+     *
+     * @param expression    the expression to compile
+     * @return the closure computing the value of the expression
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private IntNode compileInt(Expression expression) throws SemanticErrorException
+    {
+        IntNode node;
+        
+        if (expression.getEvaluationType().equals(Boolean.class)
+                && !(expression instanceof Variable))
+        {
+            BooleanNode condition = compileBoolean(expression);
+            node = (frame, globals) -> condition.evaluate(frame, globals) ? 1 : 0;
+        }
+        
+        else if (expression instanceof Literal)
+        {
+            int value = (Integer) ((Literal) expression).getValue();
+            node = (frame, globals) -> value;
+        }
+        
+        else if (expression instanceof Variable)
+        {
+            node = compileVariable((Variable) expression);
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            node = compileArithmeticOperator((ArithmeticOperator) expression);
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            node = compileProcedureCall((ProcedureCall) expression);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile expression " + expression;
+            throw new SemanticErrorException(message);
+        }
+        
+        return node;
+    } // private IntNode compileInt
+    
+    /**
+     * Compiles a boolean expression.
+     *
+     * @param expression    the expression to compile
+     * @return the closure computing the value of the expression
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private BooleanNode compileBoolean(Expression expression) throws SemanticErrorException
+    {
+        BooleanNode node;
+        
+        if (expression instanceof Literal)
+        {
+            boolean value = (Boolean) ((Literal) expression).getValue();
+            node = (frame, globals) -> value;
+        }
+        
+        else if (expression instanceof Variable)
+        {
+            IntNode value = compileVariable((Variable) expression);
+            node = (frame, globals) -> value.evaluate(frame, globals) != 0;
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            node = compileRelativeOperator((RelativeOperator) expression);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile condition " + expression;
+            throw new SemanticErrorException(message);
+        }
+        
+        return node;
+    } // private BooleanNode compileBoolean
+    
+    /**
+     * Compiles the read of a variable.
+     *
+     * @param variable  the variable to read
+     * @return the closure loading the local or global slot of the variable
+     */
+    private IntNode compileVariable(Variable variable)
+    {
+        IntNode node;
+        int localSlot = findLocalSlot(variable);
+        int slot = variable.getSlot();
+        
+        if (localSlot >= 0)
+        {
+            node = (frame, globals) -> frame[localSlot];
+        }
+        else
+        {
+            node = (frame, globals) -> globals[slot];
+        }
+        
+        return node;
+    } // private IntNode compileVariable
+    
+    /**
+     * Returns the local slot of a variable in the procedure being compiled
+     *
+     * @param variable  the variable
+     * @return the local slot, or -1 if the variable is global
+     */
+    private int findLocalSlot(Variable variable)
+    {
+        int localSlot = -1;
+        
+        if (layout != null)
+        {
+            localSlot = layout[variable.getSlot()];
+        }
+        
+        return localSlot;
+    } // private int findLocalSlot
+    
+    /**
+     * Compiles an arithmetic operator into a closure specialized to its operation.
+     *
+     * @param operator  the arithmetic operator to compile
+     * @return the closure computing the operation of the operands
+     * @throws SemanticErrorException if an operand cannot be compiled or the operator is invalid
+     */
+    private IntNode compileArithmeticOperator(ArithmeticOperator operator)
+            throws SemanticErrorException
+    {
+        IntNode operand1 = compileInt(operator.getOperand1());
+        IntNode operand2 = compileInt(operator.getOperand2());
+        IntNode node;
+        
+        switch (operator.getOperator())
+        {
+            case ("+"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) + operand2.evaluate(frame, globals);
+                break;
+            case ("-"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) - operand2.evaluate(frame, globals);
+                break;
+            case ("*"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) * operand2.evaluate(frame, globals);
+                break;
+            case ("/"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) / operand2.evaluate(frame, globals);
+                break;
+            case ("mod"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) % operand2.evaluate(frame, globals);
+                break;
+            default:
+                String message = "Error: invalid arithmetic operator " + operator.getOperator();
+                throw new SemanticErrorException(message);
+        }
+        
+        return node;
+    } // private IntNode compileArithmeticOperator
+    
+    /**
+     * Compiles a relative operator into a closure specialized to its comparison.
+     *
+     * @param operator  the relative operator to compile
+     * @return the closure comparing the operands
+     * @throws SemanticErrorException if an operand cannot be compiled or the operator is invalid
+     */
+    private BooleanNode compileRelativeOperator(RelativeOperator operator)
+            throws SemanticErrorException
+    {
+        IntNode operand1 = compileInt(operator.getOperand1());
+        IntNode operand2 = compileInt(operator.getOperand2());
+        BooleanNode node;
+        
+        switch (operator.getOperator())
+        {
+            case ("="):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) == operand2.evaluate(frame, globals);
+                break;
+            case ("<>"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) != operand2.evaluate(frame, globals);
+                break;
+            case ("<"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) < operand2.evaluate(frame, globals);
+                break;
+            case (">"):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) > operand2.evaluate(frame, globals);
+                break;
+            case ("<="):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) <= operand2.evaluate(frame, globals);
+                break;
+            case (">="):
+                node = (frame, globals) ->
+                    operand1.evaluate(frame, globals) >= operand2.evaluate(frame, globals);
+                break;
+            default:
+                String message = "Error: invalid relative operator " + operator.getOperator();
+                throw new SemanticErrorException(message);
+        }
+        
+        return node;
+    } // private BooleanNode compileRelativeOperator
+    
+    /**
+     * Compiles a procedure call.
+     * The arguments are evaluated in order directly into the parameter slots of a new frame,
+     * which holds the return variable in local slot 0, as laid out by the procedure.
+     * The body of the called procedure is looked up when the call executes,
+     * since it may not have been compiled yet.
+     *
+     * @param call  the procedure call to compile
+     * @return the closure calling the procedure and returning its return value
+     * @throws SemanticErrorException if an argument cannot be compiled
+     */
+    private IntNode compileProcedureCall(ProcedureCall call) throws SemanticErrorException
+    {
+        ProcedureDeclaration procedure = call.getProcedure();
+        CompiledProcedure compiled = findProcedure(procedure);
+        List<Expression> argumentList = call.getArguments();
+        IntNode[] arguments = new IntNode[argumentList.size()];
+        
+        for (int i = 0; i < arguments.length; i++)
+        {
+            arguments[i] = compileInt(argumentList.get(i));
+        }
+        
+        IntNode node;
+        
+        if (procedure.isHeader())
+        {
+            node = (frame, globals) ->
+            {
+                String message = "Error: called bodiless procedure header";
+                throw new SemanticErrorException(message);
+            };
+        }
+        else if (procedure.isMemoized())
+        {
+            node = compileMemoizedCall(procedure, argumentList, arguments);
+        }
+        else
+        {
+            int frameSize = procedure.getFrameSize();
+            
+            node = (frame, globals) ->
+            {
+                int[] localFrame = new int[frameSize];
+                
+                for (int i = 0; i < arguments.length; i++)
+                {
+                    localFrame[i + 1] = arguments[i].evaluate(frame, globals);
+                }
+                
+                RuntimeEnvironment.getGlobalEnvironment().consumeFuel();
+                compiled.body.execute(localFrame, globals);
+                
+                return localFrame[0];
+            };
+        } // else
+        
+        return node;
+    } // private IntNode compileProcedureCall
+    
+    /**
+     * Compiles a call to a memoized procedure, which shares the memo table of the procedure
+     * with the interpreter and so boxes its arguments as the key, as the interpreter does.
+     *
+     * @param procedure     the memoized procedure
+     * @param argumentList  the argument expressions
+     * @param arguments     the compiled arguments
+     * @return the closure returning the remembered value, or calling the procedure
+     */
+    private IntNode compileMemoizedCall(ProcedureDeclaration procedure,
+            List<Expression> argumentList, IntNode[] arguments)
+    {
+        CompiledProcedure compiled = findProcedure(procedure);
+        MemoTable memoTable = procedure.getMemoTable();
+        int frameSize = procedure.getFrameSize();
+        boolean[] isBoolean = new boolean[arguments.length];
+        
+        for (int i = 0; i < arguments.length; i++)
+        {
+            isBoolean[i] = argumentList.get(i).getEvaluationType().equals(Boolean.class);
+        }
+        
+        return (frame, globals) ->
+        {
+            int[] localFrame = new int[frameSize];
+            List<Object> key = new ArrayList<Object>();
+            
+            for (int i = 0; i < arguments.length; i++)
+            {
+                int value = arguments[i].evaluate(frame, globals);
+                localFrame[i + 1] = value;
+                key.add(isBoolean[i] ? (Object) (value != 0) : (Object) value);
+            }
+            
+            Object value;
+            
+            if (memoTable.containsKey(key))
+            {
+                value = memoTable.get(key);
+            }
+            else
+            {
+                RuntimeEnvironment.getGlobalEnvironment().consumeFuel();
+                compiled.body.execute(localFrame, globals);
+                value = localFrame[0];
+            }
+            
+            memoTable.put(key, value);
+            
+            return (Integer) value;
+        };
+    } // private IntNode compileMemoizedCall
+    
+    /**
+     * Returns the compiled procedure called by compiled calls.
+     * Code promoted from the interpreter compiles no procedure itself, so its calls execute
+     * the promoted body of the procedure if there is one, and interpret the body otherwise.
+     *
+     * @param procedure the called procedure
+     * @return the holder of the body executed by calls to the procedure
+     */
+    private CompiledProcedure findProcedure(ProcedureDeclaration procedure)
+    {
+        CompiledProcedure compiled = procedures.get(procedure);
+        
+        if (compiled == null)
+        {
+            compiled = new CompiledProcedure();
+            compiled.body = (frame, globals) ->
+            {
+                CompiledCode promoted = procedure.getCompiledBody();
+                
+                if (promoted != null)
+                {
+                    promoted.execute(frame, globals);
+                }
+                else
+                {
+                    procedure.executeBody(new RuntimeEnvironment(
+                            RuntimeEnvironment.getGlobalEnvironment(), procedure, frame));
+                }
+            };
+            
+            procedures.put(procedure, compiled);
+        } // if
+        
+        return compiled;
+    } // private CompiledProcedure findProcedure
+    
+    /**
+     * CompiledProcedure holds the compiled body of a procedure,
+     * which is filled in after calls to the procedure may already have been compiled.
+     */
+    private static class CompiledProcedure
+    {
+        private StatementNode body;     // the compiled body, or null if not yet compiled
+    } // private static class CompiledProcedure
+} // public class ClosureCompiler
@@ -0,0 +1,47 @@
+package closure;
+
+import ast.SemanticErrorException;
+import environment.RuntimeEnvironment;
+
+/**
+ * ClosureProgram is a program compiled by ClosureCompiler into a tree of closures,
+ * ready to be executed any number of times.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ClosureProgram
+{
+    private StatementNode body;     // the compiled body of the program
+    private int numSlots;           // the size of the global frame
+    
+    /**
+     * Constructs a compiled program.
+     * 
+     * @param body      the compiled body of the program
+     * @param numSlots  the number of global slots assigned by resolution
+     */
+    public ClosureProgram(StatementNode body, int numSlots)
+    {
+        this.body = body;
+        this.numSlots = numSlots;
+    }
+    
+    /**
+     * Executes the program in a fresh global frame.
+     * 
+     * @precondition The provided environment is the global environment.
+     * @postcondition The body has been executed with every variable starting at 0.
+     *                Values were written and fuel was consumed through the global environment,
+     *                exactly as when the program is executed by the interpreter.
+     * 
+     * @param runtimeEnvironment    the global environment that writes output and limits fuel
+     * @throws SemanticErrorException if the body cannot be executed
+     */
+    public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        // The body finds every variable in the global frame
+        int[] globals = new int[numSlots];
+        body.execute(globals, globals);
+    }
+} // public class ClosureProgram
@@ -0,0 +1,24 @@
+package closure;
+
+import ast.SemanticErrorException;
+
+/**
+ * Interface for closures that compute the value of an integer expression.
+ * Each node is bound to its operands and to the slots of its variables when compiled,
+ * so evaluating it dispatches on nothing but the node itself.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface IntNode
+{
+    /**
+     * Evaluates the expression.
+     * 
+     * @param frame     the local slots of the executing procedure, or the globals in the body
+     * @param globals   the global slots
+     * @return the integer value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public abstract int evaluate(int[] frame, int[] globals) throws SemanticErrorException;
+}
@@ -0,0 +1,21 @@
+package closure;
+
+import ast.SemanticErrorException;
+
+/**
+ * Interface for closures that execute a statement.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface StatementNode
+{
+    /**
+     * Executes the statement.
+     * 
+     * @param frame     the local slots of the executing procedure, or the globals in the body
+     * @param globals   the global slots
+     * @throws SemanticErrorException if the statement cannot be executed
+     */
+    public abstract void execute(int[] frame, int[] globals) throws SemanticErrorException;
+}
@@ -0,0 +1,101 @@
+package closure;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ast.ProcedureDeclaration;
+import ast.SemanticErrorException;
+import ast.WhileDo;
+import environment.TierCompiler;
+
+/**
+ * TieredCompiler compiles the procedures and loops that the interpreter finds hot to closures
+ * on a background thread, so the interpreter keeps running while they compile. Each is
+ * promoted once compiled, and the interpreter runs the closures from its next call or
+ * iteration on. Short programs never wait for the compiler, and long-running ones run
+ * their hot code compiled.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TieredCompiler implements TierCompiler
+{
+    private ExecutorService compilerThread;     // compiles requests in order in the background
+    private Set<Object> requested;              // the procedures and loops already requested
+    
+    /**
+     * Constructs a tiered compiler with an idle background thread, which does not keep
+     * the program from exiting.
+     */
+    public TieredCompiler()
+    {
+        compilerThread = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "TieredCompiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // Only the interpreter requests compilation, so the set is not shared between threads
+        requested = new HashSet<Object>();
+    }
+    
+    /**
+     * Compiles the body of a procedure in the background and promotes it,
+     * unless it has already been requested.
+     * A body that cannot be compiled is left interpreted.
+     *
+     * @param procedure the hot procedure, which has a body
+     */
+    @Override
+    public void compile(ProcedureDeclaration procedure)
+    {
+        if (requested.add(procedure))
+        {
+            compilerThread.execute(() ->
+            {
+                try
+                {
+                    StatementNode body = new ClosureCompiler().compilePromoted(
+                            procedure.getBody(), procedure.getFrameLayout());
+                    procedure.promote(body::execute);
+                }
+                catch (SemanticErrorException exception)
+                {
+                    // The procedure stays interpreted
+                }
+            });
+        } // if
+    } // public void compile(ProcedureDeclaration)
+    
+    /**
+     * Compiles a while loop in the background and promotes it,
+     * unless it has already been requested.
+     * A loop that cannot be compiled is left interpreted.
+     *
+     * @param loop      the hot loop
+     * @param layout    the frame layout of the procedure containing the loop,
+     *                  or null if the loop is in the main program
+     */
+    @Override
+    public void compile(WhileDo loop, int[] layout)
+    {
+        if (requested.add(loop))
+        {
+            compilerThread.execute(() ->
+            {
+                try
+                {
+                    StatementNode compiled = new ClosureCompiler().compilePromoted(loop, layout);
+                    loop.promote(compiled::execute);
+                }
+                catch (SemanticErrorException exception)
+                {
+                    // The loop stays interpreted
+                }
+            });
+        } // if
+    } // public void compile(WhileDo, int[])
+} // public class TieredCompiler
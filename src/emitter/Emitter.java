@@ -26,8 +26,9 @@ public class Emitter
     
     ProcedureDeclaration procedureContext;  // the current procedure context
     private int numExcessWords;             // number of excess words pushed onto stack 
+    private boolean checked;                // whether arithmetic is checked at runtime
     
-    private final static int WORD_SIZE = 4;
+    public final static int WORD_SIZE = 4;
     
     /**
      * Constructs an emitter for writing to the provided file.
@@ -52,6 +53,7 @@ public class Emitter
         labelID = 0;
         procedureContext = null;
         numExcessWords = 0;
+        checked = false;
     }
 
     /**
@@ -161,6 +163,143 @@ public class Emitter
         return labelID;
     }
     
+    /**
+     * Emits the .data declaration of a direct-mapped memo table.
+     * Each entry holds a valid flag, the argument values, and the return value.
+     * 
+     * @precondition The emitter is writing the .data section.
+     * 
+     * @param label         the label of the table
+     * @param numArguments  the number of arguments of the memoized procedure
+     * @param capacity      the number of entries, a power of two
+     */
+    public void emitMemoTable(String label, int numArguments, int capacity)
+    {
+        this.emit(label + ": .space " + capacity * (numArguments + 2) * Emitter.WORD_SIZE);
+    }
+    
+    /**
+     * Emits MIPS code at the entry of a memoized procedure that returns the remembered 
+     * value in $v0 if the table entry for the arguments holds them.
+     * 
+     * @precondition The arguments were pushed in order just before the call, 
+     *               so the last argument is at the top of the stack.
+     * @postcondition On a hit, the emitted code returns through $ra. On a miss, it jumps to
+     *                the miss label, which the caller must emit. $t0 to $t2 are changed.
+     * 
+     * @param label         the label of the table
+     * @param numArguments  the number of arguments of the memoized procedure
+     * @param capacity      the number of entries, a power of two
+     * @param missLabel     the label to jump to if the value is not remembered
+     */
+    public void emitMemoLookup(String label, int numArguments, int capacity, String missLabel)
+    {
+        this.emit("# look up the arguments in " + label);
+        this.emitMemoAddress(label, numArguments, capacity, "$sp", 0);
+        this.emit("lw $t1 ($t0)");
+        this.emit("beq $t1 $zero " + missLabel);
+        
+        for (int i = 0; i < numArguments; i++)
+        {
+            this.emit("lw $t1 " + Emitter.WORD_SIZE * (numArguments - 1 - i) + "($sp)");
+            this.emit("lw $t2 " + Emitter.WORD_SIZE * (i + 1) + "($t0)");
+            this.emit("bne $t1 $t2 " + missLabel);
+        }
+        
+        this.emit("lw $v0 " + Emitter.WORD_SIZE * (numArguments + 1) + "($t0)");
+        this.emit("jr $ra");
+        this.emit("");
+    } // public void emitMemoLookup
+    
+    /**
+     * Emits MIPS code that remembers the return value in $v0 for the arguments,
+     * replacing whatever the table entry held before.
+     * 
+     * @postcondition $v0 is unchanged; $t0 and $t1 are changed.
+     * 
+     * @param label         the label of the table
+     * @param numArguments  the number of arguments of the memoized procedure
+     * @param capacity      the number of entries, a power of two
+     * @param base          the register the arguments are addressed from
+     * @param offset        the byte offset of the last argument from the base register
+     */
+    public void emitMemoStore(String label, int numArguments, int capacity, String base, 
+            int offset)
+    {
+        this.emit("# remember $v0 in " + label);
+        this.emitMemoAddress(label, numArguments, capacity, base, offset);
+        this.emit("li $t1 1");
+        this.emit("sw $t1 ($t0)");
+        
+        for (int i = 0; i < numArguments; i++)
+        {
+            this.emit("lw $t1 " + (offset + Emitter.WORD_SIZE * (numArguments - 1 - i)) 
+                    + "(" + base + ")");
+            this.emit("sw $t1 " + Emitter.WORD_SIZE * (i + 1) + "($t0)");
+        }
+        
+        this.emit("sw $v0 " + Emitter.WORD_SIZE * (numArguments + 1) + "($t0)");
+        this.emit("");
+    } // public void emitMemoStore
+    
+    /**
+     * Emits MIPS code that hashes the arguments into the address of their table entry in $t0.
+     * 
+     * @postcondition $t0 holds the entry address; $t1 is changed.
+     * 
+     * @param label         the label of the table
+     * @param numArguments  the number of arguments of the memoized procedure
+     * @param capacity      the number of entries, a power of two
+     * @param base          the register the arguments are addressed from
+     * @param offset        the byte offset of the last argument from the base register
+     */
+    private void emitMemoAddress(String label, int numArguments, int capacity, String base,
+            int offset)
+    {
+        // hash = hash * 31 + argument, for each argument in order
+        this.emit("li $t0 0");
+        
+        for (int i = 0; i < numArguments; i++)
+        {
+            this.emit("li $t1 31");
+            this.emit("mult $t0 $t1");
+            this.emit("mflo $t0");
+            this.emit("lw $t1 " + (offset + Emitter.WORD_SIZE * (numArguments - 1 - i)) 
+                    + "(" + base + ")");
+            this.emit("addu $t0 $t0 $t1");
+        } // for
+        
+        this.emit("li $t1 " + (capacity - 1));
+        this.emit("and $t0 $t0 $t1");
+        this.emit("li $t1 " + Emitter.WORD_SIZE * (numArguments + 2));
+        this.emit("mult $t0 $t1");
+        this.emit("mflo $t0");
+        this.emit("la $t1 " + label);
+        this.emit("addu $t0 $t0 $t1");
+    } // private void emitMemoAddress
+    
+    /**
+     * Sets whether compiled arithmetic checks for overflow and division by zero at runtime.
+     * 
+     * @postcondition Code emitted afterward is checked if and only if requested.
+     * 
+     * @param checked   whether to emit runtime checks
+     */
+    public void setChecked(boolean checked)
+    {
+        this.checked = checked;
+    }
+    
+    /**
+     * Returns whether compiled arithmetic checks for overflow and division by zero at runtime.
+     * 
+     * @return true if runtime checks are emitted, false otherwise
+     */
+    public boolean isChecked()
+    {
+        return this.checked;
+    }
+    
     /**
      * Sets the current procedure context.
      * 
@@ -0,0 +1,175 @@
+package environment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * BufferedOutputSink formats written values as text into a large reusable byte buffer,
+ * one value per line, and writes the buffer to an output stream whenever it fills or
+ * is flushed. Integers are formatted digit by digit, so no value allocates a string.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class BufferedOutputSink implements OutputSink
+{
+    private final static int DEFAULT_CAPACITY = 1 << 16;   // bytes buffered before writing
+    private final static int MAX_INT_LENGTH = 11;          // the length of -2147483648
+    
+    private final static byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private final static byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private final static byte[] MIN_INT = {'-', '2', '1', '4', '7', '4', '8', '3', '6', '4', '8'};
+    
+    private OutputStream out;           // the stream receiving the text
+    private byte[] buffer;              // the text not yet written to the stream
+    private int position;               // the length of the text in the buffer
+    private byte[] lineSeparator;       // the bytes ending each line
+    
+    /**
+     * Constructs a sink buffering 64 kilobytes of text for an output stream.
+     *
+     * @param out   the stream receiving the text
+     */
+    public BufferedOutputSink(OutputStream out)
+    {
+        this(out, BufferedOutputSink.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructs a sink buffering text for an output stream.
+     *
+     * @precondition The capacity is large enough for one line.
+     *
+     * @param out       the stream receiving the text
+     * @param capacity  the number of bytes buffered before writing
+     */
+    public BufferedOutputSink(OutputStream out, int capacity)
+    {
+        this.out = out;
+        buffer = new byte[capacity];
+        position = 0;
+        lineSeparator = System.lineSeparator().getBytes();
+    }
+    
+    /**
+     * Formats an integer into the buffer, followed by a line separator.
+     *
+     * @param value the integer to write
+     */
+    @Override
+    public void writeInt(int value)
+    {
+        reserve(BufferedOutputSink.MAX_INT_LENGTH + lineSeparator.length);
+        
+        if (value == Integer.MIN_VALUE)
+        {
+            append(BufferedOutputSink.MIN_INT);
+        }
+        else
+        {
+            if (value < 0)
+            {
+                buffer[position] = '-';
+                position++;
+                value = -value;
+            }
+            
+            // Count the digits, then fill them in from the last
+            int digits = 1;
+            
+            for (int remaining = value; remaining >= 10; remaining /= 10)
+            {
+                digits++;
+            }
+            
+            for (int i = position + digits - 1; i >= position; i--)
+            {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            
+            position += digits;
+        } // else
+        
+        append(lineSeparator);
+    } // public void writeInt
+    
+    /**
+     * Copies a boolean into the buffer, followed by a line separator.
+     *
+     * @param value the boolean to write
+     */
+    @Override
+    public void writeBoolean(boolean value)
+    {
+        reserve(BufferedOutputSink.FALSE.length + lineSeparator.length);
+        append(value ? BufferedOutputSink.TRUE : BufferedOutputSink.FALSE);
+        append(lineSeparator);
+    }
+    
+    /**
+     * Writes the buffered text to the stream and flushes the stream.
+     *
+     * @throws UncheckedIOException if the stream cannot be written
+     */
+    @Override
+    public void flush()
+    {
+        drain();
+        
+        try
+        {
+            out.flush();
+        }
+        catch (IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+    } // public void flush
+    
+    /**
+     * Makes room in the buffer, writing its text to the stream if necessary.
+     *
+     * @param length    the number of bytes about to be appended
+     */
+    private void reserve(int length)
+    {
+        if (position + length > buffer.length)
+        {
+            drain();
+        }
+    }
+    
+    /**
+     * Appends bytes to the buffer.
+     *
+     * @precondition The buffer has room for the bytes.
+     *
+     * @param bytes the bytes to append
+     */
+    private void append(byte[] bytes)
+    {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+    
+    /**
+     * Writes the buffered text to the stream and empties the buffer.
+     *
+     * @throws UncheckedIOException if the stream cannot be written
+     */
+    private void drain()
+    {
+        try
+        {
+            out.write(buffer, 0, position);
+        }
+        catch (IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+        
+        position = 0;
+    } // private void drain
+} // public class BufferedOutputSink
@@ -0,0 +1,64 @@
+package environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CollectingOutputSink keeps the values written in memory, in order,
+ * as Integer and Boolean objects.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class CollectingOutputSink implements OutputSink
+{
+    private List<Object> values;    // the values written so far
+    
+    /**
+     * Constructs a sink that has collected no values.
+     */
+    public CollectingOutputSink()
+    {
+        values = new ArrayList<Object>();
+    }
+    
+    /**
+     * Collects an integer.
+     *
+     * @param value the integer to write
+     */
+    @Override
+    public void writeInt(int value)
+    {
+        values.add(value);
+    }
+    
+    /**
+     * Collects a boolean.
+     *
+     * @param value the boolean to write
+     */
+    @Override
+    public void writeBoolean(boolean value)
+    {
+        values.add(value);
+    }
+    
+    /**
+     * Does nothing, since collected values are available at once.
+     */
+    @Override
+    public void flush()
+    {
+    }
+    
+    /**
+     * Returns the values collected so far
+     *
+     * @return the written values in order
+     */
+    public List<Object> getValues()
+    {
+        return this.values;
+    }
+} // public class CollectingOutputSink
@@ -0,0 +1,28 @@
+package environment;
+
+import ast.SemanticErrorException;
+
+/**
+ * CompiledCode executes a procedure body or a loop that has been promoted from
+ * the interpreter to a compiled tier.
+ *
+ * Compiled code reads and writes the same frames as the interpreter: the values of
+ * a local runtime environment, indexed by local slot, and the values of the global
+ * environment, indexed by slot. The interpreter can therefore hand a frame to compiled code
+ * at any call, or in the middle of a loop.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface CompiledCode
+{
+    /**
+     * Executes the compiled code.
+     *
+     * @param frame     the values of the executing frame, which are the globals
+     *                  in the main program
+     * @param globals   the values of the global environment
+     * @throws SemanticErrorException if the code cannot be executed
+     */
+    public abstract void execute(int[] frame, int[] globals) throws SemanticErrorException;
+}
@@ -0,0 +1,53 @@
+package environment;
+
+/**
+ * CountingOutputSink discards the values written, counting them, so that executions can
+ * be measured without the cost of output.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class CountingOutputSink implements OutputSink
+{
+    private long count;     // the number of values written so far
+    
+    /**
+     * Counts an integer.
+     *
+     * @param value the integer to write
+     */
+    @Override
+    public void writeInt(int value)
+    {
+        count++;
+    }
+    
+    /**
+     * Counts a boolean.
+     *
+     * @param value the boolean to write
+     */
+    @Override
+    public void writeBoolean(boolean value)
+    {
+        count++;
+    }
+    
+    /**
+     * Does nothing, since nothing is kept.
+     */
+    @Override
+    public void flush()
+    {
+    }
+    
+    /**
+     * Returns the number of values written so far
+     *
+     * @return the count
+     */
+    public long getCount()
+    {
+        return this.count;
+    }
+} // public class CountingOutputSink
@@ -26,6 +26,9 @@ public class DeclarationEnvironment
     // Stores the procedures and their definitions post-declaration
     private Map<String, ProcedureDeclaration> procedures;
     
+    // Counts the identifiers generated for compiler-introduced variables and procedures
+    private int numGeneratedIdentifiers;
+    
     /**
      * Constructs an empty declaration environment.
      * 
@@ -36,6 +39,7 @@ public class DeclarationEnvironment
     {
         variables = new HashMap<String, Variable>();
         procedures = new HashMap<String, ProcedureDeclaration>();
+        numGeneratedIdentifiers = 0;
     }
     
     /**
@@ -116,7 +120,7 @@ public class DeclarationEnvironment
         }
         
         Variable returnVariable = this.getVariable(identifier);
-
+        
         ProcedureDeclaration procedure = new ProcedureDeclaration(identifier, parameters, 
                 returnVariable);
         
@@ -140,7 +144,7 @@ public class DeclarationEnvironment
     {
         this.declareProcedure(identifier, parameters, null, null);
     }
-
+    
     /**
      * Retrieves a procedure from its identifier.
      *  
@@ -161,6 +165,22 @@ public class DeclarationEnvironment
         return procedures.get(identifier);
     }
     
+    /**
+     * Generates a new identifier for a compiler-introduced variable or procedure.
+     * Generated identifiers begin with an underscore, so they can never collide
+     * with identifiers in the Pascal source.
+     * 
+     * @postcondition The generated identifier counter is increased by one.
+     * 
+     * @param hint  a readable description of the identifier's purpose
+     * @return an identifier unique within this declaration environment
+     */
+    public String generateIdentifier(String hint)
+    {
+        numGeneratedIdentifiers++;
+        return "_" + hint + numGeneratedIdentifiers;
+    }
+    
     /**
      * Returns all variables as a set of entries
      * 
@@ -189,7 +209,7 @@ public class DeclarationEnvironment
     public String toString()
     {
         String s = "Declaration environment\n\tVariables";
-
+        
         for (Map.Entry<String, Variable> entry : variables.entrySet())
         {
             s += "\n\t\tIdentifier = " + entry.getKey();
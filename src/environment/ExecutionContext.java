@@ -0,0 +1,142 @@
+package environment;
+
+import java.util.List;
+
+import ast.Program;
+import ast.SemanticErrorException;
+
+/**
+ * ExecutionContext holds everything one execution of a program shares: its global environment,
+ * with the global slots, the limits on fuel and time, and the output sink. Interpreted code reaches
+ * the context through the environments it is handed, and compiled code through the global
+ * environment current on its thread, which the context sets for the duration of an execution.
+ * Executions in different contexts are therefore independent, and may run on different threads
+ * at once.
+ *
+ * An execution exceeding its limits, or cancelled from another thread, stops with an
+ * ExecutionLimitExceededException at its next check, leaving the thread free to execute others.
+ *
+ * A program specializes its nodes and fills its memo tables as it executes, so a program
+ * must not be executed in two contexts at once.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ExecutionContext
+{
+    private RuntimeEnvironment globalEnvironment;   // the global environment of the execution
+    private ExecutionLimits limits;                 // bounds the execution
+    private long timeLimit;                         // the nanoseconds allowed, or 0 if unlimited
+    
+    /**
+     * Constructs a context whose execution collects its output in memory
+     * and is not limited in fuel or time.
+     * 
+     * @postcondition The global environment current on the calling thread is unchanged.
+     */
+    public ExecutionContext()
+    {
+        RuntimeEnvironment current = RuntimeEnvironment.getGlobalEnvironment();
+        
+        globalEnvironment = new RuntimeEnvironment(null);
+        globalEnvironment.captureOutput();
+        limits = globalEnvironment.getLimits();
+        timeLimit = 0;
+        
+        if (current != null)
+        {
+            current.makeCurrent();
+        }
+        else
+        {
+            RuntimeEnvironment.releaseCurrent();
+        }
+    } // public ExecutionContext
+    
+    /**
+     * Limits the loop iterations and procedure calls of the execution
+     *
+     * @param fuel  the number of loop iterations and procedure calls allowed
+     */
+    public void limitFuel(long fuel)
+    {
+        limits.limitFuel(fuel);
+    }
+    
+    /**
+     * Limits the time of the execution, measured from when it starts
+     *
+     * @param milliseconds  the milliseconds the execution is allowed
+     */
+    public void limitTime(long milliseconds)
+    {
+        timeLimit = milliseconds * 1000000;
+    }
+    
+    /**
+     * Cancels the execution. May be called from any thread, before or during the execution.
+     *
+     * @postcondition The execution stops with an ExecutionLimitExceededException
+     *                within ExecutionLimits.CHECK_INTERVAL loop iterations and procedure calls.
+     */
+    public void cancel()
+    {
+        limits.cancel();
+    }
+    
+    /**
+     * Sends the output of the execution to a sink instead of collecting it in memory
+     *
+     * @param outputSink    the sink receiving written values, used by this context alone
+     */
+    public void setOutputSink(OutputSink outputSink)
+    {
+        globalEnvironment.setOutputSink(outputSink);
+    }
+    
+    /**
+     * Returns the global environment of the execution
+     *
+     * @return the global environment
+     */
+    public RuntimeEnvironment getGlobalEnvironment()
+    {
+        return this.globalEnvironment;
+    }
+    
+    /**
+     * Executes a program with the interpreter in this context, on the calling thread.
+     *
+     * @precondition The program is not executing in another context.
+     * @postcondition The program has been executed, its output has been flushed,
+     *                and no global environment is current on the calling thread.
+     *
+     * @param program   the program to execute
+     * @return the values the program wrote, in order, or null if they were sent to
+     *         another sink
+     * @throws SemanticErrorException if the program cannot be executed
+     * @throws ExecutionLimitExceededException if the execution runs out of fuel,
+     *                                         exceeds its time, or is cancelled
+     */
+    public List<Object> execute(Program program) throws SemanticErrorException
+    {
+        if (timeLimit > 0)
+        {
+            limits.setDeadline(System.nanoTime() + timeLimit);
+        }
+        
+        globalEnvironment.makeCurrent();
+        
+        try
+        {
+            program.execute(globalEnvironment);
+        }
+        finally
+        {
+            globalEnvironment.flushOutput();
+            RuntimeEnvironment.releaseCurrent();
+        }
+        
+        return globalEnvironment.getCapturedOutput();
+    } // public List<Object> execute
+} // public class ExecutionContext
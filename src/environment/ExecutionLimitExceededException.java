@@ -0,0 +1,44 @@
+package environment;
+
+/**
+ * ExecutionLimitExceededException is thrown when an execution exceeds one of its limits:
+ * it runs out of fuel, passes its deadline, or is cancelled. The execution stops at its next
+ * loop iteration or procedure call, leaving the thread executing it free to execute others.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ExecutionLimitExceededException extends RuntimeException
+{
+    /**
+     * The limits an execution can exceed
+     */
+    public static enum Limit
+    {
+        FUEL, DEADLINE, CANCELLATION
+    }
+    
+    private Limit limit;    // the limit exceeded
+    
+    /**
+     * Constructs an execution limit exceeded exception with the provided message.
+     * 
+     * @param message   the description of the exceeded limit
+     * @param limit     the limit exceeded
+     */
+    public ExecutionLimitExceededException(String message, Limit limit)
+    {
+        super(message);
+        this.limit = limit;
+    }
+    
+    /**
+     * Returns the limit the execution exceeded
+     * 
+     * @return the limit exceeded
+     */
+    public Limit getLimit()
+    {
+        return this.limit;
+    }
+} // public class ExecutionLimitExceededException
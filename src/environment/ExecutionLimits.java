@@ -0,0 +1,130 @@
+package environment;
+
+import environment.ExecutionLimitExceededException.Limit;
+
+/**
+ * ExecutionLimits bounds an execution by a budget of fuel, counted in loop iterations and
+ * procedure calls, by a deadline, and by cancellation from another thread.
+ *
+ * Every loop iteration and procedure call consumes one step, which only decrements a countdown.
+ * The fuel is granted to the countdown in slices of at most CHECK_INTERVAL steps, and the
+ * limits are checked only when a slice is used up. A runaway loop is therefore stopped within
+ * a slice of being cancelled or passing its deadline, while the fuel is still counted exactly.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ExecutionLimits
+{
+    public final static int CHECK_INTERVAL = 4096;  // the most steps between checks
+    
+    private long countdown;             // the steps remaining in the current slice
+    private long granted;               // the steps granted to the current slice
+    private long fuel;                  // the steps remaining, including the current slice
+    private boolean hasDeadline;        // whether the execution has a deadline
+    private long deadline;              // the System.nanoTime by which execution must finish
+    private volatile boolean cancelled; // whether the execution has been cancelled
+    
+    /**
+     * Constructs limits that allow unlimited fuel and time until cancelled
+     */
+    public ExecutionLimits()
+    {
+        countdown = 0;
+        granted = 0;
+        fuel = Long.MAX_VALUE;
+        hasDeadline = false;
+        cancelled = false;
+    }
+    
+    /**
+     * Limits the loop iterations and procedure calls of the execution
+     *
+     * @precondition The execution is not running.
+     * @postcondition Executing more than the provided number of loop iterations and
+     *                procedure calls throws a FuelExhaustedException.
+     *
+     * @param fuel  the number of loop iterations and procedure calls allowed
+     */
+    public void limitFuel(long fuel)
+    {
+        this.fuel = fuel;
+        countdown = 0;
+        granted = 0;
+    }
+    
+    /**
+     * Sets the time by which the execution must finish
+     *
+     * @precondition The execution is not running.
+     * @postcondition Executing past the deadline throws an ExecutionLimitExceededException
+     *                within CHECK_INTERVAL steps.
+     *
+     * @param deadline  the value of System.nanoTime by which the execution must finish
+     */
+    public void setDeadline(long deadline)
+    {
+        this.hasDeadline = true;
+        this.deadline = deadline;
+    }
+    
+    /**
+     * Cancels the execution. May be called from any thread.
+     *
+     * @postcondition The execution throws an ExecutionLimitExceededException
+     *                within CHECK_INTERVAL steps.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+    
+    /**
+     * Consumes one step for a loop iteration or procedure call
+     *
+     * @throws ExecutionLimitExceededException if the fuel is used up, the deadline has passed,
+     *                                         or the execution has been cancelled
+     */
+    public void consume()
+    {
+        if (countdown <= 0)
+        {
+            check();
+        }
+        
+        countdown--;
+    }
+    
+    /**
+     * Checks the limits once a slice of fuel is used up, granting the next slice if none
+     * is exceeded
+     *
+     * @throws ExecutionLimitExceededException if the fuel is used up, the deadline has passed,
+     *                                         or the execution has been cancelled
+     */
+    private void check()
+    {
+        fuel -= granted;
+        granted = 0;
+        
+        if (cancelled)
+        {
+            String message = "Error: execution was cancelled";
+            throw new ExecutionLimitExceededException(message, Limit.CANCELLATION);
+        }
+        
+        if (fuel <= 0)
+        {
+            throw new FuelExhaustedException("Error: execution ran out of fuel");
+        }
+        
+        if (hasDeadline && System.nanoTime() - deadline > 0)
+        {
+            String message = "Error: execution passed its deadline";
+            throw new ExecutionLimitExceededException(message, Limit.DEADLINE);
+        }
+        
+        granted = Math.min(fuel, ExecutionLimits.CHECK_INTERVAL);
+        countdown = granted;
+    } // private void check
+} // public class ExecutionLimits
@@ -0,0 +1,21 @@
+package environment;
+
+/**
+ * FuelExhaustedException is thrown when a program executed with a limited amount of fuel
+ * uses it all up before finishing.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class FuelExhaustedException extends ExecutionLimitExceededException
+{
+    /**
+     * Constructs a fuel exhausted exception with the provided message.
+     * 
+     * @param message   the description of the exhausted budget
+     */
+    public FuelExhaustedException(String message)
+    {
+        super(message, Limit.FUEL);
+    }
+} // public class FuelExhaustedException
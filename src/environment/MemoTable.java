@@ -0,0 +1,54 @@
+package environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemoTable remembers the return values of a pure procedure by their argument values.
+ * The table holds a bounded number of entries, evicting the least recently used entry
+ * when a new entry would exceed its capacity.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class MemoTable extends LinkedHashMap<List<Object>, Object>
+{
+    private static final long serialVersionUID = 1L;
+    
+    private int capacity;       // the maximum number of entries
+    
+    /**
+     * Constructs an empty memo table.
+     *
+     * @param capacity  the maximum number of entries
+     */
+    public MemoTable(int capacity)
+    {
+        // Order entries by access, least recently used first
+        super(16, 0.75f, true);
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Returns the capacity of the table
+     *
+     * @return the maximum number of entries
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+    
+    /**
+     * Returns whether the least recently used entry should be evicted after an insertion.
+     *
+     * @param eldest    the least recently used entry
+     * @return true if the table holds more entries than its capacity, false otherwise
+     */
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest)
+    {
+        return this.size() > capacity;
+    }
+} // public class MemoTable
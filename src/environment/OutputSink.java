@@ -0,0 +1,32 @@
+package environment;
+
+/**
+ * OutputSink receives the values a program writes, each on its own line.
+ *
+ * Values are written unboxed, so that a sink can format them without allocating.
+ * A sink may hold written values until flushed, and is used by one execution at a time.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface OutputSink
+{
+    /**
+     * Writes an integer.
+     *
+     * @param value the integer to write
+     */
+    public abstract void writeInt(int value);
+    
+    /**
+     * Writes a boolean.
+     *
+     * @param value the boolean to write
+     */
+    public abstract void writeBoolean(boolean value);
+    
+    /**
+     * Delivers every value written so far.
+     */
+    public abstract void flush();
+}
@@ -0,0 +1,70 @@
+package environment;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import ast.Variable;
+
+/**
+ * Resolver assigns every variable of a program a slot before execution,
+ * so that runtime environments index values in arrays instead of hashing identifiers.
+ *
+ * Each variable's slot indexes its value in the global frame. Each procedure lays out
+ * its own frame, mapping the slots of its return variable, parameters, and non-parameter
+ * locals to local slots. A variable is thus found at depth 1 in the local slot its slot maps
+ * to within a procedure, or at depth 0 in its own slot otherwise. The parser shares one
+ * variable object between a global and the parameters and locals of the same name,
+ * so the local slot cannot be kept on the variable itself.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Resolver
+{
+    /**
+     * Resolves the variables of a program.
+     *
+     * @postcondition Every declared variable and every non-parameter local of a bodied procedure
+     *                has a distinct slot, and every bodied procedure has laid out its frame.
+     *
+     * @param declarationEnvironment    the declarations of the program
+     * @return the number of slots, which is the size of the global frame
+     */
+    public static int resolve(DeclarationEnvironment declarationEnvironment)
+    {
+        Set<Variable> resolved = new HashSet<Variable>();
+        
+        for (Variable variable : declarationEnvironment.getVariableSet())
+        {
+            variable.resolve(resolved.size());
+            resolved.add(variable);
+        }
+        
+        // Compiler-introduced locals are not declared globally
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                for (Variable nonParameter : procedure.getNonParameters())
+                {
+                    if (!resolved.contains(nonParameter))
+                    {
+                        nonParameter.resolve(resolved.size());
+                        resolved.add(nonParameter);
+                    }
+                }
+            } // if
+        } // for
+        
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                procedure.layOutFrame(resolved.size());
+            }
+        }
+        
+        return resolved.size();
+    } // public static int resolve
+} // public class Resolver
@@ -1,10 +1,10 @@
 package environment;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import ast.ProcedureDeclaration;
 import ast.Variable;
+import ast.WhileDo;
 
 /**
  * RuntimeEnvironment keeps track of variable values during runtime execution and evaluation.
@@ -16,167 +16,316 @@ import ast.Variable;
  */
 public class RuntimeEnvironment
 {
-    // Must be of String keys to get the variables associated with procedures
-    private Map<String, Object> variableMap;        // actual values during execution
+    // Values are indexed by the slots assigned by Resolver, with true as 1 and false as 0
+    private int[] values;                           // actual values during execution
+    private int[] layout;                           // local slot of each slot, or null if global
     
     private RuntimeEnvironment parentEnvironment;   // null if this environment is global
+    private RuntimeEnvironment globalEnvironment;   // the global environment of the execution
     
-    private static RuntimeEnvironment globalEnvironment; 
+    // The global environment executing on each thread, for compiled code holding no environment
+    private static ThreadLocal<RuntimeEnvironment> currentGlobalEnvironment = 
+            new ThreadLocal<RuntimeEnvironment>();
     
-    private final static Object DEFAULT_VALUE = 0;   // default variable value is 0 
     
-    /**
-     * 
-     * @precondition only one globalEnvironment
-     *  @postcondition the runtime environment is ready to associate variables and values
-     */
+    // Only used by a global environment
+    private ExecutionLimits limits;                 // bounds the execution, or null if unbounded
+    private OutputSink outputSink;                  // receives written values, or null until
+                                                    // the first value is printed
+    private TierCompiler tierCompiler;              // compiles hot code, or null to interpret
     
     /**
-     * Constructs an empty runtime environment.
+     * Constructs an empty runtime environment whose variables are all found globally.
      * 
-     * @postcondition The empty runtime environment is set to store variable values and its
-     *                parent environment, if it exists, is identified.
-     *                If the parent environment does not exist, then the global runtime environment
-     *                is set to this environment.
+     * @postcondition The runtime environment has no local slots and its parent environment, 
+     *                if it exists, is identified.
+     *                If the parent environment does not exist, then this environment is
+     *                the global environment of its execution, which holds no values until its
+     *                slots are allocated, and becomes current on the constructing thread.
      * 
      * @param parentEnvironment the environment of which this runtime environment is a child;
      *        null if this environment is the global environment
      */
     public RuntimeEnvironment(RuntimeEnvironment parentEnvironment)
     {
-        variableMap = new HashMap<String, Object>();
+        values = new int[0];
+        layout = null;
         this.parentEnvironment = parentEnvironment;
         
         /*
          * Extracts the global environment
          * If the current runtime environment is not the global environment,
-         * then the global environment must be the current runtime environment's parent
+         * then the global environment is that of the current runtime environment's parent
          */        
         if (parentEnvironment == null)
         {
-            RuntimeEnvironment.globalEnvironment = this;
+            globalEnvironment = this;
+            makeCurrent();
+        }
+        else
+        {
+            globalEnvironment = parentEnvironment.globalEnvironment;
         }
     }
-
+    
+    /**
+     * Constructs the runtime environment of a call to a procedure.
+     * 
+     * @precondition The variables of the program have been resolved.
+     * @postcondition The runtime environment holds a local slot with the default value 0 
+     *                for each local variable of the procedure, laid out by the procedure.
+     * 
+     * @param parentEnvironment the global environment
+     * @param procedure         the procedure being called
+     */
+    public RuntimeEnvironment(RuntimeEnvironment parentEnvironment, ProcedureDeclaration procedure)
+    {
+        this(parentEnvironment);
+        
+        values = new int[procedure.getFrameSize()];
+        layout = procedure.getFrameLayout();
+    }
+    
+    /**
+     * Constructs the runtime environment of a call to a procedure over an existing frame,
+     * such as one built by compiled code calling a procedure that is still interpreted.
+     * 
+     * @precondition The variables of the program have been resolved, and the frame is
+     *               laid out by the procedure.
+     * @postcondition The runtime environment holds its local variables in the provided frame.
+     * 
+     * @param parentEnvironment the global environment
+     * @param procedure         the procedure being called
+     * @param frame             the local slots of the call
+     */
+    public RuntimeEnvironment(RuntimeEnvironment parentEnvironment, ProcedureDeclaration procedure,
+            int[] frame)
+    {
+        this(parentEnvironment);
+        
+        values = frame;
+        layout = procedure.getFrameLayout();
+    }
+    
+    /**
+     * Allocates the slots of a global environment.
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition The environment holds the provided number of slots, 
+     *                each with the default value 0.
+     * 
+     * @param numSlots  the number of slots assigned by resolution
+     */
+    public void allocateSlots(int numSlots)
+    {
+        values = new int[numSlots];
+    }
+    
+    /**
+     * Returns the values of the environment, which compiled code reads and writes directly
+     * 
+     * @return the local slots of a procedure environment, or the global slots
+     */
+    public int[] getValues()
+    {
+        return this.values;
+    }
+    
+    /**
+     * Returns the frame layout of the environment
+     * 
+     * @return the local slot of each slot, or null if this environment is global
+     */
+    public int[] getLayout()
+    {
+        return this.layout;
+    }
+    
     /**
-     * Declares and initializes a local variable within the local scope.
+     * Initializes a variable within the scope in which it is found.
      * 
-     * @postcondition The  given variable is initialized in this environment
-     *                with the given value.
+     * @precondition The variable has been resolved.
+     * @postcondition The given variable is set to the given value in its scope.
      * 
-     * @param variable the variable that should be inserted into this local environment
-     * @param value the value to set the local variable to
+     * @param variable the variable that should be initialized
+     * @param value the value to set the variable to
      */
     public void introduceLocalVariable(Variable variable, Object value)
     {
-        variableMap.put(variable.getIdentifier(), value);
+        setVariableValue(variable, value);
+    }
+    
+    /**
+     * Initializes a variable within the scope in which it is found to the default value.
+     * 
+     * @precondition The variable has been resolved.
+     * @postcondition The given variable is set to the default value 0 in its scope.
+     * 
+     * @param variable the variable that should be initialized
+     */
+    public void introduceLocalVariable(Variable variable)
+    {
+        setIntValue(variable, 0);
     }
     
     /**
      * Sets the value of a variable within the appropriate scope.
      * 
-     * @postcondition If the provided variable exists in the current local scope,
+     * @precondition The variable has been resolved.
+     * @postcondition If the provided variable has a local slot in this environment,
      *                the variable is set to the provided value in the local scope.
-     *                If the provided variable exists only within the global scope,
-     *                the variable is set to the provided value within the global scope.
-     *                If the the provided variable does not exist yet in either scope,
-     *                the variable is introduced to the local scope with default value 0. 
+     *                Otherwise, the variable is set to the provided value within the global scope.
      * 
      * @param variable  the variable to set
      * @param value     the value to set the variable to
      */
     public void setVariableValue(Variable variable, Object value)
     {   
-        // If this environment contains this variable (e.g. parameter), change the value locally
-        if (variableMap.containsKey(variable.getIdentifier()))
+        if (value instanceof Boolean)
         {
-            variableMap.put(variable.getIdentifier(), value);
+            setIntValue(variable, (Boolean) value ? 1 : 0);
         }
-        
-        // If this environment doesn't contain this variable, see if the parent contains it
-        else if (parentEnvironment != null 
-                && parentEnvironment.variableMap.containsKey(variable.getIdentifier()))
+        else
         {
-            parentEnvironment.setVariableValue(variable, value);
+            setIntValue(variable, (Integer) value);
         }
+    } // public void setVariableValue
+    
+    /**
+     * Sets the value of a variable within the appropriate scope without boxing.
+     * 
+     * @precondition The variable has been resolved.
+     * @postcondition If the provided variable has a local slot in this environment,
+     *                the variable is set to the provided value in the local scope.
+     *                Otherwise, the variable is set to the provided value within the global scope.
+     * 
+     * @param variable  the variable to set
+     * @param value     the value to set the variable to, with true as 1 and false as 0
+     */
+    public void setIntValue(Variable variable, int value)
+    {   
+        int slot = variable.getSlot();
         
-        // Otherwise, introduce the variable to this scope alone
+        // Index the local slot directly if this environment has one for the variable
+        if (layout != null && layout[slot] >= 0)
+        {
+            values[layout[slot]] = value;
+        }
         else
         {
-            introduceLocalVariable(variable, value);
-        } // else
-    } // public void setVariableValue
+            globalEnvironment.values[slot] = value;
+        }
+    } // public void setIntValue
+    
+    /**
+     * Returns the values holding a variable, which a loop updating the variable on every
+     * iteration indexes directly.
+     * 
+     * @precondition The variable has been resolved.
+     * 
+     * @param variable  the variable
+     * @return the local slots of this environment if it has one for the variable,
+     *         or the global slots otherwise
+     */
+    public int[] getValuesOf(Variable variable)
+    {
+        int slot = variable.getSlot();
+        
+        return layout != null && layout[slot] >= 0 ? values : globalEnvironment.values;
+    }
+    
+    /**
+     * Returns the position of a variable within the values holding it
+     * 
+     * @precondition The variable has been resolved.
+     * 
+     * @param variable  the variable
+     * @return the local slot of the variable if this environment has one for it,
+     *         or its global slot otherwise
+     */
+    public int getPositionOf(Variable variable)
+    {
+        int slot = variable.getSlot();
+        
+        return layout != null && layout[slot] >= 0 ? layout[slot] : slot;
+    }
     
     /**
      * Returns the value associated with a variable.
      *  
-     * @postcondition If the provided variable exists in neither the current local 
-     *                or global scope, the variable is introduced to the global scope
-     *                with default value 0.
+     * @precondition The variable has been resolved.
      *  
      * @param variable  the variable whose value is to be retrieved
-     * @return If the provided variable exists in the current local scope,
+     * @return If the provided variable has a local slot in this environment,
      *         the associated value in the local scope is returned.
-     *         
-     *         If the provided variable exists only within the global scope,
-     *         the associated value within the global scope is returned.
-     *         If the the provided variable does not exist yet in either scope,
-     *         the variable is introduced to the local scope with default value 0
-     *         and the value 0 is returned.         
+     *         Otherwise, the associated value within the global scope is returned.
      */
     public Object getVariableValue(Variable variable)
     {   
-        Object value = null;
+        Object value;
         
-        // If this environment associates a value with this variable, return that value
-        if (variableMap.containsKey(variable.getIdentifier()))
+        if (variable.getEvaluationType().equals(Boolean.class))
         {
-            value = variableMap.get(variable.getIdentifier());
+            value = getIntValue(variable) != 0;
         }
-        
-        // If this environment doesn't contain this variable, see if the parent contains it
-        else if (parentEnvironment != null 
-                && parentEnvironment.variableMap.containsKey(variable.getIdentifier()))
+        else
         {
-            value = parentEnvironment.getVariableValue(variable);
+            value = getIntValue(variable);
         }
         
-        // Otherwise, add it to the local environment as the default value and return it
+        return value;
+    } // public Object getVariableValue
+    
+    /**
+     * Returns the value associated with a variable without boxing.
+     *  
+     * @precondition The variable has been resolved.
+     *  
+     * @param variable  the variable whose value is to be retrieved
+     * @return the value in the local scope if the variable has a local slot in this environment,
+     *         or the value in the global scope otherwise, with true as 1 and false as 0
+     */
+    public int getIntValue(Variable variable)
+    {   
+        int slot = variable.getSlot();
+        int value;
+        
+        // Index the local slot directly if this environment has one for the variable
+        if (layout != null && layout[slot] >= 0)
+        {
+            value = values[layout[slot]];
+        }
         else
         {
-            introduceLocalVariable(variable, RuntimeEnvironment.DEFAULT_VALUE);
-            value = variableMap.get(variable.getIdentifier());
+            value = globalEnvironment.values[slot];
         }
-                
+        
         return value;
-    }
+    } // public int getIntValue
     
     /**
-     * Declares and initializes a local return variable for a procedure within the local scope.
+     * Initializes the return variable of a procedure within the local scope.
      * 
-     * @postcondition The given procedure's return variable is initialized in this environment
-     *                with the default value 0.
+     * @postcondition The given procedure's return variable is set to the default value 0.
      * 
-     * @param procedure the procedure for which a local return variable must be introduced
+     * @param procedure the procedure whose return variable must be initialized
      */
-    
     public void introduceProcedureValue(ProcedureDeclaration procedure)
     {
-        variableMap.put(procedure.getIdentifier(), RuntimeEnvironment.DEFAULT_VALUE);
+        introduceLocalVariable(procedure.getReturnVariable());
     }
     
     /**
      * Returns the return value of a procedure.
      *  
-     * @precondition The return variable for the given procedure has been previously introduced
-     *               as a local variable.
+     * @precondition This environment is the environment of a call to the procedure.
      *  
      * @param procedure the procedure whose return value is to be retrieved
      * @return the value of the procedure return variable within the local scope
      */
     public Object getProcedureValue(ProcedureDeclaration procedure)
     {
-        return variableMap.get(procedure.getIdentifier());
+        return getVariableValue(procedure.getReturnVariable());
     }
     
     /**
@@ -190,30 +339,259 @@ public class RuntimeEnvironment
     }
     
     /**
-     * Returns the global environment
+     * Returns the global environment of the execution this environment belongs to
      * 
-     * @precondition A global environment has been created.
+     * @return the global environment, which is this environment if it has no parent
+     */
+    public RuntimeEnvironment getGlobal()
+    {
+        return this.globalEnvironment;
+    }
+    
+    /**
+     * Returns the global environment current on the executing thread.
+     * Compiled code, which holds frames rather than environments, reaches its execution
+     * through it, so programs executing on different threads do not share it.
      * 
-     * @return the global environment
+     * @precondition A global environment has been made current on this thread.
+     * 
+     * @return the current global environment of this thread
      */
     public static RuntimeEnvironment getGlobalEnvironment()
     {
-        return RuntimeEnvironment.globalEnvironment;
+        return RuntimeEnvironment.currentGlobalEnvironment.get();
     }
     
     /**
-     * Returns a string representation of all variables and values
+     * Makes the global environment of this environment current on the executing thread
      * 
-     * @return a string consisting of a list of printed variables and their assigned values
+     * @postcondition Compiled code executing on this thread reaches this execution.
+     */
+    public void makeCurrent()
+    {
+        RuntimeEnvironment.currentGlobalEnvironment.set(this.globalEnvironment);
+    }
+    
+    /**
+     * Releases the global environment current on the executing thread, so that a thread
+     * reused for other work does not keep the execution reachable
+     * 
+     * @postcondition No global environment is current on this thread.
+     */
+    public static void releaseCurrent()
+    {
+        RuntimeEnvironment.currentGlobalEnvironment.remove();
+    }
+    
+    /**
+     * Limits the loop iterations and procedure calls of executions in this global environment.
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition Executing more than the provided number of loop iterations and
+     *                procedure calls throws a FuelExhaustedException.
+     * 
+     * @param fuel  the number of loop iterations and procedure calls allowed
+     */
+    public void limitFuel(long fuel)
+    {
+        getLimits().limitFuel(fuel);
+    }
+    
+    /**
+     * Returns the limits of executions in this global environment, which can also set
+     * a deadline or cancel the execution
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition The environment has limits, unlimited unless limited before.
+     * 
+     * @return the limits of the execution
+     */
+    public ExecutionLimits getLimits()
+    {
+        if (limits == null)
+        {
+            limits = new ExecutionLimits();
+        }
+        
+        return this.limits;
+    }
+    
+    /**
+     * Consumes one unit of fuel for a loop iteration or procedure call.
+     * Since every other statement runs at most once per iteration or call,
+     * this bounds the total work of an execution.
+     * 
+     * @postcondition If the global environment has limits, one step of fuel has been consumed.
+     * 
+     * @throws ExecutionLimitExceededException if the fuel is used up, the deadline has passed,
+     *                                         or the execution has been cancelled
+     */
+    public void consumeFuel()
+    {
+        ExecutionLimits globalLimits = globalEnvironment.limits;
+        
+        if (globalLimits != null)
+        {
+            globalLimits.consume();
+        }
+    } // public void consumeFuel
+    
+    /**
+     * Promotes hot procedures and loops of executions in this global environment
+     * to compiled code.
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition Procedures and loops that become hot are compiled by the provided compiler.
+     * 
+     * @param compiler  the compiler of hot procedures and loops
+     */
+    public void enableTiering(TierCompiler compiler)
+    {
+        this.tierCompiler = compiler;
+    }
+    
+    /**
+     * Requests the compilation of a procedure that has become hot.
+     * 
+     * @postcondition If tiering is enabled, the procedure is compiled, possibly in the background.
+     * 
+     * @param procedure the hot procedure
+     */
+    public void requestCompilation(ProcedureDeclaration procedure)
+    {
+        RuntimeEnvironment global = globalEnvironment;
+        
+        if (global.tierCompiler != null)
+        {
+            global.tierCompiler.compile(procedure);
+        }
+    }
+    
+    /**
+     * Requests the compilation of a while loop that has become hot.
+     * 
+     * @postcondition If tiering is enabled, the loop is compiled, possibly in the background.
+     * 
+     * @param loop      the hot loop
+     * @param layout    the frame layout of the procedure containing the loop,
+     *                  or null if the loop is in the main program
+     */
+    public void requestCompilation(WhileDo loop, int[] layout)
+    {
+        RuntimeEnvironment global = globalEnvironment;
+        
+        if (global.tierCompiler != null)
+        {
+            global.tierCompiler.compile(loop, layout);
+        }
+    }
+    
+    /**
+     * Captures the values written by executions in this global environment 
+     * instead of printing them.
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition Written values are collected in memory as the captured output.
+     */
+    public void captureOutput()
+    {
+        this.outputSink = new CollectingOutputSink();
+    }
+    
+    /**
+     * Returns the values written so far, if output is being captured
+     * 
+     * @return the written values in order, or null if output is not collected in memory
+     */
+    public List<Object> getCapturedOutput()
+    {
+        List<Object> captured = null;
+        
+        if (outputSink instanceof CollectingOutputSink)
+        {
+            captured = ((CollectingOutputSink) outputSink).getValues();
+        }
+        
+        return captured;
+    } // public List<Object> getCapturedOutput
+    
+    /**
+     * Sends the values written by executions in this global environment to a sink.
+     * 
+     * @precondition This environment is a global environment.
+     * @postcondition Written values are delivered to the provided sink.
+     * 
+     * @param outputSink    the sink receiving written values
+     */
+    public void setOutputSink(OutputSink outputSink)
+    {
+        this.outputSink = outputSink;
+    }
+    
+    /**
+     * Returns the sink receiving the values written by executions in this environment,
+     * which buffers them for standard output unless another sink has been provided
+     * 
+     * @return the output sink of the global environment
+     */
+    public OutputSink getOutputSink()
+    {
+        RuntimeEnvironment global = globalEnvironment;
+        
+        if (global.outputSink == null)
+        {
+            global.outputSink = new BufferedOutputSink(System.out);
+        }
+        
+        return global.outputSink;
+    } // public OutputSink getOutputSink
+    
+    /**
+     * Writes an integer on its own line through the output sink.
+     * 
+     * @param value the integer to write
+     */
+    public void writeInt(int value)
+    {
+        getOutputSink().writeInt(value);
+    }
+    
+    /**
+     * Writes a boolean on its own line through the output sink.
+     * 
+     * @param value the boolean to write
+     */
+    public void writeBoolean(boolean value)
+    {
+        getOutputSink().writeBoolean(value);
+    }
+    
+    /**
+     * Delivers the values written so far, such as at the end of an execution
+     * 
+     * @postcondition Every value written has reached the destination of the output sink.
+     */
+    public void flushOutput()
+    {
+        if (globalEnvironment.outputSink != null)
+        {
+            globalEnvironment.outputSink.flush();
+        }
+    }
+    
+    /**
+     * Returns a string representation of all slots and values
+     * 
+     * @return a string consisting of a list of printed slots and their assigned values
      */
     public String toString()
     {
-        String s = "Runtime environment\n\tVariables";
-
-        for (Map.Entry<String, Object> entry : variableMap.entrySet())
+        String s = "Runtime environment\n\tSlots";
+        
+        for (int slot = 0; slot < values.length; slot++)
         {
-            s += "\n\t\tIdentifier = " + entry.getKey();
-            s += ", Value = " + entry.getValue();
+            s += "\n\t\tSlot = " + slot;
+            s += ", Value = " + values[slot];
         }
         
         return s;
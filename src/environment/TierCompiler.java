@@ -0,0 +1,33 @@
+package environment;
+
+import ast.ProcedureDeclaration;
+import ast.WhileDo;
+
+/**
+ * TierCompiler compiles procedures and loops that the interpreter finds hot.
+ *
+ * Requests return immediately. Compilation may happen in the background, after which the
+ * compiled code is promoted into the procedure or loop, which the interpreter runs instead
+ * from its next call or iteration on.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface TierCompiler
+{
+    /**
+     * Requests the compilation of the body of a procedure.
+     *
+     * @param procedure the hot procedure, which has a body
+     */
+    public abstract void compile(ProcedureDeclaration procedure);
+    
+    /**
+     * Requests the compilation of a while loop.
+     *
+     * @param loop      the hot loop
+     * @param layout    the frame layout of the procedure containing the loop,
+     *                  or null if the loop is in the main program
+     */
+    public abstract void compile(WhileDo loop, int[] layout);
+}
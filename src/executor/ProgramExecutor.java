@@ -0,0 +1,120 @@
+package executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import ast.Program;
+import environment.ExecutionContext;
+import parser.Parser;
+import scanner.Scanner;
+
+/**
+ * ProgramExecutor parses and interprets many programs in parallel on a fork-join pool,
+ * each in its own execution context, so that programs never share a global environment.
+ * With one worker per core, a large batch of programs keeps every core busy.
+ * Limits on fuel and time stop runaway programs, which would otherwise hold a worker forever;
+ * the future of such a program fails with an ExecutionLimitExceededException.
+ *
+ * Each program is parsed by the task that executes it, since a program changes as it executes
+ * and so cannot be shared between executions.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ProgramExecutor
+{
+    private ForkJoinPool pool;      // the workers executing programs
+    private long fuel;              // the fuel of each execution, or 0 if unlimited
+    private long timeLimit;         // the milliseconds of each execution, or 0 if unlimited
+    
+    /**
+     * Constructs an executor with one worker per available core,
+     * whose executions are not limited in fuel or time.
+     */
+    public ProgramExecutor()
+    {
+        this(Runtime.getRuntime().availableProcessors(), 0, 0);
+    }
+    
+    /**
+     * Constructs an executor.
+     *
+     * @param parallelism   the number of programs to execute at once
+     * @param fuel          the loop iterations and procedure calls allowed to each execution,
+     *                      or 0 if unlimited
+     * @param timeLimit     the milliseconds allowed to each execution, or 0 if unlimited
+     */
+    public ProgramExecutor(int parallelism, long fuel, long timeLimit)
+    {
+        pool = new ForkJoinPool(parallelism);
+        this.fuel = fuel;
+        this.timeLimit = timeLimit;
+    }
+    
+    /**
+     * Submits a program to be parsed and executed.
+     *
+     * @param source    the text of the program
+     * @return the values the program writes, in order, or the error that stopped it
+     */
+    public Future<List<Object>> submit(String source)
+    {
+        return pool.submit(task(source));
+    }
+    
+    /**
+     * Parses and executes programs in parallel, returning once all of them have finished.
+     *
+     * @param sources   the texts of the programs
+     * @return for each program in order, the values it wrote or the error that stopped it
+     */
+    public List<Future<List<Object>>> executeAll(List<String> sources)
+    {
+        List<Callable<List<Object>>> tasks = new ArrayList<Callable<List<Object>>>();
+        
+        for (String source : sources)
+        {
+            tasks.add(task(source));
+        }
+        
+        return pool.invokeAll(tasks);
+    }
+    
+    /**
+     * Stops the workers once the submitted programs have finished
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+    
+    /**
+     * Creates the task that parses and executes a program in a fresh execution context
+     *
+     * @param source    the text of the program
+     * @return the task, which returns the values the program writes
+     */
+    private Callable<List<Object>> task(String source)
+    {
+        return () ->
+        {
+            Program program = new Parser(new Scanner(source)).parseProgram();
+            ExecutionContext context = new ExecutionContext();
+            
+            if (fuel > 0)
+            {
+                context.limitFuel(fuel);
+            }
+            
+            if (timeLimit > 0)
+            {
+                context.limitTime(timeLimit);
+            }
+            
+            return context.execute(program);
+        };
+    } // private Callable<List<Object>> task
+} // public class ProgramExecutor
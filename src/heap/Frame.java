@@ -0,0 +1,116 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.List;
+
+import ast.ProcedureDeclaration;
+import environment.RuntimeEnvironment;
+
+/**
+ * Frame holds the local slots of one call executed by the heap interpreter.
+ * Frames are pooled by depth: a frame is kept when its call returns and reused by the next
+ * call at the same depth, so recursion allocates only when it first reaches a new depth.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Frame
+{
+    private ProcedureDeclaration procedure;     // the procedure being called
+    private int[] values;                       // the local slots, possibly more than needed
+    private List<Object> key;                   // the memo table key, or null if not memoized
+    private RuntimeEnvironment environment;     // the slots as seen by the interpreter
+    
+    /**
+     * Constructs an empty frame, which holds no slots until it is entered.
+     */
+    public Frame()
+    {
+        values = new int[0];
+    }
+    
+    /**
+     * Enters a call to a procedure, reusing the slots of the previous call if large enough.
+     *
+     * @precondition The variables of the program have been resolved.
+     * @postcondition The frame holds a local slot with the default value 0 for each
+     *                local variable of the procedure, and no memo table key.
+     *                Its environment views the slots laid out by the procedure.
+     *
+     * @param procedure           the procedure being called
+     * @param globalEnvironment   the global environment of the execution
+     */
+    public void enter(ProcedureDeclaration procedure, RuntimeEnvironment globalEnvironment)
+    {
+        int size = procedure.getFrameSize();
+        
+        if (values.length < size)
+        {
+            values = new int[size];
+            environment = null;
+        }
+        else
+        {
+            Arrays.fill(values, 0, size, 0);
+        }
+        
+        // Recursion reenters a frame with the same procedure, which reuses its environment
+        if (environment == null || this.procedure != procedure)
+        {
+            environment = new RuntimeEnvironment(globalEnvironment, procedure, values);
+        }
+        
+        this.procedure = procedure;
+        key = null;
+    } // public void enter
+    
+    /**
+     * Returns the procedure being called
+     *
+     * @return the procedure
+     */
+    public ProcedureDeclaration getProcedure()
+    {
+        return this.procedure;
+    }
+    
+    /**
+     * Returns the local slots of the call
+     *
+     * @return the values, indexed by local slot
+     */
+    public int[] getValues()
+    {
+        return this.values;
+    }
+    
+    /**
+     * Returns the environment through which the interpreter reads and writes the slots
+     *
+     * @return the environment of the call
+     */
+    public RuntimeEnvironment getEnvironment()
+    {
+        return this.environment;
+    }
+    
+    /**
+     * Returns the memo table key of the call
+     *
+     * @return the arguments of the call, or null if the procedure is not memoized
+     */
+    public List<Object> getKey()
+    {
+        return this.key;
+    }
+    
+    /**
+     * Records the memo table key of the call, under which its return value is remembered
+     *
+     * @param key   the arguments of the call
+     */
+    public void setKey(List<Object> key)
+    {
+        this.key = key;
+    }
+} // public class Frame
@@ -0,0 +1,778 @@
+package heap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import environment.MemoTable;
+import environment.Resolver;
+import environment.RuntimeEnvironment;
+
+/**
+ * HeapInterpreter executes the tree of a program without recursing on the Java stack.
+ *
+ * The work left to do is kept on an explicit continuation stack of nodes, each with the phase
+ * at which its execution resumes, and the values of evaluated expressions on an operand stack.
+ * Each call enters a pooled frame holding only its local slots. The depth of recursion is
+ * therefore limited by the heap rather than the Java stack, at a few continuations and
+ * a frame per level. Statements and expressions that call no procedure cannot recurse,
+ * so they are executed at once by the interpreter, which nests only as deep as they do.
+ *
+ * Programs write the same values and consume the same fuel as when executed by
+ * the interpreter.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class HeapInterpreter
+{
+    private final static int INITIAL_CONTINUATIONS = 256;  // continuations allocated at first
+    private final static int INITIAL_OPERANDS = 64;         // operands allocated at first
+    private final static int INITIAL_DEPTH = 64;            // frames allocated at first
+    
+    private RuntimeEnvironment environment;     // the global environment
+    private int[] globals;                      // the global slots
+    
+    private Object[] nodes;                     // the continuation stack of nodes
+    private int[] phases;                       // the phase at which each node resumes
+    private int numContinuations;               // the height of the continuation stack
+    
+    private int[] operands;                     // the values of evaluated expressions
+    private int numOperands;                    // the height of the operand stack
+    
+    private Frame[] frames;                     // the pooled frames, by depth
+    private int depth;                          // the depth of the executing call
+    private int[] values;                       // the slots of the executing frame
+    private int[] layout;                       // its frame layout, or null in the main program
+    private RuntimeEnvironment frameEnvironment;    // the executing frame, for the interpreter
+    
+    private Map<Statement, Boolean> callFree;       // whether each statement seen calls nothing
+    
+    /**
+     * Executes a program in a fresh global frame.
+     *
+     * @precondition The provided environment is the global environment.
+     * @postcondition The main program has been executed with every variable starting at 0.
+     *
+     * @param program               the program
+     * @param runtimeEnvironment    the global environment that writes output and limits fuel
+     * @throws SemanticErrorException if a bodiless procedure header is called,
+     *                                or the program contains a node that cannot be executed
+     */
+    public void execute(Program program, RuntimeEnvironment runtimeEnvironment)
+            throws SemanticErrorException
+    {
+        environment = runtimeEnvironment;
+        environment.allocateSlots(Resolver.resolve(program.getDeclarationEnvironment()));
+        globals = environment.getValues();
+        
+        nodes = new Object[HeapInterpreter.INITIAL_CONTINUATIONS];
+        phases = new int[HeapInterpreter.INITIAL_CONTINUATIONS];
+        numContinuations = 0;
+        operands = new int[HeapInterpreter.INITIAL_OPERANDS];
+        numOperands = 0;
+        frames = new Frame[HeapInterpreter.INITIAL_DEPTH];
+        depth = 0;
+        values = globals;
+        layout = null;
+        frameEnvironment = environment;
+        callFree = new IdentityHashMap<Statement, Boolean>();
+        
+        resume(program.getBody(), 0);
+        
+        while (numContinuations > 0)
+        {
+            numContinuations--;
+            Object node = nodes[numContinuations];
+            int phase = phases[numContinuations];
+            
+            if (node instanceof Statement)
+            {
+                execute((Statement) node, phase);
+            }
+            else
+            {
+                evaluate((Expression) node, phase);
+            }
+        } // while
+    } // public void execute(Program, RuntimeEnvironment)
+    
+    /**
+     * Continues the execution of a statement from a phase.
+     *
+     * @param statement the statement
+     * @param phase     the phase at which the statement resumes, 0 when it starts
+     * @throws SemanticErrorException if the statement cannot be executed
+     */
+    private void execute(Statement statement, int phase) throws SemanticErrorException
+    {
+        if (phase == 0 && isCallFree(statement))
+        {
+            statement.execute(frameEnvironment);
+        }
+        
+        else if (statement instanceof Block)
+        {
+            // The phase is the index of the next statement, the last of which needs no return
+            List<Statement> statements = ((Block) statement).getStatements();
+            
+            if (phase < statements.size() - 1)
+            {
+                resume(statement, phase + 1);
+            }
+            
+            if (phase < statements.size())
+            {
+                resume(statements.get(phase), 0);
+            }
+        } // if
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            
+            if (phase == 0 && isCallFree(assignment.getExpression()))
+            {
+                store(assignment.getVariable(), evaluateAtOnce(assignment.getExpression()));
+            }
+            else if (phase == 0)
+            {
+                resume(assignment, 1);
+                resume(assignment.getExpression(), 0);
+            }
+            else
+            {
+                store(assignment.getVariable(), pop());
+            }
+        } // else if
+        
+        else if (statement instanceof Writeln)
+        {
+            Writeln writeln = (Writeln) statement;
+            
+            if (phase == 0)
+            {
+                resume(writeln, 1);
+                resume(writeln.getExpression(), 0);
+            }
+            else if (writeln.getExpression().getEvaluationType().equals(Boolean.class))
+            {
+                environment.writeBoolean(pop() != 0);
+            }
+            else
+            {
+                environment.writeInt(pop());
+            }
+        } // else if
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            
+            if (phase == 0 && isCallFree(ifThen.getCondition()))
+            {
+                if (evaluateAtOnce(ifThen.getCondition()) != 0)
+                {
+                    resume(ifThen.getThenStatement(), 0);
+                }
+            }
+            else if (phase == 0)
+            {
+                resume(ifThen, 1);
+                resume(ifThen.getCondition(), 0);
+            }
+            else if (pop() != 0)
+            {
+                resume(ifThen.getThenStatement(), 0);
+            }
+        } // else if
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            
+            // A condition calling no procedure is evaluated at once, as if resumed with its value
+            if (phase == 0 && isCallFree(whileDo.getCondition()))
+            {
+                push(evaluateAtOnce(whileDo.getCondition()));
+                phase = 1;
+            }
+            else if (phase == 0)
+            {
+                resume(whileDo, 1);
+                resume(whileDo.getCondition(), 0);
+            }
+            
+            if (phase == 1 && pop() != 0)
+            {
+                environment.consumeFuel();
+                resume(whileDo, 0);
+                resume(whileDo.getDoStatement(), 0);
+            }
+        } // else if
+        
+        else if (statement instanceof ForToDo)
+        {
+            executeForToDo((ForToDo) statement, phase);
+        }
+        
+        else
+        {
+            String message = "Error: cannot interpret statement " + statement;
+            throw new SemanticErrorException(message);
+        }
+    } // private void execute(Statement, int)
+    
+    /**
+     * Continues the execution of a for loop from a phase. The loop initializes its index,
+     * then reads the index and evaluates the upper bound before each iteration,
+     * incrementing the index after each iteration.
+     *
+     * @param forToDo   the for loop
+     * @param phase     the phase at which the loop resumes, 0 when it starts
+     * @throws SemanticErrorException if the loop cannot be executed
+     */
+    private void executeForToDo(ForToDo forToDo, int phase) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        
+        switch (phase)
+        {
+            case (0):
+                resume(forToDo, 1);
+                resume(forToDo.getLowerBound(), 0);
+                break;
+            case (1):
+                store(index, pop());
+                checkBound(forToDo);
+                break;
+            case (2):
+                int upperBound = pop();
+                
+                if (pop() <= upperBound)
+                {
+                    environment.consumeFuel();
+                    resume(forToDo, 3);
+                    resume(forToDo.getDoStatement(), 0);
+                }
+                break;
+            default:
+                store(index, load(index) + 1);
+                checkBound(forToDo);
+                break;
+        } // switch
+    } // private void executeForToDo
+    
+    /**
+     * Reads the index of a for loop and evaluates its upper bound, comparing them at once
+     * if the bound calls no procedure and resuming the loop to compare them otherwise.
+     *
+     * @param forToDo   the for loop
+     * @throws SemanticErrorException if the fuel runs out
+     */
+    private void checkBound(ForToDo forToDo) throws SemanticErrorException
+    {
+        push(load(forToDo.getIndex()));
+        
+        if (isCallFree(forToDo.getUpperBound()))
+        {
+            push(evaluateAtOnce(forToDo.getUpperBound()));
+            executeForToDo(forToDo, 2);
+        }
+        else
+        {
+            resume(forToDo, 2);
+            resume(forToDo.getUpperBound(), 0);
+        }
+    } // private void checkBound
+    
+    /**
+     * Continues the evaluation of an expression from a phase,
+     * eventually pushing its value onto the operand stack.
+     *
+     * @param expression    the expression
+     * @param phase         the phase at which the expression resumes, 0 when it starts
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    private void evaluate(Expression expression, int phase) throws SemanticErrorException
+    {
+        if (phase == 0 && isCallFree(expression))
+        {
+            push(evaluateAtOnce(expression));
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            
+            if (phase == 0)
+            {
+                resume(operator, 1);
+                resume(operator.getOperand2(), 0);
+                resume(operator.getOperand1(), 0);
+            }
+            else
+            {
+                int value2 = pop();
+                push(HeapInterpreter.apply(operator.getOperator(), pop(), value2));
+            }
+        } // else if
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            
+            if (phase == 0)
+            {
+                resume(operator, 1);
+                resume(operator.getOperand2(), 0);
+                resume(operator.getOperand1(), 0);
+            }
+            else
+            {
+                int value2 = pop();
+                push(HeapInterpreter.compare(operator.getOperator(), pop(), value2) ? 1 : 0);
+            }
+        } // else if
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            evaluateCall((ProcedureCall) expression, phase);
+        }
+        
+        else
+        {
+            String message = "Error: cannot interpret expression " + expression;
+            throw new SemanticErrorException(message);
+        }
+    } // private void evaluate
+    
+    /**
+     * Continues the evaluation of a procedure call from a phase. The call evaluates its
+     * arguments in order, then either recalls a remembered value or enters a frame
+     * and executes the body, pushing the return value when the body has finished.
+     *
+     * @param call  the procedure call
+     * @param phase the phase at which the call resumes, 0 when it starts
+     * @throws SemanticErrorException if the procedure is a bodiless header
+     */
+    private void evaluateCall(ProcedureCall call, int phase) throws SemanticErrorException
+    {
+        ProcedureDeclaration procedure = call.getProcedure();
+        MemoTable memoTable = procedure.getMemoTable();
+        
+        if (phase == 0)
+        {
+            if (procedure.isHeader())
+            {
+                String message = "Error: called bodiless procedure header "
+                        + procedure.getIdentifier();
+                throw new SemanticErrorException(message);
+            }
+            
+            // Evaluate the arguments in order, the first on top of the continuation stack
+            List<Expression> arguments = call.getArguments();
+            resume(call, 1);
+            
+            for (int i = arguments.size() - 1; i >= 0; i--)
+            {
+                resume(arguments.get(i), 0);
+            }
+        } // if
+        
+        else if (phase == 1)
+        {
+            List<Variable> parameters = procedure.getParameters();
+            int first = numOperands - parameters.size();
+            numOperands = first;
+            
+            // A memoized procedure returns the remembered value for the same arguments
+            List<Object> key = null;
+            
+            if (memoTable != null)
+            {
+                key = new ArrayList<Object>();
+                
+                for (int i = 0; i < parameters.size(); i++)
+                {
+                    int value = operands[first + i];
+                    key.add(parameters.get(i).getEvaluationType().equals(Boolean.class)
+                            ? (Object) (value != 0) : (Object) value);
+                }
+            } // if
+            
+            if (key != null && memoTable.containsKey(key))
+            {
+                Object value = memoTable.get(key);
+                memoTable.put(key, value);
+                push((Integer) value);
+            }
+            else
+            {
+                environment.consumeFuel();
+                
+                // Enter a pooled frame one deeper, passing the arguments into the parameters
+                depth++;
+                
+                if (depth == frames.length)
+                {
+                    frames = Arrays.copyOf(frames, 2 * depth);
+                }
+                
+                if (frames[depth] == null)
+                {
+                    frames[depth] = new Frame();
+                }
+                
+                Frame frame = frames[depth];
+                frame.enter(procedure, environment);
+                frame.setKey(key);
+                values = frame.getValues();
+                layout = procedure.getFrameLayout();
+                frameEnvironment = frame.getEnvironment();
+                
+                for (int i = 0; i < parameters.size(); i++)
+                {
+                    values[layout[parameters.get(i).getSlot()]] = operands[first + i];
+                }
+                
+                resume(call, 2);
+                resume(procedure.getBody(), 0);
+            } // else
+        } // else if
+        
+        else
+        {
+            // The body has finished, so return to the frame of the caller
+            Frame frame = frames[depth];
+            int value = load(procedure.getReturnVariable());
+            
+            if (frame.getKey() != null)
+            {
+                memoTable.put(frame.getKey(), value);
+                frame.setKey(null);
+            }
+            
+            depth--;
+            
+            if (depth == 0)
+            {
+                values = globals;
+                layout = null;
+                frameEnvironment = environment;
+            }
+            else
+            {
+                values = frames[depth].getValues();
+                layout = frames[depth].getProcedure().getFrameLayout();
+                frameEnvironment = frames[depth].getEnvironment();
+            }
+            
+            push(value);
+        } // else
+    } // private void evaluateCall
+    
+    /**
+     * Applies an arithmetic operator to two values.
+     *
+     * @param operator  the operator string
+     * @param value1    the value of the first operand
+     * @param value2    the value of the second operand
+     * @return the result of the operation
+     */
+    private static int apply(String operator, int value1, int value2)
+    {
+        int value;
+        
+        switch (operator)
+        {
+            case ("+"):
+                value = value1 + value2;
+                break;
+            case ("-"):
+                value = value1 - value2;
+                break;
+            case ("*"):
+                value = value1 * value2;
+                break;
+            case ("/"):
+                value = value1 / value2;
+                break;
+            default:
+                value = value1 % value2;
+                break;
+        }
+        
+        return value;
+    } // private static int apply
+    
+    /**
+     * Applies a relative operator to two values.
+     *
+     * @param operator  the operator string
+     * @param value1    the value of the first operand
+     * @param value2    the value of the second operand
+     * @return the result of the comparison
+     */
+    private static boolean compare(String operator, int value1, int value2)
+    {
+        boolean value;
+        
+        switch (operator)
+        {
+            case ("="):
+                value = value1 == value2;
+                break;
+            case ("<>"):
+                value = value1 != value2;
+                break;
+            case ("<"):
+                value = value1 < value2;
+                break;
+            case (">"):
+                value = value1 > value2;
+                break;
+            case ("<="):
+                value = value1 <= value2;
+                break;
+            default:
+                value = value1 >= value2;
+                break;
+        }
+        
+        return value;
+    } // private static boolean compare
+    
+    /**
+     * Returns whether a statement calls no procedure, so that it can be executed at once
+     * without suspending on the continuation stack. The answer is remembered for each
+     * statement, since a statement may contain many others.
+     *
+     * @param statement the statement
+     * @return true if the statement contains no procedure call, false otherwise
+     */
+    private boolean isCallFree(Statement statement)
+    {
+        Boolean remembered = callFree.get(statement);
+        
+        if (remembered == null)
+        {
+            remembered = HeapInterpreter.containsNoCall(statement);
+            callFree.put(statement, remembered);
+        }
+        
+        return remembered;
+    } // private boolean isCallFree(Statement)
+    
+    /**
+     * Returns whether a statement contains no procedure call
+     *
+     * @param statement the statement
+     * @return true if the statement contains no procedure call, false otherwise
+     */
+    private static boolean containsNoCall(Statement statement)
+    {
+        boolean callFree;
+        
+        if (statement instanceof Block)
+        {
+            callFree = true;
+            
+            for (Statement inner : ((Block) statement).getStatements())
+            {
+                callFree = callFree && containsNoCall(inner);
+            }
+        }
+        else if (statement instanceof Assignment)
+        {
+            callFree = isCallFree(((Assignment) statement).getExpression());
+        }
+        else if (statement instanceof Writeln)
+        {
+            callFree = isCallFree(((Writeln) statement).getExpression());
+        }
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            callFree = isCallFree(ifThen.getCondition()) 
+                    && containsNoCall(ifThen.getThenStatement());
+        }
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            callFree = isCallFree(whileDo.getCondition()) 
+                    && containsNoCall(whileDo.getDoStatement());
+        }
+        else if (statement instanceof ForToDo)
+        {
+            ForToDo forToDo = (ForToDo) statement;
+            callFree = isCallFree(forToDo.getLowerBound()) && isCallFree(forToDo.getUpperBound())
+                    && containsNoCall(forToDo.getDoStatement());
+        }
+        else
+        {
+            callFree = false;
+        }
+        
+        return callFree;
+    } // private static boolean containsNoCall
+    
+    /**
+     * Returns whether an expression calls no procedure, so that it can be evaluated at once
+     * without suspending on the continuation stack
+     *
+     * @param expression    the expression
+     * @return true if the expression contains no procedure call, false otherwise
+     */
+    private static boolean isCallFree(Expression expression)
+    {
+        boolean callFree;
+        
+        if (expression instanceof Variable || expression instanceof Literal)
+        {
+            callFree = true;
+        }
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            callFree = isCallFree(operator.getOperand1())
+                    && isCallFree(operator.getOperand2());
+        }
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            callFree = isCallFree(operator.getOperand1())
+                    && isCallFree(operator.getOperand2());
+        }
+        else
+        {
+            callFree = false;
+        }
+        
+        return callFree;
+    } // private static boolean isCallFree(Expression)
+    
+    /**
+     * Evaluates an expression that calls no procedure with the interpreter, which recurses
+     * only as deep as the expression is nested
+     *
+     * @precondition The expression calls no procedure.
+     *
+     * @param expression    the expression
+     * @return its value, with true as 1 and false as 0
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    private int evaluateAtOnce(Expression expression) throws SemanticErrorException
+    {
+        int value;
+        
+        if (expression.getEvaluationType().equals(Boolean.class))
+        {
+            value = expression.evaluateBoolean(frameEnvironment) ? 1 : 0;
+        }
+        else
+        {
+            value = expression.evaluateInt(frameEnvironment);
+        }
+        
+        return value;
+    } // private int evaluateAtOnce
+    
+    /**
+     * Returns the value of a variable in the executing frame
+     *
+     * @param variable  the resolved variable
+     * @return its local slot if the executing frame has one, or its global slot otherwise
+     */
+    private int load(Variable variable)
+    {
+        int slot = variable.getSlot();
+        
+        return layout != null && layout[slot] >= 0 ? values[layout[slot]] : globals[slot];
+    }
+    
+    /**
+     * Stores the value of a variable in the executing frame
+     *
+     * @param variable  the resolved variable
+     * @param value     the value, with true as 1 and false as 0
+     */
+    private void store(Variable variable, int value)
+    {
+        int slot = variable.getSlot();
+        
+        if (layout != null && layout[slot] >= 0)
+        {
+            values[layout[slot]] = value;
+        }
+        else
+        {
+            globals[slot] = value;
+        }
+    } // private void store
+    
+    /**
+     * Pushes a node onto the continuation stack, growing the stack if necessary
+     *
+     * @param node  the statement or expression
+     * @param phase the phase at which it resumes
+     */
+    private void resume(Object node, int phase)
+    {
+        if (numContinuations == nodes.length)
+        {
+            nodes = Arrays.copyOf(nodes, 2 * numContinuations);
+            phases = Arrays.copyOf(phases, 2 * numContinuations);
+        }
+        
+        nodes[numContinuations] = node;
+        phases[numContinuations] = phase;
+        numContinuations++;
+    } // private void resume
+    
+    /**
+     * Pushes a value onto the operand stack, growing the stack if necessary
+     *
+     * @param value the value
+     */
+    private void push(int value)
+    {
+        if (numOperands == operands.length)
+        {
+            operands = Arrays.copyOf(operands, 2 * numOperands);
+        }
+        
+        operands[numOperands] = value;
+        numOperands++;
+    }
+    
+    /**
+     * Pops a value from the operand stack
+     *
+     * @return the value
+     */
+    private int pop()
+    {
+        numOperands--;
+        
+        return operands[numOperands];
+    }
+} // public class HeapInterpreter
@@ -0,0 +1,125 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BasicBlock defines a straight-line sequence of intermediate instructions
+ * entered only at the top and ended by exactly one terminator.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class BasicBlock
+{
+    private int number;                         // the number of the block within its graph
+    private List<Instruction> instructions;     // the instructions, ending with the terminator
+    
+    private List<BasicBlock> predecessors;      // the blocks that may jump here
+    private List<BasicBlock> successors;        // the blocks this block may jump to
+    
+    /**
+     * Constructs an empty block with the provided number.
+     * 
+     * @param number    the number of the block within its control-flow graph
+     */
+    public BasicBlock(int number)
+    {
+        this.number = number;
+        this.instructions = new ArrayList<Instruction>();
+        this.predecessors = new ArrayList<BasicBlock>();
+        this.successors = new ArrayList<BasicBlock>();
+    }
+    
+    /**
+     * Returns the label of the block
+     * 
+     * @return the label, unique within the block's control-flow graph
+     */
+    public String getLabel()
+    {
+        return "B" + number;
+    }
+    
+    /**
+     * Returns the instructions of the block. The list may be modified in place.
+     * 
+     * @return the instructions, ending with the terminator once the block is complete
+     */
+    public List<Instruction> getInstructions()
+    {
+        return this.instructions;
+    }
+    
+    /**
+     * Appends an instruction to the block.
+     * 
+     * @precondition The block is not yet terminated.
+     * 
+     * @param instruction   the instruction to append
+     */
+    public void add(Instruction instruction)
+    {
+        instructions.add(instruction);
+    }
+    
+    /**
+     * Returns whether the block ends with a terminator
+     * 
+     * @return true if the last instruction is a terminator, false otherwise
+     */
+    public boolean isTerminated()
+    {
+        return !instructions.isEmpty() && instructions.get(instructions.size() - 1).isTerminator();
+    }
+    
+    /**
+     * Returns the terminator of the block
+     * 
+     * @precondition The block is terminated.
+     * 
+     * @return the last instruction
+     */
+    public Instruction getTerminator()
+    {
+        return instructions.get(instructions.size() - 1);
+    }
+    
+    /**
+     * Returns the predecessors of the block, as last computed by the control-flow graph
+     * 
+     * @return the blocks that may jump here
+     */
+    public List<BasicBlock> getPredecessors()
+    {
+        return this.predecessors;
+    }
+    
+    /**
+     * Returns the successors of the block, as last computed by the control-flow graph
+     * 
+     * @return the blocks this block may jump to
+     */
+    public List<BasicBlock> getSuccessors()
+    {
+        return this.successors;
+    }
+    
+    /**
+     * Returns a string representation of the block
+     * 
+     * @return the label followed by one indented instruction per line
+     */
+    @Override
+    public String toString()
+    {
+        String s = getLabel() + ":";
+        
+        for (Instruction instruction : instructions)
+        {
+            s += "\n\t" + instruction;
+        }
+        
+        return s;
+    } // public String toString()
+} // public class BasicBlock
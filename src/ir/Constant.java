@@ -0,0 +1,44 @@
+package ir;
+
+/**
+ * Constant defines an integer constant operand. 
+ * Boolean values are represented as 1 for true and 0 for false.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Constant extends Operand
+{
+    private int value;      // the constant value
+    
+    /**
+     * Constructs a constant with the provided value.
+     * 
+     * @param value the constant value
+     */
+    public Constant(int value)
+    {
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value of the constant
+     * 
+     * @return the constant value
+     */
+    public int getValue()
+    {
+        return this.value;
+    }
+    
+    /**
+     * Returns a string representation of the constant
+     * 
+     * @return the decimal value
+     */
+    @Override
+    public String toString()
+    {
+        return "" + value;
+    }
+} // public class Constant
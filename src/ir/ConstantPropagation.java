@@ -0,0 +1,467 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ConstantPropagation performs sparse conditional constant propagation on a graph 
+ * in static single assignment form, following Wegman and Zadeck.
+ * 
+ * Each temporary is either undetermined, a known constant, or varying. Only blocks reached
+ * through edges found executable are evaluated, so constants are found through branches 
+ * whose outcome is itself constant. Afterwards, reads of constant temporaries become
+ * constants, their definitions are removed, branches with a known outcome become jumps, 
+ * and unreachable blocks are removed.
+ * Divisions by a constant zero are left to run, since their result is not defined here.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ConstantPropagation
+{
+    private Map<Temporary, Integer> constants;              // the temporaries with known values
+    private Set<Temporary> varying;                         // the temporaries with many values
+    
+    private Map<Temporary, List<Instruction>> users;        // the readers of each temporary
+    private Map<Instruction, BasicBlock> blocks;            // the block of each instruction
+    
+    private Set<BasicBlock> executable;                     // the blocks found reachable
+    private Set<String> executableEdges;                    // the edges found executable
+    private LinkedList<BasicBlock[]> edgeWorklist;          // the edges newly executable
+    private LinkedList<Instruction> instructionWorklist;    // the readers of changed values
+    
+    /**
+     * Propagates constants through a graph in static single assignment form.
+     * 
+     * @postcondition No instruction reads a temporary with a constant value, no branch has
+     *                a constant outcome, and the graph's edges are current.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void propagate(ControlFlowGraph graph)
+    {
+        constants = new HashMap<Temporary, Integer>();
+        varying = new HashSet<Temporary>(graph.getParameters());
+        users = new HashMap<Temporary, List<Instruction>>();
+        blocks = new HashMap<Instruction, BasicBlock>();
+        
+        for (BasicBlock block : graph.getBlocks())
+        {
+            for (Instruction instruction : block.getInstructions())
+            {
+                blocks.put(instruction, block);
+                
+                for (Temporary use : instruction.getUses())
+                {
+                    if (!users.containsKey(use))
+                    {
+                        users.put(use, new ArrayList<Instruction>());
+                    }
+                    
+                    users.get(use).add(instruction);
+                }
+            } // for
+        } // for
+        
+        executable = new HashSet<BasicBlock>();
+        executableEdges = new HashSet<String>();
+        edgeWorklist = new LinkedList<BasicBlock[]>();
+        instructionWorklist = new LinkedList<Instruction>();
+        
+        edgeWorklist.add(new BasicBlock[] {null, graph.getEntry()});
+        
+        while (!edgeWorklist.isEmpty() || !instructionWorklist.isEmpty())
+        {
+            if (!edgeWorklist.isEmpty())
+            {
+                visitEdge(edgeWorklist.removeFirst());
+            }
+            else
+            {
+                Instruction instruction = instructionWorklist.removeFirst();
+                
+                if (executable.contains(blocks.get(instruction)))
+                {
+                    evaluate(instruction);
+                }
+            }
+        } // while
+        
+        rewrite(graph);
+    } // public void propagate
+    
+    /**
+     * Marks an edge executable, evaluating the target's phis and, 
+     * on the first visit, the rest of the target.
+     * 
+     * @param edge  the source (null for the entry) and target of the edge
+     */
+    private void visitEdge(BasicBlock[] edge)
+    {
+        BasicBlock target = edge[1];
+        
+        if (executableEdges.add(getEdgeKey(edge[0], target)))
+        {
+            boolean firstVisit = executable.add(target);
+            
+            for (Instruction instruction : target.getInstructions())
+            {
+                if (firstVisit || instruction.getOpcode() == Opcode.PHI)
+                {
+                    evaluate(instruction);
+                }
+            }
+        } // if
+    } // private void visitEdge
+    
+    /**
+     * Returns a key identifying an edge
+     * 
+     * @param source    the source block, or null for the entry
+     * @param target    the target block
+     * @return a string unique to the edge
+     */
+    private String getEdgeKey(BasicBlock source, BasicBlock target)
+    {
+        String key = "entry";
+        
+        if (source != null)
+        {
+            key = source.getLabel();
+        }
+        
+        return key + "->" + target.getLabel();
+    }
+    
+    /**
+     * Evaluates an instruction over the lattice, lowering its destination
+     * or marking the edges it may take.
+     * 
+     * @param instruction   the instruction in an executable block
+     */
+    private void evaluate(Instruction instruction)
+    {
+        List<Operand> operands = instruction.getOperands();
+        BasicBlock block = blocks.get(instruction);
+        
+        switch (instruction.getOpcode())
+        {
+            case PHI:
+                for (int i = 0; i < operands.size(); i++)
+                {
+                    if (executableEdges.contains(getEdgeKey(instruction.getIncoming().get(i), block)))
+                    {
+                        merge(instruction.getDestination(), operands.get(i));
+                    }
+                }
+                break;
+            
+            case COPY:
+                merge(instruction.getDestination(), operands.get(0));
+                break;
+            
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case MOD:
+                evaluateArithmetic(instruction);
+                break;
+            
+            case LOAD:
+            case CALL:
+                lower(instruction.getDestination(), null);
+                break;
+            
+            case JUMP:
+                edgeWorklist.add(new BasicBlock[] {block, instruction.getTargets().get(0)});
+                break;
+            
+            case BRANCH:
+                Integer outcome = evaluateBranch(instruction);
+                
+                if (outcome != null)
+                {
+                    edgeWorklist.add(new BasicBlock[] {block, 
+                            instruction.getTargets().get(outcome)});
+                }
+                else if (isVarying(operands.get(0)) || isVarying(operands.get(1)))
+                {
+                    edgeWorklist.add(new BasicBlock[] {block, instruction.getTargets().get(0)});
+                    edgeWorklist.add(new BasicBlock[] {block, instruction.getTargets().get(1)});
+                }
+                break;
+            
+            default:
+                break;
+        } // switch
+    } // private void evaluate
+    
+    /**
+     * Evaluates a binary arithmetic instruction.
+     * 
+     * @param instruction   the arithmetic instruction
+     */
+    private void evaluateArithmetic(Instruction instruction)
+    {
+        Operand operand1 = instruction.getOperands().get(0);
+        Operand operand2 = instruction.getOperands().get(1);
+        Integer value1 = getConstant(operand1);
+        Integer value2 = getConstant(operand2);
+        
+        if (value1 != null && value2 != null)
+        {
+            Integer result = fold(instruction.getOpcode(), value1, value2);
+            
+            // A division by zero varies with the machine
+            if (result == null)
+            {
+                lower(instruction.getDestination(), null);
+            }
+            else
+            {
+                merge(instruction.getDestination(), new Constant(result));
+            }
+        }
+        
+        else if (isVarying(operand1) || isVarying(operand2))
+        {
+            lower(instruction.getDestination(), null);
+        }
+    } // private void evaluateArithmetic
+    
+    /**
+     * Evaluates the outcome of a branch
+     * 
+     * @param instruction   the branch
+     * @return 0 if the true target is taken, 1 if the false target is taken,
+     *         or null if the outcome is not known
+     */
+    private Integer evaluateBranch(Instruction instruction)
+    {
+        Integer value1 = getConstant(instruction.getOperands().get(0));
+        Integer value2 = getConstant(instruction.getOperands().get(1));
+        Integer outcome = null;
+        
+        if (value1 != null && value2 != null)
+        {
+            outcome = ConstantPropagation.compare(instruction.getComparison(), value1, value2) 
+                    ? 0 : 1;
+        }
+        
+        return outcome;
+    } // private Integer evaluateBranch
+    
+    /**
+     * Merges an operand's value into a destination's value.
+     * 
+     * @param destination   the temporary written
+     * @param operand       the value flowing in
+     */
+    private void merge(Temporary destination, Operand operand)
+    {
+        Integer value = getConstant(operand);
+        
+        if (isVarying(operand))
+        {
+            lower(destination, null);
+        }
+        
+        // Two different constants merge to a varying value
+        else if (value != null && constants.containsKey(destination) 
+                && !constants.get(destination).equals(value))
+        {
+            lower(destination, null);
+        }
+        
+        else if (value != null)
+        {
+            lower(destination, value);
+        }
+    } // private void merge
+    
+    /**
+     * Lowers the value of a temporary, queueing its readers if it changed.
+     * 
+     * @param temporary the temporary
+     * @param value     the new constant, or null for varying
+     */
+    private void lower(Temporary temporary, Integer value)
+    {
+        boolean changed = false;
+        
+        if (value == null && !varying.contains(temporary))
+        {
+            varying.add(temporary);
+            constants.remove(temporary);
+            changed = true;
+        }
+        else if (value != null && !varying.contains(temporary) 
+                && !constants.containsKey(temporary))
+        {
+            constants.put(temporary, value);
+            changed = true;
+        }
+        
+        if (changed && users.containsKey(temporary))
+        {
+            instructionWorklist.addAll(users.get(temporary));
+        }
+    } // private void lower
+    
+    /**
+     * Returns the constant value of an operand
+     * 
+     * @param operand   the operand
+     * @return the value if it is known constant, or null otherwise
+     */
+    private Integer getConstant(Operand operand)
+    {
+        Integer value = constants.get(operand);
+        
+        if (operand instanceof Constant)
+        {
+            value = ((Constant) operand).getValue();
+        }
+        
+        return value;
+    }
+    
+    /**
+     * Returns whether an operand may have more than one value
+     * 
+     * @param operand   the operand
+     * @return true if the operand is a varying temporary, false otherwise
+     */
+    private boolean isVarying(Operand operand)
+    {
+        return varying.contains(operand);
+    }
+    
+    /**
+     * Rewrites the graph with the values found.
+     * 
+     * @param graph the control-flow graph
+     */
+    private void rewrite(ControlFlowGraph graph)
+    {
+        for (BasicBlock block : graph.getBlocks())
+        {
+            List<Instruction> instructions = block.getInstructions();
+            
+            for (int i = instructions.size() - 1; i >= 0; i--)
+            {
+                Instruction instruction = instructions.get(i);
+                
+                for (Temporary use : instruction.getUses())
+                {
+                    if (constants.containsKey(use))
+                    {
+                        instruction.replaceUses(use, new Constant(constants.get(use)));
+                    }
+                }
+                
+                Temporary destination = instruction.getDestination();
+                Integer outcome = null;
+                
+                if (instruction.getOpcode() == Opcode.BRANCH)
+                {
+                    outcome = evaluateBranch(instruction);
+                }
+                
+                // Remove the definitions of constants
+                if (destination != null && constants.containsKey(destination) 
+                        && !instruction.hasSideEffects())
+                {
+                    instructions.remove(i);
+                }
+                
+                // Replace a branch with a known outcome with a jump
+                else if (outcome != null)
+                {
+                    instructions.set(i, Instruction.jump(instruction.getTargets().get(outcome)));
+                }
+            } // for
+        } // for
+        
+        graph.computeEdges();
+    } // private void rewrite
+    
+    /**
+     * Computes a binary arithmetic operation on constants
+     * 
+     * @param opcode    the arithmetic opcode
+     * @param value1    the first operand
+     * @param value2    the second operand
+     * @return the result, or null for a division or modulo by zero
+     */
+    public static Integer fold(Opcode opcode, int value1, int value2)
+    {
+        Integer result = null;
+        
+        switch (opcode)
+        {
+            case ADD:
+                result = value1 + value2;
+                break;
+            case SUB:
+                result = value1 - value2;
+                break;
+            case MUL:
+                result = value1 * value2;
+                break;
+            case DIV:
+                result = value2 == 0 ? null : value1 / value2;
+                break;
+            case MOD:
+                result = value2 == 0 ? null : value1 % value2;
+                break;
+            default:
+                break;
+        }
+        
+        return result;
+    } // public static Integer fold
+    
+    /**
+     * Evaluates a comparison of constants
+     * 
+     * @param comparison    the relative operator
+     * @param value1        the first operand
+     * @param value2        the second operand
+     * @return whether the comparison holds
+     */
+    public static boolean compare(String comparison, int value1, int value2)
+    {
+        boolean holds = false;
+        
+        switch (comparison)
+        {
+            case ("="):
+                holds = value1 == value2;
+                break;
+            case ("<>"):
+                holds = value1 != value2;
+                break;
+            case ("<"):
+                holds = value1 < value2;
+                break;
+            case ("<="):
+                holds = value1 <= value2;
+                break;
+            case (">"):
+                holds = value1 > value2;
+                break;
+            case (">="):
+                holds = value1 >= value2;
+                break;
+        }
+        
+        return holds;
+    } // public static boolean compare
+} // public class ConstantPropagation
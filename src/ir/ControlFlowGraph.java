@@ -0,0 +1,301 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ControlFlowGraph defines the basic blocks of the main program or of one procedure.
+ * 
+ * The first block is the entry. Procedures receive their arguments in parameter temporaries
+ * and end with RETURN instructions; the main program ends with EXIT instructions.
+ * The predecessor and successor lists of the blocks are recomputed by computeEdges
+ * whenever terminators change.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ControlFlowGraph
+{
+    private String name;                    // the assembly label of the graph
+    private List<Temporary> parameters;     // the temporaries receiving the arguments
+    private List<BasicBlock> blocks;        // the blocks in layout order, entry first
+    private List<Temporary> temporaries;    // every temporary, indexed by number
+    private int numBlocks;                  // the number of blocks ever created
+    private int memoCapacity;               // the entries of the memo table, or 0 if none
+    
+    /**
+     * Constructs a control-flow graph with an empty entry block.
+     * 
+     * @param name  the assembly label of the graph
+     */
+    public ControlFlowGraph(String name)
+    {
+        this.name = name;
+        this.parameters = new ArrayList<Temporary>();
+        this.blocks = new ArrayList<BasicBlock>();
+        this.temporaries = new ArrayList<Temporary>();
+        this.numBlocks = 0;
+        this.memoCapacity = 0;
+        
+        newBlock();
+    } // public ControlFlowGraph
+    
+    /**
+     * Returns the name of the graph
+     * 
+     * @return the assembly label of the graph
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+    
+    /**
+     * Returns the parameter temporaries of the graph
+     * 
+     * @return the temporaries receiving the arguments, in order; empty for the main program
+     */
+    public List<Temporary> getParameters()
+    {
+        return this.parameters;
+    }
+    
+    /**
+     * Returns the capacity of the memo table of a memoized procedure
+     * 
+     * @return the number of remembered return values, or 0 if the graph is not memoized
+     */
+    public int getMemoCapacity()
+    {
+        return this.memoCapacity;
+    }
+    
+    /**
+     * Memoizes the graph of a pure procedure.
+     * 
+     * @postcondition The graph remembers return values in a table with the capacity.
+     * 
+     * @param memoCapacity  the number of remembered return values, a power of two
+     */
+    public void setMemoCapacity(int memoCapacity)
+    {
+        this.memoCapacity = memoCapacity;
+    }
+    
+    /**
+     * Returns the blocks of the graph. The list may be modified in place.
+     * 
+     * @return the blocks in layout order, entry first
+     */
+    public List<BasicBlock> getBlocks()
+    {
+        return this.blocks;
+    }
+    
+    /**
+     * Returns the entry block of the graph
+     * 
+     * @return the first block
+     */
+    public BasicBlock getEntry()
+    {
+        return blocks.get(0);
+    }
+    
+    /**
+     * Returns every temporary of the graph
+     * 
+     * @return the temporaries, indexed by number
+     */
+    public List<Temporary> getTemporaries()
+    {
+        return this.temporaries;
+    }
+    
+    /**
+     * Creates a new empty block and appends it to the layout.
+     * 
+     * @return the new block
+     */
+    public BasicBlock newBlock()
+    {
+        BasicBlock block = new BasicBlock(numBlocks);
+        numBlocks++;
+        blocks.add(block);
+        return block;
+    }
+    
+    /**
+     * Creates a new temporary.
+     * 
+     * @param name  the source variable name, or null for an intermediate value
+     * @return the new temporary
+     */
+    public Temporary newTemporary(String name)
+    {
+        Temporary temporary = new Temporary(temporaries.size(), name);
+        temporaries.add(temporary);
+        return temporary;
+    }
+    
+    /**
+     * Recomputes the predecessors and successors of every block from the terminators,
+     * after removing the blocks unreachable from the entry.
+     * Phi operands flowing in from blocks that are no longer predecessors are dropped.
+     * 
+     * @precondition Every block is terminated.
+     * @postcondition Every remaining block is reachable and its edge lists are current.
+     */
+    public void computeEdges()
+    {
+        // Find the reachable blocks
+        Set<BasicBlock> reachable = new HashSet<BasicBlock>();
+        LinkedList<BasicBlock> worklist = new LinkedList<BasicBlock>();
+        worklist.add(getEntry());
+        reachable.add(getEntry());
+        
+        while (!worklist.isEmpty())
+        {
+            BasicBlock block = worklist.removeFirst();
+            
+            for (BasicBlock target : block.getTerminator().getTargets())
+            {
+                if (reachable.add(target))
+                {
+                    worklist.add(target);
+                }
+            }
+        } // while
+        
+        blocks.retainAll(reachable);
+        
+        // Rebuild the edges
+        for (BasicBlock block : blocks)
+        {
+            block.getPredecessors().clear();
+            block.getSuccessors().clear();
+        }
+        
+        for (BasicBlock block : blocks)
+        {
+            for (BasicBlock target : block.getTerminator().getTargets())
+            {
+                if (!block.getSuccessors().contains(target))
+                {
+                    block.getSuccessors().add(target);
+                    target.getPredecessors().add(block);
+                }
+            }
+        } // for
+        
+        for (BasicBlock block : blocks)
+        {
+            for (Instruction instruction : block.getInstructions())
+            {
+                List<BasicBlock> incoming = instruction.getIncoming();
+                
+                for (int i = incoming.size() - 1; i >= 0; i--)
+                {
+                    if (!block.getPredecessors().contains(incoming.get(i)))
+                    {
+                        incoming.remove(i);
+                        instruction.getOperands().remove(i);
+                    }
+                }
+            } // for
+        } // for
+    } // public void computeEdges
+    
+    /**
+     * Merges every block into its predecessor when the predecessor jumps straight to it
+     * and it has no other predecessors.
+     * 
+     * @precondition The graph contains no phi instructions and its edges are current.
+     * @postcondition No jump leads to a block with a single predecessor,
+     *                and the graph's edges are current.
+     */
+    public void mergeBlocks()
+    {
+        boolean merged = true;
+        
+        while (merged)
+        {
+            merged = false;
+            
+            for (BasicBlock block : blocks)
+            {
+                Instruction terminator = block.getTerminator();
+                
+                if (!merged && terminator.getOpcode() == Opcode.JUMP)
+                {
+                    BasicBlock target = terminator.getTargets().get(0);
+                    
+                    if (target != getEntry() && target != block
+                            && target.getPredecessors().size() == 1)
+                    {
+                        block.getInstructions().remove(terminator);
+                        block.getInstructions().addAll(target.getInstructions());
+                        target.getInstructions().clear();
+                        target.add(Instruction.jump(target));
+                        merged = true;
+                    }
+                } // if
+            } // for
+            
+            computeEdges();
+        } // while
+    } // public void mergeBlocks
+    
+    /**
+     * Drops the temporaries no longer mentioned by any instruction and renumbers the rest,
+     * parameters first, so that the frame holds only live slots.
+     * 
+     * @postcondition The temporaries are numbered consecutively from 0.
+     */
+    public void compactTemporaries()
+    {
+        Set<Temporary> mentioned = new LinkedHashSet<Temporary>(parameters);
+        
+        for (BasicBlock block : blocks)
+        {
+            for (Instruction instruction : block.getInstructions())
+            {
+                mentioned.addAll(instruction.getUses());
+                
+                if (instruction.getDestination() != null)
+                {
+                    mentioned.add(instruction.getDestination());
+                }
+            }
+        } // for
+        
+        temporaries = new ArrayList<Temporary>(mentioned);
+        
+        for (int i = 0; i < temporaries.size(); i++)
+        {
+            temporaries.get(i).setNumber(i);
+        }
+    } // public void compactTemporaries
+    
+    /**
+     * Returns a string representation of the graph
+     * 
+     * @return the name and parameters followed by every block in layout order
+     */
+    @Override
+    public String toString()
+    {
+        String s = name + parameters.toString() + ":";
+        
+        for (BasicBlock block : blocks)
+        {
+            s += "\n" + block;
+        }
+        
+        return s;
+    } // public String toString()
+} // public class ControlFlowGraph
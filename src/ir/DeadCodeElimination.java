@@ -0,0 +1,83 @@
+package ir;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DeadCodeElimination removes the instructions of a graph in static single assignment form
+ * whose results can never affect the program's behavior.
+ * 
+ * Rather than deleting unread results one at a time, the pass assumes every instruction
+ * dead and marks live only the instructions with side effects and, transitively, the 
+ * definitions of the values they read. This also removes cycles of values that only feed
+ * each other, such as a loop counter whose final value is never used.
+ * Branches are always kept live, so a loop that might not terminate is never removed.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class DeadCodeElimination
+{
+    /**
+     * Removes the dead instructions of a graph in static single assignment form.
+     * 
+     * @postcondition Every remaining instruction has side effects 
+     *                or computes a value read by a remaining instruction.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void eliminate(ControlFlowGraph graph)
+    {
+        Map<Temporary, Instruction> definitions = new HashMap<Temporary, Instruction>();
+        Set<Instruction> live = new HashSet<Instruction>();
+        LinkedList<Instruction> worklist = new LinkedList<Instruction>();
+        
+        for (BasicBlock block : graph.getBlocks())
+        {
+            for (Instruction instruction : block.getInstructions())
+            {
+                if (instruction.getDestination() != null)
+                {
+                    definitions.put(instruction.getDestination(), instruction);
+                }
+                
+                if (instruction.hasSideEffects())
+                {
+                    live.add(instruction);
+                    worklist.add(instruction);
+                }
+            }
+        } // for
+        
+        // Mark the definitions of the values live instructions read
+        while (!worklist.isEmpty())
+        {
+            for (Temporary use : worklist.removeFirst().getUses())
+            {
+                Instruction definition = definitions.get(use);
+                
+                if (definition != null && live.add(definition))
+                {
+                    worklist.add(definition);
+                }
+            }
+        } // while
+        
+        for (BasicBlock block : graph.getBlocks())
+        {
+            Iterator<Instruction> iterator = block.getInstructions().iterator();
+            
+            while (iterator.hasNext())
+            {
+                if (!live.contains(iterator.next()))
+                {
+                    iterator.remove();
+                }
+            }
+        } // for
+    } // public void eliminate
+} // public class DeadCodeElimination
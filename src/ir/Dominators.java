@@ -0,0 +1,232 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dominators computes the dominator tree and dominance frontiers of a control-flow graph,
+ * using the iterative algorithm of Cooper, Harvey, and Kennedy.
+ * 
+ * A block dominates another if every path from the entry to the other passes through it.
+ * The dominance frontier of a block holds the blocks where its dominance ends: 
+ * those with a predecessor it dominates that it does not strictly dominate itself.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Dominators
+{
+    private List<BasicBlock> postorder;                         // blocks in postorder
+    private Map<BasicBlock, Integer> postorderNumbers;          // the position in postorder
+    private Map<BasicBlock, BasicBlock> immediateDominators;    // the parent in the tree
+    private Map<BasicBlock, List<BasicBlock>> children;         // the children in the tree
+    private Map<BasicBlock, Set<BasicBlock>> frontiers;         // the dominance frontiers
+    
+    /**
+     * Computes the dominators of a control-flow graph.
+     * 
+     * @precondition The edges of the graph are current.
+     * 
+     * @param graph the control-flow graph
+     */
+    public Dominators(ControlFlowGraph graph)
+    {
+        postorder = new ArrayList<BasicBlock>();
+        postorderNumbers = new HashMap<BasicBlock, Integer>();
+        visit(graph.getEntry());
+        
+        computeImmediateDominators(graph.getEntry());
+        computeFrontiers();
+    } // public Dominators
+    
+    /**
+     * Numbers the blocks reachable from a block in postorder.
+     * 
+     * @param block the block to visit
+     */
+    private void visit(BasicBlock block)
+    {
+        postorderNumbers.put(block, -1);
+        
+        for (BasicBlock successor : block.getSuccessors())
+        {
+            if (!postorderNumbers.containsKey(successor))
+            {
+                visit(successor);
+            }
+        }
+        
+        postorderNumbers.put(block, postorder.size());
+        postorder.add(block);
+    } // private void visit
+    
+    /**
+     * Computes the immediate dominator of every block by iterating to a fixed point
+     * in reverse postorder.
+     * 
+     * @param entry the entry block
+     */
+    private void computeImmediateDominators(BasicBlock entry)
+    {
+        immediateDominators = new HashMap<BasicBlock, BasicBlock>();
+        immediateDominators.put(entry, entry);
+        boolean changed = true;
+        
+        while (changed)
+        {
+            changed = false;
+            
+            for (int i = postorder.size() - 1; i >= 0; i--)
+            {
+                BasicBlock block = postorder.get(i);
+                BasicBlock dominator = null;
+                
+                for (BasicBlock predecessor : block.getPredecessors())
+                {
+                    if (block != entry && immediateDominators.containsKey(predecessor))
+                    {
+                        dominator = dominator == null ? predecessor 
+                                : intersect(predecessor, dominator);
+                    }
+                }
+                
+                if (dominator != null && immediateDominators.get(block) != dominator)
+                {
+                    immediateDominators.put(block, dominator);
+                    changed = true;
+                }
+            } // for
+        } // while
+        
+        // Record the tree
+        children = new HashMap<BasicBlock, List<BasicBlock>>();
+        
+        for (BasicBlock block : postorder)
+        {
+            children.put(block, new ArrayList<BasicBlock>());
+        }
+        
+        for (int i = postorder.size() - 1; i >= 0; i--)
+        {
+            BasicBlock block = postorder.get(i);
+            
+            if (block != entry)
+            {
+                children.get(immediateDominators.get(block)).add(block);
+            }
+        }
+    } // private void computeImmediateDominators
+    
+    /**
+     * Returns the nearest common dominator of two blocks with known dominators.
+     * 
+     * @param block1    the first block
+     * @param block2    the second block
+     * @return the deepest block dominating both
+     */
+    private BasicBlock intersect(BasicBlock block1, BasicBlock block2)
+    {
+        BasicBlock finger1 = block1;
+        BasicBlock finger2 = block2;
+        
+        while (finger1 != finger2)
+        {
+            while (postorderNumbers.get(finger1) < postorderNumbers.get(finger2))
+            {
+                finger1 = immediateDominators.get(finger1);
+            }
+            
+            while (postorderNumbers.get(finger2) < postorderNumbers.get(finger1))
+            {
+                finger2 = immediateDominators.get(finger2);
+            }
+        } // while
+        
+        return finger1;
+    } // private BasicBlock intersect
+    
+    /**
+     * Computes the dominance frontier of every block by walking up from each join point.
+     */
+    private void computeFrontiers()
+    {
+        frontiers = new HashMap<BasicBlock, Set<BasicBlock>>();
+        
+        for (BasicBlock block : postorder)
+        {
+            frontiers.put(block, new LinkedHashSet<BasicBlock>());
+        }
+        
+        for (BasicBlock block : postorder)
+        {
+            if (block.getPredecessors().size() > 1)
+            {
+                for (BasicBlock predecessor : block.getPredecessors())
+                {
+                    BasicBlock runner = predecessor;
+                    
+                    while (runner != immediateDominators.get(block))
+                    {
+                        frontiers.get(runner).add(block);
+                        runner = immediateDominators.get(runner);
+                    }
+                }
+            } // if
+        } // for
+    } // private void computeFrontiers
+    
+    /**
+     * Returns the immediate dominator of a block
+     * 
+     * @param block the block
+     * @return the parent of the block in the dominator tree; the entry for the entry itself
+     */
+    public BasicBlock getImmediateDominator(BasicBlock block)
+    {
+        return immediateDominators.get(block);
+    }
+    
+    /**
+     * Returns the blocks immediately dominated by a block
+     * 
+     * @param block the block
+     * @return the children of the block in the dominator tree
+     */
+    public List<BasicBlock> getChildren(BasicBlock block)
+    {
+        return children.get(block);
+    }
+    
+    /**
+     * Returns the dominance frontier of a block
+     * 
+     * @param block the block
+     * @return the blocks where the block's dominance ends
+     */
+    public Set<BasicBlock> getFrontier(BasicBlock block)
+    {
+        return frontiers.get(block);
+    }
+    
+    /**
+     * Returns the blocks in reverse postorder, in which every block but a loop header
+     * appears after all of its predecessors
+     * 
+     * @return the reachable blocks, entry first
+     */
+    public List<BasicBlock> getReversePostorder()
+    {
+        List<BasicBlock> order = new ArrayList<BasicBlock>();
+        
+        for (int i = postorder.size() - 1; i >= 0; i--)
+        {
+            order.add(postorder.get(i));
+        }
+        
+        return order;
+    } // public List<BasicBlock> getReversePostorder
+} // public class Dominators
@@ -0,0 +1,220 @@
+package ir;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GlobalValueNumbering removes redundant computations from a graph in static single 
+ * assignment form by a walk of the dominator tree.
+ * 
+ * An arithmetic instruction computing the same operation on the same operands as 
+ * an instruction in a dominating position is removed, and its readers read the earlier
+ * result instead. Copies and phis whose operands are all the same value are removed 
+ * the same way. Addition and multiplication are matched regardless of operand order.
+ * Loads are never matched, since stores and calls may change memory in between.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class GlobalValueNumbering
+{
+    private Dominators dominators;              // the graph's dominator tree
+    private Map<Temporary, Operand> leaders;    // the value read in place of each removed result
+    private Map<String, Temporary> available;   // the result of each expression in scope
+    
+    /**
+     * Removes the redundant computations of a graph in static single assignment form.
+     * 
+     * @postcondition No instruction recomputes a value available from a dominating 
+     *                instruction, and no removed result is read.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void number(ControlFlowGraph graph)
+    {
+        graph.computeEdges();
+        dominators = new Dominators(graph);
+        leaders = new HashMap<Temporary, Operand>();
+        available = new HashMap<String, Temporary>();
+        
+        visit(graph.getEntry());
+        
+        // Phi operands on back edges are only resolved once every block has been visited
+        for (BasicBlock block : graph.getBlocks())
+        {
+            for (Instruction instruction : block.getInstructions())
+            {
+                substitute(instruction);
+            }
+        }
+    } // public void number
+    
+    /**
+     * Numbers the instructions of a block and of the blocks it dominates.
+     * 
+     * @param block the block to visit
+     */
+    private void visit(BasicBlock block)
+    {
+        List<String> introduced = new LinkedList<String>();
+        Iterator<Instruction> iterator = block.getInstructions().iterator();
+        
+        while (iterator.hasNext())
+        {
+            Instruction instruction = iterator.next();
+            substitute(instruction);
+            
+            Temporary destination = instruction.getDestination();
+            Operand same = getSameOperand(instruction);
+            
+            // A copy, or a phi merging one value, is that value
+            if (same != null)
+            {
+                leaders.put(destination, same);
+                iterator.remove();
+            }
+            
+            else if (instruction.getOpcode().isArithmetic())
+            {
+                String key = getKey(instruction);
+                
+                if (available.containsKey(key))
+                {
+                    leaders.put(destination, available.get(key));
+                    iterator.remove();
+                }
+                else
+                {
+                    available.put(key, destination);
+                    introduced.add(key);
+                }
+            } // else if
+        } // while
+        
+        for (BasicBlock child : dominators.getChildren(block))
+        {
+            visit(child);
+        }
+        
+        // Leave the scope of this block
+        for (String key : introduced)
+        {
+            available.remove(key);
+        }
+    } // private void visit
+    
+    /**
+     * Returns the single value a copy or phi produces
+     * 
+     * @param instruction   the instruction
+     * @return the operand copied, or the one operand merged by a phi other than its own result,
+     *         or null if there is no such single value
+     */
+    private Operand getSameOperand(Instruction instruction)
+    {
+        Operand same = null;
+        boolean single = true;
+        
+        if (instruction.getOpcode() == Opcode.COPY)
+        {
+            same = instruction.getOperands().get(0);
+        }
+        
+        else if (instruction.getOpcode() == Opcode.PHI)
+        {
+            for (Operand operand : instruction.getOperands())
+            {
+                if (operand != instruction.getDestination())
+                {
+                    single = single && (same == null || getName(same).equals(getName(operand)));
+                    same = operand;
+                }
+            }
+        }
+        
+        if (!single)
+        {
+            same = null;
+        }
+        
+        return same;
+    } // private Operand getSameOperand
+    
+    /**
+     * Replaces the removed results an instruction reads with their leaders.
+     * 
+     * @param instruction   the instruction
+     */
+    private void substitute(Instruction instruction)
+    {
+        for (Temporary use : instruction.getUses())
+        {
+            instruction.replaceUses(use, getLeader(use));
+        }
+    }
+    
+    /**
+     * Returns the value read in place of an operand
+     * 
+     * @param operand   the operand
+     * @return the operand, or the leader of its leader chain if it was removed
+     */
+    private Operand getLeader(Operand operand)
+    {
+        Operand leader = operand;
+        
+        while (leaders.containsKey(leader))
+        {
+            leader = leaders.get(leader);
+        }
+        
+        return leader;
+    }
+    
+    /**
+     * Returns the key identifying the expression an arithmetic instruction computes
+     * 
+     * @param instruction   the arithmetic instruction
+     * @return the opcode and operand names, with commutative operands in a fixed order
+     */
+    private String getKey(Instruction instruction)
+    {
+        String name1 = getName(instruction.getOperands().get(0));
+        String name2 = getName(instruction.getOperands().get(1));
+        Opcode opcode = instruction.getOpcode();
+        
+        if ((opcode == Opcode.ADD || opcode == Opcode.MUL) && name1.compareTo(name2) > 0)
+        {
+            String swap = name1;
+            name1 = name2;
+            name2 = swap;
+        }
+        
+        return opcode + " " + name1 + " " + name2;
+    } // private String getKey
+    
+    /**
+     * Returns a name identifying the value of an operand
+     * 
+     * @param operand   the operand
+     * @return the constant value prefixed by #, or the temporary's number
+     */
+    private String getName(Operand operand)
+    {
+        String name;
+        
+        if (operand instanceof Constant)
+        {
+            name = "#" + ((Constant) operand).getValue();
+        }
+        else
+        {
+            name = "t" + ((Temporary) operand).getNumber();
+        }
+        
+        return name;
+    } // private String getName
+} // public class GlobalValueNumbering
@@ -0,0 +1,413 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ast.Variable;
+
+/**
+ * Instruction defines a three-address intermediate instruction.
+ * 
+ * Every instruction has an opcode, at most one destination temporary, and a list of operands.
+ * Memory accesses name the global variable they access, calls name the procedure they call,
+ * and branches carry the comparison they test along with their true and false targets.
+ * Phi instructions, which only appear in static single assignment form, pair each operand
+ * with the predecessor block it flows in from.
+ * Instructions are created through the static factory methods, one per shape.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Instruction
+{
+    private Opcode opcode;              // the operation
+    private Temporary destination;      // the temporary written, or null
+    private List<Operand> operands;     // the values read, in evaluation order
+    
+    private Variable global;            // the global accessed by a LOAD or STORE
+    private String procedure;           // the procedure identifier of a CALL
+    private String comparison;          // the relative operator of a BRANCH
+    private List<BasicBlock> targets;   // the successors of a JUMP or BRANCH
+    private List<BasicBlock> incoming;  // the predecessor of each operand of a PHI
+    
+    /**
+     * Constructs an instruction with the provided opcode, destination, and operands.
+     * 
+     * @param opcode        the operation
+     * @param destination   the temporary written, or null
+     * @param operands      the values read
+     */
+    private Instruction(Opcode opcode, Temporary destination, Operand... operands)
+    {
+        this.opcode = opcode;
+        this.destination = destination;
+        this.operands = new ArrayList<Operand>(Arrays.asList(operands));
+        this.targets = new ArrayList<BasicBlock>();
+        this.incoming = new ArrayList<BasicBlock>();
+    }
+    
+    /**
+     * Creates a copy instruction: destination := source
+     * 
+     * @param destination   the temporary written
+     * @param source        the value copied
+     * @return the instruction
+     */
+    public static Instruction copy(Temporary destination, Operand source)
+    {
+        return new Instruction(Opcode.COPY, destination, source);
+    }
+    
+    /**
+     * Creates a binary arithmetic instruction: destination := operand1 op operand2
+     * 
+     * @precondition The opcode is arithmetic.
+     * 
+     * @param opcode        the arithmetic opcode
+     * @param destination   the temporary written
+     * @param operand1      the first operand
+     * @param operand2      the second operand
+     * @return the instruction
+     */
+    public static Instruction binary(Opcode opcode, Temporary destination, 
+            Operand operand1, Operand operand2)
+    {
+        return new Instruction(opcode, destination, operand1, operand2);
+    }
+    
+    /**
+     * Creates a load of a global variable: destination := global
+     * 
+     * @param destination   the temporary written
+     * @param global        the global variable read
+     * @return the instruction
+     */
+    public static Instruction load(Temporary destination, Variable global)
+    {
+        Instruction instruction = new Instruction(Opcode.LOAD, destination);
+        instruction.global = global;
+        return instruction;
+    }
+    
+    /**
+     * Creates a store to a global variable: global := source
+     * 
+     * @param global    the global variable written
+     * @param source    the value stored
+     * @return the instruction
+     */
+    public static Instruction store(Variable global, Operand source)
+    {
+        Instruction instruction = new Instruction(Opcode.STORE, null, source);
+        instruction.global = global;
+        return instruction;
+    }
+    
+    /**
+     * Creates a print of an integer followed by a newline
+     * 
+     * @param source    the value printed
+     * @return the instruction
+     */
+    public static Instruction print(Operand source)
+    {
+        return new Instruction(Opcode.PRINT, null, source);
+    }
+    
+    /**
+     * Creates a procedure call: destination := procedure(arguments)
+     * 
+     * @param destination   the temporary receiving the return value
+     * @param procedure     the identifier of the procedure called
+     * @param arguments     the argument values, in order
+     * @return the instruction
+     */
+    public static Instruction call(Temporary destination, String procedure, 
+            List<Operand> arguments)
+    {
+        Instruction instruction = new Instruction(Opcode.CALL, destination);
+        instruction.operands.addAll(arguments);
+        instruction.procedure = procedure;
+        return instruction;
+    }
+    
+    /**
+     * Creates a phi instruction selecting the operand of the edge taken into its block
+     * 
+     * @param destination   the temporary written
+     * @param incoming      the predecessor blocks
+     * @param operands      the value flowing in from each predecessor, in the same order
+     * @return the instruction
+     */
+    public static Instruction phi(Temporary destination, List<BasicBlock> incoming,
+            List<Operand> operands)
+    {
+        Instruction instruction = new Instruction(Opcode.PHI, destination);
+        instruction.operands.addAll(operands);
+        instruction.incoming.addAll(incoming);
+        return instruction;
+    }
+    
+    /**
+     * Creates an unconditional jump
+     * 
+     * @param target    the block to jump to
+     * @return the instruction
+     */
+    public static Instruction jump(BasicBlock target)
+    {
+        Instruction instruction = new Instruction(Opcode.JUMP, null);
+        instruction.targets.add(target);
+        return instruction;
+    }
+    
+    /**
+     * Creates a conditional branch on a comparison of two operands
+     * 
+     * @precondition The comparison is one of =, <>, <, <=, >, and >=.
+     * 
+     * @param comparison    the relative operator
+     * @param operand1      the first operand
+     * @param operand2      the second operand
+     * @param trueTarget    the block to branch to if the comparison holds
+     * @param falseTarget   the block to branch to otherwise
+     * @return the instruction
+     */
+    public static Instruction branch(String comparison, Operand operand1, Operand operand2,
+            BasicBlock trueTarget, BasicBlock falseTarget)
+    {
+        Instruction instruction = new Instruction(Opcode.BRANCH, null, operand1, operand2);
+        instruction.comparison = comparison;
+        instruction.targets.add(trueTarget);
+        instruction.targets.add(falseTarget);
+        return instruction;
+    }
+    
+    /**
+     * Creates a return from a procedure
+     * 
+     * @param value the value returned
+     * @return the instruction
+     */
+    public static Instruction ret(Operand value)
+    {
+        return new Instruction(Opcode.RETURN, null, value);
+    }
+    
+    /**
+     * Creates the termination of the program
+     * 
+     * @return the instruction
+     */
+    public static Instruction exit()
+    {
+        return new Instruction(Opcode.EXIT, null);
+    }
+    
+    /**
+     * Returns the opcode of the instruction
+     * 
+     * @return the operation
+     */
+    public Opcode getOpcode()
+    {
+        return this.opcode;
+    }
+    
+    /**
+     * Returns the destination of the instruction
+     * 
+     * @return the temporary written, or null if the instruction writes no temporary
+     */
+    public Temporary getDestination()
+    {
+        return this.destination;
+    }
+    
+    /**
+     * Replaces the destination of the instruction
+     * 
+     * @param destination   the new temporary written
+     */
+    public void setDestination(Temporary destination)
+    {
+        this.destination = destination;
+    }
+    
+    /**
+     * Returns the operands of the instruction. The list may be modified in place.
+     * 
+     * @return the values read, in evaluation order
+     */
+    public List<Operand> getOperands()
+    {
+        return this.operands;
+    }
+    
+    /**
+     * Returns the global variable accessed by a LOAD or STORE
+     * 
+     * @return the global variable, or null for other instructions
+     */
+    public Variable getGlobal()
+    {
+        return this.global;
+    }
+    
+    /**
+     * Returns the procedure called by a CALL
+     * 
+     * @return the procedure identifier, or null for other instructions
+     */
+    public String getProcedure()
+    {
+        return this.procedure;
+    }
+    
+    /**
+     * Returns the comparison tested by a BRANCH
+     * 
+     * @return the relative operator, or null for other instructions
+     */
+    public String getComparison()
+    {
+        return this.comparison;
+    }
+    
+    /**
+     * Returns the targets of a JUMP or BRANCH. The true target of a branch comes first.
+     * The list may be modified in place.
+     * 
+     * @return the successor blocks named by the instruction
+     */
+    public List<BasicBlock> getTargets()
+    {
+        return this.targets;
+    }
+    
+    /**
+     * Returns the predecessor blocks of a PHI. The list may be modified in place,
+     * in step with the operands.
+     * 
+     * @return the predecessor each operand flows in from
+     */
+    public List<BasicBlock> getIncoming()
+    {
+        return this.incoming;
+    }
+    
+    /**
+     * Returns the temporaries read by the instruction
+     * 
+     * @return the operands that are temporaries, in order
+     */
+    public List<Temporary> getUses()
+    {
+        List<Temporary> uses = new ArrayList<Temporary>();
+        
+        for (Operand operand : operands)
+        {
+            if (operand instanceof Temporary)
+            {
+                uses.add((Temporary) operand);
+            }
+        }
+        
+        return uses;
+    } // public List<Temporary> getUses
+    
+    /**
+     * Replaces every read of a temporary with another operand.
+     * 
+     * @param temporary     the temporary no longer read
+     * @param replacement   the operand read instead
+     */
+    public void replaceUses(Temporary temporary, Operand replacement)
+    {
+        for (int i = 0; i < operands.size(); i++)
+        {
+            if (operands.get(i) == temporary)
+            {
+                operands.set(i, replacement);
+            }
+        }
+    } // public void replaceUses
+    
+    /**
+     * Returns whether the instruction ends a basic block
+     * 
+     * @return true if the opcode is a terminator, false otherwise
+     */
+    public boolean isTerminator()
+    {
+        return opcode.isTerminator();
+    }
+    
+    /**
+     * Returns whether the instruction has an effect other than writing its destination
+     * 
+     * @return true for stores, prints, calls, and terminators; false otherwise
+     */
+    public boolean hasSideEffects()
+    {
+        return opcode == Opcode.STORE || opcode == Opcode.PRINT || opcode == Opcode.CALL
+                || isTerminator();
+    }
+    
+    /**
+     * Returns a string representation of the instruction
+     * 
+     * @return the instruction in three-address form
+     */
+    @Override
+    public String toString()
+    {
+        String s = "";
+        
+        if (destination != null)
+        {
+            s += destination + " := ";
+        }
+        
+        switch (opcode)
+        {
+            case COPY:
+                s += operands.get(0);
+                break;
+            case LOAD:
+                s += "load " + global.getIdentifier();
+                break;
+            case STORE:
+                s += "store " + global.getIdentifier() + " := " + operands.get(0);
+                break;
+            case CALL:
+                s += "call " + procedure + operands.toString();
+                break;
+            case JUMP:
+                s += "jump " + targets.get(0).getLabel();
+                break;
+            case PHI:
+                s += "phi";
+                
+                for (int i = 0; i < operands.size(); i++)
+                {
+                    s += " [" + incoming.get(i).getLabel() + ": " + operands.get(i) + "]";
+                }
+                break;
+            case BRANCH:
+                s += "if " + operands.get(0) + " " + comparison + " " + operands.get(1);
+                s += " then " + targets.get(0).getLabel() + " else " + targets.get(1).getLabel();
+                break;
+            default:
+                s += opcode.toString().toLowerCase();
+                
+                for (Operand operand : operands)
+                {
+                    s += " " + operand;
+                }
+        } // switch
+        
+        return s;
+    } // public String toString()
+} // public class Instruction
@@ -0,0 +1,107 @@
+package ir;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import ast.Variable;
+
+/**
+ * IntermediateProgram defines a program lowered to control-flow graphs: 
+ * one for the main program and one per procedure, along with the global variables 
+ * that live in memory.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class IntermediateProgram
+{
+    private String author;                              // the author of the source program
+    private Set<Variable> globals;                      // the variables declared in .data
+    private ControlFlowGraph main;                      // the main program
+    private Map<String, ControlFlowGraph> procedures;   // the procedures by identifier
+    
+    /**
+     * Constructs an intermediate program with no procedures.
+     * 
+     * @param author    the author of the source program
+     * @param globals   the variables declared in .data
+     * @param main      the main program
+     */
+    public IntermediateProgram(String author, Set<Variable> globals, ControlFlowGraph main)
+    {
+        this.author = author;
+        this.globals = globals;
+        this.main = main;
+        this.procedures = new LinkedHashMap<String, ControlFlowGraph>();
+    }
+    
+    /**
+     * Returns the author of the source program
+     * 
+     * @return the author name
+     */
+    public String getAuthor()
+    {
+        return this.author;
+    }
+    
+    /**
+     * Returns the global variables of the program
+     * 
+     * @return the variables declared in .data
+     */
+    public Set<Variable> getGlobals()
+    {
+        return this.globals;
+    }
+    
+    /**
+     * Returns the control-flow graph of the main program
+     * 
+     * @return the main program
+     */
+    public ControlFlowGraph getMain()
+    {
+        return this.main;
+    }
+    
+    /**
+     * Returns the control-flow graphs of the procedures
+     * 
+     * @return the procedures by identifier, in declaration order
+     */
+    public Map<String, ControlFlowGraph> getProcedures()
+    {
+        return this.procedures;
+    }
+    
+    /**
+     * Adds the control-flow graph of a procedure.
+     * 
+     * @param identifier    the procedure identifier
+     * @param procedure     the procedure's control-flow graph
+     */
+    public void addProcedure(String identifier, ControlFlowGraph procedure)
+    {
+        procedures.put(identifier, procedure);
+    }
+    
+    /**
+     * Returns a string representation of the program
+     * 
+     * @return every control-flow graph, main first
+     */
+    @Override
+    public String toString()
+    {
+        String s = main.toString();
+        
+        for (ControlFlowGraph procedure : procedures.values())
+        {
+            s += "\n" + procedure;
+        }
+        
+        return s;
+    } // public String toString()
+} // public class IntermediateProgram
@@ -0,0 +1,420 @@
+package ir;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import optimizer.TreeAnalysis;
+
+/**
+ * Lowering translates an abstract syntax tree into control-flow graphs 
+ * of three-address instructions.
+ * 
+ * Procedure parameters, return variables, and non-parameter locals become temporaries.
+ * Globals that no procedure accesses are promoted to temporaries of the main program;
+ * every other global is accessed with LOAD and STORE instructions.
+ * Expressions are lowered in the interpreter's evaluation order, so calls with side effects 
+ * happen at the same points. Relative operators used as values are lowered to branches 
+ * that select 1 or 0.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Lowering
+{
+    private ControlFlowGraph graph;             // the graph being built
+    private BasicBlock current;                 // the block being appended to
+    private Map<Variable, Temporary> locals;    // the temporary holding each local variable
+    
+    /**
+     * Lowers a program and all of its procedures.
+     * 
+     * @param program   the program to lower
+     * @return the intermediate program
+     * @throws SemanticErrorException if a procedure is a bodiless header
+     */
+    public IntermediateProgram lower(Program program) throws SemanticErrorException
+    {
+        Set<ProcedureDeclaration> procedures = program.getDeclarationEnvironment().getProcedureSet();
+        Set<Variable> accessed = new HashSet<Variable>();
+        
+        // Find the globals the procedures access
+        for (ProcedureDeclaration procedure : procedures)
+        {
+            Set<Variable> variables = new HashSet<Variable>(
+                    TreeAnalysis.getReferencedVariables(procedure.getBody()));
+            variables.addAll(TreeAnalysis.getAssignedVariables(procedure.getBody()));
+            
+            for (Variable variable : variables)
+            {
+                if (!procedure.isLocalVariable(variable))
+                {
+                    accessed.add(variable);
+                }
+            }
+        } // for
+        
+        // Promote the remaining globals of the main program to temporaries
+        begin("main");
+        
+        Set<Variable> promoted = new HashSet<Variable>(
+                TreeAnalysis.getReferencedVariables(program.getBody()));
+        promoted.addAll(TreeAnalysis.getAssignedVariables(program.getBody()));
+        promoted.removeAll(accessed);
+        
+        for (Variable variable : promoted)
+        {
+            current.add(Instruction.copy(introduce(variable), new Constant(0)));
+        }
+        
+        lowerStatement(program.getBody());
+        current.add(Instruction.exit());
+        graph.computeEdges();
+        
+        IntermediateProgram intermediate = new IntermediateProgram(program.getAuthor(),
+                program.getDeclarationEnvironment().getVariableSet(), graph);
+        
+        for (ProcedureDeclaration procedure : procedures)
+        {
+            intermediate.addProcedure(procedure.getIdentifier(), lowerProcedure(procedure));
+        }
+        
+        return intermediate;
+    } // public IntermediateProgram lower
+    
+    /**
+     * Lowers a procedure into its own control-flow graph.
+     * 
+     * @param procedure the procedure to lower
+     * @return the procedure's control-flow graph
+     * @throws SemanticErrorException if the procedure is a bodiless header
+     */
+    private ControlFlowGraph lowerProcedure(ProcedureDeclaration procedure) 
+            throws SemanticErrorException
+    {
+        begin("proc" + procedure.getIdentifier());
+        
+        if (procedure.isMemoized())
+        {
+            graph.setMemoCapacity(procedure.getMemoTable().getCapacity());
+        }
+        
+        for (Variable parameter : procedure.getParameters())
+        {
+            graph.getParameters().add(introduce(parameter));
+        }
+        
+        // The return variable and non-parameter locals start at their default values
+        Temporary returnValue = introduce(procedure.getReturnVariable());
+        current.add(Instruction.copy(returnValue, new Constant(0)));
+        
+        for (Variable nonParameter : procedure.getNonParameters())
+        {
+            current.add(Instruction.copy(introduce(nonParameter), new Constant(0)));
+        }
+        
+        lowerStatement(procedure.getBody());
+        current.add(Instruction.ret(returnValue));
+        graph.computeEdges();
+        
+        return graph;
+    } // private ControlFlowGraph lowerProcedure
+    
+    /**
+     * Starts a new control-flow graph with no local variables.
+     * 
+     * @param name  the assembly label of the graph
+     */
+    private void begin(String name)
+    {
+        graph = new ControlFlowGraph(name);
+        current = graph.getEntry();
+        locals = new HashMap<Variable, Temporary>();
+    }
+    
+    /**
+     * Introduces a temporary holding a local variable.
+     * 
+     * @param variable  the local variable
+     * @return the variable's temporary
+     */
+    private Temporary introduce(Variable variable)
+    {
+        Temporary temporary = graph.newTemporary(variable.getIdentifier());
+        locals.put(variable, temporary);
+        return temporary;
+    }
+    
+    /**
+     * Ends the current block with a jump and continues in another block.
+     * 
+     * @param target    the block to jump to and continue in
+     */
+    private void jumpTo(BasicBlock target)
+    {
+        current.add(Instruction.jump(target));
+        current = target;
+    }
+    
+    /**
+     * Lowers a statement into the current block, creating new blocks for control flow.
+     * 
+     * @param statement the statement to lower
+     */
+    private void lowerStatement(Statement statement)
+    {
+        if (statement instanceof Block)
+        {
+            for (Statement inner : ((Block) statement).getStatements())
+            {
+                lowerStatement(inner);
+            }
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            assign(assignment.getVariable(), lowerExpression(assignment.getExpression()));
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            Expression expression = ((Writeln) statement).getExpression();
+            Operand value = lowerExpression(expression);
+            
+            // Only integers are printed, as in the MIPS code generated from the tree
+            if (expression.getEvaluationType().equals(Integer.class))
+            {
+                current.add(Instruction.print(value));
+            }
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            BasicBlock thenBlock = graph.newBlock();
+            BasicBlock endBlock = graph.newBlock();
+            
+            lowerCondition(ifThen.getCondition(), thenBlock, endBlock);
+            current = thenBlock;
+            lowerStatement(ifThen.getThenStatement());
+            jumpTo(endBlock);
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            BasicBlock header = graph.newBlock();
+            BasicBlock body = graph.newBlock();
+            BasicBlock exit = graph.newBlock();
+            
+            jumpTo(header);
+            lowerCondition(whileDo.getCondition(), body, exit);
+            current = body;
+            lowerStatement(whileDo.getDoStatement());
+            current.add(Instruction.jump(header));
+            current = exit;
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            lowerForToDo((ForToDo) statement);
+        } // else if
+    } // private void lowerStatement
+    
+    /**
+     * Lowers a for loop: the index is initialized once, and the upper bound is 
+     * re-evaluated before every iteration.
+     * 
+     * @param forToDo   the for loop to lower
+     */
+    private void lowerForToDo(ForToDo forToDo)
+    {
+        Variable index = forToDo.getIndex();
+        BasicBlock header = graph.newBlock();
+        BasicBlock body = graph.newBlock();
+        BasicBlock exit = graph.newBlock();
+        
+        assign(index, lowerExpression(forToDo.getLowerBound()));
+        jumpTo(header);
+        
+        Operand value = read(index);
+        Operand upperBound = lowerExpression(forToDo.getUpperBound());
+        current.add(Instruction.branch("<=", value, upperBound, body, exit));
+        
+        current = body;
+        lowerStatement(forToDo.getDoStatement());
+        
+        Temporary incremented = graph.newTemporary(null);
+        current.add(Instruction.binary(Opcode.ADD, incremented, read(index), new Constant(1)));
+        assign(index, incremented);
+        current.add(Instruction.jump(header));
+        
+        current = exit;
+    } // private void lowerForToDo
+    
+    /**
+     * Lowers a boolean condition into a branch ending the current block.
+     * 
+     * @param condition     the boolean condition
+     * @param trueTarget    the block to continue in if the condition holds
+     * @param falseTarget   the block to continue in otherwise
+     */
+    private void lowerCondition(Expression condition, BasicBlock trueTarget, 
+            BasicBlock falseTarget)
+    {
+        if (condition instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) condition;
+            Operand operand1 = lowerExpression(operator.getOperand1());
+            Operand operand2 = lowerExpression(operator.getOperand2());
+            
+            current.add(Instruction.branch(operator.getOperator(), operand1, operand2,
+                    trueTarget, falseTarget));
+        }
+        else
+        {
+            current.add(Instruction.branch("<>", lowerExpression(condition), new Constant(0),
+                    trueTarget, falseTarget));
+        }
+    } // private void lowerCondition
+    
+    /**
+     * Lowers an expression, appending the instructions that compute it.
+     * 
+     * @param expression    the expression to lower
+     * @return the operand holding the expression's value
+     */
+    private Operand lowerExpression(Expression expression)
+    {
+        Operand operand = null;
+        
+        if (expression instanceof Literal)
+        {
+            Object value = ((Literal) expression).getValue();
+            
+            if (value instanceof Boolean)
+            {
+                operand = new Constant((Boolean) value ? 1 : 0);
+            }
+            else
+            {
+                operand = new Constant((Integer) value);
+            }
+        } // if
+        
+        else if (expression instanceof Variable)
+        {
+            operand = read((Variable) expression);
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            Operand operand1 = lowerExpression(operator.getOperand1());
+            Operand operand2 = lowerExpression(operator.getOperand2());
+            
+            Temporary result = graph.newTemporary(null);
+            current.add(Instruction.binary(Opcode.fromArithmetic(operator.getOperator()),
+                    result, operand1, operand2));
+            operand = result;
+        }
+        
+        // A comparison used as a value selects 1 or 0 through a branch
+        else if (expression instanceof RelativeOperator)
+        {
+            Temporary result = graph.newTemporary(null);
+            BasicBlock trueBlock = graph.newBlock();
+            BasicBlock falseBlock = graph.newBlock();
+            BasicBlock endBlock = graph.newBlock();
+            
+            lowerCondition(expression, trueBlock, falseBlock);
+            
+            current = trueBlock;
+            current.add(Instruction.copy(result, new Constant(1)));
+            current.add(Instruction.jump(endBlock));
+            
+            current = falseBlock;
+            current.add(Instruction.copy(result, new Constant(0)));
+            jumpTo(endBlock);
+            
+            operand = result;
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            ProcedureCall call = (ProcedureCall) expression;
+            List<Operand> arguments = new LinkedList<Operand>();
+            
+            for (Expression argument : call.getArguments())
+            {
+                arguments.add(lowerExpression(argument));
+            }
+            
+            Temporary result = graph.newTemporary(null);
+            current.add(Instruction.call(result, call.getProcedure().getIdentifier(), arguments));
+            operand = result;
+        } // else if
+        
+        return operand;
+    } // private Operand lowerExpression
+    
+    /**
+     * Returns an operand holding the current value of a variable.
+     * 
+     * @param variable  the variable to read
+     * @return the variable's temporary if it is local, or a temporary loaded from memory
+     */
+    private Operand read(Variable variable)
+    {
+        Operand operand = locals.get(variable);
+        
+        if (operand == null)
+        {
+            Temporary loaded = graph.newTemporary(null);
+            current.add(Instruction.load(loaded, variable));
+            operand = loaded;
+        }
+        
+        return operand;
+    } // private Operand read
+    
+    /**
+     * Appends the assignment of a value to a variable.
+     * 
+     * @param variable  the variable to write
+     * @param value     the value to assign
+     */
+    private void assign(Variable variable, Operand value)
+    {
+        Temporary local = locals.get(variable);
+        
+        if (local != null)
+        {
+            current.add(Instruction.copy(local, value));
+        }
+        else
+        {
+            current.add(Instruction.store(variable, value));
+        }
+    } // private void assign
+} // public class Lowering
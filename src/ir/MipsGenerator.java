@@ -0,0 +1,416 @@
+package ir;
+
+import java.util.List;
+
+import ast.Program;
+import ast.Variable;
+import emitter.Emitter;
+
+/**
+ * MipsGenerator emits MIPS assembly for an intermediate program.
+ * 
+ * Every control-flow graph gets a frame addressed through $fp, with one word per temporary
+ * below the saved $fp. Each instruction loads its operands into $t0 and $t1, computes its 
+ * result into $t0, and stores the result to the destination's slot. 
+ * Arguments are pushed in order by the caller and copied into the parameter temporaries 
+ * by the callee; return values come back in $v0.
+ * Jumps to the block laid out next are omitted.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class MipsGenerator
+{
+    private Emitter emitter;            // the emitter to output the MIPS assembly code to
+    private ControlFlowGraph graph;     // the graph being generated
+    
+    /**
+     * Constructs a generator writing to the provided emitter.
+     * 
+     * @param emitter   the emitter to output the MIPS assembly code to
+     */
+    public MipsGenerator(Emitter emitter)
+    {
+        this.emitter = emitter;
+    }
+    
+    /**
+     * Generates the complete assembly program: the data section, the main program, 
+     * and every procedure.
+     * 
+     * @postcondition The emitter has emit the intermediate program converted to assembly code.
+     * 
+     * @param program   the intermediate program to generate
+     */
+    public void generate(IntermediateProgram program)
+    {
+        // Javadoc header
+        emitter.emitHeader(program.getAuthor());
+        emitter.emit("");
+        
+        // Data
+        emitter.emit(".data");
+        
+        for (Variable global : program.getGlobals())
+        {
+            emitter.emit("var" + global.getIdentifier() + ": .word " 
+                    + Program.DEFAULT_INTEGER_VALUE);
+        }
+        
+        for (ControlFlowGraph procedure : program.getProcedures().values())
+        {
+            if (procedure.getMemoCapacity() > 0)
+            {
+                emitter.emitMemoTable(getMemoLabel(procedure), procedure.getParameters().size(),
+                        procedure.getMemoCapacity());
+            }
+        } // for
+        
+        emitter.emit(Program.NEWLINE_LABEL + ": .asciiz \"\\n\"");
+        emitter.emit("");
+        
+        // Text
+        emitter.emit(".text");
+        emitter.emit("");
+        emitter.emit(".globl main");
+        emitter.emit("");
+        
+        // Main allocates its frame below the initial stack pointer
+        graph = program.getMain();
+        emitter.emit("main:");
+        emitter.emit("move $fp $sp");
+        emitter.emit("subu $sp $sp " + getFrameSize());
+        emitter.emit("");
+        generateBlocks();
+        
+        for (ControlFlowGraph procedure : program.getProcedures().values())
+        {
+            generateProcedure(procedure);
+        }
+    } // public void generate
+    
+    /**
+     * Generates a procedure: the prologue saving $ra and $fp and copying the arguments, 
+     * followed by the blocks.
+     * 
+     * @param procedure the procedure's control-flow graph
+     */
+    private void generateProcedure(ControlFlowGraph procedure)
+    {
+        graph = procedure;
+        List<Temporary> parameters = graph.getParameters();
+        
+        emitter.emit(graph.getName() + ":");
+        
+        // Return a remembered value before building the frame
+        if (graph.getMemoCapacity() > 0)
+        {
+            String missLabel = graph.getName() + "_miss";
+            
+            emitter.emitMemoLookup(getMemoLabel(graph), parameters.size(), 
+                    graph.getMemoCapacity(), missLabel);
+            emitter.emit(missLabel + ":");
+        }
+        
+        emitter.emit("# save $ra and $fp");
+        emitter.emit("subu $sp $sp 8");
+        emitter.emit("sw $ra 4($sp)");
+        emitter.emit("sw $fp ($sp)");
+        emitter.emit("move $fp $sp");
+        emitter.emit("subu $sp $sp " + getFrameSize());
+        
+        // The last argument was pushed last, just above the saved registers
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            int offset = 8 + Emitter.WORD_SIZE * (parameters.size() - 1 - i);
+            
+            emitter.emit("# copy argument " + parameters.get(i));
+            emitter.emit("lw $t0 " + offset + "($fp)");
+            storeResult(parameters.get(i));
+        } // for
+        
+        emitter.emit("");
+        generateBlocks();
+    } // private void generateProcedure
+    
+    /**
+     * Returns the label of the memo table of a memoized graph.
+     * 
+     * @param procedure the memoized procedure's control-flow graph
+     * @return the .data label of the memo table
+     */
+    private static String getMemoLabel(ControlFlowGraph procedure)
+    {
+        return procedure.getName() + "Memo";
+    }
+    
+    /**
+     * Generates the blocks of the current graph in layout order.
+     */
+    private void generateBlocks()
+    {
+        List<BasicBlock> blocks = graph.getBlocks();
+        
+        for (int i = 0; i < blocks.size(); i++)
+        {
+            BasicBlock next = null;
+            
+            if (i + 1 < blocks.size())
+            {
+                next = blocks.get(i + 1);
+            }
+            
+            emitter.emit(getLabel(blocks.get(i)) + ":");
+            
+            for (Instruction instruction : blocks.get(i).getInstructions())
+            {
+                generateInstruction(instruction, next);
+            }
+            
+            emitter.emit("");
+        } // for
+    } // private void generateBlocks
+    
+    /**
+     * Generates one instruction.
+     * 
+     * @param instruction   the instruction to generate
+     * @param next          the block laid out after the instruction's block, or null
+     */
+    private void generateInstruction(Instruction instruction, BasicBlock next)
+    {
+        List<Operand> operands = instruction.getOperands();
+        
+        // Document
+        emitter.emit("# " + instruction);
+        
+        switch (instruction.getOpcode())
+        {
+            case COPY:
+                loadOperand(operands.get(0), "$t0");
+                storeResult(instruction.getDestination());
+                break;
+            
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case MOD:
+                loadOperand(operands.get(0), "$t0");
+                loadOperand(operands.get(1), "$t1");
+                generateArithmetic(instruction.getOpcode());
+                storeResult(instruction.getDestination());
+                break;
+            
+            case LOAD:
+                emitter.emit("lw $t0 var" + instruction.getGlobal().getIdentifier());
+                storeResult(instruction.getDestination());
+                break;
+            
+            case STORE:
+                loadOperand(operands.get(0), "$t0");
+                emitter.emit("sw $t0 var" + instruction.getGlobal().getIdentifier());
+                break;
+            
+            case PRINT:
+                loadOperand(operands.get(0), "$a0");
+                emitter.emit("li $v0 1");
+                emitter.emit("syscall");
+                emitter.emit("la $a0 " + Program.NEWLINE_LABEL);
+                emitter.emit("li $v0 4");
+                emitter.emit("syscall");
+                break;
+            
+            case CALL:
+                for (Operand argument : operands)
+                {
+                    loadOperand(argument, "$t0");
+                    emitter.emit("subu $sp $sp 4");
+                    emitter.emit("sw $t0 ($sp)");
+                }
+                
+                emitter.emit("jal proc" + instruction.getProcedure());
+                
+                if (!operands.isEmpty())
+                {
+                    emitter.emit("addu $sp $sp " + Emitter.WORD_SIZE * operands.size());
+                }
+                
+                emitter.emit("move $t0 $v0");
+                storeResult(instruction.getDestination());
+                break;
+            
+            case JUMP:
+                generateJump(instruction.getTargets().get(0), next);
+                break;
+            
+            case BRANCH:
+                loadOperand(operands.get(0), "$t0");
+                loadOperand(operands.get(1), "$t1");
+                emitter.emit(getBranch(instruction.getComparison()) + " $t0 $t1 " 
+                        + getLabel(instruction.getTargets().get(0)));
+                generateJump(instruction.getTargets().get(1), next);
+                break;
+            
+            case RETURN:
+                loadOperand(operands.get(0), "$v0");
+                
+                // The last argument was pushed just above the saved registers
+                if (graph.getMemoCapacity() > 0)
+                {
+                    emitter.emitMemoStore(getMemoLabel(graph), graph.getParameters().size(),
+                            graph.getMemoCapacity(), "$fp", 2 * Emitter.WORD_SIZE);
+                }
+                
+                emitter.emit("move $sp $fp");
+                emitter.emit("lw $fp ($sp)");
+                emitter.emit("lw $ra 4($sp)");
+                emitter.emit("addu $sp $sp 8");
+                emitter.emit("jr $ra");
+                break;
+            
+            case EXIT:
+                emitter.emit("li $v0 10");
+                emitter.emit("syscall");
+                break;
+        } // switch
+    } // private void generateInstruction
+    
+    /**
+     * Generates a binary arithmetic operation of $t0 and $t1 into $t0.
+     * 
+     * @param opcode    the arithmetic opcode
+     */
+    private void generateArithmetic(Opcode opcode)
+    {
+        switch (opcode)
+        {
+            case ADD:
+                emitter.emit("addu $t0 $t0 $t1");
+                break;
+            case SUB:
+                emitter.emit("subu $t0 $t0 $t1");
+                break;
+            case MUL:
+                emitter.emit("mult $t0 $t1");
+                emitter.emit("mflo $t0");
+                break;
+            case DIV:
+                emitter.emit("div $t0 $t1");
+                emitter.emit("mflo $t0");
+                break;
+            default:
+                emitter.emit("div $t0 $t1");
+                emitter.emit("mfhi $t0");
+        } // switch
+    } // private void generateArithmetic
+    
+    /**
+     * Generates a jump unless the target is laid out next.
+     * 
+     * @param target    the block to jump to
+     * @param next      the block laid out next, or null
+     */
+    private void generateJump(BasicBlock target, BasicBlock next)
+    {
+        if (target != next)
+        {
+            emitter.emit("j " + getLabel(target));
+        }
+    }
+    
+    /**
+     * Loads an operand into a register.
+     * 
+     * @param operand   the constant or temporary
+     * @param register  the register (with preceding $)
+     */
+    private void loadOperand(Operand operand, String register)
+    {
+        if (operand instanceof Constant)
+        {
+            emitter.emit("li " + register + " " + ((Constant) operand).getValue());
+        }
+        else
+        {
+            emitter.emit("lw " + register + " " + getSlot((Temporary) operand));
+        }
+    } // private void loadOperand
+    
+    /**
+     * Stores $t0 into the slot of a temporary.
+     * 
+     * @param destination   the temporary written
+     */
+    private void storeResult(Temporary destination)
+    {
+        emitter.emit("sw $t0 " + getSlot(destination));
+    }
+    
+    /**
+     * Returns the frame address of a temporary's slot
+     * 
+     * @param temporary the temporary
+     * @return the address of the slot relative to $fp
+     */
+    private String getSlot(Temporary temporary)
+    {
+        return (-Emitter.WORD_SIZE * (temporary.getNumber() + 1)) + "($fp)";
+    }
+    
+    /**
+     * Returns the size of the current graph's frame
+     * 
+     * @return the number of bytes of temporary slots
+     */
+    private int getFrameSize()
+    {
+        return Emitter.WORD_SIZE * graph.getTemporaries().size();
+    }
+    
+    /**
+     * Returns the assembly label of a block of the current graph
+     * 
+     * @param block the block
+     * @return the graph name followed by the block label
+     */
+    private String getLabel(BasicBlock block)
+    {
+        return graph.getName() + "_" + block.getLabel();
+    }
+    
+    /**
+     * Returns the branch instruction that jumps when a comparison holds
+     * 
+     * @param comparison    the relative operator
+     * @return the MIPS branch mnemonic
+     */
+    private String getBranch(String comparison)
+    {
+        String branch = "";
+        
+        switch (comparison)
+        {
+            case ("="):
+                branch = "beq";
+                break;
+            case ("<>"):
+                branch = "bne";
+                break;
+            case ("<"):
+                branch = "blt";
+                break;
+            case ("<="):
+                branch = "ble";
+                break;
+            case (">"):
+                branch = "bgt";
+                break;
+            case (">="):
+                branch = "bge";
+                break;
+        }
+        
+        return branch;
+    } // private String getBranch
+} // public class MipsGenerator
@@ -0,0 +1,71 @@
+package ir;
+
+/**
+ * Opcode enumerates the operations of intermediate instructions.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public enum Opcode
+{
+    COPY, ADD, SUB, MUL, DIV, MOD,  // destination := operands
+    LOAD, STORE,                    // global memory accesses
+    PRINT,                          // print an integer and a newline
+    CALL,                           // destination := procedure(operands)
+    PHI,                            // destination := the operand of the edge taken
+    JUMP, BRANCH, RETURN, EXIT;     // block terminators
+    
+    /**
+     * Returns the opcode of an arithmetic operator
+     * 
+     * @precondition The operator is one of +, -, *, /, and mod.
+     * 
+     * @param operator  the arithmetic operator string
+     * @return the corresponding binary opcode
+     */
+    public static Opcode fromArithmetic(String operator)
+    {
+        Opcode opcode = null;
+        
+        switch (operator)
+        {
+            case ("+"):
+                opcode = ADD;
+                break;
+            case ("-"):
+                opcode = SUB;
+                break;
+            case ("*"):
+                opcode = MUL;
+                break;
+            case ("/"):
+                opcode = DIV;
+                break;
+            case ("mod"):
+                opcode = MOD;
+                break;
+        }
+        
+        return opcode;
+    } // public static Opcode fromArithmetic
+    
+    /**
+     * Returns whether the opcode is a binary arithmetic operation
+     * 
+     * @return true for ADD, SUB, MUL, DIV, and MOD; false otherwise
+     */
+    public boolean isArithmetic()
+    {
+        return this == ADD || this == SUB || this == MUL || this == DIV || this == MOD;
+    }
+    
+    /**
+     * Returns whether the opcode ends a basic block
+     * 
+     * @return true for JUMP, BRANCH, RETURN, and EXIT; false otherwise
+     */
+    public boolean isTerminator()
+    {
+        return this == JUMP || this == BRANCH || this == RETURN || this == EXIT;
+    }
+} // public enum Opcode
@@ -0,0 +1,18 @@
+package ir;
+
+/**
+ * Operand defines a value read by an intermediate instruction: 
+ * either a temporary or an integer constant.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public abstract class Operand
+{
+    /**
+     * Returns a string representation of the operand
+     * 
+     * @return the operand as it appears in printed instructions
+     */
+    public abstract String toString();
+} // public abstract class Operand
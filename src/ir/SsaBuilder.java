@@ -0,0 +1,239 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SsaBuilder converts a control-flow graph to static single assignment form, 
+ * in which every temporary is written by exactly one instruction.
+ * 
+ * Phi instructions are placed at the iterated dominance frontiers of the blocks that write
+ * each temporary, for the temporaries read in some block before being written there
+ * (semi-pruned form). Temporaries are then renamed by a walk of the dominator tree.
+ * Parameters keep their own temporaries as the values on entry; a temporary read 
+ * on a path where it was never written reads 0, the default value of every variable.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class SsaBuilder
+{
+    private ControlFlowGraph graph;                         // the graph being converted
+    private Dominators dominators;                          // the graph's dominator tree
+    private Map<Instruction, Temporary> phiVariables;       // the temporary each phi merges
+    private Map<Temporary, LinkedList<Operand>> stacks;     // the current name of each temporary
+    
+    /**
+     * Converts a control-flow graph to static single assignment form.
+     * 
+     * @postcondition Every temporary of the graph other than the parameters is written 
+     *                exactly once, and the graph's edges are current.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void build(ControlFlowGraph graph)
+    {
+        this.graph = graph;
+        graph.computeEdges();
+        dominators = new Dominators(graph);
+        
+        insertPhis();
+        
+        stacks = new HashMap<Temporary, LinkedList<Operand>>();
+        
+        for (Temporary parameter : graph.getParameters())
+        {
+            getStack(parameter).push(parameter);
+        }
+        
+        rename(graph.getEntry());
+    } // public void build
+    
+    /**
+     * Places phi instructions for every temporary that is live across blocks.
+     */
+    private void insertPhis()
+    {
+        Map<Temporary, Set<BasicBlock>> definitions = new HashMap<Temporary, Set<BasicBlock>>();
+        Set<Temporary> crossing = new HashSet<Temporary>();
+        
+        // Find the blocks writing each temporary and the temporaries read before being written
+        for (BasicBlock block : graph.getBlocks())
+        {
+            Set<Temporary> written = new HashSet<Temporary>();
+            
+            for (Instruction instruction : block.getInstructions())
+            {
+                for (Temporary use : instruction.getUses())
+                {
+                    if (!written.contains(use))
+                    {
+                        crossing.add(use);
+                    }
+                }
+                
+                Temporary destination = instruction.getDestination();
+                
+                if (destination != null)
+                {
+                    written.add(destination);
+                    
+                    if (!definitions.containsKey(destination))
+                    {
+                        definitions.put(destination, new HashSet<BasicBlock>());
+                    }
+                    
+                    definitions.get(destination).add(block);
+                }
+            } // for
+        } // for
+        
+        phiVariables = new HashMap<Instruction, Temporary>();
+        
+        for (Temporary temporary : crossing)
+        {
+            if (definitions.containsKey(temporary))
+            {
+                placePhis(temporary, definitions.get(temporary));
+            }
+        }
+    } // private void insertPhis
+    
+    /**
+     * Places phi instructions for a temporary at the iterated dominance frontier 
+     * of the blocks writing it.
+     * 
+     * @param temporary the temporary
+     * @param blocks    the blocks writing the temporary
+     */
+    private void placePhis(Temporary temporary, Set<BasicBlock> blocks)
+    {
+        LinkedList<BasicBlock> worklist = new LinkedList<BasicBlock>(blocks);
+        Set<BasicBlock> placed = new HashSet<BasicBlock>();
+        Set<BasicBlock> queued = new HashSet<BasicBlock>(blocks);
+        
+        while (!worklist.isEmpty())
+        {
+            BasicBlock block = worklist.removeFirst();
+            
+            for (BasicBlock frontier : dominators.getFrontier(block))
+            {
+                if (placed.add(frontier))
+                {
+                    List<Operand> operands = new ArrayList<Operand>();
+                    
+                    for (int i = 0; i < frontier.getPredecessors().size(); i++)
+                    {
+                        operands.add(temporary);
+                    }
+                    
+                    Instruction phi = Instruction.phi(temporary, frontier.getPredecessors(), 
+                            operands);
+                    frontier.getInstructions().add(0, phi);
+                    phiVariables.put(phi, temporary);
+                    
+                    if (queued.add(frontier))
+                    {
+                        worklist.add(frontier);
+                    }
+                } // if
+            } // for
+        } // while
+    } // private void placePhis
+    
+    /**
+     * Renames the temporaries of a block and of the blocks it dominates.
+     * 
+     * @param block the block to rename
+     */
+    private void rename(BasicBlock block)
+    {
+        List<Temporary> pushed = new ArrayList<Temporary>();
+        
+        for (Instruction instruction : block.getInstructions())
+        {
+            // Phi operands are renamed from their predecessors
+            if (instruction.getOpcode() != Opcode.PHI)
+            {
+                for (Temporary use : instruction.getUses())
+                {
+                    instruction.replaceUses(use, getCurrentName(use));
+                }
+            }
+            
+            Temporary destination = instruction.getDestination();
+            
+            if (destination != null)
+            {
+                Temporary renamed = graph.newTemporary(destination.getName());
+                getStack(destination).push(renamed);
+                pushed.add(destination);
+                instruction.setDestination(renamed);
+            }
+        } // for
+        
+        // Fill in the phi operands flowing out of this block
+        for (BasicBlock successor : block.getSuccessors())
+        {
+            for (Instruction instruction : successor.getInstructions())
+            {
+                if (phiVariables.containsKey(instruction))
+                {
+                    int index = instruction.getIncoming().indexOf(block);
+                    Temporary variable = phiVariables.get(instruction);
+                    instruction.getOperands().set(index, getCurrentName(variable));
+                }
+            }
+        } // for
+        
+        for (BasicBlock child : dominators.getChildren(block))
+        {
+            rename(child);
+        }
+        
+        for (Temporary temporary : pushed)
+        {
+            getStack(temporary).pop();
+        }
+    } // private void rename
+    
+    /**
+     * Returns the current name of a temporary in the renaming walk
+     * 
+     * @param temporary the original temporary
+     * @return the latest renamed temporary, or the constant 0 if none was written on this path
+     */
+    private Operand getCurrentName(Temporary temporary)
+    {
+        LinkedList<Operand> stack = getStack(temporary);
+        Operand name = new Constant(0);
+        
+        if (!stack.isEmpty())
+        {
+            name = stack.peek();
+        }
+        
+        return name;
+    } // private Operand getCurrentName
+    
+    /**
+     * Returns the renaming stack of a temporary, creating it if necessary
+     * 
+     * @param temporary the original temporary
+     * @return the stack of names, latest first
+     */
+    private LinkedList<Operand> getStack(Temporary temporary)
+    {
+        if (!stacks.containsKey(temporary))
+        {
+            stacks.put(temporary, new LinkedList<Operand>());
+        }
+        
+        return stacks.get(temporary);
+    }
+} // public class SsaBuilder
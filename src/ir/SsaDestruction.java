@@ -0,0 +1,153 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SsaDestruction converts a graph out of static single assignment form by replacing 
+ * each phi with copies at the ends of its block's predecessors.
+ * 
+ * Edges leaving a branch are first split with a new block, so the copies for one edge run
+ * only along that edge and never before the branch reads its operands.
+ * The copies along an edge happen simultaneously; when one copy would overwrite a value
+ * another still reads, every value is first copied to a fresh temporary.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class SsaDestruction
+{
+    /**
+     * Replaces the phis of a graph with copies.
+     * 
+     * @postcondition The graph contains no phi instructions and its edges are current.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void destroy(ControlFlowGraph graph)
+    {
+        graph.computeEdges();
+        
+        for (BasicBlock block : new ArrayList<BasicBlock>(graph.getBlocks()))
+        {
+            List<Instruction> phis = new ArrayList<Instruction>();
+            
+            for (Instruction instruction : block.getInstructions())
+            {
+                if (instruction.getOpcode() == Opcode.PHI)
+                {
+                    phis.add(instruction);
+                }
+            }
+            
+            if (!phis.isEmpty())
+            {
+                for (BasicBlock predecessor : new ArrayList<BasicBlock>(block.getPredecessors()))
+                {
+                    BasicBlock source = predecessor;
+                    
+                    if (predecessor.getTerminator().getOpcode() == Opcode.BRANCH)
+                    {
+                        source = splitEdge(graph, predecessor, block, phis);
+                    }
+                    
+                    insertCopies(graph, source, phis);
+                }
+                
+                block.getInstructions().removeAll(phis);
+            } // if
+        } // for
+        
+        graph.computeEdges();
+    } // public void destroy
+    
+    /**
+     * Splits an edge with a new block that jumps to the edge's target.
+     * 
+     * @param graph     the control-flow graph
+     * @param source    the source of the edge
+     * @param target    the target of the edge
+     * @param phis      the phis of the target, whose incoming blocks are updated
+     * @return the new block
+     */
+    private BasicBlock splitEdge(ControlFlowGraph graph, BasicBlock source, BasicBlock target,
+            List<Instruction> phis)
+    {
+        BasicBlock split = graph.newBlock();
+        split.add(Instruction.jump(target));
+        
+        List<BasicBlock> targets = source.getTerminator().getTargets();
+        
+        for (int i = 0; i < targets.size(); i++)
+        {
+            if (targets.get(i) == target)
+            {
+                targets.set(i, split);
+            }
+        }
+        
+        for (Instruction phi : phis)
+        {
+            List<BasicBlock> incoming = phi.getIncoming();
+            incoming.set(incoming.indexOf(source), split);
+        }
+        
+        return split;
+    } // private BasicBlock splitEdge
+    
+    /**
+     * Inserts before the terminator of a predecessor the copies its edge performs.
+     * 
+     * @param graph         the control-flow graph
+     * @param predecessor   the block the edge leaves
+     * @param phis          the phis of the edge's target
+     */
+    private void insertCopies(ControlFlowGraph graph, BasicBlock predecessor, 
+            List<Instruction> phis)
+    {
+        List<Instruction> instructions = predecessor.getInstructions();
+        List<Temporary> destinations = new ArrayList<Temporary>();
+        List<Operand> sources = new ArrayList<Operand>();
+        Set<Operand> read = new HashSet<Operand>();
+        
+        for (Instruction phi : phis)
+        {
+            Operand source = phi.getOperands().get(phi.getIncoming().indexOf(predecessor));
+            
+            if (source != phi.getDestination())
+            {
+                destinations.add(phi.getDestination());
+                sources.add(source);
+                read.add(source);
+            }
+        } // for
+        
+        boolean overlapping = false;
+        
+        for (Temporary destination : destinations)
+        {
+            overlapping = overlapping || read.contains(destination);
+        }
+        
+        List<Instruction> copies = new ArrayList<Instruction>();
+        
+        for (int i = 0; i < destinations.size(); i++)
+        {
+            // Stage every value through a fresh temporary if the copies overlap
+            if (overlapping)
+            {
+                Temporary staged = graph.newTemporary(null);
+                copies.add(i, Instruction.copy(staged, sources.get(i)));
+                copies.add(Instruction.copy(destinations.get(i), staged));
+            }
+            else
+            {
+                copies.add(Instruction.copy(destinations.get(i), sources.get(i)));
+            }
+        } // for
+        
+        instructions.addAll(instructions.size() - 1, copies);
+    } // private void insertCopies
+} // public class SsaDestruction
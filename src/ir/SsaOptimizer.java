@@ -0,0 +1,47 @@
+package ir;
+
+/**
+ * SsaOptimizer runs the global optimizations on every control-flow graph of an 
+ * intermediate program: conversion to static single assignment form, sparse conditional 
+ * constant propagation, global value numbering, dead code elimination, and conversion 
+ * back to copies for code generation, after which straight-line chains of blocks are merged.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class SsaOptimizer
+{
+    /**
+     * Optimizes every control-flow graph of an intermediate program.
+     * 
+     * @postcondition Every graph is optimized, free of phis, and has compact temporaries.
+     * 
+     * @param program   the intermediate program
+     */
+    public void optimize(IntermediateProgram program)
+    {
+        optimize(program.getMain());
+        
+        for (ControlFlowGraph procedure : program.getProcedures().values())
+        {
+            optimize(procedure);
+        }
+    } // public void optimize(IntermediateProgram)
+    
+    /**
+     * Optimizes a control-flow graph.
+     * 
+     * @param graph the control-flow graph
+     */
+    public void optimize(ControlFlowGraph graph)
+    {
+        new SsaBuilder().build(graph);
+        new ConstantPropagation().propagate(graph);
+        new GlobalValueNumbering().number(graph);
+        new DeadCodeElimination().eliminate(graph);
+        new SsaDestruction().destroy(graph);
+        
+        graph.mergeBlocks();
+        graph.compactTemporaries();
+    } // public void optimize(ControlFlowGraph)
+} // public class SsaOptimizer
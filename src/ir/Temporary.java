@@ -0,0 +1,74 @@
+package ir;
+
+/**
+ * Temporary defines a virtual register of a control-flow graph. 
+ * Local variables, promoted globals, and intermediate values all live in temporaries.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Temporary extends Operand
+{
+    private int number;     // the number of the temporary within its control-flow graph
+    private String name;    // the source variable name, or null for intermediate values
+    
+    /**
+     * Constructs a temporary with the provided number and name.
+     * 
+     * @param number    the number of the temporary within its control-flow graph
+     * @param name      the source variable name, or null for an intermediate value
+     */
+    public Temporary(int number, String name)
+    {
+        this.number = number;
+        this.name = name;
+    }
+    
+    /**
+     * Returns the number of the temporary
+     * 
+     * @return the number of the temporary within its control-flow graph
+     */
+    public int getNumber()
+    {
+        return this.number;
+    }
+    
+    /**
+     * Renumbers the temporary when its graph compacts its temporaries.
+     * 
+     * @param number    the new number of the temporary
+     */
+    void setNumber(int number)
+    {
+        this.number = number;
+    }
+    
+    /**
+     * Returns the name of the temporary
+     * 
+     * @return the source variable name, or null for an intermediate value
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+    
+    /**
+     * Returns a string representation of the temporary
+     * 
+     * @return the number, prefixed by the source variable name if there is one
+     */
+    @Override
+    public String toString()
+    {
+        String s = "%";
+        
+        if (name != null)
+        {
+            s += name + ".";
+        }
+        
+        return s + number;
+    } // public String toString()
+} // public class Temporary
@@ -0,0 +1,109 @@
+package jvm;
+
+import java.util.Arrays;
+
+/**
+ * ByteVector is a growable array of bytes written in the big-endian order of class files.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ByteVector
+{
+    private byte[] bytes;   // the bytes written so far, followed by free space
+    private int length;     // the number of bytes written
+    
+    /**
+     * Constructs an empty byte vector.
+     */
+    public ByteVector()
+    {
+        bytes = new byte[64];
+        length = 0;
+    }
+    
+    /**
+     * Returns the number of bytes written
+     *
+     * @return the length of the vector
+     */
+    public int getLength()
+    {
+        return this.length;
+    }
+    
+    /**
+     * Appends one byte.
+     *
+     * @param value the byte, of which only the low 8 bits are written
+     */
+    public void putByte(int value)
+    {
+        if (length == bytes.length)
+        {
+            bytes = Arrays.copyOf(bytes, 2 * length);
+        }
+        
+        bytes[length] = (byte) value;
+        length++;
+    }
+    
+    /**
+     * Appends two bytes.
+     *
+     * @param value the short, of which only the low 16 bits are written
+     */
+    public void putShort(int value)
+    {
+        putByte(value >> 8);
+        putByte(value);
+    }
+    
+    /**
+     * Appends four bytes.
+     *
+     * @param value the int
+     */
+    public void putInt(int value)
+    {
+        putShort(value >> 16);
+        putShort(value);
+    }
+    
+    /**
+     * Appends the contents of another byte vector.
+     *
+     * @param vector    the bytes to append
+     */
+    public void putBytes(ByteVector vector)
+    {
+        for (int i = 0; i < vector.length; i++)
+        {
+            putByte(vector.bytes[i]);
+        }
+    }
+    
+    /**
+     * Overwrites two bytes that have already been written.
+     *
+     * @precondition The position is at most the length less 2.
+     *
+     * @param position  the position of the first byte
+     * @param value     the short, of which only the low 16 bits are written
+     */
+    public void setShort(int position, int value)
+    {
+        bytes[position] = (byte) (value >> 8);
+        bytes[position + 1] = (byte) value;
+    }
+    
+    /**
+     * Returns the bytes written
+     *
+     * @return a copy of the written bytes
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf(bytes, length);
+    }
+} // public class ByteVector
@@ -0,0 +1,285 @@
+package jvm;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ClassWriter writes a class file holding static int fields and static methods.
+ *
+ * The class file uses version 49, which predates stack map frames, so the JVM verifies the
+ * methods by inferring the type of every value itself. Constant pool entries are shared
+ * between every field and method that refers to them.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ClassWriter
+{
+    private final static int MAGIC = 0xCAFEBABE;        // begins every class file
+    private final static int VERSION = 49;              // the class file major version
+    private final static int ACC_PUBLIC = 0x0001;
+    private final static int ACC_STATIC = 0x0008;
+    private final static int ACC_FINAL = 0x0010;
+    private final static int ACC_SUPER = 0x0020;
+    
+    // Constant pool tags
+    private final static int UTF8 = 1;
+    private final static int INTEGER = 3;
+    private final static int CLASS = 7;
+    private final static int STRING = 8;
+    private final static int FIELD_REFERENCE = 9;
+    private final static int METHOD_REFERENCE = 10;
+    private final static int NAME_AND_TYPE = 12;
+    
+    private String name;                    // the internal name of the class
+    private ByteVector pool;                // the constant pool entries
+    private int poolSize;                   // the number of pool entries, counting from 1
+    private Map<String, Integer> entries;   // the index of each pool entry, by its contents
+    private ByteVector fields;              // the field declarations
+    private int numFields;                  // the number of fields declared
+    private ByteVector methods;             // the method declarations
+    private int numMethods;                 // the number of methods declared
+    
+    /**
+     * Constructs a writer for an empty class.
+     *
+     * @param name  the internal name of the class, with packages separated by slashes
+     */
+    public ClassWriter(String name)
+    {
+        this.name = name;
+        pool = new ByteVector();
+        poolSize = 1;
+        entries = new HashMap<String, Integer>();
+        fields = new ByteVector();
+        numFields = 0;
+        methods = new ByteVector();
+        numMethods = 0;
+    }
+    
+    /**
+     * Returns the internal name of the class
+     *
+     * @return the name, with packages separated by slashes
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+    
+    /**
+     * Returns the pool index of a string of characters, adding it if necessary.
+     * Names in the compiled programs are ASCII, so standard and modified UTF-8 agree.
+     *
+     * @param value the string
+     * @return the index of the UTF-8 entry
+     */
+    public int utf8(String value)
+    {
+        String key = "Utf8 " + value;
+        
+        if (!entries.containsKey(key))
+        {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            pool.putByte(ClassWriter.UTF8);
+            pool.putShort(bytes.length);
+            
+            for (byte b : bytes)
+            {
+                pool.putByte(b);
+            }
+            
+            entries.put(key, poolSize);
+            poolSize++;
+        }
+        
+        return entries.get(key);
+    } // public int utf8
+    
+    /**
+     * Returns the pool index of an int constant, adding it if necessary.
+     *
+     * @param value the int
+     * @return the index of the integer entry
+     */
+    public int integer(int value)
+    {
+        String key = "Integer " + value;
+        
+        if (!entries.containsKey(key))
+        {
+            pool.putByte(ClassWriter.INTEGER);
+            pool.putInt(value);
+            entries.put(key, poolSize);
+            poolSize++;
+        }
+        
+        return entries.get(key);
+    } // public int integer
+    
+    /**
+     * Returns the pool index of a string constant, adding it if necessary.
+     *
+     * @param value the string
+     * @return the index of the string entry
+     */
+    public int string(String value)
+    {
+        return reference(ClassWriter.STRING, utf8(value), -1);
+    }
+    
+    /**
+     * Returns the pool index of a class, adding it if necessary.
+     *
+     * @param className the internal name of the class
+     * @return the index of the class entry
+     */
+    public int classReference(String className)
+    {
+        return reference(ClassWriter.CLASS, utf8(className), -1);
+    }
+    
+    /**
+     * Returns the pool index of a field, adding it if necessary.
+     *
+     * @param owner         the internal name of the class declaring the field
+     * @param fieldName     the name of the field
+     * @param descriptor    the type descriptor of the field
+     * @return the index of the field reference entry
+     */
+    public int fieldReference(String owner, String fieldName, String descriptor)
+    {
+        return reference(ClassWriter.FIELD_REFERENCE, classReference(owner),
+                nameAndType(fieldName, descriptor));
+    }
+    
+    /**
+     * Returns the pool index of a method, adding it if necessary.
+     *
+     * @param owner         the internal name of the class declaring the method
+     * @param methodName    the name of the method
+     * @param descriptor    the type descriptor of the method
+     * @return the index of the method reference entry
+     */
+    public int methodReference(String owner, String methodName, String descriptor)
+    {
+        return reference(ClassWriter.METHOD_REFERENCE, classReference(owner),
+                nameAndType(methodName, descriptor));
+    }
+    
+    /**
+     * Returns the pool index of a name and type, adding it if necessary.
+     *
+     * @param memberName    the name of the member
+     * @param descriptor    the type descriptor of the member
+     * @return the index of the name and type entry
+     */
+    private int nameAndType(String memberName, String descriptor)
+    {
+        return reference(ClassWriter.NAME_AND_TYPE, utf8(memberName), utf8(descriptor));
+    }
+    
+    /**
+     * Returns the pool index of an entry made of one or two other entries,
+     * adding it if necessary.
+     *
+     * @param tag       the tag of the entry
+     * @param first     the index of the first entry referred to
+     * @param second    the index of the second entry referred to, or -1 if there is none
+     * @return the index of the entry
+     */
+    private int reference(int tag, int first, int second)
+    {
+        String key = tag + " " + first + " " + second;
+        
+        if (!entries.containsKey(key))
+        {
+            pool.putByte(tag);
+            pool.putShort(first);
+            
+            if (second >= 0)
+            {
+                pool.putShort(second);
+            }
+            
+            entries.put(key, poolSize);
+            poolSize++;
+        }
+        
+        return entries.get(key);
+    } // private int reference
+    
+    /**
+     * Declares a public static field.
+     *
+     * @param fieldName     the name of the field
+     * @param descriptor    the type descriptor of the field
+     */
+    public void addField(String fieldName, String descriptor)
+    {
+        fields.putShort(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_STATIC);
+        fields.putShort(utf8(fieldName));
+        fields.putShort(utf8(descriptor));
+        fields.putShort(0);
+        numFields++;
+    }
+    
+    /**
+     * Declares a public static method with its code.
+     *
+     * @param methodName    the name of the method
+     * @param descriptor    the type descriptor of the method
+     * @param maxStack      the greatest depth of the operand stack
+     * @param maxLocals     the number of locals, including the parameters
+     * @param code          the instructions of the method
+     */
+    public void addMethod(String methodName, String descriptor, int maxStack, int maxLocals,
+            ByteVector code)
+    {
+        methods.putShort(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_STATIC);
+        methods.putShort(utf8(methodName));
+        methods.putShort(utf8(descriptor));
+        
+        // One Code attribute, without exception handlers or attributes of its own
+        methods.putShort(1);
+        methods.putShort(utf8("Code"));
+        methods.putInt(12 + code.getLength());
+        methods.putShort(maxStack);
+        methods.putShort(maxLocals);
+        methods.putInt(code.getLength());
+        methods.putBytes(code);
+        methods.putShort(0);
+        methods.putShort(0);
+        numMethods++;
+    } // public void addMethod
+    
+    /**
+     * Returns the class file.
+     *
+     * @return the bytes of the class file, extending Object and implementing no interfaces
+     */
+    public byte[] toByteArray()
+    {
+        int thisClass = classReference(name);
+        int superClass = classReference("java/lang/Object");
+        
+        ByteVector classFile = new ByteVector();
+        classFile.putInt(ClassWriter.MAGIC);
+        classFile.putShort(0);
+        classFile.putShort(ClassWriter.VERSION);
+        classFile.putShort(poolSize);
+        classFile.putBytes(pool);
+        classFile.putShort(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER);
+        classFile.putShort(thisClass);
+        classFile.putShort(superClass);
+        classFile.putShort(0);
+        classFile.putShort(numFields);
+        classFile.putBytes(fields);
+        classFile.putShort(numMethods);
+        classFile.putBytes(methods);
+        classFile.putShort(0);
+        
+        return classFile.toByteArray();
+    } // public byte[] toByteArray
+} // public class ClassWriter
@@ -0,0 +1,555 @@
+package jvm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import environment.MemoTable;
+import environment.Resolver;
+
+/**
+ * JvmCompiler compiles a program to a JVM class, which the JIT then compiles to native code
+ * like any other Java method.
+ *
+ * Each global slot becomes a static int field, the main program becomes the static method
+ * run, and each procedure becomes a static method taking and returning ints. The parameters
+ * of a procedure are the first locals of its method, followed by its return variable and
+ * then its other locals. Booleans are held as 1 for true and 0 for false, as by the
+ * interpreter.
+ *
+ * The method of a memoized procedure looks up its memo table, which is stored in a static
+ * field when the class is loaded, and otherwise calls a second method holding the body.
+ * Compiled programs write the same values and consume the same fuel as the interpreter,
+ * and evaluate operands in the same order, since the operand stack is evaluated left to right.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class JvmCompiler
+{
+    private final static String CLASS_NAME = "jvm/CompiledProgram";  // the class compiled
+    private final static String SUPPORT = "jvm/JvmSupport";           // the runtime support
+    private final static String MEMO_TABLE = "Lenvironment/MemoTable;";
+    private final static String LIST = "Ljava/util/List;";
+    
+    private ClassWriter classWriter;    // the class being compiled
+    private List<String> memoFields;    // the static fields holding memo tables
+    private List<MemoTable> memoTables; // the memo table of each such field
+    
+    // The method being compiled
+    private MethodWriter method;        // the writer of the method
+    private int[] layout;               // the frame layout, or null in the main program
+    private int numParameters;          // the number of parameters of the procedure
+    
+    /**
+     * Compiles a program.
+     * Every variable is first resolved to a slot, as when the program is executed.
+     *
+     * @param program   the program to compile
+     * @return the compiled program
+     * @throws SemanticErrorException if the program contains a node that cannot be compiled,
+     *                                or a method is too long for the JVM
+     */
+    public JvmProgram compile(Program program) throws SemanticErrorException
+    {
+        int numSlots = Resolver.resolve(program.getDeclarationEnvironment());
+        
+        classWriter = new ClassWriter(JvmCompiler.CLASS_NAME);
+        memoFields = new ArrayList<String>();
+        memoTables = new ArrayList<MemoTable>();
+        
+        for (int slot = 0; slot < numSlots; slot++)
+        {
+            classWriter.addField(globalField(slot), "I");
+        }
+        
+        // Methods are called by name, so bodies may call procedures compiled after them
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            compileProcedure(procedure);
+        }
+        
+        layout = null;
+        numParameters = 0;
+        method = new MethodWriter(classWriter, "run", "()V", 0);
+        compile(program.getBody());
+        method.emit(JvmOpcode.RETURN, 0);
+        method.finish();
+        
+        return new JvmProgram(classWriter.toByteArray(), memoFields.toArray(new String[0]),
+                memoTables.toArray(new MemoTable[0]));
+    } // public JvmProgram compile(Program)
+    
+    /**
+     * Returns the name of the static field holding a global slot
+     *
+     * @param slot  the global slot
+     * @return the field name
+     */
+    private static String globalField(int slot)
+    {
+        return "g" + slot;
+    }
+    
+    /**
+     * Returns the type descriptor of the method of a procedure
+     *
+     * @param procedure the procedure
+     * @return the descriptor, taking an int for each parameter and returning an int
+     */
+    private static String descriptor(ProcedureDeclaration procedure)
+    {
+        String descriptor = "(";
+        
+        for (int i = 0; i < procedure.getParameters().size(); i++)
+        {
+            descriptor += "I";
+        }
+        
+        return descriptor + ")I";
+    }
+    
+    /**
+     * Compiles the method of a procedure, and for a memoized procedure, the method of its body.
+     * A bodiless header compiles to a method reporting the call, since calling it is an error.
+     *
+     * @param procedure the procedure to compile
+     * @throws SemanticErrorException if the body cannot be compiled
+     */
+    private void compileProcedure(ProcedureDeclaration procedure) throws SemanticErrorException
+    {
+        String identifier = procedure.getIdentifier();
+        String descriptor = JvmCompiler.descriptor(procedure);
+        numParameters = procedure.getParameters().size();
+        
+        if (procedure.isHeader())
+        {
+            method = new MethodWriter(classWriter, identifier, descriptor, numParameters);
+            method.emitString(identifier);
+            method.emitInvoke(JvmCompiler.SUPPORT, "fail", "(Ljava/lang/String;)I");
+            method.emit(JvmOpcode.IRETURN, -1);
+            method.finish();
+        }
+        else if (procedure.isMemoized())
+        {
+            compileMemoLookup(procedure);
+            compileBody(procedure, identifier + "$body", false);
+        }
+        else
+        {
+            compileBody(procedure, identifier, true);
+        }
+    } // private void compileProcedure
+    
+    /**
+     * Compiles the method of a memoized procedure, which looks up the value remembered for
+     * its arguments as the interpreter does, and calls the method of its body otherwise.
+     * Its memo table is stored in a static field named after the procedure.
+     *
+     * @param procedure the memoized procedure
+     * @throws SemanticErrorException if the method is too long for the JVM
+     */
+    private void compileMemoLookup(ProcedureDeclaration procedure) throws SemanticErrorException
+    {
+        String identifier = procedure.getIdentifier();
+        String memoField = identifier + "$memo";
+        List<Variable> parameters = procedure.getParameters();
+        int key = numParameters;
+        
+        classWriter.addField(memoField, JvmCompiler.MEMO_TABLE);
+        memoFields.add(memoField);
+        memoTables.add(procedure.getMemoTable());
+        
+        method = new MethodWriter(classWriter, identifier, JvmCompiler.descriptor(procedure),
+                numParameters + 1);
+        
+        // Box the arguments into the key
+        method.emitInvoke(JvmCompiler.SUPPORT, "newKey", "()" + JvmCompiler.LIST);
+        
+        for (int i = 0; i < numParameters; i++)
+        {
+            boolean isBoolean = parameters.get(i).getEvaluationType().equals(Boolean.class);
+            method.emitLocal(JvmOpcode.ILOAD, i);
+            method.emitInvoke(JvmCompiler.SUPPORT, isBoolean ? "addBoolean" : "addInteger",
+                    "(" + JvmCompiler.LIST + "I)" + JvmCompiler.LIST);
+        }
+        
+        method.emitLocal(JvmOpcode.ASTORE, key);
+        
+        // Return the remembered value if there is one
+        int miss = method.newLabel();
+        method.emitField(JvmOpcode.GETSTATIC, memoField, JvmCompiler.MEMO_TABLE);
+        method.emitLocal(JvmOpcode.ALOAD, key);
+        method.emitInvoke(JvmCompiler.SUPPORT, "remembers",
+                "(" + JvmCompiler.MEMO_TABLE + JvmCompiler.LIST + ")Z");
+        method.emitJump(JvmOpcode.IFEQ, miss);
+        method.emitField(JvmOpcode.GETSTATIC, memoField, JvmCompiler.MEMO_TABLE);
+        method.emitLocal(JvmOpcode.ALOAD, key);
+        method.emitInvoke(JvmCompiler.SUPPORT, "recall",
+                "(" + JvmCompiler.MEMO_TABLE + JvmCompiler.LIST + ")I");
+        method.emit(JvmOpcode.IRETURN, -1);
+        
+        // Otherwise consume fuel, call the body, and remember its value
+        method.mark(miss);
+        method.emitField(JvmOpcode.GETSTATIC, memoField, JvmCompiler.MEMO_TABLE);
+        method.emitLocal(JvmOpcode.ALOAD, key);
+        method.emitInvoke(JvmCompiler.SUPPORT, "consumeFuel", "()V");
+        
+        for (int i = 0; i < numParameters; i++)
+        {
+            method.emitLocal(JvmOpcode.ILOAD, i);
+        }
+        
+        method.emitInvoke(JvmCompiler.CLASS_NAME, identifier + "$body",
+                JvmCompiler.descriptor(procedure));
+        method.emitInvoke(JvmCompiler.SUPPORT, "remember",
+                "(" + JvmCompiler.MEMO_TABLE + JvmCompiler.LIST + "I)I");
+        method.emit(JvmOpcode.IRETURN, -1);
+        method.finish();
+    } // private void compileMemoLookup
+    
+    /**
+     * Compiles the body of a procedure into a method returning its return variable.
+     * The return variable and the other locals start at 0.
+     *
+     * @param procedure     the procedure, which has a body
+     * @param name          the name of the method
+     * @param consumesFuel  whether the method consumes fuel for the call on entry, which
+     *                      is after its arguments have been evaluated
+     * @throws SemanticErrorException if the body cannot be compiled
+     */
+    private void compileBody(ProcedureDeclaration procedure, String name, boolean consumesFuel)
+            throws SemanticErrorException
+    {
+        int frameSize = procedure.getFrameSize();
+        layout = procedure.getFrameLayout();
+        method = new MethodWriter(classWriter, name, JvmCompiler.descriptor(procedure),
+                frameSize);
+        
+        if (consumesFuel)
+        {
+            method.emitInvoke(JvmCompiler.SUPPORT, "consumeFuel", "()V");
+        }
+        
+        for (int local = numParameters; local < frameSize; local++)
+        {
+            method.emitConstant(0);
+            method.emitLocal(JvmOpcode.ISTORE, local);
+        }
+        
+        compile(procedure.getBody());
+        method.emitLocal(JvmOpcode.ILOAD, numParameters);
+        method.emit(JvmOpcode.IRETURN, -1);
+        method.finish();
+    } // private void compileBody
+    
+    /**
+     * Compiles a statement.
+     *
+     * @param statement the statement to compile
+     * @throws SemanticErrorException if the statement cannot be compiled
+     */
+    private void compile(Statement statement) throws SemanticErrorException
+    {
+        if (statement instanceof Block)
+        {
+            for (Statement child : ((Block) statement).getStatements())
+            {
+                compile(child);
+            }
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            compileInt(assignment.getExpression());
+            compileStore(assignment.getVariable());
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            Expression expression = ((Writeln) statement).getExpression();
+            boolean isBoolean = expression.getEvaluationType().equals(Boolean.class);
+            compileInt(expression);
+            method.emitInvoke(JvmCompiler.SUPPORT, isBoolean ? "writeBoolean" : "write", "(I)V");
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            int exit = method.newLabel();
+            compileJump(ifThen.getCondition(), false, exit);
+            compile(ifThen.getThenStatement());
+            method.mark(exit);
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            int start = method.newLabel();
+            int condition = method.newLabel();
+            
+            // The condition is tested at the bottom of the loop, entered by jumping to it
+            method.emitJump(JvmOpcode.GOTO, condition);
+            method.mark(start);
+            method.emitInvoke(JvmCompiler.SUPPORT, "consumeFuel", "()V");
+            compile(whileDo.getDoStatement());
+            method.mark(condition);
+            compileJump(whileDo.getCondition(), true, start);
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            compileForToDo((ForToDo) statement);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile statement " + statement;
+            throw new SemanticErrorException(message);
+        }
+    } // private void compile(Statement)
+    
+    /**
+     * Compiles a for loop, which like the interpreter re-evaluates the upper bound
+     * before every iteration.
+     *
+     * @param forToDo   the for loop to compile
+     * @throws SemanticErrorException if a child of the loop cannot be compiled
+     */
+    private void compileForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        int local = findLocal(index);
+        int start = method.newLabel();
+        int condition = method.newLabel();
+        
+        compileInt(forToDo.getLowerBound());
+        compileStore(index);
+        
+        method.emitJump(JvmOpcode.GOTO, condition);
+        method.mark(start);
+        method.emitInvoke(JvmCompiler.SUPPORT, "consumeFuel", "()V");
+        compile(forToDo.getDoStatement());
+        
+        if (local >= 0)
+        {
+            method.emitIncrement(local, 1);
+        }
+        else
+        {
+            compileLoad(index);
+            method.emitConstant(1);
+            method.emit(JvmOpcode.IADD, -1);
+            compileStore(index);
+        }
+        
+        method.mark(condition);
+        compileLoad(index);
+        compileInt(forToDo.getUpperBound());
+        method.emitJump(JvmOpcode.IF_ICMPLE, start);
+    } // private void compileForToDo
+    
+    /**
+     * Compiles a jump taken when a condition holds or when it fails.
+     *
+     * @param condition the boolean condition
+     * @param holds     true to jump when the condition holds, false to jump when it fails
+     * @param label     the label jumped to
+     * @throws SemanticErrorException if the condition cannot be compiled
+     */
+    private void compileJump(Expression condition, boolean holds, int label)
+            throws SemanticErrorException
+    {
+        if (condition instanceof Literal)
+        {
+            if ((Boolean) ((Literal) condition).getValue() == holds)
+            {
+                method.emitJump(JvmOpcode.GOTO, label);
+            }
+        }
+        
+        else if (condition instanceof Variable)
+        {
+            compileLoad((Variable) condition);
+            method.emitJump(holds ? JvmOpcode.IFNE : JvmOpcode.IFEQ, label);
+        }
+        
+        else if (condition instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) condition;
+            int opcode = JvmOpcode.jumpIf(operator.getOperator(), holds);
+            
+            if (opcode < 0)
+            {
+                String message = "Error: invalid relative operator " + operator.getOperator();
+                throw new SemanticErrorException(message);
+            }
+            
+            compileInt(operator.getOperand1());
+            compileInt(operator.getOperand2());
+            method.emitJump(opcode, label);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile condition " + condition;
+            throw new SemanticErrorException(message);
+        }
+    } // private void compileJump
+    
+    /**
+     * Compiles an integer expression, or a boolean expression as 1 for true and 0 for false,
+     * leaving its value on the operand stack.
+     *
+     * @param expression    the expression to compile
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private void compileInt(Expression expression) throws SemanticErrorException
+    {
+        if (expression instanceof Variable)
+        {
+            compileLoad((Variable) expression);
+        }
+        
+        else if (expression.getEvaluationType().equals(Boolean.class))
+        {
+            int isFalse = method.newLabel();
+            int exit = method.newLabel();
+            
+            compileJump(expression, false, isFalse);
+            method.emitConstant(1);
+            method.emitJump(JvmOpcode.GOTO, exit);
+            method.mark(isFalse);
+            method.emitConstant(0);
+            method.mark(exit);
+        }
+        
+        else if (expression instanceof Literal)
+        {
+            method.emitConstant((Integer) ((Literal) expression).getValue());
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            int opcode = JvmOpcode.fromArithmetic(operator.getOperator());
+            
+            if (opcode < 0)
+            {
+                String message = "Error: invalid arithmetic operator " + operator.getOperator();
+                throw new SemanticErrorException(message);
+            }
+            
+            compileInt(operator.getOperand1());
+            compileInt(operator.getOperand2());
+            method.emit(opcode, -1);
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            ProcedureCall call = (ProcedureCall) expression;
+            
+            for (Expression argument : call.getArguments())
+            {
+                compileInt(argument);
+            }
+            
+            ProcedureDeclaration procedure = call.getProcedure();
+            method.emitInvoke(JvmCompiler.CLASS_NAME, procedure.getIdentifier(),
+                    JvmCompiler.descriptor(procedure));
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile expression " + expression;
+            throw new SemanticErrorException(message);
+        }
+    } // private void compileInt
+    
+    /**
+     * Compiles the read of a variable from its local or global field.
+     *
+     * @param variable  the variable to read
+     */
+    private void compileLoad(Variable variable)
+    {
+        int local = findLocal(variable);
+        
+        if (local >= 0)
+        {
+            method.emitLocal(JvmOpcode.ILOAD, local);
+        }
+        else
+        {
+            method.emitField(JvmOpcode.GETSTATIC, globalField(variable.getSlot()), "I");
+        }
+    } // private void compileLoad
+    
+    /**
+     * Compiles the store of the value on the operand stack into a variable.
+     *
+     * @param variable  the assigned variable
+     */
+    private void compileStore(Variable variable)
+    {
+        int local = findLocal(variable);
+        
+        if (local >= 0)
+        {
+            method.emitLocal(JvmOpcode.ISTORE, local);
+        }
+        else
+        {
+            method.emitField(JvmOpcode.PUTSTATIC, globalField(variable.getSlot()), "I");
+        }
+    } // private void compileStore
+    
+    /**
+     * Returns the JVM local holding a variable in the procedure being compiled.
+     * Local slot 0, the return variable, follows the parameters,
+     * which are the first locals of the method.
+     *
+     * @param variable  the variable
+     * @return the index of the local, or -1 if the variable is global
+     */
+    private int findLocal(Variable variable)
+    {
+        int local = -1;
+        
+        if (layout != null && layout[variable.getSlot()] >= 0)
+        {
+            int localSlot = layout[variable.getSlot()];
+            
+            if (localSlot == 0)
+            {
+                local = numParameters;
+            }
+            else if (localSlot <= numParameters)
+            {
+                local = localSlot - 1;
+            }
+            else
+            {
+                local = localSlot;
+            }
+        } // if
+        
+        return local;
+    } // private int findLocal
+} // public class JvmCompiler
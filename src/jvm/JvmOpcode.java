@@ -0,0 +1,119 @@
+package jvm;
+
+/**
+ * JvmOpcode defines the JVM instructions emitted by the JVM compiler.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class JvmOpcode
+{
+    public final static int ICONST_M1 = 0x02;       // push -1, through ICONST_5 pushing 5
+    public final static int ICONST_0 = 0x03;
+    public final static int ICONST_1 = 0x04;
+    public final static int ICONST_5 = 0x08;
+    public final static int BIPUSH = 0x10;          // push a signed byte
+    public final static int SIPUSH = 0x11;          // push a signed short
+    public final static int LDC_W = 0x13;           // push a constant pool entry
+    
+    public final static int ILOAD = 0x15;           // push an int local
+    public final static int ALOAD = 0x19;           // push a reference local
+    public final static int ISTORE = 0x36;          // pop into an int local
+    public final static int ASTORE = 0x3a;          // pop into a reference local
+    
+    public final static int IADD = 0x60;
+    public final static int ISUB = 0x64;
+    public final static int IMUL = 0x68;
+    public final static int IDIV = 0x6c;
+    public final static int IREM = 0x70;
+    public final static int IINC = 0x84;            // add a constant to an int local
+    
+    public final static int IFEQ = 0x99;            // jump if the popped int is 0
+    public final static int IFNE = 0x9a;            // jump if the popped int is not 0
+    public final static int IF_ICMPEQ = 0x9f;       // jump comparing the two popped ints
+    public final static int IF_ICMPNE = 0xa0;
+    public final static int IF_ICMPLT = 0xa1;
+    public final static int IF_ICMPGE = 0xa2;
+    public final static int IF_ICMPGT = 0xa3;
+    public final static int IF_ICMPLE = 0xa4;
+    public final static int GOTO = 0xa7;
+    
+    public final static int IRETURN = 0xac;
+    public final static int RETURN = 0xb1;
+    public final static int GETSTATIC = 0xb2;
+    public final static int PUTSTATIC = 0xb3;
+    public final static int INVOKESTATIC = 0xb8;
+    public final static int WIDE = 0xc4;            // widen the local index of the next load
+    
+    /**
+     * Returns the opcode of an arithmetic operator
+     *
+     * @precondition The operator is one of +, -, *, /, and mod.
+     *
+     * @param operator  the arithmetic operator string
+     * @return the opcode computing the operation
+     */
+    public static int fromArithmetic(String operator)
+    {
+        int opcode = -1;
+        
+        switch (operator)
+        {
+            case ("+"):
+                opcode = JvmOpcode.IADD;
+                break;
+            case ("-"):
+                opcode = JvmOpcode.ISUB;
+                break;
+            case ("*"):
+                opcode = JvmOpcode.IMUL;
+                break;
+            case ("/"):
+                opcode = JvmOpcode.IDIV;
+                break;
+            case ("mod"):
+                opcode = JvmOpcode.IREM;
+                break;
+        }
+        
+        return opcode;
+    } // public static int fromArithmetic
+    
+    /**
+     * Returns the opcode of the jump taken when a comparison holds or when it fails
+     *
+     * @precondition The operator is one of =, <>, <, >, <=, and >=.
+     *
+     * @param operator  the relative operator string
+     * @param holds     true to jump when the comparison holds, false to jump when it fails
+     * @return the opcode comparing the two ints on the stack
+     */
+    public static int jumpIf(String operator, boolean holds)
+    {
+        int opcode = -1;
+        
+        switch (operator)
+        {
+            case ("="):
+                opcode = holds ? JvmOpcode.IF_ICMPEQ : JvmOpcode.IF_ICMPNE;
+                break;
+            case ("<>"):
+                opcode = holds ? JvmOpcode.IF_ICMPNE : JvmOpcode.IF_ICMPEQ;
+                break;
+            case ("<"):
+                opcode = holds ? JvmOpcode.IF_ICMPLT : JvmOpcode.IF_ICMPGE;
+                break;
+            case (">"):
+                opcode = holds ? JvmOpcode.IF_ICMPGT : JvmOpcode.IF_ICMPLE;
+                break;
+            case ("<="):
+                opcode = holds ? JvmOpcode.IF_ICMPLE : JvmOpcode.IF_ICMPGT;
+                break;
+            case (">="):
+                opcode = holds ? JvmOpcode.IF_ICMPGE : JvmOpcode.IF_ICMPLT;
+                break;
+        }
+        
+        return opcode;
+    } // public static int jumpIf
+} // public class JvmOpcode
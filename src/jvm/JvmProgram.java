@@ -0,0 +1,97 @@
+package jvm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import ast.SemanticErrorException;
+import environment.MemoTable;
+import environment.RuntimeEnvironment;
+
+/**
+ * JvmProgram defines a program compiled to a JVM class, which is loaded as a hidden class
+ * each time the program is executed so that every global field starts at 0.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class JvmProgram
+{
+    private byte[] classFile;           // the compiled class
+    private String[] memoFields;        // the static fields holding memo tables
+    private MemoTable[] memoTables;     // the memo table of each such field
+    
+    /**
+     * Constructs a compiled program.
+     *
+     * @param classFile     the bytes of the compiled class, in the package of this class
+     * @param memoFields    the names of the static fields holding memo tables
+     * @param memoTables    the memo table to store in each field, in the same order
+     */
+    public JvmProgram(byte[] classFile, String[] memoFields, MemoTable[] memoTables)
+    {
+        this.classFile = classFile;
+        this.memoFields = memoFields;
+        this.memoTables = memoTables;
+    }
+    
+    /**
+     * Returns the compiled class
+     *
+     * @return the bytes of the class file
+     */
+    public byte[] getClassFile()
+    {
+        return this.classFile;
+    }
+    
+    /**
+     * Loads the compiled class and executes the main program.
+     *
+     * @precondition The provided environment is the global environment.
+     * @postcondition The main program has been executed with every variable starting at 0.
+     *
+     * @param runtimeEnvironment    the global environment that writes output and limits fuel
+     * @throws SemanticErrorException if the class cannot be loaded,
+     *                                or a bodiless procedure header is called
+     */
+    public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        MethodHandle run;
+        
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile,
+                    true);
+            Class<?> compiled = lookup.lookupClass();
+            
+            for (int i = 0; i < memoFields.length; i++)
+            {
+                lookup.findStaticSetter(compiled, memoFields[i], MemoTable.class)
+                        .invoke(memoTables[i]);
+            }
+            
+            run = lookup.findStatic(compiled, "run", MethodType.methodType(void.class));
+        }
+        catch (Throwable throwable)
+        {
+            String message = "Error: cannot load compiled class: " + throwable;
+            throw new SemanticErrorException(message);
+        }
+        
+        // Errors raised by the program propagate unchanged, as from the interpreter
+        try
+        {
+            run.invokeExact();
+        }
+        catch (SemanticErrorException | RuntimeException | Error exception)
+        {
+            throw exception;
+        }
+        catch (Throwable throwable)
+        {
+            String message = "Error: compiled program failed: " + throwable;
+            throw new SemanticErrorException(message);
+        }
+    } // public void execute
+} // public class JvmProgram
@@ -0,0 +1,142 @@
+package jvm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ast.SemanticErrorException;
+import environment.MemoTable;
+import environment.RuntimeEnvironment;
+
+/**
+ * JvmSupport provides the operations that programs compiled to JVM classes invoke
+ * to write output, consume fuel, and remember the values of memoized procedures,
+ * all through the global environment and memo tables shared with the interpreter.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class JvmSupport
+{
+    /**
+     * Writes an integer through the global environment.
+     *
+     * @param value the integer to write
+     */
+    public static void write(int value)
+    {
+        RuntimeEnvironment.getGlobalEnvironment().writeInt(value);
+    }
+    
+    /**
+     * Writes a boolean through the global environment.
+     *
+     * @param value the boolean to write, as 1 for true and 0 for false
+     */
+    public static void writeBoolean(int value)
+    {
+        RuntimeEnvironment.getGlobalEnvironment().writeBoolean(value != 0);
+    }
+    
+    /**
+     * Consumes fuel for a loop iteration or a call.
+     */
+    public static void consumeFuel()
+    {
+        RuntimeEnvironment.getGlobalEnvironment().consumeFuel();
+    }
+    
+    /**
+     * Reports a call to a bodiless procedure header.
+     *
+     * @param identifier    the identifier of the procedure
+     * @return never, since the call is always reported
+     * @throws SemanticErrorException always
+     */
+    public static int fail(String identifier) throws SemanticErrorException
+    {
+        String message = "Error: called bodiless procedure header " + identifier;
+        throw new SemanticErrorException(message);
+    }
+    
+    /**
+     * Creates an empty memo table key.
+     *
+     * @return the key, to which the arguments of a call are added in order
+     */
+    public static List<Object> newKey()
+    {
+        return new ArrayList<Object>();
+    }
+    
+    /**
+     * Adds an integer argument to a memo table key, boxed as the interpreter boxes it.
+     *
+     * @param key   the key
+     * @param value the argument
+     * @return the key
+     */
+    public static List<Object> addInteger(List<Object> key, int value)
+    {
+        key.add(value);
+        
+        return key;
+    }
+    
+    /**
+     * Adds a boolean argument to a memo table key, boxed as the interpreter boxes it.
+     *
+     * @param key   the key
+     * @param value the argument, as 1 for true and 0 for false
+     * @return the key
+     */
+    public static List<Object> addBoolean(List<Object> key, int value)
+    {
+        key.add(value != 0);
+        
+        return key;
+    }
+    
+    /**
+     * Returns whether a memo table remembers the value for a key
+     *
+     * @param memoTable the memo table
+     * @param key       the arguments of the call
+     * @return true if the value is remembered, false otherwise
+     */
+    public static boolean remembers(MemoTable memoTable, List<Object> key)
+    {
+        return memoTable.containsKey(key);
+    }
+    
+    /**
+     * Returns the value a memo table remembers for a key, which becomes the most recently used.
+     *
+     * @precondition The memo table remembers the value for the key.
+     *
+     * @param memoTable the memo table
+     * @param key       the arguments of the call
+     * @return the remembered value
+     */
+    public static int recall(MemoTable memoTable, List<Object> key)
+    {
+        Object value = memoTable.get(key);
+        memoTable.put(key, value);
+        
+        return (Integer) value;
+    }
+    
+    /**
+     * Remembers the value of a call in a memo table.
+     *
+     * @param memoTable the memo table
+     * @param key       the arguments of the call
+     * @param value     the return value of the call
+     * @return the return value
+     */
+    public static int remember(MemoTable memoTable, List<Object> key, int value)
+    {
+        memoTable.put(key, value);
+        
+        return value;
+    }
+} // public class JvmSupport
@@ -0,0 +1,310 @@
+package jvm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ast.SemanticErrorException;
+
+/**
+ * MethodWriter writes the instructions of one static method of a ClassWriter.
+ *
+ * Jumps name labels, which may be marked before or after the jump, and are resolved when
+ * the method is finished. The writer tracks the depth of the operand stack as instructions
+ * are written to find the greatest depth, which the class file records. Code after a GOTO is
+ * only reached by jumping, so a label takes the depth of the jumps to it.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class MethodWriter
+{
+    private final static int MAX_OFFSET = 32767;    // the farthest a jump can reach
+    
+    private ClassWriter owner;          // the class declaring the method
+    private String name;                // the name of the method
+    private String descriptor;          // the type descriptor of the method
+    private int maxLocals;              // the number of locals, including the parameters
+    private ByteVector code;            // the instructions written so far
+    private int stackDepth;             // the depth of the operand stack after the last one
+    private int maxStack;               // the greatest depth of the operand stack so far
+    
+    private List<Integer> labelPositions;   // the position of each label, or -1 if unmarked
+    private List<Integer> labelDepths;      // the stack depth of each label, or -1 if unknown
+    private List<int[]> jumps;              // the position and label of each jump written
+    
+    /**
+     * Constructs a writer for a method without instructions.
+     *
+     * @param owner         the class declaring the method
+     * @param name          the name of the method
+     * @param descriptor    the type descriptor of the method
+     * @param maxLocals     the number of locals, including the parameters
+     */
+    public MethodWriter(ClassWriter owner, String name, String descriptor, int maxLocals)
+    {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.maxLocals = maxLocals;
+        code = new ByteVector();
+        stackDepth = 0;
+        maxStack = 0;
+        labelPositions = new ArrayList<Integer>();
+        labelDepths = new ArrayList<Integer>();
+        jumps = new ArrayList<int[]>();
+    }
+    
+    /**
+     * Creates a label, to be marked at some position of the method.
+     *
+     * @return the new label
+     */
+    public int newLabel()
+    {
+        labelPositions.add(-1);
+        labelDepths.add(-1);
+        
+        return labelPositions.size() - 1;
+    }
+    
+    /**
+     * Marks a label at the next instruction written.
+     *
+     * @param label the label to mark
+     */
+    public void mark(int label)
+    {
+        labelPositions.set(label, code.getLength());
+        
+        if (labelDepths.get(label) >= 0)
+        {
+            stackDepth = labelDepths.get(label);
+        }
+        else
+        {
+            labelDepths.set(label, stackDepth);
+        }
+    } // public void mark
+    
+    /**
+     * Writes an instruction without operands.
+     *
+     * @param opcode        the opcode
+     * @param stackChange   the number of values the instruction pushes less those it pops
+     */
+    public void emit(int opcode, int stackChange)
+    {
+        code.putByte(opcode);
+        adjustStack(stackChange);
+    }
+    
+    /**
+     * Writes the shortest instruction pushing an int constant.
+     *
+     * @param value the constant
+     */
+    public void emitConstant(int value)
+    {
+        if (value >= -1 && value <= 5)
+        {
+            code.putByte(JvmOpcode.ICONST_0 + value);
+        }
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+        {
+            code.putByte(JvmOpcode.BIPUSH);
+            code.putByte(value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+        {
+            code.putByte(JvmOpcode.SIPUSH);
+            code.putShort(value);
+        }
+        else
+        {
+            code.putByte(JvmOpcode.LDC_W);
+            code.putShort(owner.integer(value));
+        }
+        
+        adjustStack(1);
+    } // public void emitConstant
+    
+    /**
+     * Writes an instruction pushing a string constant.
+     *
+     * @param value the string
+     */
+    public void emitString(String value)
+    {
+        code.putByte(JvmOpcode.LDC_W);
+        code.putShort(owner.string(value));
+        adjustStack(1);
+    }
+    
+    /**
+     * Writes an instruction loading or storing a local, widened if the index needs it.
+     *
+     * @precondition The opcode is one of ILOAD, ALOAD, ISTORE, and ASTORE.
+     *
+     * @param opcode    the opcode
+     * @param local     the index of the local
+     */
+    public void emitLocal(int opcode, int local)
+    {
+        if (local > 255)
+        {
+            code.putByte(JvmOpcode.WIDE);
+            code.putByte(opcode);
+            code.putShort(local);
+        }
+        else
+        {
+            code.putByte(opcode);
+            code.putByte(local);
+        }
+        
+        if (opcode == JvmOpcode.ILOAD || opcode == JvmOpcode.ALOAD)
+        {
+            adjustStack(1);
+        }
+        else
+        {
+            adjustStack(-1);
+        }
+    } // public void emitLocal
+    
+    /**
+     * Writes an instruction adding a constant to an int local.
+     *
+     * @param local     the index of the local
+     * @param amount    the constant, which fits in a signed byte
+     */
+    public void emitIncrement(int local, int amount)
+    {
+        if (local > 255)
+        {
+            code.putByte(JvmOpcode.WIDE);
+            code.putByte(JvmOpcode.IINC);
+            code.putShort(local);
+            code.putShort(amount);
+        }
+        else
+        {
+            code.putByte(JvmOpcode.IINC);
+            code.putByte(local);
+            code.putByte(amount);
+        }
+    } // public void emitIncrement
+    
+    /**
+     * Writes an instruction getting or putting a static field of the class being written.
+     *
+     * @precondition The opcode is GETSTATIC or PUTSTATIC, and the field takes one stack slot.
+     *
+     * @param opcode            the opcode
+     * @param fieldName         the name of the field
+     * @param fieldDescriptor   the type descriptor of the field
+     */
+    public void emitField(int opcode, String fieldName, String fieldDescriptor)
+    {
+        code.putByte(opcode);
+        code.putShort(owner.fieldReference(owner.getName(), fieldName, fieldDescriptor));
+        adjustStack(opcode == JvmOpcode.GETSTATIC ? 1 : -1);
+    }
+    
+    /**
+     * Writes an instruction invoking a static method.
+     *
+     * @precondition Every parameter and the return value, if any, take one stack slot.
+     *
+     * @param methodOwner       the internal name of the class declaring the method
+     * @param methodName        the name of the method
+     * @param methodDescriptor  the type descriptor of the method
+     */
+    public void emitInvoke(String methodOwner, String methodName, String methodDescriptor)
+    {
+        code.putByte(JvmOpcode.INVOKESTATIC);
+        code.putShort(owner.methodReference(methodOwner, methodName, methodDescriptor));
+        
+        // Count the parameters, skipping the class name of each reference
+        int numParameters = 0;
+        int i = 1;
+        
+        while (methodDescriptor.charAt(i) != ')')
+        {
+            if (methodDescriptor.charAt(i) == 'L')
+            {
+                i = methodDescriptor.indexOf(';', i);
+            }
+            
+            numParameters++;
+            i++;
+        }
+        
+        boolean returnsValue = methodDescriptor.charAt(i + 1) != 'V';
+        adjustStack((returnsValue ? 1 : 0) - numParameters);
+    } // public void emitInvoke
+    
+    /**
+     * Writes a jump to a label.
+     *
+     * @precondition The opcode is GOTO, IFEQ, IFNE, or a comparison of two ints.
+     *
+     * @param opcode    the opcode
+     * @param label     the label jumped to
+     */
+    public void emitJump(int opcode, int label)
+    {
+        jumps.add(new int[] {code.getLength(), label});
+        code.putByte(opcode);
+        code.putShort(0);
+        
+        if (opcode == JvmOpcode.IFEQ || opcode == JvmOpcode.IFNE)
+        {
+            adjustStack(-1);
+        }
+        else if (opcode != JvmOpcode.GOTO)
+        {
+            adjustStack(-2);
+        }
+        
+        if (labelDepths.get(label) < 0)
+        {
+            labelDepths.set(label, stackDepth);
+        }
+    } // public void emitJump
+    
+    /**
+     * Changes the depth of the operand stack, recording the greatest depth.
+     *
+     * @param stackChange   the number of values pushed less those popped
+     */
+    private void adjustStack(int stackChange)
+    {
+        stackDepth += stackChange;
+        maxStack = Math.max(maxStack, stackDepth);
+    }
+    
+    /**
+     * Resolves every jump and declares the method in its class.
+     *
+     * @precondition Every label jumped to has been marked.
+     * @postcondition The method has been added to the class.
+     *
+     * @throws SemanticErrorException if the method is too long for its jumps to be encoded
+     */
+    public void finish() throws SemanticErrorException
+    {
+        if (code.getLength() > MethodWriter.MAX_OFFSET)
+        {
+            String message = "Error: " + name + " is too long to compile to a JVM method";
+            throw new SemanticErrorException(message);
+        }
+        
+        for (int[] jump : jumps)
+        {
+            code.setShort(jump[0] + 1, labelPositions.get(jump[1]) - jump[0]);
+        }
+        
+        owner.addMethod(name, descriptor, maxStack, maxLocals, code);
+    } // public void finish
+} // public class MethodWriter
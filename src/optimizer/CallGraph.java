@@ -0,0 +1,234 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import ast.Expression;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import environment.DeclarationEnvironment;
+
+/**
+ * CallGraph records which procedures each procedure calls, together with 
+ * the global variables each procedure may read or write, including through the
+ * procedures it calls.
+ * The graph reflects the procedure bodies at the time it is constructed.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class CallGraph
+{
+    // The procedures each procedure calls directly
+    private Map<ProcedureDeclaration, Set<ProcedureDeclaration>> callees;
+    
+    // The globals each procedure may write, directly or through calls
+    private Map<ProcedureDeclaration, Set<Variable>> writtenGlobals;
+    
+    // The globals each procedure may read, directly or through calls
+    private Map<ProcedureDeclaration, Set<Variable>> readGlobals;
+    
+    /**
+     * Constructs the call graph of every bodied procedure in the declaration environment.
+     * 
+     * @param declarationEnvironment    the environment declaring the procedures
+     * @throws SemanticErrorException if a procedure body cannot be retrieved
+     */
+    public CallGraph(DeclarationEnvironment declarationEnvironment) throws SemanticErrorException
+    {
+        callees = new HashMap<ProcedureDeclaration, Set<ProcedureDeclaration>>();
+        writtenGlobals = new HashMap<ProcedureDeclaration, Set<Variable>>();
+        readGlobals = new HashMap<ProcedureDeclaration, Set<Variable>>();
+        
+        // Record the direct calls and direct global accesses of each procedure
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            Set<ProcedureDeclaration> called = new HashSet<ProcedureDeclaration>();
+            Set<Variable> written = new HashSet<Variable>();
+            Set<Variable> read = new HashSet<Variable>();
+            
+            if (!procedure.isHeader())
+            {
+                Statement body = procedure.getBody();
+                
+                for (ProcedureCall call : TreeAnalysis.getProcedureCalls(body))
+                {
+                    called.add(call.getProcedure());
+                }
+                
+                for (Variable variable : TreeAnalysis.getAssignedVariables(body))
+                {
+                    if (!procedure.isLocalVariable(variable))
+                    {
+                        written.add(variable);
+                    }
+                }
+                
+                for (Variable variable : TreeAnalysis.getReferencedVariables(body))
+                {
+                    if (!procedure.isLocalVariable(variable))
+                    {
+                        read.add(variable);
+                    }
+                }
+            } // if
+            
+            callees.put(procedure, called);
+            writtenGlobals.put(procedure, written);
+            readGlobals.put(procedure, read);
+        } // for
+        
+        // Propagate global accesses from callees to callers until nothing changes
+        boolean changed = true;
+        
+        while (changed)
+        {
+            changed = false;
+            
+            for (ProcedureDeclaration procedure : callees.keySet())
+            {
+                for (ProcedureDeclaration callee : getCallees(procedure))
+                {
+                    changed |= writtenGlobals.get(procedure).addAll(getWrittenGlobals(callee));
+                    changed |= readGlobals.get(procedure).addAll(getReadGlobals(callee));
+                }
+            } // for
+        } // while
+    } // public CallGraph
+    
+    /**
+     * Returns the procedures a procedure calls directly.
+     * 
+     * @param procedure the calling procedure
+     * @return the set of directly called procedures
+     */
+    public Set<ProcedureDeclaration> getCallees(ProcedureDeclaration procedure)
+    {
+        Set<ProcedureDeclaration> called = callees.get(procedure);
+        
+        if (called == null)
+        {
+            called = new HashSet<ProcedureDeclaration>();
+        }
+        
+        return called;
+    }
+    
+    /**
+     * Returns whether a procedure may call itself, directly or through other procedures.
+     * 
+     * @param procedure the procedure to check
+     * @return true if the procedure is reachable from its own callees, false otherwise
+     */
+    public boolean isRecursive(ProcedureDeclaration procedure)
+    {
+        Set<ProcedureDeclaration> visited = new HashSet<ProcedureDeclaration>();
+        return reaches(procedure, procedure, visited);
+    }
+    
+    /**
+     * Returns whether the target is reachable through calls from the source.
+     * 
+     * @param source    the procedure to search from
+     * @param target    the procedure to search for
+     * @param visited   the procedures already searched
+     * @return true if a chain of calls leads from the source to the target
+     */
+    private boolean reaches(ProcedureDeclaration source, ProcedureDeclaration target,
+            Set<ProcedureDeclaration> visited)
+    {
+        boolean found = false;
+        
+        for (ProcedureDeclaration callee : getCallees(source))
+        {
+            if (callee == target)
+            {
+                found = true;
+            }
+            else if (!found && visited.add(callee))
+            {
+                found = reaches(callee, target, visited);
+            }
+        } // for
+        
+        return found;
+    } // private boolean reaches
+    
+    /**
+     * Returns the globals a procedure may write, directly or through calls.
+     * 
+     * @param procedure the procedure to check
+     * @return the set of possibly written global variables
+     */
+    public Set<Variable> getWrittenGlobals(ProcedureDeclaration procedure)
+    {
+        Set<Variable> written = writtenGlobals.get(procedure);
+        
+        if (written == null)
+        {
+            written = new HashSet<Variable>();
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Returns the globals a procedure may read, directly or through calls.
+     * 
+     * @param procedure the procedure to check
+     * @return the set of possibly read global variables
+     */
+    public Set<Variable> getReadGlobals(ProcedureDeclaration procedure)
+    {
+        Set<Variable> read = readGlobals.get(procedure);
+        
+        if (read == null)
+        {
+            read = new HashSet<Variable>();
+        }
+        
+        return read;
+    }
+    
+    /**
+     * Returns the globals that evaluating an expression may write through procedure calls.
+     * 
+     * @param expression    the expression to check
+     * @return the set of possibly written global variables
+     */
+    public Set<Variable> getWrittenGlobals(Expression expression)
+    {
+        Set<Variable> written = new HashSet<Variable>();
+        
+        for (ProcedureCall call : TreeAnalysis.getProcedureCalls(expression))
+        {
+            written.addAll(getWrittenGlobals(call.getProcedure()));
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Returns the globals that executing a statement may write through procedure calls.
+     * Variables the statement assigns directly are not included.
+     * 
+     * @param statement the statement to check
+     * @return the set of possibly written global variables
+     */
+    public Set<Variable> getWrittenGlobals(Statement statement)
+    {
+        Set<Variable> written = new HashSet<Variable>();
+        
+        for (ProcedureCall call : TreeAnalysis.getProcedureCalls(statement))
+        {
+            written.addAll(getWrittenGlobals(call.getProcedure()));
+        }
+        
+        return written;
+    }
+} // public class CallGraph
@@ -0,0 +1,475 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+
+/**
+ * CommonSubexpressionEliminator performs local value numbering over the straight-line
+ * statement sequences of blocks.
+ * 
+ * A region is a maximal run of assignments and Writelns within a block, optionally ended by
+ * the condition of an if-then. Every call-free arithmetic subexpression receives a value
+ * number built from its operator and the value numbers of its operands, where a variable's
+ * value number changes whenever the variable is assigned or a call may write it.
+ * Arithmetic subexpressions whose value number occurs more than once are computed into
+ * a temporary before their first occurrence, and every occurrence reads the temporary.
+ * Statements containing procedure calls are not rewritten.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class CommonSubexpressionEliminator implements OptimizationPass
+{
+    private CallGraph callGraph;            // the globals each call may write
+    private TemporaryFactory temporaries;   // introduces the temporaries holding values
+    
+    /**
+     * Eliminates common subexpressions in the program body and every procedure body.
+     * 
+     * @postcondition Repeated arithmetic subexpressions within straight-line regions 
+     *                are computed once.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        temporaries = new TemporaryFactory(program.getDeclarationEnvironment());
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                procedure.replaceBody(eliminate(procedure.getBody(), procedure));
+            }
+        } // for
+        
+        program.replaceBody(eliminate(program.getBody(), null));
+    } // public void optimize(Program)
+    
+    /**
+     * Eliminates common subexpressions within a statement.
+     * 
+     * @param statement the statement to rewrite
+     * @param context   the procedure containing the statement, or null for the program body
+     * @return the rewritten statement
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    private Statement eliminate(Statement statement, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        Statement eliminated = statement;
+        
+        if (statement instanceof Block)
+        {
+            eliminated = eliminateBlock((Block) statement, context);
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            eliminated = new IfThen(ifThen.getCondition(),
+                    eliminate(ifThen.getThenStatement(), context));
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            eliminated = new WhileDo(whileDo.getCondition(), 
+                    eliminate(whileDo.getDoStatement(), context));
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            ForToDo forToDo = (ForToDo) statement;
+            eliminated = new ForToDo(forToDo.getIndex(), forToDo.getLowerBound(),
+                    forToDo.getUpperBound(), eliminate(forToDo.getDoStatement(), context));
+        }
+        
+        else
+        {
+            // A lone assignment or Writeln forms a region of its own
+            List<Statement> region = new LinkedList<Statement>();
+            region.add(statement);
+            eliminated = new Block(eliminateRegion(region, context));
+        } // else
+        
+        return eliminated;
+    } // private Statement eliminate
+    
+    /**
+     * Eliminates common subexpressions within each region of a block.
+     * Nested blocks are flattened into the enclosing block first.
+     * 
+     * @param block     the block to rewrite
+     * @param context   the procedure containing the block, or null for the program body
+     * @return the rewritten block
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    private Statement eliminateBlock(Block block, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        List<Statement> region = new LinkedList<Statement>();
+        
+        for (Statement statement : flatten(block))
+        {
+            if (statement instanceof Assignment || statement instanceof Writeln)
+            {
+                region.add(statement);
+            }
+            
+            // An if-then condition ends the region it follows
+            else if (statement instanceof IfThen)
+            {
+                region.add(statement);
+                statements.addAll(eliminateRegion(region, context));
+                region.clear();
+            }
+            
+            else
+            {
+                statements.addAll(eliminateRegion(region, context));
+                region.clear();
+                statements.add(eliminate(statement, context));
+            } // else
+        } // for
+        
+        statements.addAll(eliminateRegion(region, context));
+        
+        return new Block(statements);
+    } // private Statement eliminateBlock
+    
+    /**
+     * Returns the statements of a block with nested blocks replaced by their statements.
+     * 
+     * @param block the block to flatten
+     * @return the flattened list of statements
+     */
+    private List<Statement> flatten(Block block)
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        
+        for (Statement statement : block.getStatements())
+        {
+            if (statement instanceof Block)
+            {
+                statements.addAll(flatten((Block) statement));
+            }
+            else
+            {
+                statements.add(statement);
+            }
+        } // for
+        
+        return statements;
+    } // private List<Statement> flatten
+    
+    /**
+     * Eliminates common subexpressions within a straight-line region.
+     * 
+     * @param region    the assignments and Writelns of the region, optionally ended by an if-then
+     * @param context   the procedure containing the region, or null for the program body
+     * @return the rewritten statements of the region
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    private List<Statement> eliminateRegion(List<Statement> region, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        Map<Expression, String> valueNumbers = new IdentityHashMap<Expression, String>();
+        Map<String, Integer> occurrences = new HashMap<String, Integer>();
+        Map<Variable, Integer> versions = new HashMap<Variable, Integer>();
+        
+        // Number every value and count its exposed occurrences
+        for (Statement statement : region)
+        {
+            Expression expression = getExpression(statement);
+            
+            if (!TreeAnalysis.containsProcedureCall(expression))
+            {
+                number(expression, versions, valueNumbers);
+                count(expression, valueNumbers, occurrences);
+            }
+            
+            updateVersions(statement, versions);
+        } // for
+        
+        // Compute each repeated value once and read it afterwards
+        Map<String, Variable> available = new HashMap<String, Variable>();
+        List<Statement> rewritten = new LinkedList<Statement>();
+        
+        for (Statement statement : region)
+        {
+            List<Statement> prelude = new LinkedList<Statement>();
+            Expression expression = getExpression(statement);
+            
+            if (!TreeAnalysis.containsProcedureCall(expression))
+            {
+                expression = replace(expression, valueNumbers, occurrences, available,
+                        prelude, context);
+            }
+            
+            rewritten.addAll(prelude);
+            
+            if (statement instanceof Assignment)
+            {
+                rewritten.add(new Assignment(((Assignment) statement).getVariable(), expression));
+            }
+            else if (statement instanceof Writeln)
+            {
+                rewritten.add(new Writeln(expression));
+            }
+            else
+            {
+                IfThen ifThen = (IfThen) statement;
+                rewritten.add(new IfThen(expression, 
+                        eliminate(ifThen.getThenStatement(), context)));
+            } // else
+        } // for
+        
+        return rewritten;
+    } // private List<Statement> eliminateRegion
+    
+    /**
+     * Returns the expression a region statement evaluates.
+     * 
+     * @param statement an assignment, Writeln, or if-then
+     * @return the assigned expression, printed expression, or condition
+     */
+    private Expression getExpression(Statement statement)
+    {
+        Expression expression;
+        
+        if (statement instanceof Assignment)
+        {
+            expression = ((Assignment) statement).getExpression();
+        }
+        else if (statement instanceof Writeln)
+        {
+            expression = ((Writeln) statement).getExpression();
+        }
+        else
+        {
+            expression = ((IfThen) statement).getCondition();
+        }
+        
+        return expression;
+    } // private Expression getExpression
+    
+    /**
+     * Advances the versions of the variables a region statement may write.
+     * 
+     * @param statement the statement that was just numbered
+     * @param versions  the current version of each variable
+     */
+    private void updateVersions(Statement statement, Map<Variable, Integer> versions)
+    {
+        List<Variable> written = new LinkedList<Variable>(
+                callGraph.getWrittenGlobals(getExpression(statement)));
+        
+        if (statement instanceof Assignment)
+        {
+            written.add(((Assignment) statement).getVariable());
+        }
+        
+        for (Variable variable : written)
+        {
+            versions.put(variable, getVersion(variable, versions) + 1);
+        }
+    } // private void updateVersions
+    
+    /**
+     * Returns the current version of a variable.
+     * 
+     * @param variable  the variable
+     * @param versions  the current version of each variable
+     * @return the number of times the variable has been written in the region
+     */
+    private int getVersion(Variable variable, Map<Variable, Integer> versions)
+    {
+        Integer version = versions.get(variable);
+        
+        if (version == null)
+        {
+            version = 0;
+        }
+        
+        return version;
+    }
+    
+    /**
+     * Assigns a value number to an expression and each of its subexpressions.
+     * Operands of commutative operators are ordered so that a + b and b + a share a number.
+     * 
+     * @param expression    the call-free expression to number
+     * @param versions      the current version of each variable
+     * @param valueNumbers  the value number of each numbered expression
+     * @return the value number of the expression
+     */
+    private String number(Expression expression, Map<Variable, Integer> versions,
+            Map<Expression, String> valueNumbers)
+    {
+        String valueNumber = "";
+        
+        if (expression instanceof Variable)
+        {
+            Variable variable = (Variable) expression;
+            valueNumber = variable.getIdentifier() + "#" + getVersion(variable, versions);
+        }
+        
+        else if (expression instanceof Literal)
+        {
+            valueNumber = ((Literal) expression).getValue().toString();
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            String operand1 = number(operator.getOperand1(), versions, valueNumbers);
+            String operand2 = number(operator.getOperand2(), versions, valueNumbers);
+            
+            boolean commutative = operator.getOperator().equals("+") 
+                    || operator.getOperator().equals("*");
+            
+            if (commutative && operand1.compareTo(operand2) > 0)
+            {
+                String swap = operand1;
+                operand1 = operand2;
+                operand2 = swap;
+            }
+            
+            valueNumber = "(" + operator.getOperator() + " " + operand1 + " " + operand2 + ")";
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            String operand1 = number(operator.getOperand1(), versions, valueNumbers);
+            String operand2 = number(operator.getOperand2(), versions, valueNumbers);
+            
+            valueNumber = "(" + operator.getOperator() + " " + operand1 + " " + operand2 + ")";
+        } // else if
+        
+        valueNumbers.put(expression, valueNumber);
+        return valueNumber;
+    } // private String number
+    
+    /**
+     * Counts the exposed occurrences of each arithmetic value number in an expression.
+     * Subexpressions of a repeated occurrence are not exposed, since the repeated
+     * occurrence will read a temporary instead of evaluating them.
+     * 
+     * @param expression    the numbered expression
+     * @param valueNumbers  the value number of each numbered expression
+     * @param occurrences   the number of exposed occurrences of each value number
+     */
+    private void count(Expression expression, Map<Expression, String> valueNumbers,
+            Map<String, Integer> occurrences)
+    {
+        boolean descend = true;
+        
+        if (expression instanceof ArithmeticOperator)
+        {
+            String valueNumber = valueNumbers.get(expression);
+            Integer seen = occurrences.get(valueNumber);
+            
+            if (seen == null)
+            {
+                seen = 0;
+            }
+            
+            occurrences.put(valueNumber, seen + 1);
+            descend = seen == 0;
+        } // if
+        
+        if (descend && expression instanceof ArithmeticOperator)
+        {
+            count(((ArithmeticOperator) expression).getOperand1(), valueNumbers, occurrences);
+            count(((ArithmeticOperator) expression).getOperand2(), valueNumbers, occurrences);
+        }
+        else if (descend && expression instanceof RelativeOperator)
+        {
+            count(((RelativeOperator) expression).getOperand1(), valueNumbers, occurrences);
+            count(((RelativeOperator) expression).getOperand2(), valueNumbers, occurrences);
+        }
+    } // private void count
+    
+    /**
+     * Replaces the repeated values within an expression with temporaries.
+     * 
+     * @postcondition Each repeated value not yet available is computed into a new temporary
+     *                by an assignment appended to the prelude.
+     * 
+     * @param expression    the numbered expression
+     * @param valueNumbers  the value number of each numbered expression
+     * @param occurrences   the number of exposed occurrences of each value number
+     * @param available     the temporary holding each value computed so far
+     * @param prelude       the statements to execute before the expression
+     * @param context       the procedure containing the expression, or null
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten expression is ill-typed
+     */
+    private Expression replace(Expression expression, Map<Expression, String> valueNumbers,
+            Map<String, Integer> occurrences, Map<String, Variable> available,
+            List<Statement> prelude, ProcedureDeclaration context) throws SemanticErrorException
+    {
+        Expression replaced = expression;
+        String valueNumber = valueNumbers.get(expression);
+        
+        if (expression instanceof ArithmeticOperator && available.containsKey(valueNumber))
+        {
+            replaced = available.get(valueNumber);
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            replaced = new ArithmeticOperator(operator.getOperator(),
+                    replace(operator.getOperand1(), valueNumbers, occurrences, available,
+                            prelude, context),
+                    replace(operator.getOperand2(), valueNumbers, occurrences, available,
+                            prelude, context));
+            
+            // Compute a repeated value into a temporary at its first occurrence
+            if (occurrences.get(valueNumber) > 1)
+            {
+                Variable temporary = temporaries.newTemporary("value", Integer.class, context);
+                prelude.add(new Assignment(temporary, replaced));
+                available.put(valueNumber, temporary);
+                replaced = temporary;
+            }
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            replaced = new RelativeOperator(operator.getOperator(),
+                    replace(operator.getOperand1(), valueNumbers, occurrences, available,
+                            prelude, context),
+                    replace(operator.getOperand2(), valueNumbers, occurrences, available,
+                            prelude, context));
+        } // else if
+        
+        return replaced;
+    } // private Expression replace
+} // public class CommonSubexpressionEliminator
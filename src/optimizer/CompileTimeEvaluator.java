@@ -0,0 +1,98 @@
+package optimizer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import ast.Program;
+import ast.SemanticErrorException;
+import environment.FuelExhaustedException;
+import environment.RuntimeEnvironment;
+
+/**
+ * CompileTimeEvaluator runs a whole program through the interpreter at compile time.
+ * 
+ * The language has no input, so a program that finishes always writes the same values.
+ * The run is limited to a budget of fuel, counted in loop iterations and procedure calls.
+ * If it finishes within the budget, the integers it wrote can be emitted as a table
+ * instead of the program itself. Boolean values are left out, since compiled code 
+ * never prints them. A run that exhausts its budget, overflows the interpreter's stack,
+ * or divides by zero is abandoned, and the program must be compiled normally.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class CompileTimeEvaluator
+{
+    public final static long DEFAULT_FUEL = 1000000;    // default loop iterations and calls
+    
+    private long fuel;                                  // the budget of each evaluation
+    
+    /**
+     * Constructs an evaluator with the default budget.
+     */
+    public CompileTimeEvaluator()
+    {
+        this(CompileTimeEvaluator.DEFAULT_FUEL);
+    }
+    
+    /**
+     * Constructs an evaluator with the provided budget.
+     * 
+     * @param fuel  the number of loop iterations and procedure calls allowed
+     */
+    public CompileTimeEvaluator(long fuel)
+    {
+        this.fuel = fuel;
+    }
+    
+    /**
+     * Evaluates a program within the budget.
+     * 
+     * @param program   the program to evaluate
+     * @return the integers the program writes, in order, 
+     *         or null if the program could not be evaluated within the budget
+     */
+    public List<Integer> evaluate(Program program)
+    {
+        RuntimeEnvironment environment = new RuntimeEnvironment(null);
+        environment.limitFuel(fuel);
+        environment.captureOutput();
+        
+        List<Integer> values = new LinkedList<Integer>();
+        
+        try
+        {
+            program.execute(environment);
+            
+            for (Object value : environment.getCapturedOutput())
+            {
+                if (value instanceof Integer)
+                {
+                    values.add((Integer) value);
+                }
+            }
+        } // try
+        
+        catch (FuelExhaustedException exception)
+        {
+            values = null;
+        }
+        
+        catch (ArithmeticException exception)
+        {
+            values = null;
+        }
+        
+        catch (StackOverflowError error)
+        {
+            values = null;
+        }
+        
+        catch (SemanticErrorException exception)
+        {
+            values = null;
+        }
+        
+        return values;
+    } // public List<Integer> evaluate
+} // public class CompileTimeEvaluator
@@ -0,0 +1,351 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+
+/**
+ * ConstantFolder propagates the constant values of variables forward through a body
+ * and folds operators whose operands are all constant.
+ *
+ * A variable is known to be constant after it is assigned an integer literal, until it is
+ * assigned again, assigned within a loop, or possibly written by a called procedure.
+ * After an if-then, only the values known on both paths are kept.
+ * Locals other than parameters are known to be 0 when a procedure is entered.
+ * Arithmetic is folded with the same semantics as evaluation, except that division by zero
+ * is left to happen at runtime. Additions of 0 and multiplications and divisions by 1 are removed.
+ * Relative operators are only folded in if-then and while conditions, where a constant
+ * condition removes the statement or, for a true if-then condition, the test.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ConstantFolder extends TreeRewriter implements OptimizationPass
+{
+    private CallGraph callGraph;                // the globals each call may write
+    private ProcedureDeclaration context;       // the procedure being folded, or null
+    private Map<Variable, Integer> constants;   // the known values at the current point
+    
+    /**
+     * Constructs a constant folder that builds its own call graph for each program.
+     */
+    public ConstantFolder()
+    {
+        this(null);
+    }
+    
+    /**
+     * Constructs a constant folder with the provided call graph.
+     *
+     * @param callGraph the call graph of the program to fold, or null to build one
+     */
+    public ConstantFolder(CallGraph callGraph)
+    {
+        this.callGraph = callGraph;
+    }
+    
+    /**
+     * Folds the body of every procedure and the program body.
+     *
+     * @postcondition Every body is rewritten with constants propagated and folded.
+     *
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a folded body is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                procedure.replaceBody(fold(procedure.getBody(), procedure,
+                        new HashMap<Variable, Integer>()));
+            }
+        } // for
+        
+        program.replaceBody(fold(program.getBody(), null, new HashMap<Variable, Integer>()));
+    } // public void optimize(Program)
+    
+    /**
+     * Folds a body with some variables known to be constant on entry.
+     *
+     * @param body      the body to fold
+     * @param context   the procedure whose body is folded, or null for the program body
+     * @param known     the values of variables known on entry besides default locals
+     * @return the folded body
+     * @throws SemanticErrorException if the folded body is ill-typed
+     */
+    public Statement fold(Statement body, ProcedureDeclaration context, Map<Variable, Integer> known)
+            throws SemanticErrorException
+    {
+        this.context = context;
+        constants = new HashMap<Variable, Integer>();
+        
+        // Non-parameter locals and the return variable start with the default value
+        if (context != null)
+        {
+            List<Variable> locals = new LinkedList<Variable>(context.getNonParameters());
+            locals.add(context.getReturnVariable());
+            
+            for (Variable local : locals)
+            {
+                if (local.getEvaluationType().equals(Integer.class))
+                {
+                    constants.put(local, 0);
+                }
+            }
+        } // if
+        
+        constants.putAll(known);
+        
+        return rewrite(body);
+    } // public Statement fold
+    
+    /**
+     * Forgets the values of globals that the calls within an expression may write.
+     * Locals of the procedure being folded are unaffected by calls.
+     *
+     * @postcondition No variable possibly written by the calls is known to be constant.
+     *
+     * @param written   the globals possibly written
+     */
+    private void forget(Set<Variable> written)
+    {
+        for (Variable variable : written)
+        {
+            if (context == null || !context.isLocalVariable(variable))
+            {
+                constants.remove(variable);
+            }
+        }
+    } // private void forget
+    
+    /**
+     * Forgets the values of every variable a loop may change.
+     *
+     * @postcondition No variable assigned within the loop, directly or by calls,
+     *                is known to be constant.
+     *
+     * @param loop  the loop
+     */
+    private void forgetLoop(Statement loop)
+    {
+        constants.keySet().removeAll(TreeAnalysis.getAssignedVariables(loop));
+        forget(callGraph.getWrittenGlobals(loop));
+    }
+    
+    /**
+     * Returns whether a condition is a relative operator between integer literals.
+     *
+     * @param condition the condition to check
+     * @return true if the condition can be evaluated at compile time
+     */
+    private static boolean isConstantCondition(Expression condition)
+    {
+        return condition instanceof RelativeOperator
+                && TreeAnalysis.isIntegerLiteral(((RelativeOperator) condition).getOperand1())
+                && TreeAnalysis.isIntegerLiteral(((RelativeOperator) condition).getOperand2());
+    }
+    
+    @Override
+    protected Statement rewriteBlock(Block block) throws SemanticErrorException
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        
+        for (Statement statement : block.getStatements())
+        {
+            Statement folded = rewrite(statement);
+            
+            // Drop statements folded away entirely
+            if (!(folded instanceof Block) || !((Block) folded).getStatements().isEmpty())
+            {
+                statements.add(folded);
+            }
+        } // for
+        
+        return new Block(statements);
+    } // protected Statement rewriteBlock
+    
+    @Override
+    protected Statement rewriteAssignment(Assignment assignment) throws SemanticErrorException
+    {
+        forget(callGraph.getWrittenGlobals(assignment.getExpression()));
+        
+        Expression expression = rewrite(assignment.getExpression());
+        Variable variable = assignment.getVariable();
+        
+        constants.remove(variable);
+        
+        if (TreeAnalysis.isIntegerLiteral(expression))
+        {
+            constants.put(variable, TreeAnalysis.getIntegerValue(expression));
+        }
+        
+        return new Assignment(variable, expression);
+    } // protected Statement rewriteAssignment
+    
+    @Override
+    protected Statement rewriteWriteln(Writeln writeln) throws SemanticErrorException
+    {
+        forget(callGraph.getWrittenGlobals(writeln.getExpression()));
+        return super.rewriteWriteln(writeln);
+    }
+    
+    @Override
+    protected Statement rewriteIfThen(IfThen ifThen) throws SemanticErrorException
+    {
+        forget(callGraph.getWrittenGlobals(ifThen.getCondition()));
+        
+        Expression condition = rewrite(ifThen.getCondition());
+        Statement folded;
+        
+        if (isConstantCondition(condition) && (Boolean) condition.evaluate(null))
+        {
+            folded = rewrite(ifThen.getThenStatement());
+        }
+        
+        else if (isConstantCondition(condition))
+        {
+            folded = new Block(new LinkedList<Statement>());
+        }
+        
+        else
+        {
+            Map<Variable, Integer> before = new HashMap<Variable, Integer>(constants);
+            folded = new IfThen(condition, rewrite(ifThen.getThenStatement()));
+            
+            // Keep only the values known whether or not the statement ran
+            Set<Variable> unknown = new HashSet<Variable>();
+            
+            for (Map.Entry<Variable, Integer> entry : constants.entrySet())
+            {
+                if (!entry.getValue().equals(before.get(entry.getKey())))
+                {
+                    unknown.add(entry.getKey());
+                }
+            }
+            
+            constants.keySet().removeAll(unknown);
+        } // else
+        
+        return folded;
+    } // protected Statement rewriteIfThen
+    
+    @Override
+    protected Statement rewriteWhileDo(WhileDo whileDo) throws SemanticErrorException
+    {
+        forgetLoop(whileDo);
+        
+        Expression condition = rewrite(whileDo.getCondition());
+        Statement folded;
+        
+        if (isConstantCondition(condition) && !(Boolean) condition.evaluate(null))
+        {
+            folded = new Block(new LinkedList<Statement>());
+        }
+        
+        else
+        {
+            // Values learned within the body do not hold after the loop
+            Map<Variable, Integer> entry = new HashMap<Variable, Integer>(constants);
+            folded = new WhileDo(condition, rewrite(whileDo.getDoStatement()));
+            constants = entry;
+        } // else
+        
+        return folded;
+    } // protected Statement rewriteWhileDo
+    
+    @Override
+    protected Statement rewriteForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        forget(callGraph.getWrittenGlobals(forToDo.getLowerBound()));
+        Expression lowerBound = rewrite(forToDo.getLowerBound());
+        
+        forgetLoop(forToDo);
+        constants.remove(forToDo.getIndex());
+        
+        Map<Variable, Integer> entry = new HashMap<Variable, Integer>(constants);
+        Expression upperBound = rewrite(forToDo.getUpperBound());
+        Statement body = rewrite(forToDo.getDoStatement());
+        constants = entry;
+        
+        return new ForToDo(forToDo.getIndex(), lowerBound, upperBound, body);
+    } // protected Statement rewriteForToDo
+    
+    @Override
+    protected Expression rewriteVariable(Variable variable)
+    {
+        Expression folded = variable;
+        
+        if (constants.containsKey(variable))
+        {
+            folded = new Literal(constants.get(variable));
+        }
+        
+        return folded;
+    }
+    
+    @Override
+    protected Expression rewriteArithmeticOperator(ArithmeticOperator operator)
+            throws SemanticErrorException
+    {
+        Expression operand1 = rewrite(operator.getOperand1());
+        Expression operand2 = rewrite(operator.getOperand2());
+        String symbol = operator.getOperator();
+        
+        Expression folded = new ArithmeticOperator(symbol, operand1, operand2);
+        
+        // Evaluate operators on literals, leaving division by zero to runtime
+        if (TreeAnalysis.isIntegerLiteral(operand1) && TreeAnalysis.isIntegerLiteral(operand2)
+                && !((symbol.equals("/") || symbol.equals("mod"))
+                        && TreeAnalysis.isIntegerLiteral(operand2, 0)))
+        {
+            folded = new Literal(folded.evaluate(null));
+        }
+        
+        else if (symbol.equals("+") && TreeAnalysis.isIntegerLiteral(operand1, 0))
+        {
+            folded = operand2;
+        }
+        
+        else if ((symbol.equals("+") || symbol.equals("-"))
+                && TreeAnalysis.isIntegerLiteral(operand2, 0))
+        {
+            folded = operand1;
+        }
+        
+        else if (symbol.equals("*") && TreeAnalysis.isIntegerLiteral(operand1, 1))
+        {
+            folded = operand2;
+        }
+        
+        else if ((symbol.equals("*") || symbol.equals("/"))
+                && TreeAnalysis.isIntegerLiteral(operand2, 1))
+        {
+            folded = operand1;
+        } // else if
+        
+        return folded;
+    } // protected Expression rewriteArithmeticOperator
+} // public class ConstantFolder
@@ -0,0 +1,372 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import environment.DeclarationEnvironment;
+
+/**
+ * Inliner substitutes the bodies of small, non-recursive procedures at their call sites.
+ * 
+ * Calls are hoisted out of the expressions of assignments, Writelns, if-then conditions,
+ * and for loop lower bounds, all of which are evaluated exactly once per execution.
+ * Each inlined call assigns its arguments to fresh copies of the parameters, resets fresh
+ * copies of the return variable and non-parameter locals to their default values,
+ * and then executes a renamed copy of the procedure body.
+ * While loop conditions and for loop upper bounds are evaluated on every iteration,
+ * so calls within them are left in place.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Inliner implements OptimizationPass
+{
+    public final static int DEFAULT_MAXIMUM_SIZE = 40;  // default maximum inlined body size
+    private final static int MAXIMUM_DEPTH = 8;         // maximum nesting of inlined bodies
+    
+    private int maximumSize;                            // maximum body size in nodes
+    
+    private CallGraph callGraph;                        // calls and global accesses
+    private TemporaryFactory temporaries;               // introduces fresh locals
+    private Set<ProcedureDeclaration> inlineable;       // the procedures to inline
+    
+    /**
+     * Constructs an inliner with the default maximum body size.
+     */
+    public Inliner()
+    {
+        this(Inliner.DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Constructs an inliner with the provided maximum body size.
+     * 
+     * @param maximumSize   the maximum number of nodes in the body of an inlined procedure
+     */
+    public Inliner(int maximumSize)
+    {
+        this.maximumSize = maximumSize;
+    }
+    
+    /**
+     * Inlines small, non-recursive procedures throughout the program.
+     * 
+     * @postcondition Calls to inlineable procedures in the program body and every
+     *                procedure body are replaced with the bodies of the called procedures.
+     *                Procedure declarations themselves are kept.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if an inlined body is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        DeclarationEnvironment declarationEnvironment = program.getDeclarationEnvironment();
+        
+        callGraph = new CallGraph(declarationEnvironment);
+        temporaries = new TemporaryFactory(declarationEnvironment);
+        
+        // Choose the procedures to inline before any body changes size
+        inlineable = new HashSet<ProcedureDeclaration>();
+        
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader() && !callGraph.isRecursive(procedure)
+                    && TreeAnalysis.countNodes(procedure.getBody()) <= maximumSize)
+            {
+                inlineable.add(procedure);
+            }
+        } // for
+        
+        // Inline within procedure bodies, then within the program body
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                procedure.replaceBody(inlineStatement(procedure.getBody(), procedure, 0));
+            }
+        } // for
+        
+        program.replaceBody(inlineStatement(program.getBody(), null, 0));
+    } // public void optimize(Program)
+    
+    /**
+     * Inlines the calls within a statement.
+     * 
+     * @param statement the statement to inline calls within
+     * @param context   the procedure containing the statement, or null for the program body
+     * @param depth     the number of enclosing inlined bodies
+     * @return the statement with calls inlined
+     * @throws SemanticErrorException if an inlined body is ill-typed
+     */
+    private Statement inlineStatement(Statement statement, ProcedureDeclaration context, 
+            int depth) throws SemanticErrorException
+    {
+        Statement inlined = statement;
+        List<Statement> prelude = new LinkedList<Statement>();
+        
+        if (statement instanceof Block)
+        {
+            List<Statement> statements = new LinkedList<Statement>();
+            
+            for (Statement child : ((Block) statement).getStatements())
+            {
+                statements.add(inlineStatement(child, context, depth));
+            }
+            
+            inlined = new Block(statements);
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            Expression expression = hoist(assignment.getExpression(), prelude, context, depth);
+            inlined = new Assignment(assignment.getVariable(), expression);
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            Writeln writeln = (Writeln) statement;
+            inlined = new Writeln(hoist(writeln.getExpression(), prelude, context, depth));
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            Expression condition = hoist(ifThen.getCondition(), prelude, context, depth);
+            Statement thenStatement = inlineStatement(ifThen.getThenStatement(), context, depth);
+            inlined = new IfThen(condition, thenStatement);
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            Statement doStatement = inlineStatement(whileDo.getDoStatement(), context, depth);
+            inlined = new WhileDo(whileDo.getCondition(), doStatement);
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            ForToDo forToDo = (ForToDo) statement;
+            Expression lowerBound = hoist(forToDo.getLowerBound(), prelude, context, depth);
+            Statement doStatement = inlineStatement(forToDo.getDoStatement(), context, depth);
+            inlined = new ForToDo(forToDo.getIndex(), lowerBound, forToDo.getUpperBound(), 
+                    doStatement);
+        } // else if
+        
+        // Precede the statement with the hoisted calls, if any
+        if (!prelude.isEmpty())
+        {
+            prelude.add(inlined);
+            inlined = new Block(prelude);
+        }
+        
+        return inlined;
+    } // private Statement inlineStatement
+    
+    /**
+     * Hoists the calls within an expression into statements that precede it.
+     * 
+     * @postcondition If the expression contains an inlineable call and hoisting preserves
+     *                the order in which variables are read and written, every call is 
+     *                replaced by a variable that holds its result, and statements computing
+     *                those results are appended to the prelude in evaluation order.
+     *                Otherwise, the expression and prelude are left unchanged.
+     * 
+     * @param expression    the expression to hoist calls from
+     * @param prelude       the statements to execute before the expression
+     * @param context       the procedure containing the expression, or null for the program body
+     * @param depth         the number of enclosing inlined bodies
+     * @return the expression with calls replaced by their results
+     * @throws SemanticErrorException if an inlined body is ill-typed
+     */
+    private Expression hoist(Expression expression, List<Statement> prelude, 
+            ProcedureDeclaration context, int depth) throws SemanticErrorException
+    {
+        boolean hasInlineableCall = false;
+        
+        for (ProcedureCall call : TreeAnalysis.getProcedureCalls(expression))
+        {
+            hasInlineableCall |= inlineable.contains(call.getProcedure());
+        }
+        
+        Expression hoisted = expression;
+        
+        if (hasInlineableCall && depth < Inliner.MAXIMUM_DEPTH)
+        {
+            /*
+             * Hoisting moves every call ahead of the variable reads outside the calls,
+             * so no call may write a variable read outside the calls.
+             */
+            Expression withoutCalls = new CallRemover().rewrite(expression);
+            Set<Variable> readOutsideCalls = TreeAnalysis.getReferencedVariables(withoutCalls);
+            readOutsideCalls.retainAll(callGraph.getWrittenGlobals(expression));
+            
+            if (readOutsideCalls.isEmpty())
+            {
+                hoisted = new CallHoister(prelude, context, depth).rewrite(expression);
+            }
+        } // if
+        
+        return hoisted;
+    } // private Expression hoist
+    
+    /**
+     * Expands a call into statements that compute its result.
+     * 
+     * @postcondition If the called procedure is inlineable in the context, statements executing
+     *                a renamed copy of its body are appended to the prelude.
+     *                Otherwise, an assignment of the call to a temporary is appended.
+     * 
+     * @param call      the call to expand
+     * @param prelude   the statements to append to
+     * @param context   the procedure containing the call, or null for the program body
+     * @param depth     the number of enclosing inlined bodies
+     * @return the variable holding the result of the call
+     * @throws SemanticErrorException if the inlined body is ill-typed
+     */
+    private Variable expandCall(ProcedureCall call, List<Statement> prelude,
+            ProcedureDeclaration context, int depth) throws SemanticErrorException
+    {
+        ProcedureDeclaration procedure = call.getProcedure();
+        Variable result;
+        
+        if (!inlineable.contains(procedure) || isShadowed(procedure, context))
+        {
+            result = temporaries.newTemporary("call", Integer.class, context);
+            prelude.add(new Assignment(result, call));
+        }
+        
+        else
+        {
+            Map<Variable, Variable> renaming = new HashMap<Variable, Variable>();
+            List<Statement> expansion = new LinkedList<Statement>();
+            
+            // Evaluate each argument into a fresh copy of its parameter
+            List<Expression> arguments = call.getArguments();
+            List<Variable> parameters = procedure.getParameters();
+            
+            for (int i = 0; i < parameters.size(); i++)
+            {
+                Variable parameter = parameters.get(i);
+                Variable copy = temporaries.newTemporary(parameter.getIdentifier(),
+                        parameter.getEvaluationType(), context);
+                
+                renaming.put(parameter, copy);
+                expansion.add(new Assignment(copy, arguments.get(i)));
+            } // for
+            
+            // Reset fresh copies of the return variable and non-parameter locals
+            List<Variable> locals = new LinkedList<Variable>(procedure.getNonParameters());
+            locals.add(procedure.getReturnVariable());
+            
+            for (Variable local : locals)
+            {
+                Variable copy = temporaries.newTemporary(local.getIdentifier(),
+                        local.getEvaluationType(), context);
+                
+                renaming.put(local, copy);
+                expansion.add(new Assignment(copy, 
+                        TemporaryFactory.defaultValue(local.getEvaluationType())));
+            } // for
+            
+            // Execute the renamed body, inlining any calls within it
+            expansion.add(new VariableRenamer(renaming).rewrite(procedure.getBody()));
+            prelude.add(inlineStatement(new Block(expansion), context, depth + 1));
+            
+            result = renaming.get(procedure.getReturnVariable());
+        } // else
+        
+        return result;
+    } // private Variable expandCall
+    
+    /**
+     * Returns whether a global accessed by a procedure is shadowed by a local of the context,
+     * in which case the inlined body would access the local instead.
+     * 
+     * @param procedure the procedure to inline
+     * @param context   the procedure containing the call, or null for the program body
+     * @return true if the procedure cannot be inlined within the context, false otherwise
+     * @throws SemanticErrorException if the body of the procedure cannot be retrieved
+     */
+    private boolean isShadowed(ProcedureDeclaration procedure, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        boolean shadowed = false;
+        
+        if (context != null)
+        {
+            Set<Variable> accessed = TreeAnalysis.getReferencedVariables(procedure.getBody());
+            accessed.addAll(TreeAnalysis.getAssignedVariables(procedure.getBody()));
+            
+            for (Variable variable : accessed)
+            {
+                shadowed |= !procedure.isLocalVariable(variable) 
+                        && context.isLocalVariable(variable);
+            }
+        } // if
+        
+        return shadowed;
+    } // private boolean isShadowed
+    
+    /**
+     * CallHoister replaces each outermost call in an expression with its expanded result.
+     */
+    private class CallHoister extends TreeRewriter
+    {
+        private List<Statement> prelude;        // the statements computing call results
+        private ProcedureDeclaration context;   // the procedure containing the expression
+        private int depth;                      // the number of enclosing inlined bodies
+        
+        /**
+         * Constructs a call hoister appending to the provided prelude.
+         * 
+         * @param prelude   the statements computing call results
+         * @param context   the procedure containing the expression, or null
+         * @param depth     the number of enclosing inlined bodies
+         */
+        private CallHoister(List<Statement> prelude, ProcedureDeclaration context, int depth)
+        {
+            this.prelude = prelude;
+            this.context = context;
+            this.depth = depth;
+        }
+        
+        @Override
+        protected Expression rewriteProcedureCall(ProcedureCall call) 
+                throws SemanticErrorException
+        {
+            return expandCall(call, prelude, context, depth);
+        }
+    } // private class CallHoister
+    
+    /**
+     * CallRemover replaces each call in an expression with a literal,
+     * leaving only the parts of the expression evaluated outside of calls.
+     */
+    private static class CallRemover extends TreeRewriter
+    {
+        @Override
+        protected Expression rewriteProcedureCall(ProcedureCall call)
+        {
+            return new Literal(0);
+        }
+    } // private static class CallRemover
+} // public class Inliner
@@ -0,0 +1,263 @@
+package optimizer;
+
+/**
+ * Interval defines an immutable range of integer values from a minimum to a maximum, inclusive.
+ * Bounds are kept as longs so that the exact result of integer arithmetic can be checked
+ * against the integer range before it wraps. An interval whose minimum exceeds its maximum
+ * is empty, and describes a value that is never computed.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Interval
+{
+    // Every integer value
+    public final static Interval FULL = new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    
+    private long minimum;       // the least value
+    private long maximum;       // the greatest value
+    
+    /**
+     * Constructs an interval with the provided bounds.
+     *
+     * @param minimum   the least value
+     * @param maximum   the greatest value
+     */
+    public Interval(long minimum, long maximum)
+    {
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+    
+    /**
+     * Constructs an interval holding a single value.
+     *
+     * @param value the value
+     */
+    public Interval(long value)
+    {
+        this(value, value);
+    }
+    
+    /**
+     * Returns the least value of the interval
+     *
+     * @return the minimum
+     */
+    public long getMinimum()
+    {
+        return this.minimum;
+    }
+    
+    /**
+     * Returns the greatest value of the interval
+     *
+     * @return the maximum
+     */
+    public long getMaximum()
+    {
+        return this.maximum;
+    }
+    
+    /**
+     * Returns whether the interval is empty
+     *
+     * @return true if the interval holds no value, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return minimum > maximum;
+    }
+    
+    /**
+     * Returns whether the interval holds a value
+     *
+     * @param value the value
+     * @return true if the value lies within the bounds, false otherwise
+     */
+    public boolean contains(long value)
+    {
+        return minimum <= value && value <= maximum;
+    }
+    
+    /**
+     * Returns whether every value of the interval fits in an integer
+     *
+     * @return true if the interval lies within the integer range, false otherwise
+     */
+    public boolean fitsInInteger()
+    {
+        return isEmpty() || (minimum >= Integer.MIN_VALUE && maximum <= Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns the interval clamped to the values an integer computation can produce:
+     * itself if it fits in an integer, or every integer if the computation may wrap.
+     *
+     * @return the interval of possible integer results
+     */
+    public Interval wrap()
+    {
+        Interval wrapped = this;
+        
+        if (!fitsInInteger())
+        {
+            wrapped = Interval.FULL;
+        }
+        
+        return wrapped;
+    }
+    
+    /**
+     * Returns the smallest interval holding every value of both intervals.
+     *
+     * @param other the other interval
+     * @return the union hull of the intervals
+     */
+    public Interval join(Interval other)
+    {
+        Interval joined;
+        
+        if (this.isEmpty())
+        {
+            joined = other;
+        }
+        else if (other.isEmpty())
+        {
+            joined = this;
+        }
+        else
+        {
+            joined = new Interval(Math.min(minimum, other.minimum),
+                    Math.max(maximum, other.maximum));
+        }
+        
+        return joined;
+    } // public Interval join
+    
+    /**
+     * Returns the values of both intervals.
+     *
+     * @param other the other interval
+     * @return the intersection of the intervals, possibly empty
+     */
+    public Interval meet(Interval other)
+    {
+        return new Interval(Math.max(minimum, other.minimum), Math.min(maximum, other.maximum));
+    }
+    
+    /**
+     * Returns the exact sums of values of the intervals, which may exceed the integer range.
+     *
+     * @param other the interval of the second operand
+     * @return the interval of sums
+     */
+    public Interval add(Interval other)
+    {
+        return new Interval(minimum + other.minimum, maximum + other.maximum);
+    }
+    
+    /**
+     * Returns the exact differences of values of the intervals,
+     * which may exceed the integer range.
+     *
+     * @param other the interval of the second operand
+     * @return the interval of differences
+     */
+    public Interval subtract(Interval other)
+    {
+        return new Interval(minimum - other.maximum, maximum - other.minimum);
+    }
+    
+    /**
+     * Returns the exact products of values of the intervals,
+     * which may exceed the integer range.
+     *
+     * @param other the interval of the second operand
+     * @return the interval of products
+     */
+    public Interval multiply(Interval other)
+    {
+        long[] corners = {minimum * other.minimum, minimum * other.maximum,
+            maximum * other.minimum, maximum * other.maximum};
+        
+        return Interval.hull(corners);
+    }
+    
+    /**
+     * Returns the quotients, truncated toward zero, of values of the intervals.
+     *
+     * @precondition The interval of the divisor does not contain zero.
+     *
+     * @param other the interval of the divisor
+     * @return the interval of quotients
+     */
+    public Interval divide(Interval other)
+    {
+        // The divisor has a single sign, so the extremes lie at the corners
+        long[] corners = {minimum / other.minimum, minimum / other.maximum,
+            maximum / other.minimum, maximum / other.maximum};
+        
+        return Interval.hull(corners);
+    }
+    
+    /**
+     * Returns the remainders, which take the sign of the dividend, of values of the intervals.
+     *
+     * @precondition The interval of the divisor does not contain zero.
+     *
+     * @param other the interval of the divisor
+     * @return the interval of remainders
+     */
+    public Interval remainder(Interval other)
+    {
+        long largest = Math.max(Math.abs(other.minimum), Math.abs(other.maximum)) - 1;
+        Interval remainders;
+        
+        if (minimum >= 0)
+        {
+            remainders = new Interval(0, Math.min(maximum, largest));
+        }
+        else if (maximum <= 0)
+        {
+            remainders = new Interval(Math.max(minimum, -largest), 0);
+        }
+        else
+        {
+            remainders = new Interval(-largest, largest);
+        }
+        
+        return remainders;
+    } // public Interval remainder
+    
+    /**
+     * Returns the smallest interval holding the provided values.
+     *
+     * @param values    the values, at least one
+     * @return the interval from the least to the greatest value
+     */
+    private static Interval hull(long[] values)
+    {
+        long least = values[0];
+        long greatest = values[0];
+        
+        for (long value : values)
+        {
+            least = Math.min(least, value);
+            greatest = Math.max(greatest, value);
+        }
+        
+        return new Interval(least, greatest);
+    } // private static Interval hull
+    
+    /**
+     * Returns a string representation of the interval
+     *
+     * @return the bounds in brackets
+     */
+    @Override
+    public String toString()
+    {
+        return "[" + minimum + ", " + maximum + "]";
+    }
+} // public class Interval
@@ -0,0 +1,185 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ProcedureDeclaration;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+
+/**
+ * InvariantHoister rewrites the expressions of a single loop, replacing each maximal
+ * loop-invariant arithmetic subexpression with a temporary computed before the loop.
+ * 
+ * An expression is invariant if it contains no procedure calls and reads none of the
+ * variables the loop may write. Since a hoisted expression is evaluated even when the loop
+ * body never runs, divisions and modulos are only hoisted when the divisor is a nonzero literal,
+ * and when arithmetic is checked at runtime, nothing that may overflow is hoisted.
+ * Structurally identical invariant expressions share a single temporary.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class InvariantHoister extends TreeRewriter
+{
+    private Set<Variable> variant;                  // the variables the loop may write
+    private boolean checked;                        // whether arithmetic is checked at runtime
+    private ProcedureDeclaration context;           // the procedure containing the loop
+    private TemporaryFactory temporaries;           // introduces the hoisted temporaries
+    
+    private Map<String, Variable> hoisted;          // the temporary for each hoisted expression
+    private List<Statement> prelude;                // the computations of the temporaries
+    
+    /**
+     * Constructs a hoister for a loop that may write the provided variables.
+     * 
+     * @param variant       the variables the loop may write
+     * @param checked       whether arithmetic is checked at runtime
+     * @param context       the procedure containing the loop, or null for the program body
+     * @param temporaries   the factory to introduce temporaries with
+     */
+    public InvariantHoister(Set<Variable> variant, boolean checked, ProcedureDeclaration context,
+            TemporaryFactory temporaries)
+    {
+        this.variant = variant;
+        this.checked = checked;
+        this.context = context;
+        this.temporaries = temporaries;
+        
+        this.hoisted = new HashMap<String, Variable>();
+        this.prelude = new LinkedList<Statement>();
+    } // public InvariantHoister
+    
+    /**
+     * Returns whether any expression has been hoisted.
+     * 
+     * @return true if the prelude is nonempty, false otherwise
+     */
+    public boolean hasHoisted()
+    {
+        return !prelude.isEmpty();
+    }
+    
+    /**
+     * Places the rewritten loop after the computations of the hoisted temporaries.
+     * 
+     * @param loop  the rewritten loop
+     * @return a block of the prelude followed by the loop, or the loop if nothing was hoisted
+     */
+    public Statement wrap(Statement loop)
+    {
+        Statement wrapped = loop;
+        
+        if (hasHoisted())
+        {
+            List<Statement> statements = new LinkedList<Statement>(prelude);
+            statements.add(loop);
+            wrapped = new Block(statements);
+        }
+        
+        return wrapped;
+    } // public Statement wrap
+    
+    /**
+     * Hoists an invariant arithmetic operator, or rewrites its operands otherwise.
+     * 
+     * @param operator  the arithmetic operator to rewrite
+     * @return a temporary holding the operator's value, or the rewritten operator
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Expression rewriteArithmeticOperator(ArithmeticOperator operator) 
+            throws SemanticErrorException
+    {
+        Expression rewritten;
+        
+        if (isInvariant(operator))
+        {
+            String key = operator.toString();
+            
+            // Compute the value once before the loop
+            if (!hoisted.containsKey(key))
+            {
+                Variable temporary = temporaries.newTemporary("invariant", Integer.class, context);
+                prelude.add(new Assignment(temporary, operator));
+                hoisted.put(key, temporary);
+            }
+            
+            rewritten = hoisted.get(key);
+        }
+        else
+        {
+            rewritten = super.rewriteArithmeticOperator(operator);
+        }
+        
+        return rewritten;
+    } // protected Expression rewriteArithmeticOperator
+    
+    /**
+     * Returns whether an expression may be evaluated once before the loop.
+     * 
+     * @param expression    the expression
+     * @return true if the expression is call-free, reads no variant variable,
+     *         and cannot trap; false otherwise
+     */
+    private boolean isInvariant(Expression expression)
+    {
+        boolean invariant = !TreeAnalysis.containsProcedureCall(expression) 
+                && isSafe(expression);
+        
+        for (Variable variable : TreeAnalysis.getReferencedVariables(expression))
+        {
+            invariant = invariant && !variant.contains(variable);
+        }
+        
+        return invariant;
+    } // private boolean isInvariant
+    
+    /**
+     * Returns whether evaluating a call-free expression can never raise an error.
+     * 
+     * @param expression    the expression
+     * @return true if every division and modulo has a nonzero literal divisor and, when
+     *         arithmetic is checked, there is no other arithmetic; false otherwise
+     */
+    private boolean isSafe(Expression expression)
+    {
+        boolean safe = true;
+        
+        if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            
+            safe = isSafe(operator.getOperand1()) && isSafe(operator.getOperand2());
+            
+            if (operator.getOperator().equals("/") || operator.getOperator().equals("mod"))
+            {
+                safe = safe && TreeAnalysis.isIntegerLiteral(operator.getOperand2())
+                        && TreeAnalysis.getIntegerValue(operator.getOperand2()) != 0;
+            }
+            
+            // Checked addition, subtraction, and multiplication trap on overflow
+            else
+            {
+                safe = safe && !checked;
+            }
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            safe = isSafe(operator.getOperand1()) && isSafe(operator.getOperand2());
+        }
+        
+        return safe;
+    } // private boolean isSafe
+} // public class InvariantHoister
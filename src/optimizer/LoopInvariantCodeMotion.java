@@ -0,0 +1,131 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ast.ForToDo;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+
+/**
+ * LoopInvariantCodeMotion hoists loop-invariant subexpressions out of while and for loops.
+ * 
+ * The conditions and bodies of while loops and the upper bounds and bodies of for loops
+ * are evaluated on every iteration. Loops are processed outermost first, so an expression
+ * invariant in an outer loop is hoisted out of the whole nest, and expressions invariant only
+ * in an inner loop are then hoisted to just before the inner loop.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class LoopInvariantCodeMotion extends TreeRewriter implements OptimizationPass
+{
+    private boolean checked;                        // whether arithmetic is checked at runtime
+    
+    private CallGraph callGraph;                    // the globals each call may write
+    private TemporaryFactory temporaries;           // introduces the hoisted temporaries
+    private ProcedureDeclaration context;           // the procedure being rewritten
+    
+    /**
+     * Constructs a pass for code whose arithmetic is not checked at runtime.
+     */
+    public LoopInvariantCodeMotion()
+    {
+        this(false);
+    }
+    
+    /**
+     * Constructs a pass.
+     * 
+     * @param checked   whether the program is compiled with arithmetic checked at runtime,
+     *                  so that arithmetic which may overflow is not hoisted
+     */
+    public LoopInvariantCodeMotion(boolean checked)
+    {
+        this.checked = checked;
+    }
+    
+    /**
+     * Hoists loop-invariant subexpressions in the program body and every procedure body.
+     * 
+     * @postcondition Each loop is preceded by the computations of its invariant subexpressions.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        temporaries = new TemporaryFactory(program.getDeclarationEnvironment());
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                context = procedure;
+                procedure.replaceBody(rewrite(procedure.getBody()));
+            }
+        } // for
+        
+        context = null;
+        program.replaceBody(rewrite(program.getBody()));
+    } // public void optimize(Program)
+    
+    /**
+     * Hoists the invariant subexpressions of a while loop's condition and body,
+     * then processes the loops nested in the body.
+     * 
+     * @param whileDo   the while loop to rewrite
+     * @return the hoisted computations followed by the rewritten loop
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Statement rewriteWhileDo(WhileDo whileDo) throws SemanticErrorException
+    {
+        InvariantHoister hoister = new InvariantHoister(getVariant(whileDo), checked, context,
+                temporaries);
+        
+        WhileDo hoisted = new WhileDo(hoister.rewrite(whileDo.getCondition()), 
+                rewrite(hoister.rewrite(whileDo.getDoStatement())));
+        
+        return hoister.wrap(hoisted);
+    } // protected Statement rewriteWhileDo
+    
+    /**
+     * Hoists the invariant subexpressions of a for loop's upper bound and body,
+     * then processes the loops nested in the body.
+     * 
+     * @param forToDo   the for loop to rewrite
+     * @return the hoisted computations followed by the rewritten loop
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Statement rewriteForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        InvariantHoister hoister = new InvariantHoister(getVariant(forToDo), checked, context,
+                temporaries);
+        
+        ForToDo hoisted = new ForToDo(forToDo.getIndex(), forToDo.getLowerBound(),
+                hoister.rewrite(forToDo.getUpperBound()),
+                rewrite(hoister.rewrite(forToDo.getDoStatement())));
+        
+        return hoister.wrap(hoisted);
+    } // protected Statement rewriteForToDo
+    
+    /**
+     * Returns the variables a loop may write, directly or through the procedures it calls.
+     * 
+     * @param loop  the loop
+     * @return the set of variables that may change between iterations
+     */
+    private Set<Variable> getVariant(Statement loop)
+    {
+        Set<Variable> variant = new HashSet<Variable>(TreeAnalysis.getAssignedVariables(loop));
+        variant.addAll(callGraph.getWrittenGlobals(loop));
+        return variant;
+    }
+} // public class LoopInvariantCodeMotion
@@ -0,0 +1,393 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+
+/**
+ * LoopUnroller replicates the bodies of for loops to save the compare and increment
+ * of the index on most iterations.
+ *
+ * Only loops whose body leaves the index alone and whose upper bound is invariant are unrolled.
+ * A loop whose bounds are both literals has a known trip count and is fully unrolled if it is
+ * small enough. A bound computed at runtime may wrap around, so its trip count is never assumed.
+ * Other loops are partially unrolled: a while loop runs the body several times per iteration
+ * while enough iterations remain, and a for loop runs the remaining iterations. The while loop
+ * is skipped when the upper bound is too close to the least integer to subtract from.
+ * Within the copies, the index is replaced by its value or by an offset from it, unless
+ * a called procedure may read the index. Either way the index ends with its usual final value.
+ * Nested loops are unrolled innermost first.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class LoopUnroller extends TreeRewriter implements OptimizationPass
+{
+    public final static int DEFAULT_FACTOR = 4;         // default copies of a partially unrolled body
+    private final static int MAXIMUM_FULL_TRIPS = 8;    // most iterations to fully unroll
+    private final static int MAXIMUM_SIZE = 96;         // most nodes in an unrolled body
+    
+    private int factor;                                 // copies of a partially unrolled body
+    
+    private CallGraph callGraph;                        // the globals each call may access
+    private ProcedureDeclaration context;               // the procedure being rewritten
+    
+    /**
+     * Constructs an unroller with the default factor.
+     */
+    public LoopUnroller()
+    {
+        this(LoopUnroller.DEFAULT_FACTOR);
+    }
+    
+    /**
+     * Constructs an unroller with the provided factor.
+     *
+     * @param factor    the number of copies of the body in a partially unrolled loop, at least 2
+     */
+    public LoopUnroller(int factor)
+    {
+        this.factor = Math.max(factor, 2);
+    }
+    
+    /**
+     * Unrolls the for loops in the program body and every procedure body.
+     *
+     * @postcondition Each eligible for loop is fully or partially unrolled.
+     *
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                context = procedure;
+                procedure.replaceBody(rewrite(procedure.getBody()));
+            }
+        } // for
+        
+        context = null;
+        program.replaceBody(rewrite(program.getBody()));
+    } // public void optimize(Program)
+    
+    /**
+     * Unrolls a for loop after unrolling the loops nested in its body.
+     *
+     * @param forToDo   the for loop to rewrite
+     * @return the unrolled loop, or the loop with its body rewritten if it is not eligible
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Statement rewriteForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        Expression lowerBound = forToDo.getLowerBound();
+        Expression upperBound = forToDo.getUpperBound();
+        Statement body = rewrite(forToDo.getDoStatement());
+        
+        Statement unrolled = new ForToDo(index, lowerBound, upperBound, body);
+        int size = TreeAnalysis.countNodes(body);
+        
+        if (LoopUnroller.isCounted(index, upperBound, body, callGraph))
+        {
+            Integer trips = getTripCount(lowerBound, upperBound);
+            
+            if (trips != null && trips <= MAXIMUM_FULL_TRIPS && trips * size <= MAXIMUM_SIZE)
+            {
+                unrolled = unrollFully(index, lowerBound, trips, body);
+            }
+            
+            else if ((trips == null || trips > factor) && factor * size <= MAXIMUM_SIZE
+                    && (!TreeAnalysis.isIntegerLiteral(upperBound)
+                            || TreeAnalysis.getIntegerValue(upperBound) > Integer.MIN_VALUE + factor))
+            {
+                unrolled = unrollPartially(index, lowerBound, upperBound, body);
+            } // else if
+        } // if
+        
+        return unrolled;
+    } // protected Statement rewriteForToDo
+    
+    /**
+     * Returns whether a for loop counts its index through every value between its bounds:
+     * the body never changes the index, and the upper bound is free of calls and reads nothing
+     * the body may change. Only such loops may be unrolled.
+     *
+     * @param index         the index of the loop
+     * @param upperBound    the upper bound of the loop
+     * @param body          the body of the loop
+     * @param callGraph     the globals each call may write
+     * @return true if the loop is counted, false otherwise
+     */
+    static boolean isCounted(Variable index, Expression upperBound, Statement body,
+            CallGraph callGraph)
+    {
+        Set<Variable> variant = new HashSet<Variable>(TreeAnalysis.getAssignedVariables(body));
+        variant.addAll(callGraph.getWrittenGlobals(body));
+        variant.add(index);
+        
+        Set<Variable> read = TreeAnalysis.getReferencedVariables(upperBound);
+        read.retainAll(variant);
+        
+        return !TreeAnalysis.getAssignedVariables(body).contains(index)
+                && !callGraph.getWrittenGlobals(body).contains(index)
+                && !TreeAnalysis.containsProcedureCall(upperBound) && read.isEmpty();
+    } // static boolean isCounted
+    
+    /**
+     * Returns the number of iterations of an eligible for loop, if it is known.
+     * Only loops whose bounds are both literals have a known number of iterations.
+     *
+     * @param lowerBound    the lower bound of the loop
+     * @param upperBound    the upper bound of the loop
+     * @return the number of iterations, or null if it is not known at compile time
+     */
+    private Integer getTripCount(Expression lowerBound, Expression upperBound)
+    {
+        Integer trips = null;
+        
+        if (TreeAnalysis.isIntegerLiteral(lowerBound) && TreeAnalysis.isIntegerLiteral(upperBound))
+        {
+            long difference = (long) TreeAnalysis.getIntegerValue(upperBound)
+                    - TreeAnalysis.getIntegerValue(lowerBound);
+            
+            if (difference < MAXIMUM_FULL_TRIPS)
+            {
+                trips = (int) Math.max(difference + 1, 0);
+            }
+        } // if
+        
+        return trips;
+    } // private Integer getTripCount
+    
+    /**
+     * Fully unrolls a for loop with literal bounds, so the index is known exactly in each copy.
+     *
+     * @param index         the index of the loop
+     * @param lowerBound    the literal lower bound of the loop
+     * @param trips         the number of iterations
+     * @param body          the body of the loop
+     * @return the statements of every iteration in order
+     * @throws SemanticErrorException if an unrolled statement is ill-typed
+     */
+    private Statement unrollFully(Variable index, Expression lowerBound, int trips,
+            Statement body) throws SemanticErrorException
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        int lower = TreeAnalysis.getIntegerValue(lowerBound);
+        
+        for (int i = 0; i < trips; i++)
+        {
+            statements.add(copy(body, index, new Literal(lower + i)));
+        }
+        
+        statements.add(new Assignment(index, new Literal(lower + trips)));
+        
+        return new Block(statements);
+    } // private Statement unrollFully
+    
+    /**
+     * Partially unrolls a for loop into a while loop running several copies of the body
+     * per iteration, followed by a for loop running the remaining iterations.
+     *
+     * @param index         the index of the loop
+     * @param lowerBound    the lower bound of the loop
+     * @param upperBound    the upper bound of the loop
+     * @param body          the body of the loop
+     * @return the unrolled loops
+     * @throws SemanticErrorException if an unrolled statement is ill-typed
+     */
+    private Statement unrollPartially(Variable index, Expression lowerBound,
+            Expression upperBound, Statement body) throws SemanticErrorException
+    {
+        // Another full pass of copies remains while index <= upperBound - (factor - 1)
+        Expression limit;
+        Statement passes;
+        
+        if (TreeAnalysis.isIntegerLiteral(upperBound))
+        {
+            limit = new Literal(TreeAnalysis.getIntegerValue(upperBound) - (factor - 1));
+            passes = new WhileDo(new RelativeOperator("<=", index, limit),
+                    copyWithOffsets(body, index, factor));
+        }
+        
+        // The subtraction would wrap around for an upper bound near the least integer
+        else
+        {
+            limit = new ArithmeticOperator("-", upperBound, new Literal(factor - 1));
+            passes = new IfThen(new RelativeOperator(">=", upperBound,
+                            new Literal(Integer.MIN_VALUE + (factor - 1))),
+                    new WhileDo(new RelativeOperator("<=", index, limit),
+                            copyWithOffsets(body, index, factor)));
+        } // else
+        
+        List<Statement> statements = new LinkedList<Statement>();
+        statements.add(new Assignment(index, lowerBound));
+        statements.add(passes);
+        statements.add(new ForToDo(index, index, upperBound, body));
+        
+        return new Block(statements);
+    } // private Statement unrollPartially
+    
+    /**
+     * Returns consecutive copies of a body for the iterations starting at the current index,
+     * followed by the increment of the index past them.
+     *
+     * @param body      the body of the loop
+     * @param index     the index of the loop
+     * @param copies    the number of iterations
+     * @return a block running the iterations
+     * @throws SemanticErrorException if a copied statement is ill-typed
+     */
+    private Statement copyWithOffsets(Statement body, Variable index, int copies)
+            throws SemanticErrorException
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        
+        // Offset the index within each copy unless a call may read the index itself
+        if (!callsMayRead(body, index))
+        {
+            for (int i = 0; i < copies; i++)
+            {
+                Expression offset = index;
+                
+                if (i > 0)
+                {
+                    offset = new ArithmeticOperator("+", index, new Literal(i));
+                }
+                
+                statements.add(copy(body, index, offset));
+            } // for
+            
+            statements.add(new Assignment(index,
+                    new ArithmeticOperator("+", index, new Literal(copies))));
+        } // if
+        
+        else
+        {
+            for (int i = 0; i < copies; i++)
+            {
+                statements.add(copy(body, index, index));
+                statements.add(new Assignment(index,
+                        new ArithmeticOperator("+", index, new Literal(1))));
+            }
+        } // else
+        
+        return new Block(statements);
+    } // private Statement copyWithOffsets
+    
+    /**
+     * Returns whether a procedure called within a body may read the index.
+     *
+     * @param body  the body of the loop
+     * @param index the index of the loop
+     * @return true if the index is a global that a called procedure may read
+     */
+    private boolean callsMayRead(Statement body, Variable index)
+    {
+        boolean read = false;
+        
+        if (context == null || !context.isLocalVariable(index))
+        {
+            for (ProcedureCall call : TreeAnalysis.getProcedureCalls(body))
+            {
+                read |= callGraph.getReadGlobals(call.getProcedure()).contains(index);
+            }
+        }
+        
+        return read;
+    } // private boolean callsMayRead
+    
+    /**
+     * Copies a body, replacing reads of the index with the provided expression
+     * if no called procedure may read the index.
+     *
+     * @param body          the body to copy
+     * @param index         the index of the loop
+     * @param replacement   the value of the index within the copy
+     * @return the copy
+     * @throws SemanticErrorException if the copy is ill-typed
+     */
+    private Statement copy(Statement body, Variable index, Expression replacement)
+            throws SemanticErrorException
+    {
+        Statement copy;
+        
+        if (replacement == index)
+        {
+            copy = new TreeRewriter().rewrite(body);
+        }
+        
+        else if (!callsMayRead(body, index))
+        {
+            copy = new IndexSubstituter(index, replacement).rewrite(body);
+        }
+        
+        // A call may read the index, so it must hold the value
+        else
+        {
+            List<Statement> statements = new LinkedList<Statement>();
+            statements.add(new Assignment(index, replacement));
+            statements.add(new TreeRewriter().rewrite(body));
+            copy = new Block(statements);
+        } // else
+        
+        return copy;
+    } // private Statement copy
+    
+    /**
+     * IndexSubstituter replaces reads of the index with an expression.
+     */
+    private static class IndexSubstituter extends TreeRewriter
+    {
+        private Variable index;             // the index of the loop
+        private Expression replacement;     // the value of the index
+        
+        /**
+         * Constructs a substituter of the index.
+         *
+         * @param index         the index of the loop
+         * @param replacement   the value of the index
+         */
+        private IndexSubstituter(Variable index, Expression replacement)
+        {
+            this.index = index;
+            this.replacement = replacement;
+        }
+        
+        @Override
+        protected Expression rewriteVariable(Variable variable)
+        {
+            Expression rewritten = variable;
+            
+            if (variable == index)
+            {
+                rewritten = replacement;
+            }
+            
+            return rewritten;
+        }
+    } // private static class IndexSubstituter
+} // public class LoopUnroller
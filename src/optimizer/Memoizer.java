@@ -0,0 +1,92 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.SemanticErrorException;
+import ast.Variable;
+import environment.DeclarationEnvironment;
+
+/**
+ * Memoizer makes recursive pure procedures remember their return values.
+ * 
+ * A recursive pure procedure, such as a Fibonacci-style helper, may be called many times
+ * with the same arguments. Once memoized, a call with remembered arguments returns at once.
+ * The interpreter keeps the most recently used return values in a bounded table, and compiled
+ * code keeps a direct-mapped table indexed by a hash of the arguments.
+ * Non-recursive pure procedures are left alone, since their calls rarely repeat,
+ * as are procedures assigning a parameter, whose arguments compiled code no longer holds
+ * when it remembers the return value.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Memoizer implements OptimizationPass
+{
+    public final static int DEFAULT_CAPACITY = 256;     // default entries of each memo table
+    
+    private int capacity;                               // the entries of each memo table
+    
+    /**
+     * Constructs a memoizer with the default table capacity.
+     */
+    public Memoizer()
+    {
+        this(Memoizer.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructs a memoizer with the provided table capacity.
+     * 
+     * @param capacity  the entries of each memo table, rounded up to a power of two
+     */
+    public Memoizer(int capacity)
+    {
+        this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) * 2;
+    }
+    
+    /**
+     * Memoizes every recursive pure procedure in the program that assigns no parameter.
+     * 
+     * @postcondition Every recursive pure procedure assigning no parameter is memoized.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a procedure body cannot be retrieved
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        DeclarationEnvironment declarationEnvironment = program.getDeclarationEnvironment();
+        CallGraph callGraph = new CallGraph(declarationEnvironment);
+        PurityAnalysis purity = new PurityAnalysis(declarationEnvironment, callGraph);
+        
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (purity.isPure(procedure) && callGraph.isRecursive(procedure)
+                    && !assignsParameter(procedure))
+            {
+                procedure.memoize(capacity);
+            }
+        } // for
+    } // public void optimize(Program)
+    
+    /**
+     * Returns whether a procedure assigns any of its parameters.
+     * Compiled code remembers a return value under the parameter slots as they are on return,
+     * so such a procedure would remember values under the wrong arguments.
+     * 
+     * @param procedure the bodied procedure to check
+     * @return true if the body assigns a parameter, false otherwise
+     * @throws SemanticErrorException if the procedure body cannot be retrieved
+     */
+    private static boolean assignsParameter(ProcedureDeclaration procedure) 
+            throws SemanticErrorException
+    {
+        Set<Variable> assigned = 
+                new HashSet<Variable>(TreeAnalysis.getAssignedVariables(procedure.getBody()));
+        assigned.retainAll(procedure.getParameters());
+        
+        return !assigned.isEmpty();
+    }
+} // public class Memoizer
@@ -0,0 +1,16 @@
+package optimizer;
+
+import ast.Program;
+import ast.SemanticErrorException;
+
+/**
+ * Interface for optimization passes that rewrite a parsed program
+ * before it is executed or compiled.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public interface OptimizationPass
+{
+    public abstract void optimize(Program program) throws SemanticErrorException;
+}
@@ -0,0 +1,56 @@
+package optimizer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import ast.Program;
+import ast.SemanticErrorException;
+
+/**
+ * Optimizer runs an ordered sequence of optimization passes over a program.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Optimizer
+{
+    private List<OptimizationPass> passes;      // the passes to run in order
+    
+    /**
+     * Constructs an optimizer with no passes.
+     * 
+     * @postcondition The optimizer is ready to accept passes.
+     */
+    public Optimizer()
+    {
+        passes = new LinkedList<OptimizationPass>();
+    }
+    
+    /**
+     * Appends a pass to the sequence of passes.
+     * 
+     * @postcondition The pass is run after all previously added passes.
+     * 
+     * @param pass  the optimization pass to add
+     */
+    public void addPass(OptimizationPass pass)
+    {
+        passes.add(pass);
+    }
+    
+    /**
+     * Runs every pass over the program in order.
+     * 
+     * @postcondition The program has been rewritten by each pass in order.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a pass builds an ill-typed tree
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        for (OptimizationPass pass : passes)
+        {
+            pass.optimize(program);
+        } // for
+    } // public void optimize(Program)
+} // public class Optimizer
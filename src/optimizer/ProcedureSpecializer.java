@@ -0,0 +1,296 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import environment.DeclarationEnvironment;
+
+/**
+ * ProcedureSpecializer propagates constant arguments across calls by cloning procedures.
+ *
+ * Each body is first constant folded, exposing literal arguments. A call passing integer
+ * literals to a small procedure is redirected to a clone specialized for those literals,
+ * which takes only the remaining arguments. A constant parameter the procedure never assigns
+ * is folded into the clone and disappears; one it does assign becomes a local initialized
+ * to the constant. A clone is only made if it pays off: if a parameter disappears or folding
+ * shrinks the body. Calls passing the same literals in the same positions share a clone,
+ * and the bodies of clones are specialized in turn, up to a limit on clones per procedure.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ProcedureSpecializer implements OptimizationPass
+{
+    public final static int DEFAULT_MAXIMUM_SIZE = 60;  // default maximum specialized body size
+    private final static int MAXIMUM_CLONES = 4;        // maximum clones of each procedure
+    
+    private int maximumSize;                            // maximum body size in nodes
+    
+    private DeclarationEnvironment declarationEnvironment;  // where clones are declared
+    private CallGraph callGraph;                            // calls and global accesses
+    
+    // The clone for each procedure and pattern of literal arguments, or null if unprofitable
+    private Map<String, ProcedureDeclaration> specializations;
+    
+    // The number of clones made of each procedure
+    private Map<ProcedureDeclaration, Integer> cloneCounts;
+    
+    // The clones whose bodies have yet to be specialized
+    private List<ProcedureDeclaration> pending;
+    
+    /**
+     * Constructs a specializer with the default maximum body size.
+     */
+    public ProcedureSpecializer()
+    {
+        this(ProcedureSpecializer.DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Constructs a specializer with the provided maximum body size.
+     *
+     * @param maximumSize   the maximum number of nodes in the body of a specialized procedure
+     */
+    public ProcedureSpecializer(int maximumSize)
+    {
+        this.maximumSize = maximumSize;
+    }
+    
+    /**
+     * Specializes the calls with literal arguments throughout the program.
+     *
+     * @postcondition Every body is constant folded, and calls with literal arguments to
+     *                procedures where specialization pays off are redirected to clones.
+     *                The original procedures are kept.
+     *
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a specialized body is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        declarationEnvironment = program.getDeclarationEnvironment();
+        callGraph = new CallGraph(declarationEnvironment);
+        
+        specializations = new HashMap<String, ProcedureDeclaration>();
+        cloneCounts = new HashMap<ProcedureDeclaration, Integer>();
+        pending = new LinkedList<ProcedureDeclaration>();
+        
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                procedure.replaceBody(specializeBody(procedure.getBody(), procedure));
+            }
+        } // for
+        
+        program.replaceBody(specializeBody(program.getBody(), null));
+        
+        // Clones may themselves call procedures with literal arguments
+        while (!pending.isEmpty())
+        {
+            ProcedureDeclaration clone = pending.remove(0);
+            clone.replaceBody(specializeBody(clone.getBody(), clone));
+        }
+    } // public void optimize(Program)
+    
+    /**
+     * Folds a body and redirects its calls with literal arguments to clones.
+     *
+     * @param body      the body to specialize
+     * @param context   the procedure whose body is specialized, or null for the program body
+     * @return the specialized body
+     * @throws SemanticErrorException if the specialized body is ill-typed
+     */
+    private Statement specializeBody(Statement body, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        Statement folded = new ConstantFolder(callGraph).fold(body, context,
+                new HashMap<Variable, Integer>());
+        
+        return new CallSpecializer().rewrite(folded);
+    }
+    
+    /**
+     * Returns the clone of a procedure for the literal arguments of a call,
+     * making the clone if it does not yet exist.
+     *
+     * @param call  the call with at least one literal argument
+     * @return the clone, or null if specialization does not pay off
+     * @throws SemanticErrorException if the clone cannot be declared or is ill-typed
+     */
+    private ProcedureDeclaration getSpecialization(ProcedureCall call)
+            throws SemanticErrorException
+    {
+        ProcedureDeclaration procedure = call.getProcedure();
+        List<Variable> parameters = procedure.getParameters();
+        List<Expression> arguments = call.getArguments();
+        
+        // Describe the pattern of literal arguments
+        Map<Variable, Integer> known = new HashMap<Variable, Integer>();
+        String pattern = procedure.getIdentifier();
+        
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            if (TreeAnalysis.isIntegerLiteral(arguments.get(i)))
+            {
+                known.put(parameters.get(i), TreeAnalysis.getIntegerValue(arguments.get(i)));
+                pattern += " " + known.get(parameters.get(i));
+            }
+            else
+            {
+                pattern += " _";
+            }
+        } // for
+        
+        if (!specializations.containsKey(pattern) && getCloneCount(procedure) < MAXIMUM_CLONES)
+        {
+            specializations.put(pattern, makeClone(procedure, known));
+        }
+        
+        return specializations.get(pattern);
+    } // private ProcedureDeclaration getSpecialization
+    
+    /**
+     * Returns the number of clones made of a procedure.
+     *
+     * @param procedure the procedure
+     * @return the number of clones so far
+     */
+    private int getCloneCount(ProcedureDeclaration procedure)
+    {
+        Integer count = cloneCounts.get(procedure);
+        return count == null ? 0 : count;
+    }
+    
+    /**
+     * Makes a clone of a procedure specialized for constant parameters.
+     *
+     * @postcondition If specialization pays off, the clone is declared
+     *                and queued to have its own calls specialized.
+     *
+     * @param procedure the procedure to clone
+     * @param known     the values of the constant parameters
+     * @return the clone, or null if specialization does not pay off
+     * @throws SemanticErrorException if the clone cannot be declared or is ill-typed
+     */
+    private ProcedureDeclaration makeClone(ProcedureDeclaration procedure,
+            Map<Variable, Integer> known) throws SemanticErrorException
+    {
+        Statement body = procedure.getBody();
+        Set<Variable> assigned = TreeAnalysis.getAssignedVariables(body);
+        
+        List<Variable> parameters = new LinkedList<Variable>();
+        List<Variable> nonParameters = new LinkedList<Variable>(procedure.getNonParameters());
+        List<Statement> initializations = new LinkedList<Statement>();
+        boolean removesParameter = false;
+        
+        for (Variable parameter : procedure.getParameters())
+        {
+            if (!known.containsKey(parameter))
+            {
+                parameters.add(parameter);
+            }
+            
+            // An assigned constant parameter becomes an initialized local
+            else if (assigned.contains(parameter))
+            {
+                nonParameters.add(parameter);
+                initializations.add(new Assignment(parameter,
+                        new Literal(known.get(parameter))));
+                known.remove(parameter);
+            }
+            
+            else
+            {
+                removesParameter = true;
+            } // else
+        } // for
+        
+        initializations.add(body);
+        Statement folded = new ConstantFolder(callGraph).fold(new Block(initializations),
+                procedure, known);
+        
+        ProcedureDeclaration clone = null;
+        
+        if (removesParameter || TreeAnalysis.countNodes(folded) < TreeAnalysis.countNodes(body))
+        {
+            // Declare the clone with its own return variable
+            String identifier = declarationEnvironment.generateIdentifier(
+                    procedure.getIdentifier());
+            declarationEnvironment.declareVariable(identifier, Integer.class);
+            declarationEnvironment.declareHeader(identifier, parameters);
+            
+            Map<Variable, Variable> renaming = new HashMap<Variable, Variable>();
+            renaming.put(procedure.getReturnVariable(),
+                    declarationEnvironment.getVariable(identifier));
+            
+            clone = declarationEnvironment.getProcedure(identifier);
+            clone.fill(nonParameters, new VariableRenamer(renaming).rewrite(folded));
+            
+            cloneCounts.put(procedure, getCloneCount(procedure) + 1);
+            pending.add(clone);
+            callGraph = new CallGraph(declarationEnvironment);
+        } // if
+        
+        return clone;
+    } // private ProcedureDeclaration makeClone
+    
+    /**
+     * CallSpecializer redirects calls with literal arguments to specialized clones.
+     */
+    private class CallSpecializer extends TreeRewriter
+    {
+        @Override
+        protected Expression rewriteProcedureCall(ProcedureCall call)
+                throws SemanticErrorException
+        {
+            ProcedureCall rewritten = (ProcedureCall) super.rewriteProcedureCall(call);
+            ProcedureDeclaration procedure = rewritten.getProcedure();
+            
+            boolean hasLiteral = false;
+            
+            for (Expression argument : rewritten.getArguments())
+            {
+                hasLiteral |= TreeAnalysis.isIntegerLiteral(argument);
+            }
+            
+            if (hasLiteral && !procedure.isHeader()
+                    && TreeAnalysis.countNodes(procedure.getBody()) <= maximumSize)
+            {
+                ProcedureDeclaration clone = getSpecialization(rewritten);
+                
+                if (clone != null)
+                {
+                    // Pass only the arguments the clone still takes
+                    List<Expression> arguments = new LinkedList<Expression>();
+                    List<Variable> parameters = procedure.getParameters();
+                    
+                    for (int i = 0; i < parameters.size(); i++)
+                    {
+                        if (clone.getParameters().contains(parameters.get(i)))
+                        {
+                            arguments.add(rewritten.getArguments().get(i));
+                        }
+                    }
+                    
+                    rewritten = new ProcedureCall(clone, arguments);
+                } // if
+            } // if
+            
+            return rewritten;
+        } // protected Expression rewriteProcedureCall
+    } // private class CallSpecializer
+} // public class ProcedureSpecializer
@@ -0,0 +1,77 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import ast.SemanticErrorException;
+import environment.DeclarationEnvironment;
+
+/**
+ * PurityAnalysis finds the procedures whose return value depends only on their arguments
+ * and whose calls have no effect other than returning it.
+ * 
+ * A procedure is pure if it has a body, neither reads nor writes any global directly or 
+ * through calls, contains no Writeln, and calls only pure procedures.
+ * Procedures are assumed pure until shown otherwise, so mutually recursive 
+ * pure procedures are found.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class PurityAnalysis
+{
+    private Set<ProcedureDeclaration> pure;     // the pure procedures
+    
+    /**
+     * Analyzes the purity of every procedure in the declaration environment.
+     * 
+     * @param declarationEnvironment    the environment declaring the procedures
+     * @param callGraph                 the call graph of the procedures
+     * @throws SemanticErrorException if a procedure body cannot be retrieved
+     */
+    public PurityAnalysis(DeclarationEnvironment declarationEnvironment, CallGraph callGraph)
+            throws SemanticErrorException
+    {
+        pure = new HashSet<ProcedureDeclaration>();
+        
+        for (ProcedureDeclaration procedure : declarationEnvironment.getProcedureSet())
+        {
+            if (!procedure.isHeader() && callGraph.getWrittenGlobals(procedure).isEmpty()
+                    && callGraph.getReadGlobals(procedure).isEmpty()
+                    && !TreeAnalysis.containsWriteln(procedure.getBody()))
+            {
+                pure.add(procedure);
+            }
+        } // for
+        
+        // Remove procedures calling impure procedures until nothing changes
+        boolean changed = true;
+        
+        while (changed)
+        {
+            changed = false;
+            
+            for (ProcedureDeclaration procedure : new HashSet<ProcedureDeclaration>(pure))
+            {
+                if (!pure.containsAll(callGraph.getCallees(procedure)))
+                {
+                    pure.remove(procedure);
+                    changed = true;
+                }
+            } // for
+        } // while
+    } // public PurityAnalysis
+    
+    /**
+     * Returns whether a procedure is pure.
+     * 
+     * @param procedure the procedure to check
+     * @return true if every call of the procedure with the same arguments 
+     *         returns the same value and has no other effect, false otherwise
+     */
+    public boolean isPure(ProcedureDeclaration procedure)
+    {
+        return pure.contains(procedure);
+    }
+} // public class PurityAnalysis
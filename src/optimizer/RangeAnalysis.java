@@ -0,0 +1,547 @@
+package optimizer;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+
+/**
+ * RangeAnalysis bounds the values of integer variables and expressions by intervals,
+ * and proves facts about each arithmetic operator from the bounds of its operands:
+ * whether the divisor is never zero, whether the dividend is never negative,
+ * and whether the exact result always fits in an integer. Compilation relies on the facts
+ * to omit runtime checks and to choose cheaper instructions.
+ *
+ * The analysis flows forward through each body like ConstantFolder. Integer globals start
+ * at 0 in the program body, and non-parameter locals start at 0 in procedures; parameters,
+ * results of calls, and globals within procedures are unbounded. A variable possibly written
+ * by a called procedure is unbounded after the call, and a variable assigned within a loop is
+ * unbounded throughout the loop, except that the index of a counted for loop lies between the
+ * bounds. A condition comparing a variable narrows its bounds on each path of an if-then or
+ * while, and the paths of an if-then are joined afterward. An operator reached along several
+ * paths is only credited with the facts that hold on every path.
+ *
+ * The analysis changes no code, so it runs after every other pass,
+ * whose rewritten trees would discard the facts.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class RangeAnalysis implements OptimizationPass
+{
+    private CallGraph callGraph;                // the globals each call may write
+    private ProcedureDeclaration context;       // the procedure being analyzed, or null
+    private Map<Variable, Interval> ranges;     // the known bounds at the current point
+    
+    // The facts proven so far about each operator, by identity
+    private Map<ArithmeticOperator, boolean[]> facts;
+    
+    /**
+     * Analyzes the body of every procedure and the program body.
+     *
+     * @postcondition Every arithmetic operator in the program records the facts proven about it.
+     *
+     * @param program   the program to analyze
+     * @throws SemanticErrorException if a procedure body cannot be retrieved
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        facts = new IdentityHashMap<ArithmeticOperator, boolean[]>();
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                List<Variable> locals = new LinkedList<Variable>(procedure.getNonParameters());
+                locals.add(procedure.getReturnVariable());
+                
+                analyzeBody(procedure.getBody(), procedure, locals);
+            }
+        } // for
+        
+        analyzeBody(program.getBody(), null, program.getDeclarationEnvironment().getVariableSet());
+        
+        for (Map.Entry<ArithmeticOperator, boolean[]> entry : facts.entrySet())
+        {
+            boolean[] proven = entry.getValue();
+            entry.getKey().proveFacts(proven[0], proven[1], proven[2]);
+        }
+    } // public void optimize(Program)
+    
+    /**
+     * Analyzes a body with some variables known to be 0 on entry.
+     *
+     * @param body      the body to analyze
+     * @param context   the procedure whose body is analyzed, or null for the program body
+     * @param zeroed    the variables that start with the default value
+     */
+    private void analyzeBody(Statement body, ProcedureDeclaration context,
+            Iterable<Variable> zeroed)
+    {
+        this.context = context;
+        ranges = new HashMap<Variable, Interval>();
+        
+        for (Variable variable : zeroed)
+        {
+            if (variable.getEvaluationType().equals(Integer.class))
+            {
+                ranges.put(variable, new Interval(0));
+            }
+        }
+        
+        analyze(body);
+    } // private void analyzeBody
+    
+    /**
+     * Forgets the bounds of globals that a procedure call may write.
+     * Locals of the procedure being analyzed are unaffected by calls.
+     *
+     * @postcondition No variable possibly written by the calls is bounded.
+     *
+     * @param written   the globals possibly written
+     */
+    private void forget(Set<Variable> written)
+    {
+        for (Variable variable : written)
+        {
+            if (context == null || !context.isLocalVariable(variable))
+            {
+                ranges.remove(variable);
+            }
+        }
+    } // private void forget
+    
+    /**
+     * Forgets the bounds of every variable a loop may change.
+     *
+     * @postcondition No variable assigned within the loop, directly or by calls, is bounded.
+     *
+     * @param loop  the loop
+     */
+    private void forgetLoop(Statement loop)
+    {
+        ranges.keySet().removeAll(TreeAnalysis.getAssignedVariables(loop));
+        forget(callGraph.getWrittenGlobals(loop));
+    }
+    
+    /**
+     * Analyzes a statement, updating the bounds to those after it executes.
+     *
+     * @param statement the statement to analyze
+     */
+    private void analyze(Statement statement)
+    {
+        if (statement instanceof Block)
+        {
+            for (Statement child : ((Block) statement).getStatements())
+            {
+                analyze(child);
+            }
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            ranges.put(assignment.getVariable(), bound(assignment.getExpression(), true));
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            bound(((Writeln) statement).getExpression(), true);
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            analyzeIfThen((IfThen) statement);
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            analyzeWhileDo((WhileDo) statement);
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            analyzeForToDo((ForToDo) statement);
+        } // else if
+    } // private void analyze
+    
+    /**
+     * Analyzes an if-then, narrowing the bounds on each path by the condition
+     * and joining the paths afterward.
+     *
+     * @param ifThen    the if-then to analyze
+     */
+    private void analyzeIfThen(IfThen ifThen)
+    {
+        bound(ifThen.getCondition(), true);
+        
+        Map<Variable, Interval> skipped = new HashMap<Variable, Interval>(ranges);
+        
+        narrow(ifThen.getCondition(), true);
+        analyze(ifThen.getThenStatement());
+        Map<Variable, Interval> executed = ranges;
+        
+        ranges = skipped;
+        narrow(ifThen.getCondition(), false);
+        
+        // Keep only the variables bounded on both paths
+        Map<Variable, Interval> joined = new HashMap<Variable, Interval>();
+        
+        for (Map.Entry<Variable, Interval> entry : ranges.entrySet())
+        {
+            if (executed.containsKey(entry.getKey()))
+            {
+                joined.put(entry.getKey(), entry.getValue().join(executed.get(entry.getKey())));
+            }
+        }
+        
+        ranges = joined;
+    } // private void analyzeIfThen
+    
+    /**
+     * Analyzes a while loop, narrowing the bounds by the condition
+     * within the body and after the loop.
+     *
+     * @param whileDo   the while loop to analyze
+     */
+    private void analyzeWhileDo(WhileDo whileDo)
+    {
+        forgetLoop(whileDo);
+        bound(whileDo.getCondition(), true);
+        
+        Map<Variable, Interval> head = new HashMap<Variable, Interval>(ranges);
+        
+        narrow(whileDo.getCondition(), true);
+        analyze(whileDo.getDoStatement());
+        
+        ranges = head;
+        narrow(whileDo.getCondition(), false);
+    } // private void analyzeWhileDo
+    
+    /**
+     * Analyzes a for loop. The index of a counted loop lies between the least lower bound
+     * and the greatest upper bound within the body, and its increment cannot overflow
+     * unless the upper bound may be the maximum integer.
+     *
+     * @param forToDo   the for loop to analyze
+     */
+    private void analyzeForToDo(ForToDo forToDo)
+    {
+        Variable index = forToDo.getIndex();
+        Interval lower = bound(forToDo.getLowerBound(), true);
+        
+        forgetLoop(forToDo);
+        
+        Interval upper = bound(forToDo.getUpperBound(), true);
+        Map<Variable, Interval> head = new HashMap<Variable, Interval>(ranges);
+        
+        boolean counted = LoopUnroller.isCounted(index, forToDo.getUpperBound(),
+                forToDo.getDoStatement(), callGraph) && !lower.isEmpty() && !upper.isEmpty();
+        
+        if (counted)
+        {
+            ranges.put(index, new Interval(lower.getMinimum(), upper.getMaximum()));
+        }
+        
+        record(forToDo.getIndexIncrement(), true, counted && lower.getMinimum() >= 0,
+                counted && upper.getMaximum() < Integer.MAX_VALUE);
+        
+        analyze(forToDo.getDoStatement());
+        
+        // The index ends at the lower bound or one past the upper bound
+        ranges = head;
+        
+        if (counted)
+        {
+            ranges.put(index, new Interval(lower.getMinimum(),
+                    Math.max(lower.getMaximum(), upper.getMaximum() + 1)).wrap());
+        }
+    } // private void analyzeForToDo
+    
+    /**
+     * Narrows the bounds of variables compared by a condition, given whether it holds.
+     * Conditions with calls are left alone, since a call may change what was compared.
+     *
+     * @postcondition Each variable compared with an expression is bounded by the comparison.
+     *
+     * @param condition the condition
+     * @param holds     whether the condition holds
+     */
+    private void narrow(Expression condition, boolean holds)
+    {
+        if (condition instanceof RelativeOperator && !TreeAnalysis.containsProcedureCall(condition))
+        {
+            RelativeOperator comparison = (RelativeOperator) condition;
+            String operator = holds ? comparison.getOperator()
+                    : RangeAnalysis.negate(comparison.getOperator());
+            
+            Interval range1 = bound(comparison.getOperand1(), false);
+            Interval range2 = bound(comparison.getOperand2(), false);
+            
+            if (comparison.getOperand1() instanceof Variable)
+            {
+                narrow((Variable) comparison.getOperand1(), range1, operator, range2);
+            }
+            
+            if (comparison.getOperand2() instanceof Variable)
+            {
+                narrow((Variable) comparison.getOperand2(), range2,
+                        RangeAnalysis.mirror(operator), range1);
+            }
+        } // if
+    } // private void narrow(Expression, boolean)
+    
+    /**
+     * Narrows the bounds of a variable known to compare a certain way with a value.
+     *
+     * @postcondition The variable is bounded by the intersection of its bounds and the values
+     *                satisfying the comparison.
+     *
+     * @param variable  the variable
+     * @param range     the current bounds of the variable
+     * @param operator  the relative operator the variable satisfies
+     * @param other     the bounds of the value compared with
+     */
+    private void narrow(Variable variable, Interval range, String operator, Interval other)
+    {
+        Interval narrowed = range;
+        
+        switch (operator)
+        {
+            case ("="):
+                narrowed = range.meet(other);
+                break;
+            case ("<"):
+                narrowed = range.meet(new Interval(Integer.MIN_VALUE, other.getMaximum() - 1));
+                break;
+            case ("<="):
+                narrowed = range.meet(new Interval(Integer.MIN_VALUE, other.getMaximum()));
+                break;
+            case (">"):
+                narrowed = range.meet(new Interval(other.getMinimum() + 1, Integer.MAX_VALUE));
+                break;
+            case (">="):
+                narrowed = range.meet(new Interval(other.getMinimum(), Integer.MAX_VALUE));
+                break;
+            case ("<>"):
+                // Only a single excluded value at either end narrows the bounds
+                if (other.getMinimum() == other.getMaximum()
+                        && other.getMinimum() == range.getMinimum())
+                {
+                    narrowed = range.meet(new Interval(range.getMinimum() + 1, Integer.MAX_VALUE));
+                }
+                else if (other.getMinimum() == other.getMaximum()
+                        && other.getMaximum() == range.getMaximum())
+                {
+                    narrowed = range.meet(new Interval(Integer.MIN_VALUE, range.getMaximum() - 1));
+                }
+                break;
+        }
+        
+        ranges.put(variable, narrowed);
+    } // private void narrow(Variable, Interval, String, Interval)
+    
+    /**
+     * Returns the bounds of the values of an expression at the current point,
+     * forgetting the bounds of globals its calls may write.
+     *
+     * @param expression    the expression
+     * @param record        whether to record the facts proven about its operators
+     * @return the bounds of the integer value, or every integer if the value is not an integer
+     */
+    private Interval bound(Expression expression, boolean record)
+    {
+        Interval range = Interval.FULL;
+        
+        if (TreeAnalysis.isIntegerLiteral(expression))
+        {
+            range = new Interval(TreeAnalysis.getIntegerValue(expression));
+        }
+        
+        else if (expression instanceof Variable && ranges.containsKey(expression))
+        {
+            range = ranges.get(expression);
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            bound(((RelativeOperator) expression).getOperand1(), record);
+            bound(((RelativeOperator) expression).getOperand2(), record);
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            ProcedureCall call = (ProcedureCall) expression;
+            
+            for (Expression argument : call.getArguments())
+            {
+                bound(argument, record);
+            }
+            
+            forget(callGraph.getWrittenGlobals(call.getProcedure()));
+        }
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            range = bound((ArithmeticOperator) expression, record);
+        } // else if
+        
+        return range;
+    } // private Interval bound(Expression, boolean)
+    
+    /**
+     * Returns the bounds of the values of an arithmetic operator at the current point,
+     * proving facts about its operands.
+     *
+     * @param operator  the arithmetic operator
+     * @param record    whether to record the facts proven
+     * @return the bounds of the value
+     */
+    private Interval bound(ArithmeticOperator operator, boolean record)
+    {
+        Interval range1 = bound(operator.getOperand1(), record);
+        Interval range2 = bound(operator.getOperand2(), record);
+        
+        Interval exact = null;
+        boolean divisorNonZero = !range2.isEmpty() && !range2.contains(0);
+        
+        if (!range1.isEmpty() && !range2.isEmpty())
+        {
+            switch (operator.getOperator())
+            {
+                case ("+"):
+                    exact = range1.add(range2);
+                    break;
+                case ("-"):
+                    exact = range1.subtract(range2);
+                    break;
+                case ("*"):
+                    exact = range1.multiply(range2);
+                    break;
+                case ("/"):
+                    exact = divisorNonZero ? range1.divide(range2) : null;
+                    break;
+                case ("mod"):
+                    exact = divisorNonZero ? range1.remainder(range2) : null;
+                    break;
+            }
+        } // if
+        
+        if (record)
+        {
+            record(operator, divisorNonZero, !range1.isEmpty() && range1.getMinimum() >= 0,
+                    exact != null && exact.fitsInInteger());
+        }
+        
+        return exact == null ? Interval.FULL : exact.wrap();
+    } // private Interval bound(ArithmeticOperator, boolean)
+    
+    /**
+     * Records facts proven about an operator, keeping only those proven on every path.
+     *
+     * @param operator              the arithmetic operator
+     * @param divisorNonZero        whether the second operand is never zero
+     * @param dividendNonNegative   whether the first operand is never negative
+     * @param overflowImpossible    whether the exact result always fits in an integer
+     */
+    private void record(ArithmeticOperator operator, boolean divisorNonZero,
+            boolean dividendNonNegative, boolean overflowImpossible)
+    {
+        boolean[] proven = {divisorNonZero, dividendNonNegative, overflowImpossible};
+        boolean[] known = facts.get(operator);
+        
+        if (known != null)
+        {
+            for (int i = 0; i < proven.length; i++)
+            {
+                proven[i] &= known[i];
+            }
+        }
+        
+        facts.put(operator, proven);
+    } // private void record
+    
+    /**
+     * Returns the relative operator that holds exactly when another does not.
+     *
+     * @param operator  the relative operator
+     * @return the negated operator
+     */
+    private static String negate(String operator)
+    {
+        String negated = null;
+        
+        switch (operator)
+        {
+            case ("="):
+                negated = "<>";
+                break;
+            case ("<>"):
+                negated = "=";
+                break;
+            case ("<"):
+                negated = ">=";
+                break;
+            case (">="):
+                negated = "<";
+                break;
+            case (">"):
+                negated = "<=";
+                break;
+            case ("<="):
+                negated = ">";
+                break;
+        }
+        
+        return negated;
+    } // private static String negate
+    
+    /**
+     * Returns the relative operator that holds with the operands swapped.
+     *
+     * @param operator  the relative operator
+     * @return the mirrored operator
+     */
+    private static String mirror(String operator)
+    {
+        String mirrored = operator;
+        
+        switch (operator)
+        {
+            case ("<"):
+                mirrored = ">";
+                break;
+            case (">"):
+                mirrored = "<";
+                break;
+            case ("<="):
+                mirrored = ">=";
+                break;
+            case (">="):
+                mirrored = "<=";
+                break;
+        }
+        
+        return mirrored;
+    } // private static String mirror
+} // public class RangeAnalysis
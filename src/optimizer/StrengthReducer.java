@@ -0,0 +1,342 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.Literal;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+
+/**
+ * StrengthReducer replaces multiplications of a for loop index by a loop-invariant factor 
+ * with additions.
+ * 
+ * Within a for loop whose body never assigns the index, directly or through a call,
+ * each product of the index and a literal or loop-invariant variable is read from
+ * an induction temporary instead.
+ * Products by zero or a power of two are left alone, since they already compile to shifts.
+ * The temporary is initialized to the lower bound times the factor before the loop and
+ * advanced by the factor at the end of every iteration, alongside the index.
+ * 
+ * The temporary is computed even for iterations the loop never runs: before a loop that runs
+ * no iterations and after the last one. When arithmetic is checked at runtime, those products
+ * could trap where the program never would, so a product is then only reduced if its factor and
+ * the loop bounds are literals and every value the temporary takes fits in an integer.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class StrengthReducer extends TreeRewriter implements OptimizationPass
+{
+    private boolean checked;                        // whether arithmetic is checked at runtime
+    
+    private CallGraph callGraph;                    // the globals each call may write
+    private TemporaryFactory temporaries;           // introduces the induction temporaries
+    private ProcedureDeclaration context;           // the procedure being rewritten
+    
+    private LinkedList<InductionLoop> loops;        // the enclosing loops, innermost first
+    
+    /**
+     * Constructs a reducer of programs compiled without runtime arithmetic checks.
+     */
+    public StrengthReducer()
+    {
+        this(false);
+    }
+    
+    /**
+     * Constructs a reducer.
+     * 
+     * @param checked   whether the program is compiled with arithmetic checked at runtime,
+     *                  so that only products which can never overflow are reduced
+     */
+    public StrengthReducer(boolean checked)
+    {
+        this.checked = checked;
+    }
+    
+    /**
+     * Reduces the strength of index multiplications in the program body and every procedure body.
+     * 
+     * @postcondition Each reducible product in a for loop reads an induction temporary.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        callGraph = new CallGraph(program.getDeclarationEnvironment());
+        temporaries = new TemporaryFactory(program.getDeclarationEnvironment());
+        loops = new LinkedList<InductionLoop>();
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                context = procedure;
+                procedure.replaceBody(rewrite(procedure.getBody()));
+            }
+        } // for
+        
+        context = null;
+        program.replaceBody(rewrite(program.getBody()));
+    } // public void optimize(Program)
+    
+    /**
+     * Rewrites a for loop, introducing induction temporaries for the products of its index.
+     * 
+     * @param forToDo   the for loop to rewrite
+     * @return the initializations of the induction temporaries followed by the rewritten loop
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Statement rewriteForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        Expression lowerBound = rewrite(forToDo.getLowerBound());
+        Expression upperBound = rewrite(forToDo.getUpperBound());
+        Statement statement;
+        
+        // An index assigned in the body, or by a procedure the body or the re-evaluated upper
+        // bound calls, is not an induction variable
+        if (TreeAnalysis.getAssignedVariables(forToDo.getDoStatement()).contains(index)
+                || callGraph.getWrittenGlobals(forToDo).contains(index))
+        {
+            statement = new ForToDo(index, lowerBound, upperBound, 
+                    rewrite(forToDo.getDoStatement()));
+        }
+        
+        else
+        {
+            Set<Variable> variant = new HashSet<Variable>(TreeAnalysis.getAssignedVariables(forToDo));
+            variant.addAll(callGraph.getWrittenGlobals(forToDo));
+            
+            InductionLoop loop = new InductionLoop(index, lowerBound, upperBound, variant);
+            loops.addFirst(loop);
+            Statement doStatement = rewrite(forToDo.getDoStatement());
+            loops.removeFirst();
+            
+            statement = reduce(loop, lowerBound, upperBound, doStatement);
+        } // else
+        
+        return statement;
+    } // protected Statement rewriteForToDo
+    
+    /**
+     * Builds a for loop that maintains the induction temporaries of a loop.
+     * 
+     * @param loop          the loop and the induction temporaries its body reads
+     * @param lowerBound    the rewritten lower bound
+     * @param upperBound    the rewritten upper bound
+     * @param doStatement   the rewritten body
+     * @return the rewritten loop, preceded by initializations if it has induction temporaries
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    private Statement reduce(InductionLoop loop, Expression lowerBound, Expression upperBound,
+            Statement doStatement) throws SemanticErrorException
+    {
+        Statement statement = new ForToDo(loop.index, lowerBound, upperBound, doStatement);
+        
+        if (!loop.getInductions().isEmpty())
+        {
+            List<Statement> statements = new LinkedList<Statement>();
+            List<Statement> body = new LinkedList<Statement>();
+            body.add(doStatement);
+            
+            // Evaluate a complex lower bound only once
+            Expression start = lowerBound;
+            
+            if (!(lowerBound instanceof Variable || lowerBound instanceof Literal))
+            {
+                Variable temporary = temporaries.newTemporary("start", Integer.class, context);
+                statements.add(new Assignment(temporary, lowerBound));
+                start = temporary;
+            }
+            
+            for (Map.Entry<Expression, Variable> entry : loop.getInductions().entrySet())
+            {
+                Variable induction = entry.getValue();
+                Expression factor = entry.getKey();
+                
+                statements.add(new Assignment(induction, 
+                        new ArithmeticOperator("*", start, factor)));
+                body.add(new Assignment(induction, 
+                        new ArithmeticOperator("+", induction, factor)));
+            } // for
+            
+            statements.add(new ForToDo(loop.index, start, upperBound, new Block(body)));
+            statement = new Block(statements);
+        } // if
+        
+        return statement;
+    } // private Statement reduce
+    
+    /**
+     * Replaces a product of an enclosing loop index and an invariant factor 
+     * with the loop's induction temporary for that factor.
+     * 
+     * @param operator  the arithmetic operator to rewrite
+     * @return the induction temporary, or the rewritten operator
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    protected Expression rewriteArithmeticOperator(ArithmeticOperator operator)
+            throws SemanticErrorException
+    {
+        Expression rewritten = null;
+        
+        if (operator.getOperator().equals("*"))
+        {
+            for (InductionLoop loop : loops)
+            {
+                if (rewritten == null && operator.getOperand1() == loop.index 
+                        && loop.isInvariant(operator.getOperand2()))
+                {
+                    rewritten = loop.getInduction(operator.getOperand2());
+                }
+                else if (rewritten == null && operator.getOperand2() == loop.index 
+                        && loop.isInvariant(operator.getOperand1()))
+                {
+                    rewritten = loop.getInduction(operator.getOperand1());
+                }
+            } // for
+        } // if
+        
+        if (rewritten == null)
+        {
+            rewritten = super.rewriteArithmeticOperator(operator);
+        }
+        
+        return rewritten;
+    } // protected Expression rewriteArithmeticOperator
+    
+    /**
+     * InductionLoop records an enclosing for loop and the induction temporaries
+     * introduced for its index.
+     */
+    private class InductionLoop
+    {
+        private Variable index;                     // the loop index
+        private Expression lowerBound;              // the lower bound of the loop
+        private Expression upperBound;              // the upper bound of the loop
+        private Set<Variable> variant;              // the variables the loop may write
+        private Map<String, Variable> inductions;   // the temporary for each factor's text
+        private Map<Expression, Variable> factors;  // each factor and its temporary, in order
+        
+        /**
+         * Constructs a record of a loop with no induction temporaries.
+         * 
+         * @param index         the loop index
+         * @param lowerBound    the lower bound of the loop
+         * @param upperBound    the upper bound of the loop
+         * @param variant       the variables the loop may write
+         */
+        private InductionLoop(Variable index, Expression lowerBound, Expression upperBound,
+                Set<Variable> variant)
+        {
+            this.index = index;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+            this.variant = variant;
+            this.inductions = new LinkedHashMap<String, Variable>();
+            this.factors = new LinkedHashMap<Expression, Variable>();
+        }
+        
+        /**
+         * Returns whether an expression is a factor that is constant throughout the loop
+         * and whose product is not already compiled to a shift.
+         * If arithmetic is checked, the factor must also never make the temporary overflow.
+         * 
+         * @param factor    the expression
+         * @return true if the expression is an integer literal other than zero or a power of two,
+         *         or a variable the loop never writes; false otherwise
+         */
+        private boolean isInvariant(Expression factor)
+        {
+            boolean invariant = factor instanceof Variable && !variant.contains(factor);
+            
+            if (TreeAnalysis.isIntegerLiteral(factor))
+            {
+                int value = Math.abs(TreeAnalysis.getIntegerValue(factor));
+                invariant = Integer.bitCount(value) > 1;
+            }
+            
+            if (checked)
+            {
+                invariant = invariant && TreeAnalysis.isIntegerLiteral(factor)
+                        && isExact(TreeAnalysis.getIntegerValue(factor));
+            }
+            
+            return invariant;
+        } // private boolean isInvariant
+        
+        /**
+         * Returns whether the temporary for a literal factor never overflows: the bounds are
+         * literals, and the factor times the lower bound and times the index after the last
+         * iteration both fit in an integer, as do the products between them.
+         * 
+         * @param factor    the value of the factor
+         * @return true if every value of the temporary fits in an integer, false otherwise
+         */
+        private boolean isExact(int factor)
+        {
+            boolean exact = false;
+            
+            if (TreeAnalysis.isIntegerLiteral(lowerBound)
+                    && TreeAnalysis.isIntegerLiteral(upperBound))
+            {
+                long lower = TreeAnalysis.getIntegerValue(lowerBound);
+                long last = Math.max(TreeAnalysis.getIntegerValue(upperBound), lower - 1) + 1;
+                
+                exact = lower * factor == (int) (lower * factor)
+                        && last * factor == (int) (last * factor);
+            }
+            
+            return exact;
+        } // private boolean isExact
+        
+        /**
+         * Returns the induction temporary holding the index times a factor,
+         * introducing it on first use.
+         * 
+         * @param factor    the invariant factor
+         * @return the induction temporary
+         * @throws SemanticErrorException if the temporary cannot be declared
+         */
+        private Variable getInduction(Expression factor) throws SemanticErrorException
+        {
+            String key = factor.toString();
+            
+            if (!inductions.containsKey(key))
+            {
+                Variable induction = temporaries.newTemporary("induction", Integer.class, context);
+                inductions.put(key, induction);
+                factors.put(factor, induction);
+            }
+            
+            return inductions.get(key);
+        } // private Variable getInduction
+        
+        /**
+         * Returns the factors of the loop's induction temporaries.
+         * 
+         * @return the map from each factor to its induction temporary, in order of introduction
+         */
+        private Map<Expression, Variable> getInductions()
+        {
+            return factors;
+        }
+    } // private class InductionLoop
+} // public class StrengthReducer
@@ -0,0 +1,253 @@
+package optimizer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+
+/**
+ * TailCallEliminator turns self-recursive tail calls into loops.
+ * 
+ * A tail call is an assignment of a call to the procedure itself to its own return variable
+ * that is the last action of the body: the body itself, the last statement of a block in tail
+ * position, or the statement of an if-then in tail position.
+ * The body is wrapped in a while loop guarded by a continuation flag, and each tail call
+ * is replaced by statements that assign the arguments to the parameters, reset the
+ * non-parameter locals and the return variable, and set the flag, so the next iteration
+ * runs the body as the call would have.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TailCallEliminator implements OptimizationPass
+{
+    private TemporaryFactory temporaries;   // introduces the flag and argument temporaries
+    
+    /**
+     * Eliminates the self-recursive tail calls of every procedure in the program.
+     * 
+     * @postcondition Every procedure with a self-recursive tail call has its body
+     *                rewritten into a loop; other procedures are unchanged.
+     * 
+     * @param program   the program to optimize
+     * @throws SemanticErrorException if a rewritten body is ill-typed
+     */
+    public void optimize(Program program) throws SemanticErrorException
+    {
+        temporaries = new TemporaryFactory(program.getDeclarationEnvironment());
+        
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader() && hasTailCall(procedure, procedure.getBody()))
+            {
+                eliminateTailCalls(procedure);
+            }
+        } // for
+    } // public void optimize(Program)
+    
+    /**
+     * Returns whether a statement in tail position contains a self-recursive tail call.
+     * 
+     * @param procedure the procedure containing the statement
+     * @param statement the statement in tail position
+     * @return true if the statement contains a tail call, false otherwise
+     */
+    private boolean hasTailCall(ProcedureDeclaration procedure, Statement statement)
+    {
+        boolean found = false;
+        
+        if (statement instanceof Block)
+        {
+            List<Statement> statements = ((Block) statement).getStatements();
+            
+            if (!statements.isEmpty())
+            {
+                found = hasTailCall(procedure, statements.get(statements.size() - 1));
+            }
+        }
+        else if (statement instanceof IfThen)
+        {
+            found = hasTailCall(procedure, ((IfThen) statement).getThenStatement());
+        }
+        else if (statement instanceof Assignment)
+        {
+            found = isTailCall(procedure, (Assignment) statement);
+        }
+        
+        return found;
+    } // private boolean hasTailCall
+    
+    /**
+     * Returns whether an assignment assigns a call to the procedure itself
+     * to the procedure's return variable.
+     * 
+     * @param procedure     the procedure containing the assignment
+     * @param assignment    the assignment to check
+     * @return true if the assignment is a self-recursive call, false otherwise
+     */
+    private boolean isTailCall(ProcedureDeclaration procedure, Assignment assignment)
+    {
+        Expression expression = assignment.getExpression();
+        
+        return assignment.getVariable().equals(procedure.getReturnVariable())
+                && expression instanceof ProcedureCall
+                && ((ProcedureCall) expression).getProcedure() == procedure;
+    }
+    
+    /**
+     * Rewrites the body of a procedure with tail calls into a loop.
+     * 
+     * @postcondition The body is a loop that repeats while the last iteration 
+     *                ended in a tail call.
+     * 
+     * @param procedure the procedure to rewrite
+     * @throws SemanticErrorException if the rewritten body is ill-typed
+     */
+    private void eliminateTailCalls(ProcedureDeclaration procedure) throws SemanticErrorException
+    {
+        // Capture the locals to reset before introducing temporaries
+        List<Variable> locals = new LinkedList<Variable>(procedure.getNonParameters());
+        locals.add(procedure.getReturnVariable());
+        
+        Variable flag = temporaries.newTemporary("tailCall", Integer.class, procedure);
+        
+        Statement loopBody = replaceTailCalls(procedure, procedure.getBody(), flag, locals);
+        
+        // flag := 1; WHILE flag = 1 DO BEGIN flag := 0; body END;
+        List<Statement> iteration = new LinkedList<Statement>();
+        iteration.add(new Assignment(flag, new Literal(0)));
+        iteration.add(loopBody);
+        
+        Expression condition = new RelativeOperator("=", flag, new Literal(1));
+        
+        List<Statement> body = new LinkedList<Statement>();
+        body.add(new Assignment(flag, new Literal(1)));
+        body.add(new WhileDo(condition, new Block(iteration)));
+        
+        procedure.replaceBody(new Block(body));
+    } // private void eliminateTailCalls
+    
+    /**
+     * Replaces the tail calls within a statement in tail position.
+     * 
+     * @param procedure the procedure containing the statement
+     * @param statement the statement in tail position
+     * @param flag      the continuation flag
+     * @param locals    the non-parameter locals and return variable to reset
+     * @return the statement with tail calls replaced
+     * @throws SemanticErrorException if a rewritten statement is ill-typed
+     */
+    private Statement replaceTailCalls(ProcedureDeclaration procedure, Statement statement,
+            Variable flag, List<Variable> locals) throws SemanticErrorException
+    {
+        Statement replaced = statement;
+        
+        if (statement instanceof Block)
+        {
+            List<Statement> statements = new LinkedList<Statement>(
+                    ((Block) statement).getStatements());
+            
+            if (!statements.isEmpty())
+            {
+                int last = statements.size() - 1;
+                statements.set(last, 
+                        replaceTailCalls(procedure, statements.get(last), flag, locals));
+            }
+            
+            replaced = new Block(statements);
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            replaced = new IfThen(ifThen.getCondition(),
+                    replaceTailCalls(procedure, ifThen.getThenStatement(), flag, locals));
+        }
+        
+        else if (statement instanceof Assignment && isTailCall(procedure, (Assignment) statement))
+        {
+            ProcedureCall call = (ProcedureCall) ((Assignment) statement).getExpression();
+            replaced = jumpToStart(procedure, call, flag, locals);
+        } // else if
+        
+        return replaced;
+    } // private Statement replaceTailCalls
+    
+    /**
+     * Builds the statements that replace a tail call.
+     * 
+     * @postcondition The returned statements evaluate every argument before the parameters
+     *                it reads change, using temporaries for parameters read by later arguments.
+     * 
+     * @param procedure the procedure containing the call
+     * @param call      the tail call
+     * @param flag      the continuation flag
+     * @param locals    the non-parameter locals and return variable to reset
+     * @return a block that prepares the next iteration of the loop
+     * @throws SemanticErrorException if a built statement is ill-typed
+     */
+    private Statement jumpToStart(ProcedureDeclaration procedure, ProcedureCall call, 
+            Variable flag, List<Variable> locals) throws SemanticErrorException
+    {
+        List<Variable> parameters = procedure.getParameters();
+        List<Expression> arguments = call.getArguments();
+        
+        List<Statement> evaluations = new LinkedList<Statement>();
+        List<Statement> updates = new LinkedList<Statement>();
+        
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            Variable parameter = parameters.get(i);
+            Expression argument = arguments.get(i);
+            
+            // Check whether a later argument reads the parameter
+            boolean readLater = false;
+            
+            for (Expression laterArgument : arguments.subList(i + 1, arguments.size()))
+            {
+                readLater |= TreeAnalysis.getReferencedVariables(laterArgument)
+                        .contains(parameter);
+            }
+            
+            // Passing a parameter to itself leaves it unchanged
+            if (argument != parameter && readLater)
+            {
+                Variable temporary = temporaries.newTemporary("argument", 
+                        parameter.getEvaluationType(), procedure);
+                
+                evaluations.add(new Assignment(temporary, argument));
+                updates.add(new Assignment(parameter, temporary));
+            }
+            
+            else if (argument != parameter)
+            {
+                evaluations.add(new Assignment(parameter, argument));
+            } // else if
+        } // for
+        
+        List<Statement> statements = new LinkedList<Statement>(evaluations);
+        statements.addAll(updates);
+        
+        for (Variable local : locals)
+        {
+            statements.add(new Assignment(local, 
+                    TemporaryFactory.defaultValue(local.getEvaluationType())));
+        }
+        
+        statements.add(new Assignment(flag, new Literal(1)));
+        
+        return new Block(statements);
+    } // private Statement jumpToStart
+} // public class TailCallEliminator
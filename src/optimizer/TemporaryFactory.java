@@ -0,0 +1,87 @@
+package optimizer;
+
+import ast.Expression;
+import ast.Literal;
+import ast.ProcedureDeclaration;
+import ast.SemanticErrorException;
+import ast.Variable;
+import environment.DeclarationEnvironment;
+
+/**
+ * TemporaryFactory introduces compiler-generated variables.
+ * Temporaries used in the program body are declared as globals, while
+ * temporaries used within a procedure become non-parameter locals of that procedure,
+ * so recursive activations each receive their own copy.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TemporaryFactory
+{
+    private DeclarationEnvironment declarationEnvironment;  // where globals are declared
+    
+    /**
+     * Constructs a temporary factory for the provided declaration environment.
+     * 
+     * @param declarationEnvironment    the environment in which to declare global temporaries
+     */
+    public TemporaryFactory(DeclarationEnvironment declarationEnvironment)
+    {
+        this.declarationEnvironment = declarationEnvironment;
+    }
+    
+    /**
+     * Introduces a new temporary variable.
+     * 
+     * @postcondition If the context is null, the temporary is declared as a global.
+     *                Otherwise, the temporary is added as a non-parameter local of the context.
+     * 
+     * @param hint      a readable description of the temporary's purpose
+     * @param type      the data type of the temporary
+     * @param context   the procedure in which the temporary is used, or null for the program body
+     * @return the new temporary
+     * @throws SemanticErrorException if the temporary cannot be declared
+     */
+    public Variable newTemporary(String hint, Class<?> type, ProcedureDeclaration context)
+            throws SemanticErrorException
+    {
+        String identifier = declarationEnvironment.generateIdentifier(hint);
+        Variable temporary;
+        
+        if (context == null)
+        {
+            declarationEnvironment.declareVariable(identifier, type);
+            temporary = declarationEnvironment.getVariable(identifier);
+        }
+        else
+        {
+            temporary = new Variable(identifier, type);
+            context.addNonParameter(temporary);
+        }
+        
+        return temporary;
+    } // public Variable newTemporary
+    
+    /**
+     * Returns a literal holding the default value of the provided type,
+     * matching the value locals receive when a procedure is entered.
+     * 
+     * @param type  the data type
+     * @return false for booleans, 0 otherwise
+     */
+    public static Expression defaultValue(Class<?> type)
+    {
+        Expression value;
+        
+        if (type.equals(Boolean.class))
+        {
+            value = new Literal(false);
+        }
+        else
+        {
+            value = new Literal(0);
+        }
+        
+        return value;
+    } // public static Expression defaultValue(Class<?>)
+} // public class TemporaryFactory
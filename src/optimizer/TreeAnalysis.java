@@ -0,0 +1,247 @@
+package optimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ast.Expression;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.Statement;
+import ast.Variable;
+import ast.Writeln;
+
+/**
+ * TreeAnalysis answers structural questions about statements and expressions
+ * that optimization passes share, such as which variables they read or assign.
+ * None of the analyses descend into the bodies of called procedures.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TreeAnalysis
+{
+    /**
+     * Counts the nodes of a statement, including all nested statements and expressions.
+     * 
+     * @param statement the statement to measure
+     * @return the number of nodes in the statement
+     */
+    public static int countNodes(Statement statement)
+    {
+        NodeCounter counter = new NodeCounter();
+        counter.walk(statement);
+        return counter.count;
+    }
+    
+    /**
+     * Counts the nodes of an expression, including all nested expressions.
+     * 
+     * @param expression    the expression to measure
+     * @return the number of nodes in the expression
+     */
+    public static int countNodes(Expression expression)
+    {
+        NodeCounter counter = new NodeCounter();
+        counter.walk(expression);
+        return counter.count;
+    }
+    
+    /**
+     * Returns the variables assigned by a statement, including for loop indices.
+     * 
+     * @param statement the statement to analyze
+     * @return the set of assigned variables
+     */
+    public static Set<Variable> getAssignedVariables(Statement statement)
+    {
+        VariableCollector collector = new VariableCollector();
+        collector.walk(statement);
+        return collector.assigned;
+    }
+    
+    /**
+     * Returns the variables read by a statement.
+     * 
+     * @param statement the statement to analyze
+     * @return the set of variables read
+     */
+    public static Set<Variable> getReferencedVariables(Statement statement)
+    {
+        VariableCollector collector = new VariableCollector();
+        collector.walk(statement);
+        return collector.referenced;
+    }
+    
+    /**
+     * Returns the variables read by an expression.
+     * 
+     * @param expression    the expression to analyze
+     * @return the set of variables read
+     */
+    public static Set<Variable> getReferencedVariables(Expression expression)
+    {
+        VariableCollector collector = new VariableCollector();
+        collector.walk(expression);
+        return collector.referenced;
+    }
+    
+    /**
+     * Returns the procedure calls directly within a statement.
+     * 
+     * @param statement the statement to analyze
+     * @return the set of procedure calls
+     */
+    public static Set<ProcedureCall> getProcedureCalls(Statement statement)
+    {
+        VariableCollector collector = new VariableCollector();
+        collector.walk(statement);
+        return collector.calls;
+    }
+    
+    /**
+     * Returns the procedure calls directly within an expression.
+     * 
+     * @param expression    the expression to analyze
+     * @return the set of procedure calls
+     */
+    public static Set<ProcedureCall> getProcedureCalls(Expression expression)
+    {
+        VariableCollector collector = new VariableCollector();
+        collector.walk(expression);
+        return collector.calls;
+    }
+    
+    /**
+     * Returns whether an expression contains a procedure call.
+     * 
+     * @param expression    the expression to analyze
+     * @return true if the expression contains a procedure call, false otherwise
+     */
+    public static boolean containsProcedureCall(Expression expression)
+    {
+        return !getProcedureCalls(expression).isEmpty();
+    }
+    
+    /**
+     * Returns whether a statement contains a procedure call.
+     * 
+     * @param statement the statement to analyze
+     * @return true if the statement contains a procedure call, false otherwise
+     */
+    public static boolean containsProcedureCall(Statement statement)
+    {
+        return !getProcedureCalls(statement).isEmpty();
+    }
+    
+    /**
+     * Returns whether a statement writes output, not counting output written by called procedures.
+     * 
+     * @param statement the statement to check
+     * @return true if the statement contains a Writeln, false otherwise
+     */
+    public static boolean containsWriteln(Statement statement)
+    {
+        WritelnFinder finder = new WritelnFinder();
+        finder.walk(statement);
+        return finder.found;
+    }
+    
+    /**
+     * Returns whether an expression is an integer literal.
+     * 
+     * @param expression    the expression to check
+     * @return true if the expression is an integer literal, false otherwise
+     */
+    public static boolean isIntegerLiteral(Expression expression)
+    {
+        return expression instanceof Literal && ((Literal) expression).getValue() instanceof Integer;
+    }
+    
+    /**
+     * Returns whether an expression is an integer literal with the provided value.
+     * 
+     * @param expression    the expression to check
+     * @param value         the value to compare with
+     * @return true if the expression is an integer literal with the value, false otherwise
+     */
+    public static boolean isIntegerLiteral(Expression expression, int value)
+    {
+        return isIntegerLiteral(expression) && getIntegerValue(expression) == value;
+    }
+    
+    /**
+     * Returns the value of an integer literal.
+     * 
+     * @precondition The expression is an integer literal.
+     * 
+     * @param expression    the integer literal
+     * @return the value of the literal
+     */
+    public static int getIntegerValue(Expression expression)
+    {
+        return (Integer) ((Literal) expression).getValue();
+    }
+    
+    /**
+     * NodeCounter counts every visited statement and expression.
+     */
+    private static class NodeCounter extends TreeWalker
+    {
+        private int count = 0;
+        
+        @Override
+        protected void visitStatement(Statement statement)
+        {
+            count++;
+        }
+        
+        @Override
+        protected void visitExpression(Expression expression)
+        {
+            count++;
+        }
+    } // private static class NodeCounter
+    
+    /**
+     * VariableCollector collects read variables, assigned variables, and procedure calls.
+     */
+    private static class VariableCollector extends TreeWalker
+    {
+        private Set<Variable> referenced = new HashSet<Variable>();
+        private Set<Variable> assigned = new HashSet<Variable>();
+        private Set<ProcedureCall> calls = new HashSet<ProcedureCall>();
+        
+        @Override
+        protected void visitExpression(Expression expression)
+        {
+            if (expression instanceof Variable)
+            {
+                referenced.add((Variable) expression);
+            }
+            else if (expression instanceof ProcedureCall)
+            {
+                calls.add((ProcedureCall) expression);
+            }
+        }
+        
+        @Override
+        protected void visitAssignedVariable(Variable variable)
+        {
+            assigned.add(variable);
+        }
+    } // private static class VariableCollector
+    
+    /**
+     * WritelnFinder records whether any visited statement is a Writeln.
+     */
+    private static class WritelnFinder extends TreeWalker
+    {
+        private boolean found = false;
+        
+        @Override
+        protected void visitStatement(Statement statement)
+        {
+            found |= statement instanceof Writeln;
+        }
+    } // private static class WritelnFinder
+} // public class TreeAnalysis
@@ -0,0 +1,278 @@
+package optimizer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+
+/**
+ * TreeRewriter rebuilds statements and expressions bottom-up.
+ * By default every node is rebuilt with rewritten children, producing a deep copy
+ * that shares only variables, literals, and procedure declarations with the original.
+ * Subclasses override individual rewrite methods to transform the tree.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TreeRewriter
+{
+    /**
+     * Rewrites a statement by dispatching on its node type.
+     * 
+     * @param statement the statement to rewrite
+     * @return the rewritten statement
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    public Statement rewrite(Statement statement) throws SemanticErrorException
+    {
+        Statement rewritten = statement;
+        
+        if (statement instanceof Block)
+        {
+            rewritten = rewriteBlock((Block) statement);
+        }
+        else if (statement instanceof Assignment)
+        {
+            rewritten = rewriteAssignment((Assignment) statement);
+        }
+        else if (statement instanceof Writeln)
+        {
+            rewritten = rewriteWriteln((Writeln) statement);
+        }
+        else if (statement instanceof IfThen)
+        {
+            rewritten = rewriteIfThen((IfThen) statement);
+        }
+        else if (statement instanceof WhileDo)
+        {
+            rewritten = rewriteWhileDo((WhileDo) statement);
+        }
+        else if (statement instanceof ForToDo)
+        {
+            rewritten = rewriteForToDo((ForToDo) statement);
+        } // else if
+        
+        return rewritten;
+    } // public Statement rewrite(Statement)
+    
+    /**
+     * Rewrites an expression by dispatching on its node type.
+     * 
+     * @param expression    the expression to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    public Expression rewrite(Expression expression) throws SemanticErrorException
+    {
+        Expression rewritten = expression;
+        
+        if (expression instanceof Variable)
+        {
+            rewritten = rewriteVariable((Variable) expression);
+        }
+        else if (expression instanceof Literal)
+        {
+            rewritten = rewriteLiteral((Literal) expression);
+        }
+        else if (expression instanceof ArithmeticOperator)
+        {
+            rewritten = rewriteArithmeticOperator((ArithmeticOperator) expression);
+        }
+        else if (expression instanceof RelativeOperator)
+        {
+            rewritten = rewriteRelativeOperator((RelativeOperator) expression);
+        }
+        else if (expression instanceof ProcedureCall)
+        {
+            rewritten = rewriteProcedureCall((ProcedureCall) expression);
+        } // else if
+        
+        return rewritten;
+    } // public Expression rewrite(Expression)
+    
+    /**
+     * Rewrites a block by rewriting each statement in order.
+     * 
+     * @param block the block to rewrite
+     * @return the rewritten block
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteBlock(Block block) throws SemanticErrorException
+    {
+        List<Statement> statements = new LinkedList<Statement>();
+        
+        for (Statement statement : block.getStatements())
+        {
+            statements.add(rewrite(statement));
+        }
+        
+        return new Block(statements);
+    }
+    
+    /**
+     * Rewrites an assignment by rewriting its expression and variable.
+     * 
+     * @param assignment    the assignment to rewrite
+     * @return the rewritten assignment
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteAssignment(Assignment assignment) throws SemanticErrorException
+    {
+        Expression expression = rewrite(assignment.getExpression());
+        return new Assignment(rewriteAssignedVariable(assignment.getVariable()), expression);
+    }
+    
+    /**
+     * Rewrites a Writeln by rewriting its expression.
+     * 
+     * @param writeln   the Writeln to rewrite
+     * @return the rewritten Writeln
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteWriteln(Writeln writeln) throws SemanticErrorException
+    {
+        return new Writeln(rewrite(writeln.getExpression()));
+    }
+    
+    /**
+     * Rewrites an if-then by rewriting its condition and statement.
+     * 
+     * @param ifThen    the if-then to rewrite
+     * @return the rewritten if-then
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteIfThen(IfThen ifThen) throws SemanticErrorException
+    {
+        Expression condition = rewrite(ifThen.getCondition());
+        return new IfThen(condition, rewrite(ifThen.getThenStatement()));
+    }
+    
+    /**
+     * Rewrites a while loop by rewriting its condition and statement.
+     * 
+     * @param whileDo   the while loop to rewrite
+     * @return the rewritten while loop
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteWhileDo(WhileDo whileDo) throws SemanticErrorException
+    {
+        Expression condition = rewrite(whileDo.getCondition());
+        return new WhileDo(condition, rewrite(whileDo.getDoStatement()));
+    }
+    
+    /**
+     * Rewrites a for loop by rewriting its index, bounds, and statement.
+     * 
+     * @param forToDo   the for loop to rewrite
+     * @return the rewritten for loop
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Statement rewriteForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Expression lowerBound = rewrite(forToDo.getLowerBound());
+        Variable index = rewriteAssignedVariable(forToDo.getIndex());
+        Expression upperBound = rewrite(forToDo.getUpperBound());
+        
+        return new ForToDo(index, lowerBound, upperBound, rewrite(forToDo.getDoStatement()));
+    }
+    
+    /**
+     * Rewrites a variable that is read. Returns the variable itself by default.
+     * 
+     * @param variable  the variable to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Expression rewriteVariable(Variable variable) throws SemanticErrorException
+    {
+        return variable;
+    }
+    
+    /**
+     * Rewrites a variable that is assigned or used as a for loop index.
+     * Returns the variable itself by default.
+     * 
+     * @param variable  the variable to rewrite
+     * @return the rewritten variable
+     */
+    protected Variable rewriteAssignedVariable(Variable variable)
+    {
+        return variable;
+    }
+    
+    /**
+     * Rewrites a literal. Returns the literal itself by default.
+     * 
+     * @param literal   the literal to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Expression rewriteLiteral(Literal literal) throws SemanticErrorException
+    {
+        return literal;
+    }
+    
+    /**
+     * Rewrites an arithmetic operator by rewriting its operands.
+     * 
+     * @param operator  the arithmetic operator to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Expression rewriteArithmeticOperator(ArithmeticOperator operator) 
+            throws SemanticErrorException
+    {
+        Expression operand1 = rewrite(operator.getOperand1());
+        Expression operand2 = rewrite(operator.getOperand2());
+        
+        return new ArithmeticOperator(operator.getOperator(), operand1, operand2);
+    }
+    
+    /**
+     * Rewrites a relative operator by rewriting its operands.
+     * 
+     * @param operator  the relative operator to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Expression rewriteRelativeOperator(RelativeOperator operator) 
+            throws SemanticErrorException
+    {
+        Expression operand1 = rewrite(operator.getOperand1());
+        Expression operand2 = rewrite(operator.getOperand2());
+        
+        return new RelativeOperator(operator.getOperator(), operand1, operand2);
+    }
+    
+    /**
+     * Rewrites a procedure call by rewriting its arguments.
+     * 
+     * @param call  the procedure call to rewrite
+     * @return the rewritten expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    protected Expression rewriteProcedureCall(ProcedureCall call) throws SemanticErrorException
+    {
+        List<Expression> arguments = new LinkedList<Expression>();
+        
+        for (Expression argument : call.getArguments())
+        {
+            arguments.add(rewrite(argument));
+        }
+        
+        return new ProcedureCall(call.getProcedure(), arguments);
+    }
+} // public class TreeRewriter
@@ -0,0 +1,144 @@
+package optimizer;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.ProcedureCall;
+import ast.RelativeOperator;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+
+/**
+ * TreeWalker visits every node of a statement or expression in evaluation order.
+ * Subclasses override the visit methods to collect information about the tree.
+ * The walker does not descend into the bodies of called procedures.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class TreeWalker
+{
+    /**
+     * Walks a statement and all of its children.
+     * 
+     * @postcondition The statement is visited, then its children in evaluation order.
+     * 
+     * @param statement the statement to walk
+     */
+    public void walk(Statement statement)
+    {
+        visitStatement(statement);
+        
+        if (statement instanceof Block)
+        {
+            for (Statement child : ((Block) statement).getStatements())
+            {
+                walk(child);
+            }
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            walk(assignment.getExpression());
+            visitAssignedVariable(assignment.getVariable());
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            walk(((Writeln) statement).getExpression());
+        }
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            walk(ifThen.getCondition());
+            walk(ifThen.getThenStatement());
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            walk(whileDo.getCondition());
+            walk(whileDo.getDoStatement());
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            ForToDo forToDo = (ForToDo) statement;
+            walk(forToDo.getLowerBound());
+            visitAssignedVariable(forToDo.getIndex());
+            walk(forToDo.getUpperBound());
+            walk(forToDo.getDoStatement());
+        } // else if
+    } // public void walk(Statement)
+    
+    /**
+     * Walks an expression and all of its children.
+     * 
+     * @postcondition The expression is visited, then its children in evaluation order.
+     * 
+     * @param expression    the expression to walk
+     */
+    public void walk(Expression expression)
+    {
+        visitExpression(expression);
+        
+        if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            walk(operator.getOperand1());
+            walk(operator.getOperand2());
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            walk(operator.getOperand1());
+            walk(operator.getOperand2());
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            for (Expression argument : ((ProcedureCall) expression).getArguments())
+            {
+                walk(argument);
+            }
+        } // else if
+    } // public void walk(Expression)
+    
+    /**
+     * Visits a statement before its children are walked.
+     * Does nothing by default.
+     * 
+     * @param statement the statement being visited
+     */
+    protected void visitStatement(Statement statement)
+    {
+    }
+    
+    /**
+     * Visits an expression before its children are walked.
+     * Does nothing by default.
+     * 
+     * @param expression    the expression being visited
+     */
+    protected void visitExpression(Expression expression)
+    {
+    }
+    
+    /**
+     * Visits a variable that is assigned by an assignment or used as a for loop index.
+     * Does nothing by default.
+     * 
+     * @param variable  the assigned variable
+     */
+    protected void visitAssignedVariable(Variable variable)
+    {
+    }
+} // public class TreeWalker
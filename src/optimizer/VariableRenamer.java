@@ -0,0 +1,59 @@
+package optimizer;
+
+import java.util.Map;
+
+import ast.Expression;
+import ast.Variable;
+
+/**
+ * VariableRenamer copies a tree while replacing variables according to a renaming.
+ * Variables absent from the renaming are kept as they are.
+ * 
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class VariableRenamer extends TreeRewriter
+{
+    private Map<Variable, Variable> renaming;   // the replacement for each renamed variable
+    
+    /**
+     * Constructs a renamer with the provided renaming.
+     * 
+     * @param renaming  maps each variable to rename to its replacement
+     */
+    public VariableRenamer(Map<Variable, Variable> renaming)
+    {
+        this.renaming = renaming;
+    }
+    
+    /**
+     * Renames a variable that is read.
+     * 
+     * @param variable  the variable to rename
+     * @return the replacement if the variable is renamed, otherwise the variable itself
+     */
+    @Override
+    protected Expression rewriteVariable(Variable variable)
+    {
+        return rewriteAssignedVariable(variable);
+    }
+    
+    /**
+     * Renames a variable that is assigned.
+     * 
+     * @param variable  the variable to rename
+     * @return the replacement if the variable is renamed, otherwise the variable itself
+     */
+    @Override
+    protected Variable rewriteAssignedVariable(Variable variable)
+    {
+        Variable replacement = renaming.get(variable);
+        
+        if (replacement == null)
+        {
+            replacement = variable;
+        }
+        
+        return replacement;
+    }
+} // public class VariableRenamer
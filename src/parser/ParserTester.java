@@ -3,16 +3,50 @@ package parser;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import ast.Program;
+import closure.ClosureCompiler;
+import closure.TieredCompiler;
 import emitter.Emitter;
+import environment.RuntimeEnvironment;
+import heap.HeapInterpreter;
+import ir.IntermediateProgram;
+import ir.Lowering;
+import ir.MipsGenerator;
+import ir.SsaOptimizer;
+import jvm.JvmCompiler;
+import jvm.JvmProgram;
+import optimizer.CommonSubexpressionEliminator;
+import optimizer.CompileTimeEvaluator;
+import optimizer.ConstantFolder;
+import optimizer.Inliner;
+import optimizer.LoopInvariantCodeMotion;
+import optimizer.LoopUnroller;
+import optimizer.Memoizer;
+import optimizer.Optimizer;
+import optimizer.ProcedureSpecializer;
+import optimizer.RangeAnalysis;
+import optimizer.StrengthReducer;
+import optimizer.TailCallEliminator;
+import profiler.Instrumenter;
+import profiler.Profiler;
 import scanner.Scanner;
+import vm.BytecodeCompiler;
+import vm.BytecodeProgram;
+import vm.VirtualMachine;
 
 /**
  * ParserTester tests a Parser on a Pascal file, prints the
  * AST, and writes compiled code to a MIPS file.
+ * Optional arguments after the filenames select optimization passes, in order,
+ * and whether to also execute the program with the interpreter, with the interpreter promoting
+ * hot code to closures, with the interpreter keeping its frames on the heap, compiled to
+ * closures, compiled to bytecode for the virtual machine, or compiled to a JVM class.
  * 
  * @author Jack Hsieh
  * with assistance from Anu Datar, Krish Maniar, and Clarice Wang.
@@ -23,6 +57,7 @@ public class ParserTester
 {
     private static String defaultInputFilename = "parser/parserTest13.txt";  // default input
     private static String defaultOutputFilename = "parser/outputTest13.asm"; // default output
+    private static int profileReportSize = 20;  // the hot spots reported when profiling
     
     /**
      * Tests the parser class on the provided test file by parsing a Pascal statement,
@@ -38,6 +73,8 @@ public class ParserTester
      *                then the failure is printed to the console and execution ends.
      * 
      * @param args the command line arguments. First element is used as filename if provided.
+     *             Second element is used as output filename if provided.
+     *             Remaining elements are options.
      */
     public static void main(String[] args)
     {           
@@ -87,6 +124,98 @@ public class ParserTester
             outputFilename = args[1];
         }
         
+        /*
+         * Any remaining arguments are options that select optimization passes,
+         * whether to precompute the output at compile time,
+         * whether to compile through the intermediate representation and optimize it,
+         * whether to prove value ranges after optimizing, whether to check arithmetic at runtime,
+         * and whether to execute the program, with the interpreter, profiled, tiered, on the heap,
+         * as closures, as bytecode, or as a JVM class
+         */
+        Optimizer optimizer = new Optimizer();
+        List<String> passes = new ArrayList<String>();
+        boolean execute = false;
+        boolean intermediate = false;
+        boolean ssa = false;
+        boolean precompute = false;
+        boolean ranges = false;
+        boolean checked = false;
+        boolean closures = false;
+        boolean bytecode = false;
+        boolean jvm = false;
+        boolean tiered = false;
+        boolean heap = false;
+        boolean profile = false;
+        
+        for (int i = 2; i < args.length; i++)
+        {
+            if (args[i].equals("-execute"))
+            {
+                execute = true;
+            }
+            else if (args[i].equals("-ir"))
+            {
+                intermediate = true;
+            }
+            else if (args[i].equals("-precompute"))
+            {
+                precompute = true;
+            }
+            else if (args[i].equals("-ranges"))
+            {
+                ranges = true;
+            }
+            else if (args[i].equals("-checked"))
+            {
+                checked = true;
+            }
+            else if (args[i].equals("-closures"))
+            {
+                execute = true;
+                closures = true;
+            }
+            else if (args[i].equals("-vm"))
+            {
+                execute = true;
+                bytecode = true;
+            }
+            else if (args[i].equals("-tiered"))
+            {
+                execute = true;
+                tiered = true;
+            }
+            else if (args[i].equals("-heap"))
+            {
+                execute = true;
+                heap = true;
+            }
+            else if (args[i].equals("-profile"))
+            {
+                execute = true;
+                profile = true;
+            }
+            else if (args[i].equals("-jvm"))
+            {
+                execute = true;
+                jvm = true;
+            }
+            else if (args[i].equals("-ssa"))
+            {
+                intermediate = true;
+                ssa = true;
+            }
+            else
+            {
+                passes.add(args[i]);
+            }
+        } // for
+        
+        // Add the passes once every option is known, since checked arithmetic restricts them
+        for (String pass : passes)
+        {
+            ParserTester.addPass(optimizer, pass, checked);
+        }
+        
         /*
          * If the input file is readable, create a parser and parse the input stream
          */
@@ -103,11 +232,20 @@ public class ParserTester
     	    {
     	        
                 Parser parser = new Parser(scanner);
-
+    
     	        System.out.println("Beginning input stream parsing");
     	       
     	        // Parse program
     	        Program program = parser.parseProgram();
+    	        
+    	        // Optimize program
+    	        optimizer.optimize(program);
+    	        
+    	        // Prove value ranges last, since optimization passes rebuild the tree
+    	        if (ranges)
+    	        {
+    	            new RangeAnalysis().optimize(program);
+    	        }
     	                        
                 // Print program
     	        System.out.println(program);
@@ -116,10 +254,101 @@ public class ParserTester
                 
                 // Create a new emitter and emit
                 Emitter emitter = new Emitter(outputFilename);
-                program.compile(emitter);
+                emitter.setChecked(checked);
+                List<Integer> output = null;
+                
+                if (precompute)
+                {
+                    output = new CompileTimeEvaluator().evaluate(program);
+                }
+                
+                if (output != null)
+                {
+                    System.out.println("Precomputed " + output.size() + " output values");
+                    program.compileOutputTable(emitter, output);
+                }
+                else if (intermediate)
+                {
+                    IntermediateProgram lowered = new Lowering().lower(program);
+                    
+                    if (ssa)
+                    {
+                        new SsaOptimizer().optimize(lowered);
+                    }
+                    
+                    System.out.println(lowered);
+                    new MipsGenerator(emitter).generate(lowered);
+                }
+                else
+                {
+                    program.compile(emitter);
+                }
+                
                 emitter.close();
                 
                 System.out.println("Emitted code.");
+                
+                // Execute the program with the interpreter, on the heap, as closures,
+                // as bytecode, or as a JVM class if requested, delivering buffered output
+                // before any error is reported
+                RuntimeEnvironment environment = new RuntimeEnvironment(null);
+                Profiler profiler = null;
+                
+                try
+                {
+                    if (jvm)
+                    {
+                        JvmProgram compiled = new JvmCompiler().compile(program);
+                        System.out.println("Compiled program to a JVM class of "
+                                + compiled.getClassFile().length + " bytes");
+                        System.out.println("Executing program as a JVM class:");
+                        compiled.execute(environment);
+                    }
+                    else if (bytecode)
+                    {
+                        BytecodeProgram compiled = new BytecodeCompiler().compile(program);
+                        System.out.println(compiled);
+                        System.out.println("Executing program as bytecode:");
+                        new VirtualMachine().execute(compiled, environment);
+                    }
+                    else if (closures)
+                    {
+                        System.out.println("Executing program as closures:");
+                        new ClosureCompiler().compile(program).execute(environment);
+                    }
+                    else if (tiered)
+                    {
+                        System.out.println("Executing program with tiered compilation:");
+                        environment.enableTiering(new TieredCompiler());
+                        program.execute(environment);
+                    }
+                    else if (heap)
+                    {
+                        System.out.println("Executing program with heap frames:");
+                        new HeapInterpreter().execute(program, environment);
+                    }
+                    else if (profile)
+                    {
+                        System.out.println("Executing program with profiling:");
+                        profiler = new Profiler();
+                        new Instrumenter(profiler).instrument(program);
+                        program.execute(environment);
+                    }
+                    else if (execute)
+                    {
+                        System.out.println("Executing program:");
+                        program.execute(environment);
+                    }
+                }
+                finally
+                {
+                    environment.flushOutput();
+                    
+                    if (profiler != null)
+                    {
+                        ParserTester.reportProfile(profiler, outputFilename);
+                    }
+                } // finally
             }
     	    
     	    catch (Exception exception)
@@ -145,4 +374,87 @@ public class ParserTester
     	    } // finally
         } // if inputStream is readable
     } // main function
+    
+    /**
+     * Prints the hot spots recorded by a profiler and writes its collapsed stacks to a file
+     * named after the output file, for flame graph tools.
+     * 
+     * @postcondition The report has been printed, and the collapsed stacks written or
+     *                the failure to write them reported.
+     * 
+     * @param profiler          the profiler that recorded the execution
+     * @param outputFilename    the name of the file compiled code was written to
+     */
+    private static void reportProfile(Profiler profiler, String outputFilename)
+    {
+        System.out.print(profiler.report(ParserTester.profileReportSize));
+        
+        String stacksFilename = outputFilename.replaceFirst("\\.[^./\\\\]*$", "") + ".folded";
+        
+        try (FileWriter writer = new FileWriter(stacksFilename))
+        {
+            profiler.writeCollapsedStacks(writer);
+            System.out.println("Wrote collapsed stacks to " + stacksFilename);
+        }
+        catch (IOException exception)
+        {
+            System.out.println("Exception caught while writing collapsed stacks:");
+            exception.printStackTrace();
+        }
+    } // private static void reportProfile
+    
+    /**
+     * Adds the optimization pass selected by an option to the optimizer.
+     * 
+     * @postcondition If the option names an optimization pass, the pass is added
+     *                to the optimizer. Otherwise, the option is reported and ignored.
+     * 
+     * @param optimizer the optimizer to add the pass to
+     * @param option    the option naming the pass
+     * @param checked   whether arithmetic is checked at runtime
+     */
+    private static void addPass(Optimizer optimizer, String option, boolean checked)
+    {
+        switch (option)
+        {
+            case ("-inline"):
+                optimizer.addPass(new Inliner());
+                break;
+            
+            case ("-tailcalls"):
+                optimizer.addPass(new TailCallEliminator());
+                break;
+            
+            case ("-cse"):
+                optimizer.addPass(new CommonSubexpressionEliminator());
+                break;
+            
+            case ("-licm"):
+                optimizer.addPass(new LoopInvariantCodeMotion(checked));
+                break;
+            
+            case ("-strength"):
+                optimizer.addPass(new StrengthReducer(checked));
+                break;
+            
+            case ("-fold"):
+                optimizer.addPass(new ConstantFolder());
+                break;
+            
+            case ("-specialize"):
+                optimizer.addPass(new ProcedureSpecializer());
+                break;
+            
+            case ("-memoize"):
+                optimizer.addPass(new Memoizer());
+                break;
+            
+            case ("-unroll"):
+                optimizer.addPass(new LoopUnroller());
+                break;
+            
+            default:
+                System.out.println("Ignoring unrecognized option " + option);
+        }
+    } // private static void addPass
 } // public class ParserTester
@@ -0,0 +1,197 @@
+package profiler;
+
+import java.util.List;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import optimizer.TreeRewriter;
+
+/**
+ * Instrumenter rewrites a program for the interpreter to profile, wrapping every statement
+ * and every expression other than a variable or literal in a node timed by a profiler.
+ * Variables and literals are charged to the expressions reading them, since timing them
+ * would cost more than evaluating them.
+ *
+ * The interpreter executes the profiled program as usual; the program is not profiled when
+ * compiled, so it should be compiled before it is instrumented.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Instrumenter extends TreeRewriter
+{
+    private Profiler profiler;  // the profiler recording executions
+    private String owner;       // the procedure whose body is being rewritten
+    
+    /**
+     * Constructs an instrumenter
+     *
+     * @param profiler  the profiler to record executions of the instrumented program with
+     */
+    public Instrumenter(Profiler profiler)
+    {
+        this.profiler = profiler;
+    }
+    
+    /**
+     * Instruments the body of the program and of every bodied procedure
+     *
+     * @postcondition Executing the program records every node executed and every procedure
+     *                body entered with the profiler.
+     *
+     * @param program   the program to instrument
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    public void instrument(Program program) throws SemanticErrorException
+    {
+        for (ProcedureDeclaration procedure : program.getDeclarationEnvironment().getProcedureSet())
+        {
+            if (!procedure.isHeader())
+            {
+                owner = procedure.getIdentifier();
+                int node = profiler.addNode(owner + ": " + describe(procedure.getBody()));
+                int index = profiler.addProcedure(owner);
+                
+                procedure.replaceBody(new ProfiledStatement(super.rewrite(procedure.getBody()),
+                        profiler, node, index));
+            } // if
+        } // for
+        
+        owner = "main";
+        program.replaceBody(rewrite(program.getBody()));
+    } // public void instrument
+    
+    /**
+     * Rewrites a statement with its children profiled, and profiles it
+     *
+     * @param statement the statement to rewrite
+     * @return the profiled statement
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    public Statement rewrite(Statement statement) throws SemanticErrorException
+    {
+        int node = profiler.addNode(owner + ": " + describe(statement));
+        return new ProfiledStatement(super.rewrite(statement), profiler, node, -1);
+    }
+    
+    /**
+     * Rewrites an expression with its children profiled, and profiles it
+     * unless it is a variable or literal
+     *
+     * @param expression    the expression to rewrite
+     * @return the profiled expression
+     * @throws SemanticErrorException if a rewritten node is ill-typed
+     */
+    @Override
+    public Expression rewrite(Expression expression) throws SemanticErrorException
+    {
+        if (expression instanceof Variable || expression instanceof Literal)
+        {
+            return expression;
+        }
+        
+        int node = profiler.addNode(owner + ": " + describe(expression));
+        return new ProfiledExpression(super.rewrite(expression), profiler, node);
+    } // public Expression rewrite(Expression)
+    
+    /**
+     * Describes a statement on one line, in Pascal, without the statements it contains
+     *
+     * @param statement the statement to describe
+     * @return the description
+     */
+    private static String describe(Statement statement)
+    {
+        if (statement instanceof Block)
+        {
+            return "BEGIN (" + ((Block) statement).getStatements().size() + " statements) END";
+        }
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            return assignment.getVariable().getIdentifier() + " := "
+                    + describe(assignment.getExpression());
+        }
+        else if (statement instanceof Writeln)
+        {
+            return "WRITELN(" + describe(((Writeln) statement).getExpression()) + ")";
+        }
+        else if (statement instanceof IfThen)
+        {
+            return "IF " + describe(((IfThen) statement).getCondition()) + " THEN";
+        }
+        else if (statement instanceof WhileDo)
+        {
+            return "WHILE " + describe(((WhileDo) statement).getCondition()) + " DO";
+        }
+        else if (statement instanceof ForToDo)
+        {
+            ForToDo forToDo = (ForToDo) statement;
+            return "FOR " + forToDo.getIndex().getIdentifier() + " := "
+                    + describe(forToDo.getLowerBound()) + " TO "
+                    + describe(forToDo.getUpperBound()) + " DO";
+        } // else if
+        
+        return statement.getClass().getSimpleName();
+    } // private static String describe(Statement)
+    
+    /**
+     * Describes an expression on one line, in Pascal
+     *
+     * @param expression    the expression to describe
+     * @return the description
+     */
+    private static String describe(Expression expression)
+    {
+        if (expression instanceof Variable)
+        {
+            return ((Variable) expression).getIdentifier();
+        }
+        else if (expression instanceof Literal)
+        {
+            return ((Literal) expression).getValue().toString().toUpperCase();
+        }
+        else if (expression instanceof ArithmeticOperator)
+        {
+            ArithmeticOperator operator = (ArithmeticOperator) expression;
+            return "(" + describe(operator.getOperand1()) + " " + operator.getOperator() + " "
+                    + describe(operator.getOperand2()) + ")";
+        }
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            return "(" + describe(operator.getOperand1()) + " " + operator.getOperator() + " "
+                    + describe(operator.getOperand2()) + ")";
+        }
+        else if (expression instanceof ProcedureCall)
+        {
+            ProcedureCall call = (ProcedureCall) expression;
+            List<Expression> arguments = call.getArguments();
+            String description = call.getProcedure().getIdentifier() + "(";
+            
+            for (int i = 0; i < arguments.size(); i++)
+            {
+                description += (i == 0 ? "" : ", ") + describe(arguments.get(i));
+            }
+            
+            return description + ")";
+        } // else if
+        
+        return expression.getClass().getSimpleName();
+    } // private static String describe(Expression)
+} // public class Instrumenter
@@ -0,0 +1,130 @@
+package profiler;
+
+import ast.Expression;
+import ast.SemanticErrorException;
+import emitter.Emitter;
+import environment.RuntimeEnvironment;
+
+/**
+ * ProfiledExpression times each evaluation of an expression with a profiler.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ProfiledExpression extends Expression
+{
+    private volatile Expression expression; // the expression profiled
+    private Profiler profiler;              // the profiler recording evaluations
+    private int node;                       // the index of the node in the profiler
+    
+    /**
+     * Constructs a profiled expression
+     *
+     * @param expression    the expression to profile
+     * @param profiler      the profiler recording evaluations
+     * @param node          the index of the node in the profiler
+     */
+    public ProfiledExpression(Expression expression, Profiler profiler, int node)
+    {
+        this.expression = expression;
+        this.profiler = profiler;
+        this.node = node;
+        super.evaluationType = expression.getEvaluationType();
+    }
+    
+    /**
+     * Evaluates the expression, recording the evaluation even if it fails
+     *
+     * @param runtimeEnvironment    the environment to evaluate the expression within
+     * @return the value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public Object evaluate(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        long start = profiler.enter(node);
+        
+        try
+        {
+            return expression.evaluate(runtimeEnvironment);
+        }
+        finally
+        {
+            profiler.exit(node, start);
+        }
+    } // public Object evaluate
+    
+    /**
+     * Evaluates the integer expression unboxed, recording the evaluation even if it fails
+     *
+     * @param runtimeEnvironment    the environment to evaluate the expression within
+     * @return the integer value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public int evaluateInt(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        long start = profiler.enter(node);
+        
+        try
+        {
+            return expression.evaluateInt(runtimeEnvironment);
+        }
+        finally
+        {
+            profiler.exit(node, start);
+        }
+    } // public int evaluateInt
+    
+    /**
+     * Evaluates the boolean expression unboxed, recording the evaluation even if it fails
+     *
+     * @param runtimeEnvironment    the environment to evaluate the expression within
+     * @return the boolean value of the expression
+     * @throws SemanticErrorException if the expression cannot be evaluated
+     */
+    public boolean evaluateBoolean(RuntimeEnvironment runtimeEnvironment) 
+            throws SemanticErrorException
+    {
+        long start = profiler.enter(node);
+        
+        try
+        {
+            return expression.evaluateBoolean(runtimeEnvironment);
+        }
+        finally
+        {
+            profiler.exit(node, start);
+        }
+    } // public boolean evaluateBoolean
+    
+    /**
+     * Specializes the expression profiled in place, keeping it profiled
+     *
+     * @return this profiled expression
+     * @throws SemanticErrorException if the specialized expression cannot be constructed
+     */
+    public Expression specialize() throws SemanticErrorException
+    {
+        expression = expression.specialize();
+        return this;
+    }
+    
+    /**
+     * Compiles the expression, which is not profiled in compiled code
+     *
+     * @param emitter   the emitter to compile to
+     */
+    public void compile(Emitter emitter)
+    {
+        expression.compile(emitter);
+    }
+    
+    /**
+     * Returns a string representation of the expression profiled
+     *
+     * @return the representation of the expression
+     */
+    public String toString()
+    {
+        return expression.toString();
+    }
+} // public class ProfiledExpression
@@ -0,0 +1,88 @@
+package profiler;
+
+import ast.SemanticErrorException;
+import ast.Statement;
+import emitter.Emitter;
+import environment.RuntimeEnvironment;
+
+/**
+ * ProfiledStatement times each execution of a statement with a profiler.
+ * A profiled procedure body also counts the call and extends the chain of calls.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class ProfiledStatement extends Statement
+{
+    private Statement statement;    // the statement profiled
+    private Profiler profiler;      // the profiler recording executions
+    private int node;               // the index of the node in the profiler
+    private int procedure;          // the procedure whose body is profiled, or -1 if none
+    
+    /**
+     * Constructs a profiled statement
+     *
+     * @param statement the statement to profile
+     * @param profiler  the profiler recording executions
+     * @param node      the index of the node in the profiler
+     * @param procedure the index in the profiler of the procedure whose body the statement is,
+     *                  or -1 if it is not a procedure body
+     */
+    public ProfiledStatement(Statement statement, Profiler profiler, int node, int procedure)
+    {
+        this.statement = statement;
+        this.profiler = profiler;
+        this.node = node;
+        this.procedure = procedure;
+    }
+    
+    /**
+     * Executes the statement, recording the execution even if it fails
+     *
+     * @param runtimeEnvironment    the environment to execute the statement within
+     * @throws SemanticErrorException if the statement cannot be executed
+     */
+    public void execute(RuntimeEnvironment runtimeEnvironment) throws SemanticErrorException
+    {
+        if (procedure >= 0)
+        {
+            profiler.enterProcedure(procedure);
+        }
+        
+        long start = profiler.enter(node);
+        
+        try
+        {
+            statement.execute(runtimeEnvironment);
+        }
+        finally
+        {
+            long elapsed = profiler.exit(node, start);
+            
+            if (procedure >= 0)
+            {
+                profiler.leaveProcedure(procedure, elapsed);
+            }
+        } // finally
+    } // public void execute
+    
+    /**
+     * Compiles the statement, which is not profiled in compiled code
+     *
+     * @param emitter   the emitter to compile to
+     */
+    public void compile(Emitter emitter)
+    {
+        statement.compile(emitter);
+    }
+    
+    /**
+     * Returns a string representation of the statement profiled
+     *
+     * @return the representation of the statement
+     */
+    public String toString()
+    {
+        return statement.toString();
+    }
+} // public class ProfiledStatement
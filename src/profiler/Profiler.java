@@ -0,0 +1,426 @@
+package profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profiler records how often each profiled node executes and how long it takes, and how often
+ * each procedure is called and in which chains of callers its time is spent.
+ *
+ * A node's total time runs from its entry to its exit; its self time excludes the total time of
+ * the profiled nodes it executes in between. The total time of a node or procedure counts only
+ * its outermost executions, so that recursion never makes it exceed the execution. Self time
+ * is charged to the chain of procedure calls executing the node, from which a collapsed-stack
+ * file is written for flame graph tools. A procedure calling itself directly stays in the same
+ * chain, so deep recursion does not produce a chain per depth.
+ *
+ * A program executes on one thread, so the counters are plain arrays owned by that thread
+ * and cost no synchronization. A profiler must therefore profile one execution at a time.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Profiler
+{
+    private static final String PROGRAM_NAME = "main";  // the chain root for the program body
+    
+    private List<String> nodeLabels;            // the description of each node
+    private long[] counts;                      // the executions of each node
+    private long[] selfNanos;                   // the self time of each node
+    private long[] totalNanos;                  // the total time of each node
+    private int[] activeEntries;                // the executions in progress of each node
+    
+    private List<String> procedureNames;        // the identifier of each procedure
+    private long[] calls;                       // the calls to each procedure
+    private long[] procedureNanos;              // the total time of each procedure
+    private int[] activeCalls;                  // the calls in progress to each procedure
+    
+    private long[] childNanos;                  // the total time of the children of each entry
+    private int depth;                          // the number of nodes entered but not exited
+    private CallChain root;                     // the chain of the program body
+    private CallChain current;                  // the chain executing now
+    
+    /**
+     * Constructs a profiler without any nodes or procedures
+     */
+    public Profiler()
+    {
+        nodeLabels = new ArrayList<String>();
+        counts = new long[16];
+        selfNanos = new long[16];
+        totalNanos = new long[16];
+        activeEntries = new int[16];
+        
+        procedureNames = new ArrayList<String>();
+        calls = new long[4];
+        procedureNanos = new long[4];
+        activeCalls = new int[4];
+        
+        childNanos = new long[64];
+        depth = 0;
+        root = new CallChain(PROGRAM_NAME, -1, null);
+        current = root;
+    } // public Profiler
+    
+    /**
+     * Adds a node to profile
+     *
+     * @param label the description of the node in reports
+     * @return the index of the node
+     */
+    public int addNode(String label)
+    {
+        int node = nodeLabels.size();
+        nodeLabels.add(label);
+        
+        if (node == counts.length)
+        {
+            counts = Arrays.copyOf(counts, 2 * node);
+            selfNanos = Arrays.copyOf(selfNanos, 2 * node);
+            totalNanos = Arrays.copyOf(totalNanos, 2 * node);
+            activeEntries = Arrays.copyOf(activeEntries, 2 * node);
+        }
+        
+        return node;
+    } // public int addNode
+    
+    /**
+     * Adds a procedure whose calls are counted
+     *
+     * @param name  the identifier of the procedure
+     * @return the index of the procedure
+     */
+    public int addProcedure(String name)
+    {
+        int procedure = procedureNames.size();
+        procedureNames.add(name);
+        
+        if (procedure == calls.length)
+        {
+            calls = Arrays.copyOf(calls, 2 * procedure);
+            procedureNanos = Arrays.copyOf(procedureNanos, 2 * procedure);
+            activeCalls = Arrays.copyOf(activeCalls, 2 * procedure);
+        }
+        
+        return procedure;
+    } // public int addProcedure
+    
+    /**
+     * Enters a node, which is about to execute
+     *
+     * @postcondition The children of the node have not yet taken any time.
+     *
+     * @param node  the index of the node
+     * @return the time of entry, to be passed to exit
+     */
+    public long enter(int node)
+    {
+        activeEntries[node]++;
+        depth++;
+        
+        if (depth == childNanos.length)
+        {
+            childNanos = Arrays.copyOf(childNanos, 2 * depth);
+        }
+        
+        childNanos[depth] = 0;
+        return System.nanoTime();
+    } // public long enter
+    
+    /**
+     * Exits the node entered last, which has finished executing.
+     *
+     * @postcondition The node has been counted, its self time has been charged to it and
+     *                to the chain executing it, and its total time to its parent and,
+     *                unless the node is still executing further out, to the node.
+     *
+     * @param node  the index of the node
+     * @param start the time of entry
+     * @return the total time of this execution of the node
+     */
+    public long exit(int node, long start)
+    {
+        long elapsed = System.nanoTime() - start;
+        long self = elapsed - childNanos[depth];
+        
+        depth--;
+        childNanos[depth] += elapsed;
+        
+        counts[node]++;
+        selfNanos[node] += self;
+        activeEntries[node]--;
+        
+        if (activeEntries[node] == 0)
+        {
+            totalNanos[node] += elapsed;
+        }
+        
+        current.selfNanos += self;
+        
+        return elapsed;
+    } // public long exit
+    
+    /**
+     * Enters the body of a procedure, counting a call and extending the chain of calls
+     *
+     * @param procedure the index of the procedure
+     */
+    public void enterProcedure(int procedure)
+    {
+        calls[procedure]++;
+        activeCalls[procedure]++;
+        
+        if (current.procedure == procedure)
+        {
+            current.recursion++;
+        }
+        else
+        {
+            current = current.callee(procedure, procedureNames.get(procedure));
+        }
+    } // public void enterProcedure
+    
+    /**
+     * Leaves the body of the procedure entered last, returning to the chain of its caller
+     *
+     * @param procedure the index of the procedure
+     * @param elapsed   the total time of the body in this call
+     */
+    public void leaveProcedure(int procedure, long elapsed)
+    {
+        activeCalls[procedure]--;
+        
+        if (activeCalls[procedure] == 0)
+        {
+            procedureNanos[procedure] += elapsed;
+        }
+        
+        if (current.recursion > 0)
+        {
+            current.recursion--;
+        }
+        else
+        {
+            current = current.caller;
+        }
+    } // public void leaveProcedure
+    
+    /**
+     * Returns the number of times a node has executed
+     *
+     * @param node  the index of the node
+     * @return the count of executions
+     */
+    public long getCount(int node)
+    {
+        return counts[node];
+    }
+    
+    /**
+     * Returns the number of times a procedure has been called.
+     * Calls answered from a memo table do not execute the body and are not counted.
+     *
+     * @param procedure the index of the procedure
+     * @return the count of calls
+     */
+    public long getCalls(int procedure)
+    {
+        return calls[procedure];
+    }
+    
+    /**
+     * Writes the self time of every chain of calls in the collapsed-stack format read by
+     * flame graph tools: one line per chain, naming the procedures from the outermost
+     * separated by semicolons, followed by the self time in nanoseconds.
+     *
+     * @param writer    the writer to write the chains to
+     * @throws IOException if the writer fails
+     */
+    public void writeCollapsedStacks(Writer writer) throws IOException
+    {
+        writeChain(root, root.name, writer);
+        writer.flush();
+    }
+    
+    /**
+     * Writes a chain and the chains it calls in the collapsed-stack format
+     *
+     * @param chain     the chain to write
+     * @param path      the procedures of the chain separated by semicolons
+     * @param writer    the writer to write the chains to
+     * @throws IOException if the writer fails
+     */
+    private void writeChain(CallChain chain, String path, Writer writer) throws IOException
+    {
+        if (chain.selfNanos > 0)
+        {
+            writer.write(path + " " + chain.selfNanos + "\n");
+        }
+        
+        for (CallChain callee : chain.callees.values())
+        {
+            writeChain(callee, path + ";" + callee.name, writer);
+        }
+    } // private void writeChain
+    
+    /**
+     * Reports the nodes taking the most self time, and every procedure with its calls,
+     * self time summed over its chains, and total time summed over its outermost calls
+     *
+     * @param limit the number of nodes to report
+     * @return the report, one node or procedure per line
+     */
+    public String report(int limit)
+    {
+        Integer[] nodes = new Integer[nodeLabels.size()];
+        
+        for (int node = 0; node < nodes.length; node++)
+        {
+            nodes[node] = node;
+        }
+        
+        Arrays.sort(nodes, (node1, node2) -> Long.compare(selfNanos[node2], selfNanos[node1]));
+        
+        StringBuilder report = new StringBuilder();
+        report.append("Hot spots by self time:\n");
+        report.append(String.format("%12s %12s %12s  %s%n", "self ms", "total ms", "count", "node"));
+        
+        for (int i = 0; i < Math.min(limit, nodes.length) && counts[nodes[i]] > 0; i++)
+        {
+            int node = nodes[i];
+            report.append(line(selfNanos[node], totalNanos[node], counts[node],
+                    nodeLabels.get(node)));
+        }
+        
+        long[] procedureSelfNanos = new long[procedureNames.size()];
+        sumSelfNanos(root, procedureSelfNanos);
+        
+        report.append("Procedures by self time:\n");
+        report.append(String.format("%12s %12s %12s  %s%n", "self ms", "total ms", "calls",
+                "procedure"));
+        report.append(line(root.selfNanos, sumTotalNanos(), 1, PROGRAM_NAME));
+        
+        Integer[] procedures = new Integer[procedureNames.size()];
+        
+        for (int procedure = 0; procedure < procedures.length; procedure++)
+        {
+            procedures[procedure] = procedure;
+        }
+        
+        Arrays.sort(procedures, (procedure1, procedure2) ->
+                Long.compare(procedureSelfNanos[procedure2], procedureSelfNanos[procedure1]));
+        
+        for (int procedure : procedures)
+        {
+            report.append(line(procedureSelfNanos[procedure],
+                    procedureNanos[procedure], calls[procedure],
+                    procedureNames.get(procedure)));
+        }
+        
+        return report.toString();
+    } // public String report
+    
+    /**
+     * Formats one line of the report
+     *
+     * @param self      the self time in nanoseconds
+     * @param total     the total time in nanoseconds
+     * @param count     the executions or calls
+     * @param label     the node or procedure
+     * @return the line, with times in milliseconds
+     */
+    private static String line(long self, long total, long count, String label)
+    {
+        return String.format("%12.3f %12.3f %12d  %s%n", self / 1e6, total / 1e6, count, label);
+    }
+    
+    /**
+     * Adds the self time of a chain and the chains it calls to the procedures they end in
+     *
+     * @param chain     the chain to sum
+     * @param sums      the self time of each procedure, added to
+     */
+    private static void sumSelfNanos(CallChain chain, long[] sums)
+    {
+        if (chain.procedure >= 0)
+        {
+            sums[chain.procedure] += chain.selfNanos;
+        }
+        
+        for (CallChain callee : chain.callees.values())
+        {
+            sumSelfNanos(callee, sums);
+        }
+    } // private static void sumSelfNanos
+    
+    /**
+     * Sums the self time of every chain, which is the total time of the execution
+     *
+     * @return the time spent in profiled nodes, in nanoseconds
+     */
+    private long sumTotalNanos()
+    {
+        long sum = 0;
+        
+        for (int node = 0; node < nodeLabels.size(); node++)
+        {
+            sum += selfNanos[node];
+        }
+        
+        return sum;
+    }
+    
+    /**
+     * CallChain is one chain of procedure calls from the program body,
+     * with the self time spent in it and the chains it has called.
+     */
+    private static class CallChain
+    {
+        private String name;                        // the procedure the chain ends in
+        private int procedure;                      // the procedure index, or -1 for the program
+        private CallChain caller;                   // the chain without its last call
+        private Map<Integer, CallChain> callees;    // the chains extended by one call
+        private long selfNanos;                     // the self time spent in the chain
+        private int recursion;                      // the direct recursive calls in progress
+        
+        /**
+         * Constructs a chain in which no time has been spent
+         *
+         * @param name      the identifier of the procedure the chain ends in
+         * @param procedure the index of the procedure, or -1 for the program body
+         * @param caller    the chain without its last call, or null for the program body
+         */
+        private CallChain(String name, int procedure, CallChain caller)
+        {
+            this.name = name;
+            this.procedure = procedure;
+            this.caller = caller;
+            callees = new HashMap<Integer, CallChain>();
+        }
+        
+        /**
+         * Returns the chain extended by a call, creating it on the first such call
+         *
+         * @param procedure the index of the procedure called
+         * @param name      the identifier of the procedure called
+         * @return the extended chain
+         */
+        private CallChain callee(int procedure, String name)
+        {
+            CallChain callee = callees.get(procedure);
+            
+            if (callee == null)
+            {
+                callee = new CallChain(name, procedure, this);
+                callees.put(procedure, callee);
+            }
+            
+            return callee;
+        } // private CallChain callee
+    } // private static class CallChain
+} // public class Profiler
@@ -0,0 +1,247 @@
+package vm;
+
+/**
+ * Bytecode defines the instruction set of the virtual machine.
+ *
+ * Every instruction is encoded as four consecutive ints: the opcode followed by three operands
+ * a, b, and c, unused operands being 0. Register operands index the registers of the executing
+ * frame. Global operands index the global slots, which are the registers of the bottom frame.
+ * Jump targets are the positions of instructions in the code of the procedure.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class Bytecode
+{
+    public final static int WIDTH = 4;                  // ints per instruction
+    
+    public final static int MOVE = 0;                   // a := b
+    public final static int LOAD_CONSTANT = 1;          // a := constants[b]
+    public final static int LOAD_GLOBAL = 2;            // a := globals[b]
+    public final static int STORE_GLOBAL = 3;           // globals[a] := b
+    
+    public final static int ADD = 4;                    // a := b + c
+    public final static int SUBTRACT = 5;               // a := b - c
+    public final static int MULTIPLY = 6;               // a := b * c
+    public final static int DIVIDE = 7;                 // a := b / c
+    public final static int MOD = 8;                    // a := b mod c
+    
+    // Arithmetic with the integer c in place of a register
+    public final static int ADD_IMMEDIATE = 9;          // a := b + c
+    public final static int MULTIPLY_IMMEDIATE = 10;    // a := b * c
+    public final static int DIVIDE_IMMEDIATE = 11;      // a := b / c
+    public final static int MOD_IMMEDIATE = 12;         // a := b mod c
+    
+    public final static int EQUAL = 13;                 // a := 1 if b = c, 0 otherwise
+    public final static int NOT_EQUAL = 14;             // a := 1 if b <> c, 0 otherwise
+    public final static int LESS = 15;                  // a := 1 if b < c, 0 otherwise
+    public final static int GREATER = 16;               // a := 1 if b > c, 0 otherwise
+    public final static int LESS_OR_EQUAL = 17;         // a := 1 if b <= c, 0 otherwise
+    public final static int GREATER_OR_EQUAL = 18;      // a := 1 if b >= c, 0 otherwise
+    
+    public final static int JUMP_EQUAL = 19;            // jump to c if a = b
+    public final static int JUMP_NOT_EQUAL = 20;        // jump to c if a <> b
+    public final static int JUMP_LESS = 21;             // jump to c if a < b
+    public final static int JUMP_GREATER = 22;          // jump to c if a > b
+    public final static int JUMP_LESS_OR_EQUAL = 23;    // jump to c if a <= b
+    public final static int JUMP_GREATER_OR_EQUAL = 24; // jump to c if a >= b
+    
+    // Jumps comparing against the integer b in place of a register
+    public final static int JUMP_EQUAL_IMMEDIATE = 25;
+    public final static int JUMP_NOT_EQUAL_IMMEDIATE = 26;
+    public final static int JUMP_LESS_IMMEDIATE = 27;
+    public final static int JUMP_GREATER_IMMEDIATE = 28;
+    public final static int JUMP_LESS_OR_EQUAL_IMMEDIATE = 29;
+    public final static int JUMP_GREATER_OR_EQUAL_IMMEDIATE = 30;
+    
+    public final static int JUMP = 31;                  // jump to a
+    public final static int JUMP_IF_ZERO = 32;          // jump to b if a = 0
+    public final static int JUMP_IF_NOT_ZERO = 33;      // jump to b if a <> 0
+    
+    public final static int CALL = 34;                  // a := procedures[b](c, c + 1, ...)
+    public final static int CALL_MEMOIZED = 35;         // CALL, remembering values by arguments
+    public final static int RETURN = 36;                // return register 0 to the caller
+    public final static int WRITE = 37;                 // write the integer a
+    public final static int WRITE_BOOLEAN = 38;         // write the boolean a
+    public final static int CONSUME_FUEL = 39;          // consume fuel for a loop iteration
+    public final static int FAIL = 40;                  // report a call to a bodiless header
+    public final static int HALT = 41;                  // end execution
+    
+    // Names of the opcodes, indexed by opcode
+    private final static String[] NAMES = {"MOVE", "LOAD_CONSTANT", "LOAD_GLOBAL",
+        "STORE_GLOBAL", "ADD", "SUBTRACT", "MULTIPLY", "DIVIDE", "MOD", "ADD_IMMEDIATE",
+        "MULTIPLY_IMMEDIATE", "DIVIDE_IMMEDIATE", "MOD_IMMEDIATE", "EQUAL", "NOT_EQUAL",
+        "LESS", "GREATER", "LESS_OR_EQUAL", "GREATER_OR_EQUAL", "JUMP_EQUAL", "JUMP_NOT_EQUAL",
+        "JUMP_LESS", "JUMP_GREATER", "JUMP_LESS_OR_EQUAL", "JUMP_GREATER_OR_EQUAL",
+        "JUMP_EQUAL_IMMEDIATE", "JUMP_NOT_EQUAL_IMMEDIATE", "JUMP_LESS_IMMEDIATE",
+        "JUMP_GREATER_IMMEDIATE", "JUMP_LESS_OR_EQUAL_IMMEDIATE",
+        "JUMP_GREATER_OR_EQUAL_IMMEDIATE", "JUMP", "JUMP_IF_ZERO", "JUMP_IF_NOT_ZERO", "CALL",
+        "CALL_MEMOIZED", "RETURN", "WRITE", "WRITE_BOOLEAN", "CONSUME_FUEL", "FAIL", "HALT"};
+    
+    /**
+     * Returns the opcode of an arithmetic operator
+     *
+     * @precondition The operator is one of +, -, *, /, and mod.
+     *
+     * @param operator  the arithmetic operator string
+     * @return the opcode computing the operation
+     */
+    public static int fromArithmetic(String operator)
+    {
+        int opcode = -1;
+        
+        switch (operator)
+        {
+            case ("+"):
+                opcode = Bytecode.ADD;
+                break;
+            case ("-"):
+                opcode = Bytecode.SUBTRACT;
+                break;
+            case ("*"):
+                opcode = Bytecode.MULTIPLY;
+                break;
+            case ("/"):
+                opcode = Bytecode.DIVIDE;
+                break;
+            case ("mod"):
+                opcode = Bytecode.MOD;
+                break;
+        }
+        
+        return opcode;
+    } // public static int fromArithmetic
+    
+    /**
+     * Returns the opcode of a relative operator
+     *
+     * @precondition The operator is one of =, <>, <, >, <=, and >=.
+     *
+     * @param operator  the relative operator string
+     * @return the opcode computing the comparison as 1 or 0
+     */
+    public static int fromRelative(String operator)
+    {
+        int opcode = -1;
+        
+        switch (operator)
+        {
+            case ("="):
+                opcode = Bytecode.EQUAL;
+                break;
+            case ("<>"):
+                opcode = Bytecode.NOT_EQUAL;
+                break;
+            case ("<"):
+                opcode = Bytecode.LESS;
+                break;
+            case (">"):
+                opcode = Bytecode.GREATER;
+                break;
+            case ("<="):
+                opcode = Bytecode.LESS_OR_EQUAL;
+                break;
+            case (">="):
+                opcode = Bytecode.GREATER_OR_EQUAL;
+                break;
+        }
+        
+        return opcode;
+    } // public static int fromRelative
+    
+    /**
+     * Returns the opcode of the jump taken when a comparison holds or when it fails
+     *
+     * @precondition The comparison is one of EQUAL through GREATER_OR_EQUAL.
+     *
+     * @param comparison    the opcode of the comparison
+     * @param holds         true to jump when the comparison holds, false to jump when it fails
+     * @return the opcode jumping if the comparison, or the opposite comparison, holds
+     */
+    public static int jumpIf(int comparison, boolean holds)
+    {
+        int opcode = -1;
+        
+        switch (comparison)
+        {
+            case (Bytecode.EQUAL):
+                opcode = holds ? Bytecode.JUMP_EQUAL : Bytecode.JUMP_NOT_EQUAL;
+                break;
+            case (Bytecode.NOT_EQUAL):
+                opcode = holds ? Bytecode.JUMP_NOT_EQUAL : Bytecode.JUMP_EQUAL;
+                break;
+            case (Bytecode.LESS):
+                opcode = holds ? Bytecode.JUMP_LESS : Bytecode.JUMP_GREATER_OR_EQUAL;
+                break;
+            case (Bytecode.GREATER):
+                opcode = holds ? Bytecode.JUMP_GREATER : Bytecode.JUMP_LESS_OR_EQUAL;
+                break;
+            case (Bytecode.LESS_OR_EQUAL):
+                opcode = holds ? Bytecode.JUMP_LESS_OR_EQUAL : Bytecode.JUMP_GREATER;
+                break;
+            case (Bytecode.GREATER_OR_EQUAL):
+                opcode = holds ? Bytecode.JUMP_GREATER_OR_EQUAL : Bytecode.JUMP_LESS;
+                break;
+        }
+        
+        return opcode;
+    } // public static int jumpIf
+    
+    /**
+     * Returns the opcode that takes an integer in place of the register of its last operand
+     *
+     * @param opcode    the opcode of an arithmetic operation or a jump on a comparison
+     * @return the opcode taking an immediate operand, or -1 if there is none
+     */
+    public static int withImmediate(int opcode)
+    {
+        int immediate = -1;
+        
+        switch (opcode)
+        {
+            case (Bytecode.ADD):
+                immediate = Bytecode.ADD_IMMEDIATE;
+                break;
+            case (Bytecode.MULTIPLY):
+                immediate = Bytecode.MULTIPLY_IMMEDIATE;
+                break;
+            case (Bytecode.DIVIDE):
+                immediate = Bytecode.DIVIDE_IMMEDIATE;
+                break;
+            case (Bytecode.MOD):
+                immediate = Bytecode.MOD_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_EQUAL):
+                immediate = Bytecode.JUMP_EQUAL_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_NOT_EQUAL):
+                immediate = Bytecode.JUMP_NOT_EQUAL_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_LESS):
+                immediate = Bytecode.JUMP_LESS_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_GREATER):
+                immediate = Bytecode.JUMP_GREATER_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_LESS_OR_EQUAL):
+                immediate = Bytecode.JUMP_LESS_OR_EQUAL_IMMEDIATE;
+                break;
+            case (Bytecode.JUMP_GREATER_OR_EQUAL):
+                immediate = Bytecode.JUMP_GREATER_OR_EQUAL_IMMEDIATE;
+                break;
+        }
+        
+        return immediate;
+    } // public static int withImmediate
+    
+    /**
+     * Returns the name of an opcode
+     *
+     * @param opcode    the opcode
+     * @return the name of the opcode
+     */
+    public static String getName(int opcode)
+    {
+        return Bytecode.NAMES[opcode];
+    }
+} // public class Bytecode
@@ -0,0 +1,677 @@
+package vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ast.ArithmeticOperator;
+import ast.Assignment;
+import ast.Block;
+import ast.Expression;
+import ast.ForToDo;
+import ast.IfThen;
+import ast.Literal;
+import ast.ProcedureCall;
+import ast.ProcedureDeclaration;
+import ast.Program;
+import ast.RelativeOperator;
+import ast.SemanticErrorException;
+import ast.Statement;
+import ast.Variable;
+import ast.WhileDo;
+import ast.Writeln;
+import environment.Resolver;
+import optimizer.TreeAnalysis;
+
+/**
+ * BytecodeCompiler compiles a program to bytecode for the virtual machine.
+ *
+ * Variables are resolved to slots as when the program is executed. Within a procedure,
+ * each local variable lives in the register of its local slot, and globals are loaded into
+ * and stored from temporary registers. Within the main program, every variable lives in the
+ * register of its slot, since the registers of the bottom frame are the global slots.
+ * Temporary registers are allocated as a stack above the variables and released
+ * after each statement.
+ *
+ * Operands are evaluated in the same order as by the interpreter. An operand held in the
+ * register of a global is copied before evaluating a later operand that calls a procedure,
+ * which may assign the global.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class BytecodeCompiler
+{
+    private final static int INITIAL_CODE_SIZE = 64;    // ints of code allocated at first
+    
+    private Map<Integer, Integer> constantIndices;      // the pool index of each constant
+    private List<Integer> constants;                    // the constant pool
+    private Map<ProcedureDeclaration, Integer> procedureIndices;   // the table index of each
+    
+    // The procedure being compiled
+    private int[] layout;               // the frame layout, or null in the main program
+    private int[] code;                 // the instructions emitted so far
+    private int codeSize;               // the number of ints of code emitted
+    private int nextRegister;           // the lowest free temporary register
+    private int numRegisters;           // the number of registers used so far
+    
+    /**
+     * Compiles a program.
+     *
+     * @param program   the program to compile
+     * @return the compiled program
+     * @throws SemanticErrorException if the program contains a node that cannot be compiled
+     */
+    public BytecodeProgram compile(Program program) throws SemanticErrorException
+    {
+        int numSlots = Resolver.resolve(program.getDeclarationEnvironment());
+        
+        constantIndices = new HashMap<Integer, Integer>();
+        constants = new ArrayList<Integer>();
+        
+        // Number every procedure before compiling any body, since bodies may call each other
+        List<ProcedureDeclaration> procedureList = new ArrayList<ProcedureDeclaration>(
+                program.getDeclarationEnvironment().getProcedureSet());
+        procedureIndices = new HashMap<ProcedureDeclaration, Integer>();
+        
+        for (ProcedureDeclaration procedure : procedureList)
+        {
+            procedureIndices.put(procedure, procedureIndices.size());
+        }
+        
+        BytecodeProcedure[] procedures = new BytecodeProcedure[procedureList.size()];
+        
+        for (int i = 0; i < procedures.length; i++)
+        {
+            procedures[i] = compileProcedure(procedureList.get(i));
+        }
+        
+        // The main program finds every variable in the register of its slot
+        layout = null;
+        this.begin(numSlots);
+        this.compile(program.getBody());
+        this.emit(Bytecode.HALT, 0, 0, 0);
+        
+        BytecodeProcedure main = new BytecodeProcedure("main", this.finish(), numSlots,
+                numRegisters, null, new boolean[0]);
+        
+        int[] pool = new int[constants.size()];
+        
+        for (int i = 0; i < pool.length; i++)
+        {
+            pool[i] = constants.get(i);
+        }
+        
+        return new BytecodeProgram(main, procedures, pool);
+    } // public BytecodeProgram compile(Program)
+    
+    /**
+     * Compiles a procedure.
+     * A bodiless header compiles to a single FAIL instruction, since calling it is an error.
+     *
+     * @param procedure the procedure to compile
+     * @return the compiled procedure
+     * @throws SemanticErrorException if the body cannot be compiled
+     */
+    private BytecodeProcedure compileProcedure(ProcedureDeclaration procedure)
+            throws SemanticErrorException
+    {
+        List<Variable> parameters = procedure.getParameters();
+        boolean[] booleanParameters = new boolean[parameters.size()];
+        
+        for (int i = 0; i < booleanParameters.length; i++)
+        {
+            booleanParameters[i] = parameters.get(i).getEvaluationType().equals(Boolean.class);
+        }
+        
+        int numLocals = 1 + parameters.size();
+        layout = null;
+        
+        if (procedure.isHeader())
+        {
+            this.begin(numLocals);
+            this.emit(Bytecode.FAIL, 0, 0, 0);
+        }
+        else
+        {
+            numLocals = procedure.getFrameSize();
+            layout = procedure.getFrameLayout();
+            
+            this.begin(numLocals);
+            this.compile(procedure.getBody());
+            this.emit(Bytecode.RETURN, 0, 0, 0);
+        }
+        
+        return new BytecodeProcedure(procedure.getIdentifier(), this.finish(), numLocals,
+                numRegisters, procedure.getMemoTable(), booleanParameters);
+    } // private BytecodeProcedure compileProcedure
+    
+    /**
+     * Begins compiling a procedure or the main program.
+     *
+     * @postcondition No code has been emitted and every register above the locals is free.
+     *
+     * @param numLocals the number of registers holding variables
+     */
+    private void begin(int numLocals)
+    {
+        code = new int[BytecodeCompiler.INITIAL_CODE_SIZE];
+        codeSize = 0;
+        nextRegister = numLocals;
+        numRegisters = numLocals;
+    }
+    
+    /**
+     * Finishes compiling a procedure or the main program
+     *
+     * @return the code emitted, trimmed to its size
+     */
+    private int[] finish()
+    {
+        return Arrays.copyOf(code, codeSize);
+    }
+    
+    /**
+     * Emits an instruction.
+     *
+     * @param opcode    the opcode
+     * @param a         the first operand
+     * @param b         the second operand
+     * @param c         the third operand
+     * @return the position of the instruction
+     */
+    private int emit(int opcode, int a, int b, int c)
+    {
+        if (codeSize + Bytecode.WIDTH > code.length)
+        {
+            code = Arrays.copyOf(code, 2 * code.length);
+        }
+        
+        int position = codeSize;
+        
+        code[codeSize++] = opcode;
+        code[codeSize++] = a;
+        code[codeSize++] = b;
+        code[codeSize++] = c;
+        
+        return position;
+    } // private int emit
+    
+    /**
+     * Sets the target of an emitted jump.
+     *
+     * @param jump      the position of the jump
+     * @param target    the position to jump to
+     */
+    private void setTarget(int jump, int target)
+    {
+        int operand = 3;
+        
+        if (code[jump] == Bytecode.JUMP)
+        {
+            operand = 1;
+        }
+        else if (code[jump] == Bytecode.JUMP_IF_ZERO || code[jump] == Bytecode.JUMP_IF_NOT_ZERO)
+        {
+            operand = 2;
+        }
+        
+        code[jump + operand] = target;
+    } // private void setTarget
+    
+    /**
+     * Allocates a temporary register
+     *
+     * @return the lowest free register
+     */
+    private int allocateRegister()
+    {
+        int register = nextRegister++;
+        numRegisters = Math.max(numRegisters, nextRegister);
+        
+        return register;
+    }
+    
+    /**
+     * Returns the index of a constant in the constant pool, adding it if necessary
+     *
+     * @param value the constant
+     * @return the pool index
+     */
+    private int findConstant(int value)
+    {
+        Integer index = constantIndices.get(value);
+        
+        if (index == null)
+        {
+            index = constants.size();
+            constants.add(value);
+            constantIndices.put(value, index);
+        }
+        
+        return index;
+    } // private int findConstant
+    
+    /**
+     * Returns the register holding a variable
+     *
+     * @param variable  the variable
+     * @return the register of the variable, or -1 if it is a global within a procedure
+     */
+    private int findRegister(Variable variable)
+    {
+        int register = variable.getSlot();
+        
+        if (layout != null)
+        {
+            register = layout[variable.getSlot()];
+        }
+        
+        return register;
+    } // private int findRegister
+    
+    /**
+     * Compiles a statement.
+     *
+     * @postcondition Every temporary register allocated by the statement is free again.
+     *
+     * @param statement the statement to compile
+     * @throws SemanticErrorException if the statement cannot be compiled
+     */
+    private void compile(Statement statement) throws SemanticErrorException
+    {
+        int firstTemporary = nextRegister;
+        
+        if (statement instanceof Block)
+        {
+            for (Statement child : ((Block) statement).getStatements())
+            {
+                compile(child);
+            }
+        }
+        
+        else if (statement instanceof Assignment)
+        {
+            Assignment assignment = (Assignment) statement;
+            compileAssignment(assignment.getVariable(), assignment.getExpression());
+        }
+        
+        else if (statement instanceof Writeln)
+        {
+            Expression expression = ((Writeln) statement).getExpression();
+            int register = compileExpression(expression);
+            
+            if (expression.getEvaluationType().equals(Boolean.class))
+            {
+                emit(Bytecode.WRITE_BOOLEAN, register, 0, 0);
+            }
+            else
+            {
+                emit(Bytecode.WRITE, register, 0, 0);
+            }
+        } // else if
+        
+        else if (statement instanceof IfThen)
+        {
+            IfThen ifThen = (IfThen) statement;
+            int exit = compileJump(ifThen.getCondition(), false);
+            
+            compile(ifThen.getThenStatement());
+            setTarget(exit, codeSize);
+        }
+        
+        else if (statement instanceof WhileDo)
+        {
+            WhileDo whileDo = (WhileDo) statement;
+            
+            // Test the condition after the body, so that each iteration takes one jump
+            int entry = emit(Bytecode.JUMP, 0, 0, 0);
+            int start = codeSize;
+            
+            emit(Bytecode.CONSUME_FUEL, 0, 0, 0);
+            compile(whileDo.getDoStatement());
+            setTarget(entry, codeSize);
+            setTarget(compileJump(whileDo.getCondition(), true), start);
+        }
+        
+        else if (statement instanceof ForToDo)
+        {
+            compileForToDo((ForToDo) statement);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile statement " + statement;
+            throw new SemanticErrorException(message);
+        }
+        
+        nextRegister = firstTemporary;
+    } // private void compile(Statement)
+    
+    /**
+     * Compiles the assignment of an expression to a variable.
+     *
+     * @param variable      the assigned variable
+     * @param expression    the assigned expression
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private void compileAssignment(Variable variable, Expression expression)
+            throws SemanticErrorException
+    {
+        int register = findRegister(variable);
+        
+        if (register >= 0)
+        {
+            compileInto(expression, register);
+        }
+        else
+        {
+            emit(Bytecode.STORE_GLOBAL, variable.getSlot(), compileExpression(expression), 0);
+        }
+    } // private void compileAssignment
+    
+    /**
+     * Compiles a for loop, which like the interpreter re-evaluates the upper bound
+     * before every iteration.
+     * As for a while loop, the index is compared against the upper bound after the body.
+     *
+     * @param forToDo   the for loop to compile
+     * @throws SemanticErrorException if a child of the loop cannot be compiled
+     */
+    private void compileForToDo(ForToDo forToDo) throws SemanticErrorException
+    {
+        Variable index = forToDo.getIndex();
+        int firstTemporary = nextRegister;
+        
+        compileAssignment(index, forToDo.getLowerBound());
+        
+        int entry = emit(Bytecode.JUMP, 0, 0, 0);
+        int start = codeSize;
+        
+        emit(Bytecode.CONSUME_FUEL, 0, 0, 0);
+        compile(forToDo.getDoStatement());
+        
+        // Increment the index
+        int register = findRegister(index);
+        
+        if (register >= 0)
+        {
+            emit(Bytecode.ADD_IMMEDIATE, register, register, 1);
+        }
+        else
+        {
+            register = allocateRegister();
+            emit(Bytecode.LOAD_GLOBAL, register, index.getSlot(), 0);
+            emit(Bytecode.ADD_IMMEDIATE, register, register, 1);
+            emit(Bytecode.STORE_GLOBAL, index.getSlot(), register, 0);
+            nextRegister = firstTemporary;
+        }
+        
+        // Repeat while the index is at most the upper bound
+        setTarget(entry, codeSize);
+        setTarget(compileComparisonJump(Bytecode.LESS_OR_EQUAL, index, forToDo.getUpperBound(),
+                true), start);
+    } // private void compileForToDo
+    
+    /**
+     * Compiles a jump taken when a condition is true or when it is false.
+     * A relative operator compiles to a single jump on the comparison or its opposite.
+     *
+     * @param condition the boolean condition
+     * @param holds     true to jump when the condition is true, false to jump when it is false
+     * @return the position of the jump, whose target must be set
+     * @throws SemanticErrorException if the condition cannot be compiled
+     */
+    private int compileJump(Expression condition, boolean holds) throws SemanticErrorException
+    {
+        int firstTemporary = nextRegister;
+        int position;
+        
+        if (condition instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) condition;
+            position = compileComparisonJump(Bytecode.fromRelative(operator.getOperator()),
+                    operator.getOperand1(), operator.getOperand2(), holds);
+        }
+        else
+        {
+            int opcode = holds ? Bytecode.JUMP_IF_NOT_ZERO : Bytecode.JUMP_IF_ZERO;
+            position = emit(opcode, compileExpression(condition), 0, 0);
+        }
+        
+        nextRegister = firstTemporary;
+        
+        return position;
+    } // private int compileJump
+    
+    /**
+     * Compiles a jump taken when a comparison holds or when it fails.
+     * Comparing against an integer literal compiles to a jump with an immediate operand.
+     *
+     * @param comparison    the opcode of the comparison
+     * @param operand1      the first operand
+     * @param operand2      the second operand
+     * @param holds         true to jump when the comparison holds, false to jump when it fails
+     * @return the position of the jump, whose target must be set
+     * @throws SemanticErrorException if an operand cannot be compiled
+     */
+    private int compileComparisonJump(int comparison, Expression operand1, Expression operand2,
+            boolean holds) throws SemanticErrorException
+    {
+        int opcode = Bytecode.jumpIf(comparison, holds);
+        int position;
+        
+        if (operand2 instanceof Literal)
+        {
+            position = emit(Bytecode.withImmediate(opcode), compileExpression(operand1),
+                    (Integer) ((Literal) operand2).getValue(), 0);
+        }
+        else
+        {
+            int register1 = compileOperand(operand1, operand2);
+            position = emit(opcode, register1, compileExpression(operand2), 0);
+        }
+        
+        return position;
+    } // private int compileComparisonJump
+    
+    /**
+     * Compiles the first operand of a binary operation.
+     * A global held in a register is copied to a temporary register if the second operand
+     * calls a procedure, so that the operand keeps the value it had when it was read.
+     *
+     * @param operand   the first operand
+     * @param later     the second operand, evaluated after the first
+     * @return the register holding the value of the first operand
+     * @throws SemanticErrorException if the operand cannot be compiled
+     */
+    private int compileOperand(Expression operand, Expression later) throws SemanticErrorException
+    {
+        int register = compileExpression(operand);
+        
+        if (layout == null && operand instanceof Variable 
+                && TreeAnalysis.containsProcedureCall(later))
+        {
+            int copy = allocateRegister();
+            emit(Bytecode.MOVE, copy, register, 0);
+            register = copy;
+        }
+        
+        return register;
+    } // private int compileOperand
+    
+    /**
+     * Compiles an expression into whichever register is convenient.
+     * A variable held in a register is not copied.
+     *
+     * @param expression    the expression to compile
+     * @return the register holding the value of the expression
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private int compileExpression(Expression expression) throws SemanticErrorException
+    {
+        int register = -1;
+        
+        if (expression instanceof Variable)
+        {
+            register = findRegister((Variable) expression);
+        }
+        
+        if (register < 0)
+        {
+            register = allocateRegister();
+            compileInto(expression, register);
+        }
+        
+        return register;
+    } // private int compileExpression
+    
+    /**
+     * Compiles an expression into the provided register.
+     * A boolean expression computes 1 for true and 0 for false.
+     *
+     * @postcondition Every temporary register allocated by the expression is free again.
+     *
+     * @param expression    the expression to compile
+     * @param target        the register to hold the value
+     * @throws SemanticErrorException if the expression cannot be compiled
+     */
+    private void compileInto(Expression expression, int target) throws SemanticErrorException
+    {
+        int firstTemporary = nextRegister;
+        
+        if (expression instanceof Literal)
+        {
+            Object value = ((Literal) expression).getValue();
+            int constant = 0;
+            
+            if (value instanceof Boolean)
+            {
+                constant = (Boolean) value ? 1 : 0;
+            }
+            else
+            {
+                constant = (Integer) value;
+            }
+            
+            emit(Bytecode.LOAD_CONSTANT, target, findConstant(constant), 0);
+        } // if
+        
+        else if (expression instanceof Variable)
+        {
+            Variable variable = (Variable) expression;
+            int register = findRegister(variable);
+            
+            if (register < 0)
+            {
+                emit(Bytecode.LOAD_GLOBAL, target, variable.getSlot(), 0);
+            }
+            else if (register != target)
+            {
+                emit(Bytecode.MOVE, target, register, 0);
+            }
+        } // else if
+        
+        else if (expression instanceof ArithmeticOperator)
+        {
+            compileArithmeticOperator((ArithmeticOperator) expression, target);
+        }
+        
+        else if (expression instanceof RelativeOperator)
+        {
+            RelativeOperator operator = (RelativeOperator) expression;
+            int register1 = compileOperand(operator.getOperand1(), operator.getOperand2());
+            int register2 = compileExpression(operator.getOperand2());
+            
+            emit(Bytecode.fromRelative(operator.getOperator()), target, register1, register2);
+        }
+        
+        else if (expression instanceof ProcedureCall)
+        {
+            compileProcedureCall((ProcedureCall) expression, target);
+        }
+        
+        else
+        {
+            String message = "Error: cannot compile expression " + expression;
+            throw new SemanticErrorException(message);
+        }
+        
+        nextRegister = firstTemporary;
+    } // private void compileInto
+    
+    /**
+     * Compiles an arithmetic operator into the provided register.
+     * An operation on an integer literal second operand compiles to an instruction with 
+     * an immediate operand, subtraction becoming the addition of the negation.
+     *
+     * @param operator  the arithmetic operator to compile
+     * @param target    the register to hold the value
+     * @throws SemanticErrorException if an operand cannot be compiled
+     */
+    private void compileArithmeticOperator(ArithmeticOperator operator, int target)
+            throws SemanticErrorException
+    {
+        int opcode = Bytecode.fromArithmetic(operator.getOperator());
+        Expression operand2 = operator.getOperand2();
+        
+        if (operand2 instanceof Literal)
+        {
+            int constant = (Integer) ((Literal) operand2).getValue();
+            
+            // Subtracting wraps exactly like adding the negation, even for the least integer
+            if (opcode == Bytecode.SUBTRACT)
+            {
+                opcode = Bytecode.ADD;
+                constant = -constant;
+            }
+            
+            emit(Bytecode.withImmediate(opcode), target, 
+                    compileExpression(operator.getOperand1()), constant);
+        }
+        else
+        {
+            int register1 = compileOperand(operator.getOperand1(), operand2);
+            int register2 = compileExpression(operand2);
+            
+            emit(opcode, target, register1, register2);
+        }
+    } // private void compileArithmeticOperator
+    
+    /**
+     * Compiles a procedure call into the provided register.
+     * The arguments are evaluated in order into consecutive temporary registers,
+     * which the call copies into the parameter registers of the new frame.
+     *
+     * @param call      the procedure call to compile
+     * @param target    the register to hold the return value
+     * @throws SemanticErrorException if an argument cannot be compiled
+     */
+    private void compileProcedureCall(ProcedureCall call, int target)
+            throws SemanticErrorException
+    {
+        List<Expression> arguments = call.getArguments();
+        int firstArgument = nextRegister;
+        
+        for (int i = 0; i < arguments.size(); i++)
+        {
+            allocateRegister();
+        }
+        
+        for (int i = 0; i < arguments.size(); i++)
+        {
+            compileInto(arguments.get(i), firstArgument + i);
+        }
+        
+        int opcode = Bytecode.CALL;
+        
+        if (call.getProcedure().isMemoized())
+        {
+            opcode = Bytecode.CALL_MEMOIZED;
+        }
+        
+        emit(opcode, target, procedureIndices.get(call.getProcedure()), firstArgument);
+    } // private void compileProcedureCall
+} // public class BytecodeCompiler
@@ -0,0 +1,138 @@
+package vm;
+
+import environment.MemoTable;
+
+/**
+ * BytecodeProcedure defines a procedure compiled to bytecode, or the main program.
+ *
+ * The registers of a procedure frame begin with its locals, laid out as by the procedure
+ * declaration: the return variable in register 0, the parameters in order, and then the
+ * non-parameter locals. The remaining registers hold temporary values. The registers of
+ * the main program begin with the global slots.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class BytecodeProcedure
+{
+    private String identifier;          // the procedure identifier
+    private int[] code;                 // the encoded instructions
+    private int numLocals;              // the registers cleared to 0 on each call
+    private int numRegisters;           // the registers of each frame
+    private int numParameters;          // the arguments of each call
+    private MemoTable memoTable;        // remembered return values, or null if not memoized
+    private boolean[] booleanParameters;    // whether each parameter holds a boolean
+    
+    /**
+     * Constructs a compiled procedure.
+     *
+     * @param identifier        the procedure identifier
+     * @param code              the encoded instructions
+     * @param numLocals         the number of local registers
+     * @param numRegisters      the number of local and temporary registers
+     * @param memoTable         the remembered return values, or null if not memoized
+     * @param booleanParameters whether each parameter holds a boolean, in order
+     */
+    public BytecodeProcedure(String identifier, int[] code, int numLocals, int numRegisters,
+            MemoTable memoTable, boolean[] booleanParameters)
+    {
+        this.identifier = identifier;
+        this.code = code;
+        this.numLocals = numLocals;
+        this.numRegisters = numRegisters;
+        this.numParameters = booleanParameters.length;
+        this.memoTable = memoTable;
+        this.booleanParameters = booleanParameters;
+    }
+    
+    /**
+     * Returns the procedure identifier
+     *
+     * @return the identifier
+     */
+    public String getIdentifier()
+    {
+        return this.identifier;
+    }
+    
+    /**
+     * Returns the encoded instructions of the procedure
+     *
+     * @return the code, Bytecode.WIDTH ints per instruction
+     */
+    public int[] getCode()
+    {
+        return this.code;
+    }
+    
+    /**
+     * Returns the number of local registers, which start at 0 on each call
+     *
+     * @return the number of local registers
+     */
+    public int getNumLocals()
+    {
+        return this.numLocals;
+    }
+    
+    /**
+     * Returns the number of registers of each frame of the procedure
+     *
+     * @return the number of local and temporary registers
+     */
+    public int getNumRegisters()
+    {
+        return this.numRegisters;
+    }
+    
+    /**
+     * Returns the number of parameters, which are held in registers 1 onwards
+     *
+     * @return the number of parameters
+     */
+    public int getNumParameters()
+    {
+        return this.numParameters;
+    }
+    
+    /**
+     * Returns the memo table of the procedure
+     *
+     * @return the remembered return values, or null if the procedure is not memoized
+     */
+    public MemoTable getMemoTable()
+    {
+        return this.memoTable;
+    }
+    
+    /**
+     * Returns whether a parameter holds a boolean, which memo table keys box as a Boolean
+     *
+     * @param index the index of the parameter
+     * @return true if the parameter holds a boolean, false if it holds an integer
+     */
+    public boolean isBooleanParameter(int index)
+    {
+        return this.booleanParameters[index];
+    }
+    
+    /**
+     * Returns a disassembly of the procedure
+     *
+     * @return the identifier and register counts, followed by one line per instruction
+     */
+    @Override
+    public String toString()
+    {
+        String s = "Procedure " + identifier + ", Locals = " + numLocals;
+        s += ", Registers = " + numRegisters;
+        
+        for (int pc = 0; pc < code.length; pc += Bytecode.WIDTH)
+        {
+            s += "\n\t" + pc + ": " + Bytecode.getName(code[pc]);
+            s += " " + code[pc + 1] + " " + code[pc + 2] + " " + code[pc + 3];
+        }
+        
+        return s;
+    } // public String toString
+} // public class BytecodeProcedure
@@ -0,0 +1,82 @@
+package vm;
+
+import java.util.Arrays;
+
+/**
+ * BytecodeProgram defines a program compiled to bytecode: the main program,
+ * the procedure table indexed by CALL instructions, and the constant pool indexed by
+ * LOAD_CONSTANT instructions.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class BytecodeProgram
+{
+    private BytecodeProcedure main;             // the main program
+    private BytecodeProcedure[] procedures;     // the procedure table
+    private int[] constants;                    // the constant pool
+    
+    /**
+     * Constructs a compiled program.
+     *
+     * @param main          the main program, whose locals are the global slots
+     * @param procedures    the procedure table
+     * @param constants     the constant pool
+     */
+    public BytecodeProgram(BytecodeProcedure main, BytecodeProcedure[] procedures,
+            int[] constants)
+    {
+        this.main = main;
+        this.procedures = procedures;
+        this.constants = constants;
+    }
+    
+    /**
+     * Returns the main program
+     *
+     * @return the compiled main program
+     */
+    public BytecodeProcedure getMain()
+    {
+        return this.main;
+    }
+    
+    /**
+     * Returns the procedure table
+     *
+     * @return the compiled procedures, indexed by CALL instructions
+     */
+    public BytecodeProcedure[] getProcedures()
+    {
+        return this.procedures;
+    }
+    
+    /**
+     * Returns the constant pool
+     *
+     * @return the integer constants, indexed by LOAD_CONSTANT instructions
+     */
+    public int[] getConstants()
+    {
+        return this.constants;
+    }
+    
+    /**
+     * Returns a disassembly of the program
+     *
+     * @return the constant pool followed by the main program and each procedure by index
+     */
+    @Override
+    public String toString()
+    {
+        String s = "Bytecode program\n\tConstants = " + Arrays.toString(constants);
+        s += "\n\t" + main.toString().replaceAll("\n", "\n\t");
+        
+        for (int i = 0; i < procedures.length; i++)
+        {
+            s += "\n\t" + i + " = " + procedures[i].toString().replaceAll("\n", "\n\t");
+        }
+        
+        return s;
+    } // public String toString
+} // public class BytecodeProgram
@@ -0,0 +1,325 @@
+package vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ast.SemanticErrorException;
+import environment.MemoTable;
+import environment.RuntimeEnvironment;
+
+/**
+ * VirtualMachine executes programs compiled to bytecode.
+ *
+ * Every frame holds its registers in one shared int array, the frame of the main program
+ * at the bottom holding the global slots. A call places the frame of the callee just above
+ * the registers of the caller and records the caller on an explicit call stack, so the depth
+ * of recursion is not limited by the Java stack. Execution is a single loop dispatching on
+ * the opcode of each instruction.
+ *
+ * Programs write the same values and consume the same fuel as when executed by
+ * the interpreter.
+ *
+ * @author Jack Hsieh
+ * @version 2026/10/18
+ */
+public class VirtualMachine
+{
+    private final static int INITIAL_REGISTERS = 1024;  // registers allocated at first
+    private final static int INITIAL_DEPTH = 64;        // calls recorded at first
+    
+    /**
+     * Executes a compiled program in a fresh global frame.
+     *
+     * @precondition The provided environment is the global environment.
+     * @postcondition The main program has been executed with every variable starting at 0.
+     *
+     * @param program               the compiled program
+     * @param runtimeEnvironment    the global environment that writes output and limits fuel
+     * @throws SemanticErrorException if a bodiless procedure header is called
+     */
+    public void execute(BytecodeProgram program, RuntimeEnvironment runtimeEnvironment)
+            throws SemanticErrorException
+    {
+        int[] constants = program.getConstants();
+        BytecodeProcedure[] procedures = program.getProcedures();
+        
+        // The executing frame
+        BytecodeProcedure procedure = program.getMain();
+        int[] code = procedure.getCode();
+        int base = 0;
+        int pc = 0;
+        
+        int[] registers = new int[Math.max(VirtualMachine.INITIAL_REGISTERS,
+                2 * procedure.getNumRegisters())];
+        
+        // The call stack: the caller, its base, and the position of the call, by depth
+        int depth = 0;
+        BytecodeProcedure[] callers = new BytecodeProcedure[VirtualMachine.INITIAL_DEPTH];
+        int[] callerBases = new int[VirtualMachine.INITIAL_DEPTH];
+        int[] callPositions = new int[VirtualMachine.INITIAL_DEPTH];
+        List<?>[] memoKeys = new List<?>[VirtualMachine.INITIAL_DEPTH];
+        
+        boolean running = true;
+        
+        while (running)
+        {
+            int a = code[pc + 1];
+            int b = code[pc + 2];
+            int c = code[pc + 3];
+            
+            switch (code[pc])
+            {
+                case (Bytecode.MOVE):
+                    registers[base + a] = registers[base + b];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.LOAD_CONSTANT):
+                    registers[base + a] = constants[b];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.LOAD_GLOBAL):
+                    registers[base + a] = registers[b];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.STORE_GLOBAL):
+                    registers[a] = registers[base + b];
+                    pc += Bytecode.WIDTH;
+                    break;
+                
+                case (Bytecode.ADD):
+                    registers[base + a] = registers[base + b] + registers[base + c];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.SUBTRACT):
+                    registers[base + a] = registers[base + b] - registers[base + c];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.MULTIPLY):
+                    registers[base + a] = registers[base + b] * registers[base + c];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.DIVIDE):
+                    registers[base + a] = registers[base + b] / registers[base + c];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.MOD):
+                    registers[base + a] = registers[base + b] % registers[base + c];
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.ADD_IMMEDIATE):
+                    registers[base + a] = registers[base + b] + c;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.MULTIPLY_IMMEDIATE):
+                    registers[base + a] = registers[base + b] * c;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.DIVIDE_IMMEDIATE):
+                    registers[base + a] = registers[base + b] / c;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.MOD_IMMEDIATE):
+                    registers[base + a] = registers[base + b] % c;
+                    pc += Bytecode.WIDTH;
+                    break;
+                
+                case (Bytecode.EQUAL):
+                    registers[base + a] = registers[base + b] == registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.NOT_EQUAL):
+                    registers[base + a] = registers[base + b] != registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.LESS):
+                    registers[base + a] = registers[base + b] < registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.GREATER):
+                    registers[base + a] = registers[base + b] > registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.LESS_OR_EQUAL):
+                    registers[base + a] = registers[base + b] <= registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.GREATER_OR_EQUAL):
+                    registers[base + a] = registers[base + b] >= registers[base + c] ? 1 : 0;
+                    pc += Bytecode.WIDTH;
+                    break;
+                
+                case (Bytecode.JUMP_EQUAL):
+                    pc = registers[base + a] == registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_NOT_EQUAL):
+                    pc = registers[base + a] != registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_LESS):
+                    pc = registers[base + a] < registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_GREATER):
+                    pc = registers[base + a] > registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_LESS_OR_EQUAL):
+                    pc = registers[base + a] <= registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_GREATER_OR_EQUAL):
+                    pc = registers[base + a] >= registers[base + b] ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_EQUAL_IMMEDIATE):
+                    pc = registers[base + a] == b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_NOT_EQUAL_IMMEDIATE):
+                    pc = registers[base + a] != b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_LESS_IMMEDIATE):
+                    pc = registers[base + a] < b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_GREATER_IMMEDIATE):
+                    pc = registers[base + a] > b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_LESS_OR_EQUAL_IMMEDIATE):
+                    pc = registers[base + a] <= b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_GREATER_OR_EQUAL_IMMEDIATE):
+                    pc = registers[base + a] >= b ? c : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP):
+                    pc = a;
+                    break;
+                case (Bytecode.JUMP_IF_ZERO):
+                    pc = registers[base + a] == 0 ? b : pc + Bytecode.WIDTH;
+                    break;
+                case (Bytecode.JUMP_IF_NOT_ZERO):
+                    pc = registers[base + a] != 0 ? b : pc + Bytecode.WIDTH;
+                    break;
+                
+                case (Bytecode.CALL):
+                case (Bytecode.CALL_MEMOIZED):
+                    BytecodeProcedure callee = procedures[b];
+                    List<Object> key = null;
+                    boolean remembered = false;
+                    
+                    // A memoized procedure returns the remembered value for the same arguments
+                    if (code[pc] == Bytecode.CALL_MEMOIZED)
+                    {
+                        key = new ArrayList<Object>();
+                        
+                        for (int i = 0; i < callee.getNumParameters(); i++)
+                        {
+                            int value = registers[base + c + i];
+                            key.add(callee.isBooleanParameter(i) ? (Object) (value != 0)
+                                    : (Object) value);
+                        }
+                        
+                        MemoTable memoTable = callee.getMemoTable();
+                        
+                        if (memoTable.containsKey(key))
+                        {
+                            Object value = memoTable.get(key);
+                            memoTable.put(key, value);
+                            registers[base + a] = (Integer) value;
+                            pc += Bytecode.WIDTH;
+                            remembered = true;
+                        }
+                    } // if
+                    
+                    if (!remembered)
+                    {
+                        // Record the caller, growing the call stack if necessary
+                        if (depth == callers.length)
+                        {
+                            callers = Arrays.copyOf(callers, 2 * depth);
+                            callerBases = Arrays.copyOf(callerBases, 2 * depth);
+                            callPositions = Arrays.copyOf(callPositions, 2 * depth);
+                            memoKeys = Arrays.copyOf(memoKeys, 2 * depth);
+                        }
+                        
+                        callers[depth] = procedure;
+                        callerBases[depth] = base;
+                        callPositions[depth] = pc;
+                        
+                        if (key != null)
+                        {
+                            memoKeys[depth] = key;
+                        }
+                        
+                        depth++;
+                        
+                        // Place the callee frame above the caller registers
+                        int calleeBase = base + procedure.getNumRegisters();
+                        
+                        if (calleeBase + callee.getNumRegisters() > registers.length)
+                        {
+                            registers = Arrays.copyOf(registers,
+                                    2 * (calleeBase + callee.getNumRegisters()));
+                        }
+                        
+                        // Copy the arguments and clear the other locals, which are few
+                        int numParameters = callee.getNumParameters();
+                        registers[calleeBase] = 0;
+                        
+                        for (int i = 0; i < numParameters; i++)
+                        {
+                            registers[calleeBase + 1 + i] = registers[base + c + i];
+                        }
+                        
+                        for (int i = 1 + numParameters; i < callee.getNumLocals(); i++)
+                        {
+                            registers[calleeBase + i] = 0;
+                        }
+                        
+                        runtimeEnvironment.consumeFuel();
+                        
+                        procedure = callee;
+                        code = callee.getCode();
+                        base = calleeBase;
+                        pc = 0;
+                    } // if
+                    break;
+                
+                case (Bytecode.RETURN):
+                    int returnValue = registers[base];
+                    
+                    depth--;
+                    
+                    if (memoKeys[depth] != null)
+                    {
+                        @SuppressWarnings("unchecked")
+                        List<Object> returnKey = (List<Object>) memoKeys[depth];
+                        procedure.getMemoTable().put(returnKey, returnValue);
+                        memoKeys[depth] = null;
+                    }
+                    
+                    procedure = callers[depth];
+                    code = procedure.getCode();
+                    base = callerBases[depth];
+                    pc = callPositions[depth];
+                    registers[base + code[pc + 1]] = returnValue;
+                    pc += Bytecode.WIDTH;
+                    break;
+                
+                case (Bytecode.WRITE):
+                    runtimeEnvironment.writeInt(registers[base + a]);
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.WRITE_BOOLEAN):
+                    runtimeEnvironment.writeBoolean(registers[base + a] != 0);
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.CONSUME_FUEL):
+                    runtimeEnvironment.consumeFuel();
+                    pc += Bytecode.WIDTH;
+                    break;
+                case (Bytecode.FAIL):
+                    String message = "Error: called bodiless procedure header "
+                            + procedure.getIdentifier();
+                    throw new SemanticErrorException(message);
+                case (Bytecode.HALT):
+                    running = false;
+                    break;
+            } // switch
+        } // while
+    } // public void execute
+} // public class VirtualMachine